@@ -0,0 +1,134 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * 複数の実装を同じ入力で交互に計測し、1回あたりの所要時間と基準の実装に対する速度比を出力するマイクロベンチマーク。
+ * 
+ * <p>最初に{@link #add(String, Operation)}した実装を基準とする。計測は{@link #run()}で、
+ * 全ての実装を1周ずつ{@code rounds}周繰り返す。最初の周はJITコンパイル前の値を含むため、2周目以降の値を用いること。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ * @see MySqlBenchmarks
+ */
+class Benchmark {
+	
+	private final String title;
+	
+	private final int iterations;
+	
+	private final int rounds;
+	
+	private final List<String> names = Lists.newArrayList();
+	
+	private final List<Operation> operations = Lists.newArrayList();
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param title 出力する見出し
+	 * @param iterations 1周あたりの各実装の呼び出し回数
+	 * @param rounds 周回数
+	 * @throws IllegalArgumentException 引数{@code title}に{@code null}を与えた場合、
+	 *  または引数{@code iterations}, {@code rounds}が正の値でない場合
+	 */
+	Benchmark(String title, int iterations, int rounds) {
+		Validate.notNull(title);
+		Validate.isTrue(iterations > 0);
+		Validate.isTrue(rounds > 0);
+		this.title = title;
+		this.iterations = iterations;
+		this.rounds = rounds;
+	}
+	
+	/**
+	 * 計測する実装を追加する。
+	 * 
+	 * @param name 出力する実装名
+	 * @param operation 計測する処理
+	 * @return このインスタンス
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	Benchmark add(String name, Operation operation) {
+		Validate.notNull(name);
+		Validate.notNull(operation);
+		names.add(name);
+		operations.add(operation);
+		return this;
+	}
+	
+	/**
+	 * 計測し、結果を標準出力に出力する。
+	 */
+	void run() {
+		System.out.println(title);
+		long sink = 0;
+		for (int round = 0; round < rounds; round++) {
+			StringBuilder sb = new StringBuilder("  round ").append(round).append(':');
+			long baseline = 0;
+			for (int index = 0; index < operations.size(); index++) {
+				Operation operation = operations.get(index);
+				long start = System.nanoTime();
+				for (int i = 0; i < iterations; i++) {
+					sink += operation.run(i);
+				}
+				long elapsed = System.nanoTime() - start;
+				if (index == 0) {
+					baseline = elapsed;
+				}
+				sb.append(index == 0 ? " " : ", ").append(names.get(index));
+				sb.append(String.format(" %.1f ns/op", (double) elapsed / iterations));
+				if (index > 0) {
+					sb.append(String.format(" (x%.1f)", (double) baseline / elapsed));
+				}
+			}
+			System.out.println(sb);
+		}
+		if (sink == Long.MIN_VALUE) {
+			// 最適化で呼び出しが省かれないよう、結果を使う
+			System.out.println(sink);
+		}
+	}
+	
+	
+	/**
+	 * 計測する処理。
+	 * 
+	 * @version $Id$
+	 * @author daisuke
+	 */
+	interface Operation {
+		
+		/**
+		 * 処理を1回実行する。
+		 * 
+		 * @param iteration 周の中での呼び出し回数（0から始まる）
+		 * @return 最適化で処理が省かれないよう、結果から計算した任意の値
+		 */
+		int run(int iteration);
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.Lists;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.dialect.mysql.Benchmark.Operation;
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifierScanner;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+import org.jiemamy.validator.Validator;
+
+/**
+ * MySQL方言のマイクロベンチマーク。最適化した実装を、以前の実装と比較する。
+ * 
+ * <ul>
+ *   <li>{@link MySqlReservedWordsChecker}と、予約語の{@link List}に対する{@link List#contains(Object)}</li>
+ *   <li>{@link MySqlIdentifierScanner}と、正規表現{@code ^[0-9-a-zA-Z_]+$}との一致</li>
+ *   <li>{@link MySqlValidationSession}による1テーブル編集後の再検証と、{@link MySqlDialect#getValidator()}による
+ *   モデル全体の検証</li>
+ * </ul>
+ * 
+ * <p>単体テストではないため、通常のビルドではコンパイルも実行もしない。
+ * {@code mvn -Pbenchmark test-compile exec:java}で実行する。引数に上記の名前（{@code reserved}, {@code identifier},
+ * {@code session}）を与えた場合は、そのベンチマークのみを実行する。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlBenchmarks {
+	
+	private static final int ROUNDS = 5;
+	
+	/** テーブル名・カラム名を想定した入力. 予約語、非予約語及び無効な識別子を含む */
+	private static final String[] NAMES = {
+		"ID",
+		"NAME",
+		"CREATED_AT",
+		"UPDATED_AT",
+		"T_EMPLOYEE",
+		"DEPT_ID",
+		"select",
+		"ORDER",
+		"T FOO",
+		"STATUS",
+		"VERSION",
+		"ZEROFILL",
+		"customer_shipping_address_line_2",
+		"DESCRIPTION"
+	};
+	
+	private static final DataType INTEGER = new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.INTEGER));
+	
+	
+	/**
+	 * ベンチマークを実行する。
+	 * 
+	 * @param args 実行するベンチマークの名前. 省略した場合は全て
+	 */
+	public static void main(String[] args) {
+		List<String> targets = Arrays.asList(args);
+		if (targets.isEmpty() || targets.contains("reserved")) {
+			reservedWords().run();
+		}
+		if (targets.isEmpty() || targets.contains("identifier")) {
+			identifiers().run();
+		}
+		if (targets.isEmpty() || targets.contains("session")) {
+			validationSession().run();
+		}
+	}
+	
+	private static JiemamyContext contextOf(List<JmTable> tables) {
+		JiemamyContext context = new JiemamyContext(SqlFacet.PROVIDER);
+		for (JmTable table : tables) {
+			context.add(table);
+		}
+		return context;
+	}
+	
+	private static Benchmark identifiers() {
+		final Pattern pattern = Pattern.compile("^[0-9-a-zA-Z_]+$");
+		return new Benchmark("unquoted identifier check", 2000000, ROUNDS).add("regex", new Operation() {
+			
+			public int run(int iteration) {
+				return pattern.matcher(NAMES[iteration % NAMES.length]).matches() ? 1 : 0;
+			}
+		}).add("MySqlIdentifierScanner", new Operation() {
+			
+			public int run(int iteration) {
+				return MySqlIdentifierScanner.isValidUnquoted(NAMES[iteration % NAMES.length]) ? 1 : 0;
+			}
+		});
+	}
+	
+	private static Benchmark reservedWords() {
+		final MySqlReservedWordsChecker checker = new MySqlReservedWordsChecker();
+		final List<String> list = Arrays.asList(MySqlReservedWordsChecker.getReservedWords());
+		return new Benchmark("reserved word lookup", 2000000, ROUNDS).add("List.contains", new Operation() {
+			
+			public int run(int iteration) {
+				return list.contains(NAMES[iteration % NAMES.length]) ? 1 : 0;
+			}
+		}).add("MySqlReservedWordsChecker", new Operation() {
+			
+			public int run(int iteration) {
+				return checker.isReserved(NAMES[iteration % NAMES.length]) ? 1 : 0;
+			}
+		});
+	}
+	
+	private static Benchmark validationSession() {
+		MySqlDialect dialect = new MySqlDialect();
+		final List<JmTable> tables = Lists.newArrayList();
+		for (int i = 0; i < 500; i++) {
+			JmTableBuilder builder = new JmTableBuilder("T_TABLE_" + i);
+			for (int j = 0; j < 20; j++) {
+				builder.with(new JmColumnBuilder("COLUMN_" + j).type(INTEGER).build());
+			}
+			tables.add(builder.build());
+		}
+		final JmTable edited = tables.get(0);
+		final Validator validator = dialect.getValidator();
+		final MySqlValidationSession session = new MySqlValidationSession(dialect);
+		session.validate(contextOf(tables));
+		return new Benchmark("validation of 500 tables after editing one", 200, ROUNDS).add("full", new Operation() {
+			
+			public int run(int iteration) {
+				return validator.validate(contextOf(tables)).size();
+			}
+		}).add("edit", new Operation() {
+			
+			private int edits;
+			
+			
+			public int run(int iteration) {
+				edited.add(new JmColumnBuilder("EDIT_" + edits++).type(INTEGER).build());
+				return session.validate(contextOf(tables)).size();
+			}
+		}).add("unchanged", new Operation() {
+			
+			public int run(int iteration) {
+				return session.validate(contextOf(tables)).size();
+			}
+		});
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+/**
+ * MySQL 8.0 に対するSQL方言実装クラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+@SuppressWarnings("serial")
+public class MySql80Dialect extends MySqlDialect {
+	
+	/**
+	 * インスタンスを生成する。
+	 */
+	public MySql80Dialect() {
+		super(MySqlVersion.of(8, 0, 0));
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.mysql.MySqlAlterOperation.Kind;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.dialect.mysql.parameter.StandardEngine;
+import org.jiemamy.dialect.mysql.parameter.StorageEngineType;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.datatype.TypeParameterKey;
+
+/**
+ * {@code ALTER TABLE}文の実行方式（オンラインDDLの{@code ALGORITHM}）を表す列挙型。
+ * 
+ * <p>コストの小さい順に宣言している。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public enum MySqlAlterAlgorithm {
+	
+	/** テーブル定義（メタデータ）のみを変更する。データには触れない */
+	INSTANT(null),
+	
+	/** テーブルをコピーせずにその場で変更する。変更中も読み書きできる */
+	INPLACE(MySqlAlterLock.NONE),
+	
+	/** 新しいテーブルにデータをコピーする。変更中は書き込みができない */
+	COPY(MySqlAlterLock.SHARED);
+	
+	/** {@code ALGORITHM}句を指定できる最初のバージョン */
+	static final MySqlVersion ONLINE_DDL_VERSION = MySqlVersion.of(5, 6, 0);
+	
+	
+	/**
+	 * {@code ALTER TABLE}文全体の実行方式を判定する。
+	 * 
+	 * <p>全ての変更操作を実行できる方式のうち、最もコストの小さいものを返す。
+	 * 対象テーブルのストレージエンジンは変更前のテーブルの{@link MySqlParameterKeys#STORAGE_ENGINE}で判断し、
+	 * 指定がない場合はサーバのデフォルト（MySQL 5.5.5以降はInnoDB）とみなす。</p>
+	 * 
+	 * <p>外部キーの追加は、{@code foreign_key_checks}が有効な場合は{@link #COPY}でしか行えないため、{@link #COPY}とする。
+	 * ただし、同じ文で外部キーを削除する場合、MySQLは{@link #INPLACE}でしか受け付けないため{@link #INPLACE}とする。
+	 * この場合は{@code foreign_key_checks}を無効にして実行すること。</p>
+	 * 
+	 * @param alterTable 対象の{@code ALTER TABLE}文
+	 * @param version サーバのバージョン
+	 * @return 実行方式
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlAlterAlgorithm classify(MySqlAlterTable alterTable, MySqlVersion version) {
+		Validate.notNull(alterTable);
+		Validate.notNull(version);
+		boolean innoDb = isInnoDb(alterTable, version);
+		
+		MySqlAlterAlgorithm result = INSTANT;
+		for (MySqlAlterOperation operation : alterTable.getOperations()) {
+			MySqlAlterAlgorithm algorithm = classify(operation.getKind(), version, innoDb);
+			if (operation.getKind() == Kind.DROP_PRIMARY_KEY && alterTable.hasOperation(Kind.ADD_PRIMARY_KEY)) {
+				// 主キーの置き換えは同じ文の中であればINPLACEで行える
+				algorithm = version.compareTo(ONLINE_DDL_VERSION) >= 0 && innoDb ? INPLACE : COPY;
+			}
+			if (operation.getKind() == Kind.ADD_FOREIGN_KEY && alterTable.hasOperation(Kind.DROP_FOREIGN_KEY)
+					&& version.compareTo(ONLINE_DDL_VERSION) >= 0 && innoDb) {
+				// 同じ文での外部キーの削除と追加は、COPYでは受け付けられない（foreign_key_checksを無効にして実行する）
+				algorithm = INPLACE;
+			}
+			if (algorithm == INSTANT && addsAutoIncrementColumn(alterTable, operation)) {
+				// AUTO_INCREMENTカラムの追加は、値を採番するためにテーブルを再構築する
+				algorithm = INPLACE;
+			}
+			if (algorithm.compareTo(result) > 0) {
+				result = algorithm;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 1つの変更操作の実行方式を判定する。
+	 * 
+	 * @param kind 変更操作の種類
+	 * @param version サーバのバージョン
+	 * @param innoDb 対象テーブルがInnoDBの場合は{@code true}
+	 * @return 実行方式
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlAlterAlgorithm classify(Kind kind, MySqlVersion version, boolean innoDb) {
+		Validate.notNull(kind);
+		Validate.notNull(version);
+		if (version.compareTo(ONLINE_DDL_VERSION) < 0) {
+			return kind == Kind.RENAME_TABLE ? INPLACE : COPY;
+		}
+		if (innoDb == false) {
+			// InnoDB以外では、定義のみの変更を除いてテーブルをコピーする
+			switch (kind) {
+				case RENAME_TABLE:
+				case RENAME_COLUMN:
+				case CHANGE_COLUMN_DEFAULT:
+					return INPLACE;
+				default:
+					return COPY;
+			}
+		}
+		boolean instantAdd = version.isAtLeast(8, 0, 12);
+		boolean instantRename = version.isAtLeast(8, 0, 28);
+		boolean instantAnywhere = version.isAtLeast(8, 0, 29);
+		switch (kind) {
+			case ADD_COLUMN:
+			case CHANGE_COLUMN_DEFAULT:
+			case RENAME_TABLE:
+				return instantAdd ? INSTANT : INPLACE;
+			case RENAME_COLUMN:
+				return instantRename ? INSTANT : INPLACE;
+			case ADD_COLUMN_IN_MIDDLE:
+			case DROP_COLUMN:
+				return instantAnywhere ? INSTANT : INPLACE;
+			case CHANGE_COLUMN_NULLABILITY:
+			case ADD_PRIMARY_KEY:
+			case ADD_UNIQUE_KEY:
+			case DROP_UNIQUE_KEY:
+			case ADD_INDEX:
+			case DROP_INDEX:
+			case DROP_FOREIGN_KEY:
+				return INPLACE;
+			// 外部キーの追加は、foreign_key_checksが有効な場合はテーブルをコピーする
+			case ADD_FOREIGN_KEY:
+			case DROP_PRIMARY_KEY:
+			case CHANGE_COLUMN_TYPE:
+			case CHANGE_ENGINE:
+			default:
+				return COPY;
+		}
+	}
+	
+	/**
+	 * {@code ALTER TABLE}文全体に指定できる、最も制限の緩い{@code LOCK}句の値を判定する。
+	 * 
+	 * <p>{@link #classify(MySqlAlterTable, MySqlVersion)}の方式に対する{@link #getLock()}を基本とし、次の場合は
+	 * より強いロックとする。</p>
+	 * <ul>
+	 *   <li>InnoDB以外のテーブルに対する{@link #INPLACE}の変更は、{@code LOCK=NONE}を受け付けないため
+	 *   {@link MySqlAlterLock#DEFAULT}とする。</li>
+	 *   <li>{@code AUTO_INCREMENT}カラムの追加は、InnoDBでも変更中の書き込みを許さないため{@link MySqlAlterLock#SHARED}とする。</li>
+	 * </ul>
+	 * 
+	 * @param alterTable 対象の{@code ALTER TABLE}文
+	 * @param version サーバのバージョン
+	 * @return {@code LOCK}句の値. {@code LOCK}句を指定しない場合は{@code null}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlAlterLock lockFor(MySqlAlterTable alterTable, MySqlVersion version) {
+		MySqlAlterAlgorithm algorithm = classify(alterTable, version);
+		if (algorithm != INPLACE) {
+			return algorithm.getLock();
+		}
+		if (isInnoDb(alterTable, version) == false) {
+			return MySqlAlterLock.DEFAULT;
+		}
+		for (MySqlAlterOperation operation : alterTable.getOperations()) {
+			if (addsAutoIncrementColumn(alterTable, operation)) {
+				return MySqlAlterLock.SHARED;
+			}
+		}
+		return algorithm.getLock();
+	}
+	
+	private static boolean addsAutoIncrementColumn(MySqlAlterTable alterTable, MySqlAlterOperation operation) {
+		if (operation.getKind() != Kind.ADD_COLUMN && operation.getKind() != Kind.ADD_COLUMN_IN_MIDDLE) {
+			return false;
+		}
+		for (JmColumn column : alterTable.getAfter().getColumns()) {
+			if (column.getName().equals(operation.getColumnName())) {
+				Boolean serial = column.getDataType().getParam(TypeParameterKey.SERIAL);
+				return serial != null && serial;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean isInnoDb(MySqlAlterTable alterTable, MySqlVersion version) {
+		StorageEngineType engine = alterTable.getBefore().getParam(MySqlParameterKeys.STORAGE_ENGINE);
+		if (engine == null) {
+			return version.isAtLeast(5, 5, 5);
+		}
+		return engine == StandardEngine.InnoDB || StandardEngine.InnoDB.name().equalsIgnoreCase(engine.toString());
+	}
+	
+	
+	private final MySqlAlterLock lock;
+	
+	
+	MySqlAlterAlgorithm(MySqlAlterLock lock) {
+		this.lock = lock;
+	}
+	
+	/**
+	 * この方式と組み合わせて指定できる、最も制限の緩い{@code LOCK}句の値を取得する。
+	 * 
+	 * @return {@code LOCK}句の値. {@code LOCK}句を指定しない場合は{@code null}
+	 */
+	public MySqlAlterLock getLock() {
+		return lock;
+	}
+}
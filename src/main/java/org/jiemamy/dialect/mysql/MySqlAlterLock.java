@@ -0,0 +1,43 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+/**
+ * {@code ALTER TABLE}文の実行中に取得するロック（オンラインDDLの{@code LOCK}句）を表す列挙型。
+ * 
+ * <p>制限の緩い順に宣言している。{@link #DEFAULT}は、サーバが操作に応じて選ぶ最も緩いロックを表す。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ * @see MySqlAlterAlgorithm
+ */
+public enum MySqlAlterLock {
+	
+	/** サーバに任せる */
+	DEFAULT,
+	
+	/** 変更中も読み書きできる */
+	NONE,
+	
+	/** 変更中は読み込みのみできる */
+	SHARED,
+	
+	/** 変更中は読み書きできない */
+	EXCLUSIVE;
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.sql.Token;
+
+/**
+ * {@code ALTER TABLE}文を構成する1つの変更操作（{@code ADD COLUMN ...}等）を表すクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlAlterOperation {
+	
+	/**
+	 * 変更操作の種類。
+	 * 
+	 * <p>同じ表への操作を1文にまとめる際は、この列挙の宣言順に並べる。</p>
+	 * 
+	 * @version $Id$
+	 * @author daisuke
+	 */
+	public enum Kind {
+		
+		/** 外部キーの削除 */
+		DROP_FOREIGN_KEY,
+		
+		/** インデックスの削除 */
+		DROP_INDEX,
+		
+		/** 一意キーの削除 */
+		DROP_UNIQUE_KEY,
+		
+		/** 主キーの削除 */
+		DROP_PRIMARY_KEY,
+		
+		/** カラムの削除 */
+		DROP_COLUMN,
+		
+		/** カラム名の変更（定義は変えない） */
+		RENAME_COLUMN,
+		
+		/** カラムのデフォルト値の変更 */
+		CHANGE_COLUMN_DEFAULT,
+		
+		/** カラムのNULL可否の変更 */
+		CHANGE_COLUMN_NULLABILITY,
+		
+		/** カラムの型の変更 */
+		CHANGE_COLUMN_TYPE,
+		
+		/** カラムの追加（末尾） */
+		ADD_COLUMN,
+		
+		/** カラムの追加（途中） */
+		ADD_COLUMN_IN_MIDDLE,
+		
+		/** 主キーの追加 */
+		ADD_PRIMARY_KEY,
+		
+		/** 一意キーの追加 */
+		ADD_UNIQUE_KEY,
+		
+		/** インデックスの追加 */
+		ADD_INDEX,
+		
+		/** 外部キーの追加 */
+		ADD_FOREIGN_KEY,
+		
+		/** ストレージエンジンの変更 */
+		CHANGE_ENGINE,
+		
+		/** テーブル名の変更 */
+		RENAME_TABLE;
+	}
+	
+	
+	private final Kind kind;
+	
+	private final String columnName;
+	
+	private final List<Token> tokens;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param kind 変更操作の種類
+	 * @param columnName 対象のカラム名. カラムに対する操作でない場合は{@code null}
+	 * @param tokens 変更操作のトークン列（{@code ALTER TABLE テーブル名}に続く部分）
+	 * @throws IllegalArgumentException 引数{@code kind}, {@code tokens}に{@code null}を与えた場合
+	 */
+	public MySqlAlterOperation(Kind kind, String columnName, List<? extends Token> tokens) {
+		Validate.notNull(kind);
+		Validate.notNull(tokens);
+		this.kind = kind;
+		this.columnName = columnName;
+		this.tokens = Collections.unmodifiableList(Lists.<Token> newArrayList(tokens));
+	}
+	
+	/**
+	 * 対象のカラム名を取得する。
+	 * 
+	 * @return 対象のカラム名. カラムに対する操作でない場合は{@code null}
+	 */
+	public String getColumnName() {
+		return columnName;
+	}
+	
+	/**
+	 * 変更操作の種類を取得する。
+	 * 
+	 * @return 変更操作の種類
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+	
+	/**
+	 * 変更操作のトークン列を取得する。
+	 * 
+	 * @return 変更操作のトークン列（{@code ALTER TABLE テーブル名}に続く部分）
+	 */
+	public List<Token> getTokens() {
+		return tokens;
+	}
+	
+	@Override
+	public String toString() {
+		return kind + tokens.toString();
+	}
+}
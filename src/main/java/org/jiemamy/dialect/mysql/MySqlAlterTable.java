@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifier;
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * 1つのテーブルに対する変更操作をまとめたもの。1つの{@code ALTER TABLE}文に対応する。
+ * 
+ * <p>MySQLは{@code ALTER TABLE}文1回につきテーブルを高々1回しか再構築しないため、
+ * 同じテーブルへの変更操作は全てこの1文にまとめて実行する。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlAlterTable {
+	
+	private static final Comparator<MySqlAlterOperation> OPERATION_ORDER = new Comparator<MySqlAlterOperation>() {
+		
+		public int compare(MySqlAlterOperation o1, MySqlAlterOperation o2) {
+			return o1.getKind().compareTo(o2.getKind());
+		}
+	};
+	
+	
+	private final JmTable before;
+	
+	private final JmTable after;
+	
+	private final List<MySqlAlterOperation> operations;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param before 変更前のテーブル
+	 * @param after 変更後のテーブル
+	 * @param operations 変更操作のリスト
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlAlterTable(JmTable before, JmTable after, List<MySqlAlterOperation> operations) {
+		Validate.notNull(before);
+		Validate.notNull(after);
+		Validate.noNullElements(operations);
+		this.before = before;
+		this.after = after;
+		List<MySqlAlterOperation> sorted = Lists.newArrayList(operations);
+		Collections.sort(sorted, OPERATION_ORDER);
+		this.operations = Collections.unmodifiableList(sorted);
+	}
+	
+	/**
+	 * 変更後のテーブルを取得する。
+	 * 
+	 * @return 変更後のテーブル
+	 */
+	public JmTable getAfter() {
+		return after;
+	}
+	
+	/**
+	 * 変更前のテーブルを取得する。
+	 * 
+	 * @return 変更前のテーブル
+	 */
+	public JmTable getBefore() {
+		return before;
+	}
+	
+	/**
+	 * 変更操作のリストを取得する。
+	 * 
+	 * @return 変更操作のリスト（実行順）
+	 */
+	public List<MySqlAlterOperation> getOperations() {
+		return operations;
+	}
+	
+	/**
+	 * 変更前のテーブル名を取得する。
+	 * 
+	 * @return 変更前のテーブル名. {@code ALTER TABLE}文の対象となる
+	 */
+	public String getTableName() {
+		return before.getName();
+	}
+	
+	/**
+	 * 変更操作のいずれかが指定した種類であるかどうかを調べる。
+	 * 
+	 * @param kind 変更操作の種類
+	 * @return 指定した種類の変更操作を含む場合は{@code true}
+	 */
+	public boolean hasOperation(MySqlAlterOperation.Kind kind) {
+		for (MySqlAlterOperation operation : operations) {
+			if (operation.getKind() == kind) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 全ての変更操作をまとめた{@code ALTER TABLE}文を生成する。
+	 * 
+	 * @return {@code ALTER TABLE}文
+	 */
+	public SqlStatement toSqlStatement() {
+		return toSqlStatement(Collections.<Token> emptyList());
+	}
+	
+	/**
+	 * 全ての変更操作をまとめ、末尾に追加の句を付けた{@code ALTER TABLE}文を生成する。
+	 * 
+	 * @param additionalClauses 変更操作の後ろに付ける句（{@code ALGORITHM=INPLACE, LOCK=NONE}等）のトークン列.
+	 *  空でない場合は{@code ,}で区切って付ける
+	 * @return {@code ALTER TABLE}文
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public SqlStatement toSqlStatement(List<? extends Token> additionalClauses) {
+		Validate.notNull(additionalClauses);
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.ALTER);
+		tokens.add(Keyword.TABLE);
+		tokens.add(MySqlIdentifier.of(getTableName()));
+		boolean first = true;
+		for (MySqlAlterOperation operation : operations) {
+			if (first == false) {
+				tokens.add(Separator.COMMA);
+			}
+			first = false;
+			tokens.addAll(operation.getTokens());
+		}
+		if (additionalClauses.isEmpty() == false) {
+			if (first == false) {
+				tokens.add(Separator.COMMA);
+			}
+			tokens.addAll(additionalClauses);
+		}
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	@Override
+	public String toString() {
+		return getTableName() + operations;
+	}
+}
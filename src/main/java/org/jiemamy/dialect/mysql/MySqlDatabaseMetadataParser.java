@@ -20,12 +20,15 @@ package org.jiemamy.dialect.mysql;
 
 import org.jiemamy.dialect.DatabaseMetadataParser;
 import org.jiemamy.dialect.DefaultDatabaseMetadataParser;
-import org.jiemamy.dialect.DefaultForeignKeyImportVisitor;
 import org.jiemamy.dialect.Dialect;
 
 /**
  * MySQL用 {@link DatabaseMetadataParser} 実装クラス。
  * 
+ * <p>テーブルのカラム・主キー・UNIQUEキーは、{@link MySqlDbObjectImportVisitor}がテーブル毎のJDBCメタデータ呼び出しではなく
+ * {@code information_schema}に対する一定回数の集合クエリで読み込む。外部キーは、{@link MySqlForeignKeyImportVisitor}が
+ * 同じインポートで読み込んだ{@code KEY_COLUMN_USAGE}及び{@code REFERENTIAL_CONSTRAINTS}の結果から組み立てる。</p>
+ * 
  * @version $Id$
  * @author daisuke
  */
@@ -38,6 +41,22 @@ public class MySqlDatabaseMetadataParser extends DefaultDatabaseMetadataParser {
 	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
 	 */
 	public MySqlDatabaseMetadataParser(MySqlDialect dialect) {
-		super(new MySqlDbObjectImportVisitor(dialect), new DefaultForeignKeyImportVisitor(dialect));
+		this(dialect, false);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect {@link Dialect}
+	 * @param showCreateTable テーブル定義を{@code SHOW CREATE TABLE}で読み込む場合は{@code true}
+	 * @throws IllegalArgumentException 引数{@code dialect}に{@code null}を与えた場合
+	 * @see MySqlDbObjectImportVisitor#MySqlDbObjectImportVisitor(MySqlDialect, boolean)
+	 */
+	public MySqlDatabaseMetadataParser(MySqlDialect dialect, boolean showCreateTable) {
+		this(dialect, new MySqlDbObjectImportVisitor(dialect, showCreateTable));
+	}
+	
+	private MySqlDatabaseMetadataParser(MySqlDialect dialect, MySqlDbObjectImportVisitor dbObjectImportVisitor) {
+		super(dbObjectImportVisitor, new MySqlForeignKeyImportVisitor(dialect, dbObjectImportVisitor));
 	}
 }
@@ -22,25 +22,50 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
 
 import org.apache.commons.lang.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jiemamy.dialect.DbObjectImportVisitor;
+import org.jiemamy.dialect.DefaultDatabaseMetadataParser;
 import org.jiemamy.dialect.DefaultDbObjectImportVisitor;
 import org.jiemamy.dialect.Dialect;
+import org.jiemamy.dialect.mysql.internal.MySqlCreateTableParser;
+import org.jiemamy.dialect.mysql.internal.MySqlSchemaSnapshot;
+import org.jiemamy.dialect.mysql.internal.MySqlTableDefinition;
+import org.jiemamy.dialect.mysql.internal.MySqlTypeCatalog;
 import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
 import org.jiemamy.dialect.mysql.parameter.StandardEngine;
 import org.jiemamy.dialect.mysql.parameter.StorageEngineType;
 import org.jiemamy.model.DbObject;
-import org.jiemamy.model.DbObject;
+import org.jiemamy.model.table.TableParameterKey;
 import org.jiemamy.model.view.JmView;
 import org.jiemamy.utils.sql.metadata.TableMeta;
 
 /**
  * MySQL用{@link DbObjectImportVisitor}実装クラス。
  * 
+ * <p>テーブル状態・テーブル定義・ビュー定義は、それぞれ初回アクセス時にスキーマ全体を一括で読み込む。
+ * 外部キーも{@link MySqlForeignKeyImportVisitor}が同じテーブル定義から組み立てる。このため、
+ * {@code SHOW CREATE TABLE}モードを除き、このクラスと{@link MySqlForeignKeyImportVisitor}が発行する
+ * クエリの数はテーブル数によらず一定である。ただし、{@link DefaultDatabaseMetadataParser}が
+ * {@link java.sql.DatabaseMetaData}に対して行うテーブル一覧・外部キーの問い合わせはこの数に含まない
+ * （外部キーの問い合わせ結果は{@link MySqlForeignKeyImportVisitor}が読み捨てる）。</p>
+ * 
+ * <p>{@code SHOW CREATE TABLE}モードでは、テーブル定義を集合クエリではなく、テーブル毎に1回の
+ * {@code SHOW CREATE TABLE}の結果を{@link MySqlCreateTableParser}で解析して組み立てる。
+ * 一部のテーブルのみを読み込む場合や、{@code information_schema}の参照が遅いサーバで有効である。</p>
+ * 
+ * <p>テーブルには、ストレージエンジンに加えて、テーブル状態の統計値（{@link MySqlParameterKeys#TABLE_ROWS},
+ * {@link MySqlParameterKeys#DATA_LENGTH}等）をパラメータとして設定する。</p>
+ * 
+ * <p>このクラスはスレッドセーフではない。1つのインスタンスは、1つの{@link Connection}による1回のインポートで使用すること。</p>
+ * 
  * @version $Id$
  * @author daisuke
  */
@@ -49,6 +74,77 @@ public class MySqlDbObjectImportVisitor extends DefaultDbObjectImportVisitor {
 	private static Logger logger = LoggerFactory.getLogger(MySqlDbObjectImportVisitor.class);
 	
 	
+	/**
+	 * テーブルの統計値を、{@link MySqlParameterKeys}のパラメータとして設定する。値のない項目は設定しない。
+	 * 
+	 * @param dbObject 対象のテーブル
+	 * @param status テーブルの状態
+	 */
+	static void putStatistics(DbObject dbObject, MySqlTableStatus status) {
+		putIfNotNull(dbObject, MySqlParameterKeys.TABLE_ROWS, status.getTableRows());
+		putIfNotNull(dbObject, MySqlParameterKeys.AVG_ROW_LENGTH, status.getAvgRowLength());
+		putIfNotNull(dbObject, MySqlParameterKeys.DATA_LENGTH, status.getDataLength());
+		putIfNotNull(dbObject, MySqlParameterKeys.INDEX_LENGTH, status.getIndexLength());
+		putIfNotNull(dbObject, MySqlParameterKeys.DATA_FREE, status.getDataFree());
+		putIfNotNull(dbObject, MySqlParameterKeys.AUTO_INCREMENT, status.getAutoIncrement());
+	}
+	
+	/**
+	 * ストレージエンジン名を{@link StorageEngineType}に変換する。
+	 * 
+	 * @param engineTypeString ストレージエンジン名
+	 * @return {@link StorageEngineType}
+	 */
+	static StorageEngineType toStorageEngineType(final String engineTypeString) {
+		try {
+			return StandardEngine.valueOf(engineTypeString);
+		} catch (IllegalArgumentException e) {
+			// 一応、無理矢理未知のエンジンタイプに対応しておく
+			return new StorageEngineType() {
+				
+				@Override
+				public String toString() {
+					return engineTypeString;
+				}
+			};
+		}
+	}
+	
+	private static void putIfNotNull(DbObject dbObject, TableParameterKey<Long> key, Long value) {
+		if (value != null) {
+			dbObject.putParam(key, value);
+		}
+	}
+	
+	
+	/** テーブル定義を{@code SHOW CREATE TABLE}で読み込む場合は{@code true} */
+	private final boolean showCreateTable;
+	
+	/** {@code SHOW CREATE TABLE}の結果の解析器. カラムの型名は方言の型の一覧で解決する */
+	private final MySqlCreateTableParser parser;
+	
+	/** カラムの型名を解決する、方言の型の一覧 */
+	private final MySqlTypeCatalog typeCatalog;
+	
+	/** インポート中のテーブル名と{@link MySqlTableStatus}のマップ */
+	private Map<String, MySqlTableStatus> tableStatuses;
+	
+	/** {@link #tableStatuses}を読み込んだ{@link Connection} */
+	private Connection tableStatusesConnection;
+	
+	/** インポート中のスキーマのテーブル定義 */
+	private MySqlSchemaSnapshot snapshot;
+	
+	/** {@link #snapshot}を読み込んだ{@link Connection} */
+	private Connection snapshotConnection;
+	
+	/** インポート中のビュー名とビュー定義のマップ */
+	private Map<String, String> viewDefinitions;
+	
+	/** {@link #viewDefinitions}を読み込んだ{@link Connection} */
+	private Connection viewDefinitionsConnection;
+	
+	
 	/**
 	 * インスタンスを生成する。
 	 * 
@@ -56,31 +152,50 @@ public class MySqlDbObjectImportVisitor extends DefaultDbObjectImportVisitor {
 	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
 	 */
 	public MySqlDbObjectImportVisitor(MySqlDialect dialect) {
+		this(dialect, false);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect {@link Dialect}
+	 * @param showCreateTable テーブル定義を{@code SHOW CREATE TABLE}で読み込む場合は{@code true}、
+	 *          {@code information_schema}に対する集合クエリで読み込む場合は{@code false}
+	 * @throws IllegalArgumentException 引数{@code dialect}に{@code null}を与えた場合
+	 */
+	public MySqlDbObjectImportVisitor(MySqlDialect dialect, boolean showCreateTable) {
 		super(dialect);
+		this.showCreateTable = showCreateTable;
+		typeCatalog = dialect.getTypeCatalog();
+		parser = new MySqlCreateTableParser(typeCatalog);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>テーブルは、{@link MySqlSchemaSnapshot}として一括で読み込んだ定義、または{@code SHOW CREATE TABLE}の
+	 * 結果から生成する。このため、テーブル毎の汎用メタデータ問い合わせは発生しない。</p>
+	 */
 	@Override
 	protected DbObject createDbObject(TableMeta tableMeta) throws SQLException {
-		DbObject dbObject = (DbObject) super.createDbObject(tableMeta);
+		Connection connection = getMeta().getMetaData().getConnection();
+		MySqlTableDefinition definition = getTableDefinition(connection, tableMeta.tableName);
+		DbObject dbObject;
+		if (definition != null) {
+			dbObject = definition.toJmTable();
+		} else {
+			dbObject = (DbObject) super.createDbObject(tableMeta);
+		}
 		
 		try {
-			Connection connection = getMeta().getMetaData().getConnection();
-			final String engineTypeString = getEngineType(connection, dbObject.getName());
+			MySqlTableStatus status = getTableStatus(connection, dbObject.getName());
+			String engineTypeString = definition != null && definition.getEngine() != null ? definition.getEngine()
+					: status == null ? null : status.getEngine();
 			if (engineTypeString != null) {
-				StorageEngineType engineType;
-				try {
-					engineType = StandardEngine.valueOf(engineTypeString);
-				} catch (IllegalArgumentException e) {
-					// 一応、無理矢理未知のエンジンタイプに対応しておく
-					engineType = new StorageEngineType() {
-						
-						@Override
-						public String toString() {
-							return engineTypeString;
-						}
-					};
-				}
-				dbObject.putParam(MySqlParameterKeys.STORAGE_ENGINE, engineType);
+				dbObject.putParam(MySqlParameterKeys.STORAGE_ENGINE, toStorageEngineType(engineTypeString));
+			}
+			if (status != null) {
+				putStatistics(dbObject, status);
 			}
 		} catch (SQLException e) {
 			throw e;
@@ -112,37 +227,129 @@ public class MySqlDbObjectImportVisitor extends DefaultDbObjectImportVisitor {
 	
 	// http://jira.jiemamy.org/browse/DMYS-2
 	String getEngineType(Connection conn, String tableName) throws SQLException {
-		PreparedStatement ps = null;
-		try {
-			ps = conn.prepareStatement("SHOW TABLE STATUS");
-			ResultSet rs = ps.executeQuery();
-			while (rs.next()) {
-				if (rs.getString(1).equals(tableName)) {
-					return rs.getString(2);
-				}
+		MySqlTableStatus status = getTableStatus(conn, tableName);
+		return status == null ? null : status.getEngine();
+	}
+	
+	/**
+	 * テーブルの状態を取得する。
+	 * 
+	 * <p>初回呼び出し時に、スキーマ内の全テーブルの状態を1回のクエリでまとめて読み込み、以降はその結果を返す。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @param tableName テーブル名
+	 * @return テーブルの状態. 存在しない場合は{@code null}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 */
+	MySqlTableStatus getTableStatus(Connection conn, String tableName) throws SQLException {
+		if (tableStatuses == null || tableStatusesConnection != conn) {
+			tableStatuses = loadTableStatuses(conn);
+			tableStatusesConnection = conn;
+		}
+		return tableStatuses.get(tableName);
+	}
+	
+	/**
+	 * スキーマのスナップショットを取得する。
+	 * 
+	 * <p>初回呼び出し時に、スキーマ内の全テーブルの定義を一定回数の集合クエリでまとめて読み込み、以降はその結果を返す。
+	 * {@code SHOW CREATE TABLE}モードでは空のスナップショットを生成し、{@link #getTableDefinition(Connection, String)}が
+	 * 読み込んだ定義を順次追加する。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @return スキーマのスナップショット
+	 * @throws SQLException SQLの実行に失敗した場合
+	 */
+	MySqlSchemaSnapshot getSnapshot(Connection conn) throws SQLException {
+		if (snapshot == null || snapshotConnection != conn) {
+			snapshot = showCreateTable ? new MySqlSchemaSnapshot() : MySqlSchemaSnapshot.load(conn, null, typeCatalog);
+			snapshotConnection = conn;
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * このインポートで読み込んだスキーマのスナップショットを取得する。
+	 * 
+	 * <p>{@link MySqlForeignKeyImportVisitor}が、全てのテーブルを読み込んだ後に外部キーを組み立てるために用いる。
+	 * 新たなクエリは発行しない。</p>
+	 * 
+	 * @return スキーマのスナップショット. まだテーブルを読み込んでいない場合は{@code null}
+	 */
+	MySqlSchemaSnapshot getLoadedSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * テーブル定義を取得する。
+	 * 
+	 * <p>{@code SHOW CREATE TABLE}モードでは、未読み込みのテーブルに対して{@code SHOW CREATE TABLE}を発行する。
+	 * 結果を解析できなかった場合は{@code null}を返し、汎用のメタデータから生成させる。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @param tableName テーブル名
+	 * @return テーブル定義. 存在しない場合は{@code null}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 */
+	MySqlTableDefinition getTableDefinition(Connection conn, String tableName) throws SQLException {
+		MySqlSchemaSnapshot current = getSnapshot(conn);
+		MySqlTableDefinition definition = current.getTable(tableName);
+		if (definition == null && showCreateTable) {
+			Statement stmt = conn.createStatement();
+			try {
+				definition = MySqlSchemaSnapshot.showCreateTable(stmt, tableName, parser);
+			} catch (IllegalArgumentException e) {
+				logger.warn("failed to parse SHOW CREATE TABLE result of " + tableName, e);
+			} finally {
+				stmt.close();
 			}
-			return null;
-		} finally {
-			if (ps != null) {
-				ps.close();
+			if (definition != null) {
+				current.add(definition);
 			}
 		}
+		return definition;
 	}
 	
+	/**
+	 * ビュー定義を取得する。
+	 * 
+	 * <p>初回呼び出し時に、スキーマ内の全ビューの定義を1回のクエリでまとめて読み込み、以降はその結果を返す。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @param viewName ビュー名
+	 * @return ビュー定義. 存在しない場合は{@code null}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 */
 	String getViewDefinition(Connection conn, String viewName) throws SQLException {
+		if (viewDefinitions == null || viewDefinitionsConnection != conn) {
+			viewDefinitions = loadViewDefinitions(conn);
+			viewDefinitionsConnection = conn;
+		}
+		return viewDefinitions.get(viewName);
+	}
+	
+	private Map<String, MySqlTableStatus> loadTableStatuses(Connection conn) throws SQLException {
+		Map<String, MySqlTableStatus> result = MySqlTableStatus.loadAll(conn);
+		logger.debug("{} table statuses loaded", result.size());
+		return result;
+	}
+	
+	private Map<String, String> loadViewDefinitions(Connection conn) throws SQLException {
+		Map<String, String> result = Maps.newHashMap();
 		PreparedStatement ps = null;
 		try {
-			ps = conn.prepareStatement("select * from information_schema.VIEWS where table_name = ?;");
-			ps.setString(1, viewName);
+			ps = conn.prepareStatement("SELECT TABLE_NAME, VIEW_DEFINITION FROM information_schema.VIEWS "
+					+ "WHERE TABLE_SCHEMA = DATABASE()");
 			ResultSet rs = ps.executeQuery();
-			if (rs.next()) {
-				return rs.getString("VIEW_DEFINITION");
+			while (rs.next()) {
+				result.put(rs.getString("TABLE_NAME"), rs.getString("VIEW_DEFINITION"));
 			}
-			return null;
 		} finally {
 			if (ps != null) {
 				ps.close();
 			}
 		}
+		logger.debug("{} view definitions loaded", result.size());
+		return result;
 	}
 }
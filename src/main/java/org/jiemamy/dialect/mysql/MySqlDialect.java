@@ -18,153 +18,63 @@
  */
 package org.jiemamy.dialect.mysql;
 
-import static org.jiemamy.model.datatype.RawTypeCategory.BIT;
-import static org.jiemamy.model.datatype.RawTypeCategory.BLOB;
-import static org.jiemamy.model.datatype.RawTypeCategory.CHARACTER;
-import static org.jiemamy.model.datatype.RawTypeCategory.CLOB;
-import static org.jiemamy.model.datatype.RawTypeCategory.DATE;
-import static org.jiemamy.model.datatype.RawTypeCategory.DECIMAL;
-import static org.jiemamy.model.datatype.RawTypeCategory.DOUBLE;
-import static org.jiemamy.model.datatype.RawTypeCategory.FLOAT;
-import static org.jiemamy.model.datatype.RawTypeCategory.INTEGER;
-import static org.jiemamy.model.datatype.RawTypeCategory.NUMERIC;
-import static org.jiemamy.model.datatype.RawTypeCategory.OTHER;
-import static org.jiemamy.model.datatype.RawTypeCategory.REAL;
-import static org.jiemamy.model.datatype.RawTypeCategory.SMALLINT;
-import static org.jiemamy.model.datatype.RawTypeCategory.TIME;
-import static org.jiemamy.model.datatype.RawTypeCategory.TIMESTAMP;
-import static org.jiemamy.model.datatype.RawTypeCategory.VARCHAR;
-
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
 
 import org.jiemamy.dialect.AbstractDialect;
 import org.jiemamy.dialect.DatabaseMetadataParser;
-import org.jiemamy.dialect.Necessity;
 import org.jiemamy.dialect.SqlEmitter;
-import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
-import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
-import org.jiemamy.model.datatype.TypeParameterKey;
-import org.jiemamy.validator.CompositeValidator;
+import org.jiemamy.dialect.mysql.internal.MySqlTypeCatalog;
 import org.jiemamy.validator.Validator;
 
 /**
  * MySQLに対するSQL方言実装クラス。
  * 
+ * <p>対象とするサーバのバージョンによって、予約語と型の定義を切り替える。このクラスは MySQL 5.0 を対象とし、
+ * 5.7以降を対象とする場合は{@link MySql57Dialect}, {@link MySql80Dialect}を用いる。予約語と型の定義
+ * （{@link MySqlTypeCatalog}）はバージョンごとに一度だけ構築し、インスタンス間で共有する。</p>
+ * 
  * @author daisuke
  */
 @SuppressWarnings("serial")
 public class MySqlDialect extends AbstractDialect {
 	
-	private static List<Entry> typeEntries = Lists.newArrayList();
-	
-	static {
-		// FORMAT-OFF
-		// CHECKSTYLE:OFF
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(INTEGER),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.OPTIONAL);
-						put(TypeParameterKey.SERIAL, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(INTEGER, "MEDIUMINT"),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.OPTIONAL);
-						put(TypeParameterKey.SERIAL, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(INTEGER, "BIGINT"),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.OPTIONAL);
-						put(TypeParameterKey.SERIAL, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(SMALLINT),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.OPTIONAL);
-						put(TypeParameterKey.SERIAL, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(SMALLINT, "TINYINT"),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.OPTIONAL);
-						put(TypeParameterKey.SERIAL, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(NUMERIC),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.PRECISION, Necessity.REQUIRED);
-						put(TypeParameterKey.SCALE, Necessity.REQUIRED);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(DECIMAL),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.PRECISION, Necessity.REQUIRED);
-						put(TypeParameterKey.SCALE, Necessity.REQUIRED);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(FLOAT),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.PRECISION, Necessity.REQUIRED);
-						put(TypeParameterKey.SCALE, Necessity.REQUIRED);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(REAL),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.PRECISION, Necessity.REQUIRED);
-						put(TypeParameterKey.SCALE, Necessity.REQUIRED);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(DOUBLE),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.PRECISION, Necessity.OPTIONAL);
-						put(TypeParameterKey.SCALE, Necessity.OPTIONAL);
-						put(MySqlParameterKeys.UNSIGNED, Necessity.OPTIONAL);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(BIT),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.REQUIRED);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(CHARACTER),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.REQUIRED);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(VARCHAR),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.REQUIRED);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(CLOB, "TEXT")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(CLOB, "TINYTEXT")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(CLOB, "MEDIUMTEXT")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(CLOB, "LONGTEXT")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(BLOB)));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(BLOB, "TINYBLOB")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(BLOB, "MEDIUMBLOB")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(BLOB, "LONGBLOB")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(DATE)));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(TIME)));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(TIMESTAMP)));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(TIMESTAMP, "DATETIME")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(INTEGER, "YEAR")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(OTHER, "BINARY")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(OTHER, "VARBINARY"),
-				new HashMap<TypeParameterKey<?>, Necessity>() {{
-						put(TypeParameterKey.SIZE, Necessity.REQUIRED);
-				}}));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(OTHER, "ENUM")));
-		typeEntries.add(new Entry(new SimpleRawTypeDescriptor(OTHER, "SET")));
-		// CHECKSTYLE:ON
-		// FORMAT-ON
+	private static MySqlTypeCatalog typeCatalogFor(MySqlVersion targetVersion) {
+		Validate.notNull(targetVersion);
+		return targetVersion.isAtLeast(5, 7, 0) ? MySqlTypeCatalog.MYSQL_5_7 : MySqlTypeCatalog.MYSQL_5_0;
 	}
 	
 	
+	private final MySqlVersion targetVersion;
+	
+	/** 構築済みのバリデータ. 初回の{@link #getValidator()}で構築する */
+	private transient volatile MySqlValidator validator;
+	
+	/** 並列度と、構築済みの並列実行用バリデータのマップ. 初回の{@link #getValidator(int)}で生成する */
+	private transient Map<Integer, MySqlValidator> parallelValidators;
+	
+	
 	/**
 	 * インスタンスを生成する。
 	 */
 	public MySqlDialect() {
-		super("jdbc:mysql://localhost:3306/", typeEntries);
+		this(MySqlVersion.of(5, 0, 0));
+	}
+	
+	/**
+	 * 対象とするサーバのバージョンを指定してインスタンスを生成する。
+	 * 
+	 * @param targetVersion 対象とするサーバのバージョン
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	protected MySqlDialect(MySqlVersion targetVersion) {
+		super("jdbc:mysql://localhost:3306/", typeCatalogFor(targetVersion).getEntries());
+		this.targetVersion = targetVersion;
 	}
 	
 	public DatabaseMetadataParser getDatabaseMetadataParser() {
@@ -172,17 +82,83 @@ public class MySqlDialect extends AbstractDialect {
 	}
 	
 	public String getName() {
-		return "MySQL 5.0";
+		return "MySQL " + targetVersion.getMajor() + "." + targetVersion.getMinor();
 	}
 	
 	public SqlEmitter getSqlEmitter() {
 		return new MySqlEmitter(this);
 	}
 	
+	/**
+	 * 対象とするサーバのバージョンの型の一覧を取得する。
+	 * 
+	 * @return 型の一覧
+	 */
+	public MySqlTypeCatalog getTypeCatalog() {
+		return typeCatalogFor(targetVersion);
+	}
+	
+	/**
+	 * 対象とするサーバのバージョンを取得する。
+	 * 
+	 * @return 対象とするサーバのバージョン
+	 */
+	public MySqlVersion getTargetVersion() {
+		return targetVersion;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>返すバリデータはこのインスタンスにつき1度だけ構築し、以降は同じインスタンスを返す。
+	 * 構成は変更できず、複数のスレッドから同時に{@link Validator#validate(org.jiemamy.JiemamyContext)}を
+	 * 呼び出してよい。</p>
+	 * 
+	 * @return {@link MySqlValidator}
+	 */
 	@Override
 	public Validator getValidator() {
-		CompositeValidator validator = (CompositeValidator) super.getValidator();
-		validator.getValidators().add(new MySqlIdentifierValidator());
-		return validator;
+		MySqlValidator result = validator;
+		if (result == null) {
+			synchronized (this) {
+				result = validator;
+				if (result == null) {
+					List<Validator> validators = Lists.newArrayList();
+					validators.add(super.getValidator());
+					validators.add(new MySqlIdentifierValidator(MySqlReservedWordsChecker.of(targetVersion)));
+					result = new MySqlValidator(validators);
+					validator = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 子バリデータを複数のスレッドで実行するバリデータを取得する。
+	 * 
+	 * <p>多数のモデルを一括で検証する場合に用いる。子バリデータの構成は{@link #getValidator()}と同じである。
+	 * 返すバリデータは並列度ごとにこのインスタンスにつき1度だけ構築し、以降は同じインスタンスを返す。
+	 * このため、呼び出しの度にスレッドプールが増えることはない。</p>
+	 * 
+	 * @param parallelism 子バリデータを実行するスレッド数の上限
+	 * @return {@link MySqlValidator}
+	 * @throws IllegalArgumentException 引数が正の値でない場合
+	 * @see MySqlValidator#withParallelism(int)
+	 */
+	public MySqlValidator getValidator(int parallelism) {
+		Validate.isTrue(parallelism > 0);
+		MySqlValidator base = (MySqlValidator) getValidator();
+		synchronized (this) {
+			if (parallelValidators == null) {
+				parallelValidators = Maps.newHashMap();
+			}
+			MySqlValidator result = parallelValidators.get(parallelism);
+			if (result == null) {
+				result = base.withParallelism(parallelism);
+				parallelValidators.put(parallelism, result);
+			}
+			return result;
+		}
 	}
 }
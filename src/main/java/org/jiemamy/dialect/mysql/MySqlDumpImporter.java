@@ -0,0 +1,212 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dialect.mysql.internal.MySqlCreateTableParser;
+import org.jiemamy.dialect.mysql.internal.MySqlDumpReader;
+import org.jiemamy.dialect.mysql.internal.MySqlTableDefinition;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * {@code mysqldump}の出力（スキーマのみのSQLファイル等）から{@link DbObject}を読み込むインポータ。
+ * 
+ * <p>データベースに接続せずに、{@link MySqlDatabaseMetadataParser}と同様のテーブル及びビューを組み立てる。
+ * 入力は{@link MySqlDumpReader}でストリームとして読み、{@code INSERT}文はバッファせずに読み飛ばすため、
+ * データを含む巨大なダンプでも使用するメモリは一定である。gzip圧縮された入力は自動的に展開する。</p>
+ * 
+ * <p>{@code DROP TABLE}, {@code DROP VIEW}文も解釈するため、{@code mysqldump}がビューの代わりに出力する
+ * 一時テーブルは、後続のビュー定義で置き換えられる。{@code FOREIGN KEY}句は、全ての文を読み終えた後に
+ * 参照先のテーブルのカラムへ解決する。参照先が見つからない外部キーは読み飛ばす。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlDumpImporter {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlDumpImporter.class);
+	
+	/** 読み込む文の最大長のデフォルト値 */
+	public static final int DEFAULT_MAX_STATEMENT_LENGTH = 1024 * 1024;
+	
+	// FORMAT-OFF
+	private static final Pattern CREATE_TABLE = Pattern.compile(
+			"^CREATE\\s+(TEMPORARY\\s+)?TABLE\\s", Pattern.CASE_INSENSITIVE);
+	
+	private static final Pattern CREATE_VIEW = Pattern.compile(
+			"^CREATE\\s+(OR\\s+REPLACE\\s+)?(ALGORITHM\\s*=\\s*\\w+\\s+)?(DEFINER\\s*=\\s*\\S+\\s+)?"
+			+ "(SQL\\s+SECURITY\\s+\\w+\\s+)?VIEW\\s+((`(?:[^`]|``)+`\\.)?(`(?:[^`]|``)+`|[^\\s(]+))"
+			+ "(\\s*\\([^)]*\\))?\\s+AS\\s+(.*)$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	
+	private static final Pattern DROP = Pattern.compile(
+			"^DROP\\s+(TEMPORARY\\s+)?(TABLE|VIEW)\\s+(IF\\s+EXISTS\\s+)?(.+)$",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	// FORMAT-ON
+	
+	private static final int GZIP_MAGIC = 0x8b1f;
+	
+	
+	private final MySqlCreateTableParser parser = new MySqlCreateTableParser();
+	
+	private final int maxStatementLength;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 */
+	public MySqlDumpImporter() {
+		this(DEFAULT_MAX_STATEMENT_LENGTH);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param maxStatementLength 読み込む文の最大長. これを超える文は読み飛ばす
+	 * @throws IllegalArgumentException 引数が正の値でない場合
+	 */
+	public MySqlDumpImporter(int maxStatementLength) {
+		Validate.isTrue(maxStatementLength > 0);
+		this.maxStatementLength = maxStatementLength;
+	}
+	
+	/**
+	 * ダンプを読み込み、テーブル及びビューを{@code context}に追加する。
+	 * 
+	 * <p>入力がgzip形式の場合は自動的に展開する。{@code in}は閉じない。</p>
+	 * 
+	 * @param in ダンプの入力ストリーム
+	 * @param charsetName ダンプの文字セット名
+	 * @param context 追加先のコンテキスト
+	 * @return 追加した{@link DbObject}のリスト
+	 * @throws IOException 入力の読み込みに失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public List<DbObject> importDump(InputStream in, String charsetName, JiemamyContext context) throws IOException {
+		Validate.notNull(in);
+		Validate.notNull(charsetName);
+		Validate.notNull(context);
+		BufferedInputStream bin = new BufferedInputStream(in);
+		bin.mark(2);
+		int magic = bin.read() | (bin.read() << 8);
+		bin.reset();
+		InputStream source = magic == GZIP_MAGIC ? new GZIPInputStream(bin) : bin;
+		return importDump(new InputStreamReader(source, charsetName), context);
+	}
+	
+	/**
+	 * ダンプを読み込み、テーブル及びビューを{@code context}に追加する。{@code reader}は閉じない。
+	 * 
+	 * @param reader ダンプの入力
+	 * @param context 追加先のコンテキスト
+	 * @return 追加した{@link DbObject}のリスト
+	 * @throws IOException 入力の読み込みに失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public List<DbObject> importDump(Reader reader, JiemamyContext context) throws IOException {
+		Validate.notNull(reader);
+		Validate.notNull(context);
+		Map<String, DbObject> dbObjects = Maps.newLinkedHashMap();
+		Map<String, MySqlTableDefinition> definitions = Maps.newHashMap();
+		MySqlDumpReader dumpReader = new MySqlDumpReader(reader, maxStatementLength);
+		String statement;
+		while ((statement = dumpReader.nextStatement()) != null) {
+			Matcher matcher;
+			if (CREATE_TABLE.matcher(statement).find()) {
+				createTable(statement, dbObjects, definitions);
+			} else if ((matcher = CREATE_VIEW.matcher(statement)).matches()) {
+				JmView view = new JmView();
+				view.setName(unquote(matcher.group(7)));
+				view.setDefinition(matcher.group(9).trim());
+				dbObjects.remove(view.getName());
+				dbObjects.put(view.getName(), view);
+			} else if ((matcher = DROP.matcher(statement)).matches()) {
+				for (String name : StringUtils.split(matcher.group(4), ',')) {
+					dbObjects.remove(unquote(name.trim()));
+				}
+			}
+		}
+		logger.debug("{} objects imported, {} statements skipped", dbObjects.size(),
+				dumpReader.getSkippedStatements());
+		
+		// 参照先のテーブルは後続の文で定義されることがあるため、全ての文を読んでから外部キーを解決する
+		for (DbObject dbObject : dbObjects.values()) {
+			if (dbObject instanceof JmTable) {
+				MySqlForeignKeyImportVisitor.addForeignKeys((JmTable) dbObject,
+						definitions.get(dbObject.getName()).getForeignKeys(), dbObjects);
+			}
+		}
+		
+		List<DbObject> result = Lists.newArrayList(dbObjects.values());
+		for (DbObject dbObject : result) {
+			context.add(dbObject);
+		}
+		return result;
+	}
+	
+	private void createTable(String statement, Map<String, DbObject> dbObjects,
+			Map<String, MySqlTableDefinition> definitions) {
+		MySqlTableDefinition definition;
+		try {
+			definition = parser.parse(statement);
+		} catch (IllegalArgumentException e) {
+			logger.warn("failed to parse CREATE TABLE statement: " + StringUtils.abbreviate(statement, 64), e);
+			return;
+		}
+		JmTable table = definition.toJmTable();
+		if (definition.getEngine() != null) {
+			table.putParam(MySqlParameterKeys.STORAGE_ENGINE,
+					MySqlDbObjectImportVisitor.toStorageEngineType(definition.getEngine()));
+		}
+		dbObjects.remove(table.getName());
+		dbObjects.put(table.getName(), table);
+		definitions.put(table.getName(), definition);
+	}
+	
+	private String unquote(String name) {
+		int dot = name.lastIndexOf("`.`");
+		String simpleName = dot < 0 ? name : name.substring(dot + 2);
+		if (simpleName.length() >= 2 && simpleName.startsWith("`") && simpleName.endsWith("`")) {
+			return StringUtils.replace(simpleName.substring(1, simpleName.length() - 1), "``", "`");
+		}
+		int plainDot = simpleName.lastIndexOf('.');
+		return plainDot < 0 ? simpleName : simpleName.substring(plainDot + 1);
+	}
+}
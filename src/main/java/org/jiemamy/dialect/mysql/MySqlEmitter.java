@@ -18,23 +18,39 @@
  */
 package org.jiemamy.dialect.mysql;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
 
 import org.jiemamy.JiemamyContext;
 import org.jiemamy.dialect.DefaultSqlEmitter;
 import org.jiemamy.dialect.Dialect;
+import org.jiemamy.dialect.EmitConfig;
 import org.jiemamy.dialect.SqlEmitter;
 import org.jiemamy.dialect.TokenResolver;
+import org.jiemamy.dialect.mysql.internal.MySqlBulkLoadScripts;
 import org.jiemamy.dialect.mysql.internal.MySqlIdentifier;
+import org.jiemamy.dialect.mysql.internal.MySqlLoadDataWriter;
 import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
 import org.jiemamy.dialect.mysql.parameter.StorageEngineType;
 import org.jiemamy.model.DbObject;
 import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.datatype.DataType;
 import org.jiemamy.model.datatype.LiteralType;
 import org.jiemamy.model.sql.Identifier;
 import org.jiemamy.model.sql.Keyword;
@@ -48,10 +64,44 @@ import org.jiemamy.model.table.JmTable;
 /**
  * MySQL用の{@link SqlEmitter}実装クラス。
  * 
+ * <p>並列度（{@link #setParallelism(int)}）に2以上を指定した場合、各{@link DbObject}のCREATE文を複数のスレッドで
+ * 事前に生成する。各スレッドはそれぞれ専用のインスタンスで生成し、インスタンス間で共有するのは{@link Dialect}と
+ * {@link TokenResolver}のみである（このため{@link TokenResolver}は状態を持たないこと）。
+ * 文の並び順は逐次生成と同じであり、出力は並列度によらず同一である。</p>
+ * 
+ * <p>{@link MySqlExportConfig}で拡張INSERT文の最大バイト数を指定した場合、同じテーブル・同じカラムに対する連続したINSERT文を
+ * {@code INSERT ... VALUES (...), (...)}形式の1文にまとめる。また、{@code LOAD DATA INFILE}用データファイルの出力先を指定した場合、
+ * INSERT文の代わりにデータファイルと{@code LOAD DATA LOCAL INFILE}文を出力する。</p>
+ * 
+ * <p>{@link #emit(JiemamyContext, EmitConfig)}は呼び出し毎の状態をフィールドに保持しないため、
+ * 同じインスタンスを複数のスレッドから同時に呼び出してよい。ただし、{@link #setParallelism(int)}による設定の変更は
+ * 呼び出しと同時に行わないこと。</p>
+ * 
  * @author daisuke
  */
 public class MySqlEmitter extends DefaultSqlEmitter {
 	
+	/**
+	 * 識別子文字列と{@link MySqlIdentifier}のキャッシュ. 1回のエクスポートで同じ識別子の引用は1度だけ行う.
+	 * 1回の{@link #emit(JiemamyContext, EmitConfig)}のために生成したインスタンスのみが持ち、呼び出し終了と共に破棄される.
+	 * それ以外のインスタンスでは{@code null}
+	 */
+	private final Map<String, MySqlIdentifier> identifiers;
+	
+	private final Dialect dialect;
+	
+	private final TokenResolver tokenResolver;
+	
+	/** 対象とするサーバのバージョン. 不明な場合は{@code null} */
+	private final MySqlVersion targetVersion;
+	
+	/** CREATE文を生成するスレッド数の上限 */
+	private int parallelism = 1;
+	
+	/** 事前に生成したCREATE文. 1回の{@link #emit(JiemamyContext, EmitConfig)}のために生成したインスタンスのみが持つ */
+	private final Map<DbObject, SqlStatement> prerendered;
+	
+	
 	/**
 	 * インスタンスを生成する。
 	 * 
@@ -70,13 +120,81 @@ public class MySqlEmitter extends DefaultSqlEmitter {
 	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
 	 */
 	protected MySqlEmitter(Dialect dialect, TokenResolver tokenResolver) {
+		this(dialect, tokenResolver, Collections.<DbObject, SqlStatement> emptyMap(), null);
+	}
+	
+	private MySqlEmitter(Dialect dialect, TokenResolver tokenResolver, Map<DbObject, SqlStatement> prerendered,
+			Map<String, MySqlIdentifier> identifiers) {
 		super(dialect, tokenResolver);
+		this.dialect = dialect;
+		this.tokenResolver = tokenResolver;
+		this.prerendered = prerendered;
+		this.identifiers = identifiers;
+		targetVersion = dialect instanceof MySqlDialect ? ((MySqlDialect) dialect).getTargetVersion() : null;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>並列度が2以上の場合、CREATE文を事前に並列生成してから、逐次生成と同じ順序で組み立てる。</p>
+	 * 
+	 * <p>{@code config}が{@link MySqlExportConfig}であり、拡張INSERT文の最大バイト数が指定されている場合は、
+	 * 連続したINSERT文をその大きさを超えない範囲でまとめる。{@code LOAD DATA INFILE}用データファイルの出力先が指定されている場合は、
+	 * INSERT文の値をデータファイルに書き出し、INSERT文を{@code LOAD DATA LOCAL INFILE}文に置き換える。
+	 * 一括投入に適した順序が指定されている場合は、最後に{@link MySqlBulkLoadScripts}で並べ替える。</p>
+	 * 
+	 * @throws IllegalStateException データファイルの書き出しに失敗した場合
+	 */
+	@Override
+	public List<SqlStatement> emit(JiemamyContext context, EmitConfig config) {
+		// 事前に生成したCREATE文と識別子のキャッシュは、この呼び出しのためのインスタンスに持たせ、このインスタンスには保持しない
+		Map<DbObject, SqlStatement> rendered =
+				parallelism <= 1 ? Collections.<DbObject, SqlStatement> emptyMap() : prerender(context);
+		List<SqlStatement> statements = new MySqlEmitter(dialect, tokenResolver, rendered,
+				Maps.<String, MySqlIdentifier> newHashMap()).emitStatements(context, config);
+		
+		if (config instanceof MySqlExportConfig) {
+			MySqlExportConfig mySqlConfig = (MySqlExportConfig) config;
+			if (mySqlConfig.getLoadDataDirectory() != null) {
+				try {
+					statements = replaceInsertStatements(statements, mySqlConfig.getLoadDataDirectory(), targetVersion);
+				} catch (IOException e) {
+					throw new IllegalStateException("failed to write data file", e);
+				}
+			} else if (mySqlConfig.getExtendedInsertBytes() > 0) {
+				statements = mergeInsertStatements(statements, mySqlConfig.getExtendedInsertBytes());
+			}
+			if (mySqlConfig.isBulkLoadOrdering()) {
+				statements = MySqlBulkLoadScripts.reorder(statements, mySqlConfig.isDisableBinaryLog());
+			}
+		}
+		return statements;
+	}
+	
+	/**
+	 * CREATE文を生成するスレッド数の上限を取得する。
+	 * 
+	 * @return スレッド数の上限
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * CREATE文を生成するスレッド数の上限を設定する。デフォルトは{@code 1}（逐次生成）である。
+	 * 
+	 * @param parallelism スレッド数の上限
+	 * @throws IllegalArgumentException 引数が正の値でない場合
+	 */
+	public void setParallelism(int parallelism) {
+		Validate.isTrue(parallelism > 0);
+		this.parallelism = parallelism;
 	}
 	
 	@Override
 	protected List<Token> emitColumn(JiemamyContext context, JmTable table, JmColumn column, TokenResolver tokenResolver) {
 		List<Token> tokens = Lists.newArrayList();
-		tokens.add(Identifier.of(column.getName()));
+		tokens.add(toMySqlIdentifier(column.getName()));
 		tokens.addAll(tokenResolver.resolve(column.getDataType()));
 		
 		if (column.isNotNull()) {
@@ -98,10 +216,252 @@ public class MySqlEmitter extends DefaultSqlEmitter {
 	
 	@Override
 	protected SqlStatement emitCreateDbObjectStatement(JiemamyContext context, DbObject dbObject) {
+		SqlStatement statement = prerendered.get(dbObject);
+		if (statement != null) {
+			return statement;
+		}
+		return renderCreateDbObjectStatement(context, dbObject);
+	}
+	
+	@Override
+	protected SqlStatement emitDropDbObjectStatement(DbObject dbObject) {
+		SimpleSqlStatement stmt = (SimpleSqlStatement) super.emitDropDbObjectStatement(dbObject);
+		List<Token> tokens = stmt.toTokens();
+		convertIdentifierToMySqlIdentifier(tokens);
+		tokens.addAll(2, Arrays.asList((Token) Keyword.of("IF"), Keyword.of("EXISTS")));
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	/**
+	 * 同じテーブル・同じカラムに対する連続したINSERT文を、拡張INSERT文にまとめる。
+	 * 
+	 * <p>{@code VALUES}までの部分が等しいINSERT文が連続する場合に、値リストを{@code ,}で連結する。
+	 * まとめた文の大きさ（UTF-8換算）が{@code maxBytes}を超える場合は、そこで文を分ける。
+	 * INSERT文以外の文は、その位置のまま残す。</p>
+	 * 
+	 * @param statements SQL文のリスト
+	 * @param maxBytes 1文あたりの最大バイト数
+	 * @return まとめた後のSQL文のリスト
+	 */
+	static List<SqlStatement> mergeInsertStatements(List<SqlStatement> statements, int maxBytes) {
+		List<SqlStatement> result = Lists.newArrayListWithCapacity(statements.size());
+		List<Token> merged = null;
+		String mergedPrefix = null;
+		int mergedBytes = 0;
+		for (SqlStatement statement : statements) {
+			List<Token> tokens = statement.toTokens();
+			int values = indexOfValues(tokens);
+			if (values < 0) {
+				flush(merged, result);
+				merged = null;
+				result.add(statement);
+				continue;
+			}
+			
+			int end = tokens.size();
+			if (end > 0 && tokens.get(end - 1) == Separator.SEMICOLON) {
+				end--;
+			}
+			String prefix = new SimpleSqlStatement(tokens.subList(0, values + 1)).toString();
+			int bytes = utf8Length(statement.toString());
+			// ", " で連結する分を加える
+			int rowBytes = bytes - utf8Length(prefix) + 2;
+			if (merged != null && prefix.equals(mergedPrefix) && mergedBytes + rowBytes <= maxBytes) {
+				merged.add(Separator.COMMA);
+				merged.addAll(tokens.subList(values + 1, end));
+				mergedBytes += rowBytes;
+			} else {
+				flush(merged, result);
+				merged = Lists.newArrayList(tokens.subList(0, end));
+				mergedPrefix = prefix;
+				mergedBytes = bytes;
+			}
+		}
+		flush(merged, result);
+		return result;
+	}
+	
+	/**
+	 * INSERT文の値をテーブル毎のデータファイルに書き出し、INSERT文を{@code LOAD DATA LOCAL INFILE}文に置き換える。
+	 * 
+	 * <p>{@code LOAD DATA LOCAL INFILE}文は、各テーブルへの最初のINSERT文の位置に1つだけ出力する。
+	 * INSERT文は書き出した都度{@code statements}から参照を外すため、データセット全体を二重に保持することはない。
+	 * 値にリテラル以外（{@code NOW()}等）を含むINSERT文は、データファイルに書き出さずにその位置に残す。</p>
+	 * 
+	 * @param statements SQL文のリスト
+	 * @param directory データファイルの出力先ディレクトリ
+	 * @param serverVersion 読み込み先サーバのバージョン. 不明な場合は{@code null}
+	 * @return 置き換えた後のSQL文のリスト
+	 * @throws IOException データファイルの書き出しに失敗した場合
+	 */
+	static List<SqlStatement> replaceInsertStatements(List<SqlStatement> statements, File directory,
+			MySqlVersion serverVersion) throws IOException {
+		List<SqlStatement> result = Lists.newArrayList();
+		MySqlLoadDataWriter writer = new MySqlLoadDataWriter(directory, serverVersion);
+		try {
+			for (ListIterator<SqlStatement> itr = statements.listIterator(); itr.hasNext();) {
+				SqlStatement statement = itr.next();
+				List<Token> tokens = statement.toTokens();
+				int values = indexOfValues(tokens);
+				if (values < 0 || MySqlLoadDataWriter.isLoadable(tokens, values) == false) {
+					result.add(statement);
+					continue;
+				}
+				itr.set(null);
+				SqlStatement loadStatement = writer.write(tokens, values);
+				if (loadStatement != null) {
+					result.add(loadStatement);
+				}
+			}
+		} finally {
+			writer.close();
+		}
+		return result;
+	}
+	
+	private static void flush(List<Token> merged, List<SqlStatement> result) {
+		if (merged != null) {
+			merged.add(Separator.SEMICOLON);
+			result.add(new SimpleSqlStatement(merged));
+		}
+	}
+	
+	private static int indexOfValues(List<Token> tokens) {
+		if (tokens.isEmpty() || Keyword.INSERT.equals(tokens.get(0)) == false) {
+			return -1;
+		}
+		return tokens.indexOf(Keyword.VALUES);
+	}
+	
+	private static int utf8Length(CharSequence sequence) {
+		int length = 0;
+		for (int i = 0; i < sequence.length(); i++) {
+			char ch = sequence.charAt(i);
+			if (ch < 0x80) {
+				length++;
+			} else if (ch < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(ch)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+	
+	/**
+	 * CREATE TABLE文と同じ形式のカラム定義を生成する。
+	 * 
+	 * @param context 対象コンテキスト
+	 * @param table カラムを持つテーブル
+	 * @param column 対象カラム
+	 * @return カラム定義のトークン列
+	 */
+	List<Token> emitColumnDefinition(JiemamyContext context, JmTable table, JmColumn column) {
+		return emitColumn(context, table, column, tokenResolver);
+	}
+	
+	/**
+	 * データ型をトークン列に変換する。
+	 * 
+	 * @param dataType データ型
+	 * @return トークン列
+	 */
+	List<Token> resolveDataType(DataType dataType) {
+		return tokenResolver.resolve(dataType);
+	}
+	
+	/**
+	 * 識別子文字列に対応する{@link MySqlIdentifier}を取得する。
+	 * 
+	 * @param name 識別子文字列
+	 * @return {@link MySqlIdentifier}
+	 */
+	MySqlIdentifier toMySqlIdentifier(String name) {
+		if (identifiers == null) {
+			return MySqlIdentifier.of(name);
+		}
+		MySqlIdentifier identifier = identifiers.get(name);
+		if (identifier == null) {
+			identifier = MySqlIdentifier.of(name);
+			identifiers.put(name, identifier);
+		}
+		return identifier;
+	}
+	
+	private void convertIdentifierToMySqlIdentifier(List<Token> tokens) {
+		for (ListIterator<Token> itr = tokens.listIterator(); itr.hasNext();) {
+			Token token = itr.next();
+			if (token instanceof Identifier && token instanceof MySqlIdentifier == false) {
+				itr.set(toMySqlIdentifier(token.toString()));
+			}
+		}
+	}
+	
+	private List<SqlStatement> emitStatements(JiemamyContext context, EmitConfig config) {
+		return super.emit(context, config);
+	}
+	
+	/**
+	 * 各{@link DbObject}のCREATE文を並列に生成する。
+	 * 
+	 * <p>{@link DbObject}を並列度と同じ数のグループに分け、グループ毎に専用の{@link MySqlEmitter}で生成する。</p>
+	 */
+	private Map<DbObject, SqlStatement> prerender(final JiemamyContext context) {
+		List<? extends DbObject> dbObjects = Lists.newArrayList(context.getDbObjects());
+		Map<DbObject, SqlStatement> result = Maps.newHashMap();
+		if (dbObjects.size() < 2) {
+			return result;
+		}
+		int tasks = Math.min(parallelism, dbObjects.size());
+		List<Future<Map<DbObject, SqlStatement>>> futures = Lists.newArrayListWithCapacity(tasks);
+		ExecutorService executor = Executors.newFixedThreadPool(tasks);
+		try {
+			for (int i = 0; i < tasks; i++) {
+				final List<? extends DbObject> group =
+						dbObjects.subList(i * dbObjects.size() / tasks, (i + 1) * dbObjects.size() / tasks);
+				futures.add(executor.submit(new Callable<Map<DbObject, SqlStatement>>() {
+					
+					public Map<DbObject, SqlStatement> call() {
+						MySqlEmitter emitter = new MySqlEmitter(dialect, tokenResolver,
+								Collections.<DbObject, SqlStatement> emptyMap(), Maps.<String, MySqlIdentifier> newHashMap());
+						Map<DbObject, SqlStatement> rendered = Maps.newHashMap();
+						for (DbObject dbObject : group) {
+							rendered.put(dbObject, emitter.renderCreateDbObjectStatement(context, dbObject));
+						}
+						return rendered;
+					}
+				}));
+			}
+			for (Future<Map<DbObject, SqlStatement>> future : futures) {
+				result.putAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			// 事前生成を諦め、逐次生成に任せる
+			Thread.currentThread().interrupt();
+			result.clear();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+	
+	private SqlStatement renderCreateDbObjectStatement(JiemamyContext context, DbObject dbObject) {
 		SimpleSqlStatement statement = (SimpleSqlStatement) super.emitCreateDbObjectStatement(context, dbObject);
 		
 		List<Token> tokens = statement.toTokens();
-		tokens = convertIdentifierToMySqlIdentifier(tokens);
+		convertIdentifierToMySqlIdentifier(tokens);
 		
 		if (dbObject instanceof JmTable) {
 			JmTable table = (JmTable) dbObject;
@@ -120,26 +480,4 @@ public class MySqlEmitter extends DefaultSqlEmitter {
 		
 		return new SimpleSqlStatement(tokens);
 	}
-	
-	@Override
-	protected SqlStatement emitDropDbObjectStatement(DbObject dbObject) {
-		SimpleSqlStatement stmt = (SimpleSqlStatement) super.emitDropDbObjectStatement(dbObject);
-		List<Token> tokens = stmt.toTokens();
-		tokens = convertIdentifierToMySqlIdentifier(tokens);
-		tokens.addAll(2, Arrays.asList((Token) Keyword.of("IF"), Keyword.of("EXISTS")));
-		return new SimpleSqlStatement(tokens);
-	}
-	
-	private List<Token> convertIdentifierToMySqlIdentifier(List<Token> tokens) {
-		List<Token> result = Lists.newArrayListWithCapacity(tokens.size());
-		for (Token token : tokens) {
-			if (token instanceof Identifier) {
-				Identifier identifier = (Identifier) token;
-				result.add(MySqlIdentifier.of(identifier.toString()));
-			} else {
-				result.add(token);
-			}
-		}
-		return result;
-	}
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.io.File;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.composer.exporter.SimpleSqlExportConfig;
+
+/**
+ * MySQL固有の出力オプションを持つSQLエクスポート設定。
+ * 
+ * <p>{@link MySqlEmitter}に与えた場合に、MySQL固有のオプションが有効になる。
+ * その他の{@link org.jiemamy.dialect.SqlEmitter}に与えた場合は、{@link SimpleSqlExportConfig}として振る舞う。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlExportConfig extends SimpleSqlExportConfig {
+	
+	/** 拡張INSERT文1文あたりの最大バイト数. {@code 0}の場合は拡張INSERT文を使用しない */
+	private int extendedInsertBytes;
+	
+	/** {@code LOAD DATA INFILE}用データファイルの出力先ディレクトリ. {@code null}の場合はINSERT文を出力する */
+	private File loadDataDirectory;
+	
+	/** データの一括投入に適した順序でスクリプトを出力する場合は{@code true} */
+	private boolean bulkLoadOrdering;
+	
+	/** 一括投入時にバイナリログへの記録を止める場合は{@code true} */
+	private boolean disableBinaryLog;
+	
+	
+	/**
+	 * 拡張INSERT文1文あたりの最大バイト数を取得する。
+	 * 
+	 * @return 最大バイト数. 拡張INSERT文を使用しない場合は{@code 0}
+	 */
+	public int getExtendedInsertBytes() {
+		return extendedInsertBytes;
+	}
+	
+	/**
+	 * {@code LOAD DATA INFILE}用データファイルの出力先ディレクトリを取得する。
+	 * 
+	 * @return 出力先ディレクトリ. INSERT文を出力する場合は{@code null}
+	 */
+	public File getLoadDataDirectory() {
+		return loadDataDirectory;
+	}
+	
+	/**
+	 * データの一括投入に適した順序でスクリプトを出力するかどうかを取得する。
+	 * 
+	 * @return 一括投入に適した順序で出力する場合は{@code true}
+	 */
+	public boolean isBulkLoadOrdering() {
+		return bulkLoadOrdering;
+	}
+	
+	/**
+	 * 一括投入時にバイナリログへの記録を止めるかどうかを取得する。
+	 * 
+	 * @return バイナリログへの記録を止める場合は{@code true}
+	 */
+	public boolean isDisableBinaryLog() {
+		return disableBinaryLog;
+	}
+	
+	/**
+	 * データの一括投入に適した順序でスクリプトを出力するかどうかを設定する。
+	 * 
+	 * <p>{@code true}を設定すると、テーブルを主キーのみで作成してからデータを投入し、その後で二次インデックス・一意キー・外部キーを
+	 * テーブル毎に1つの{@code ALTER TABLE}文で追加する。スクリプト全体は{@code FOREIGN_KEY_CHECKS=0}, {@code UNIQUE_CHECKS=0}で囲み、
+	 * 最後に元の値に戻す。</p>
+	 * 
+	 * @param bulkLoadOrdering 一括投入に適した順序で出力する場合は{@code true}
+	 */
+	public void setBulkLoadOrdering(boolean bulkLoadOrdering) {
+		this.bulkLoadOrdering = bulkLoadOrdering;
+	}
+	
+	/**
+	 * 一括投入時にバイナリログへの記録を止めるかどうかを設定する。
+	 * 
+	 * <p>{@code true}を設定すると、{@link #isBulkLoadOrdering()}が{@code true}の場合に、スクリプト全体を{@code SQL_LOG_BIN=0}でも囲む。
+	 * {@code SQL_LOG_BIN}の変更には{@code SUPER}権限が必要であり、レプリカには投入内容が伝播しないことに注意すること。</p>
+	 * 
+	 * @param disableBinaryLog バイナリログへの記録を止める場合は{@code true}
+	 */
+	public void setDisableBinaryLog(boolean disableBinaryLog) {
+		this.disableBinaryLog = disableBinaryLog;
+	}
+	
+	/**
+	 * 拡張INSERT文1文あたりの最大バイト数を設定する。
+	 * 
+	 * <p>{@code 1}以上を設定すると、同じテーブル・同じカラムに対する連続したINSERT文を
+	 * {@code INSERT ... VALUES (...), (...)}形式の1文にまとめる。1文の大きさ（UTF-8換算）がこの値を超えないように分割するため、
+	 * サーバの{@code max_allowed_packet}以下の値を設定すること。1行だけでこの値を超える場合は、その行のみで1文とする。</p>
+	 * 
+	 * @param extendedInsertBytes 最大バイト数. {@code 0}の場合は拡張INSERT文を使用しない
+	 * @throws IllegalArgumentException 引数に負の値を与えた場合
+	 */
+	public void setExtendedInsertBytes(int extendedInsertBytes) {
+		Validate.isTrue(extendedInsertBytes >= 0);
+		this.extendedInsertBytes = extendedInsertBytes;
+	}
+	
+	/**
+	 * {@code LOAD DATA INFILE}用データファイルの出力先ディレクトリを設定する。
+	 * 
+	 * <p>{@code null}以外を設定すると、データセットをINSERT文ではなくテーブル毎のタブ区切りファイルとしてこのディレクトリに書き出し、
+	 * スクリプトにはそれを読み込む{@code LOAD DATA LOCAL INFILE}文を出力する。この場合、拡張INSERT文の設定は無視される。</p>
+	 * 
+	 * @param loadDataDirectory 出力先ディレクトリ. INSERT文を出力する場合は{@code null}
+	 */
+	public void setLoadDataDirectory(File loadDataDirectory) {
+		this.loadDataDirectory = loadDataDirectory;
+	}
+}
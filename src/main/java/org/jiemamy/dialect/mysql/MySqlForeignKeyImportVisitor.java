@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dialect.DefaultForeignKeyImportVisitor;
+import org.jiemamy.dialect.ForeignKeyImportVisitor;
+import org.jiemamy.dialect.mysql.internal.MySqlForeignKeyDefinition;
+import org.jiemamy.dialect.mysql.internal.MySqlSchemaSnapshot;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * MySQL用{@link ForeignKeyImportVisitor}実装クラス。
+ * 
+ * <p>外部キーは、{@link MySqlDbObjectImportVisitor}がテーブルの読み込み時に取得した{@link MySqlSchemaSnapshot}
+ * （{@code KEY_COLUMN_USAGE}と{@code REFERENTIAL_CONSTRAINTS}に対する1回の集合クエリ、または{@code SHOW CREATE TABLE}
+ * の結果）から、全てのテーブルが揃った時点でまとめて組み立てる。JDBCのメタデータから渡される行は用いない。
+ * スナップショットがない場合（テーブルを読み込んでいない場合）に限り、親クラスの処理に委ねる。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlForeignKeyImportVisitor extends DefaultForeignKeyImportVisitor {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlForeignKeyImportVisitor.class);
+	
+	
+	/**
+	 * 外部キー定義を{@link JmForeignKeyConstraint}に変換し、テーブルに追加する。
+	 * 
+	 * <p>参照先のテーブルが{@code dbObjects}にない場合や、カラムを解決できない場合は、警告を記録して読み飛ばす。</p>
+	 * 
+	 * @param table 参照元テーブル
+	 * @param definitions 参照元テーブルの外部キー定義
+	 * @param dbObjects 参照先の候補となるオブジェクト名と{@link DbObject}のマップ
+	 */
+	static void addForeignKeys(JmTable table, Collection<MySqlForeignKeyDefinition> definitions,
+			Map<String, ? extends DbObject> dbObjects) {
+		for (MySqlForeignKeyDefinition definition : definitions) {
+			DbObject referenced = dbObjects.get(definition.getReferencedTableName());
+			JmForeignKeyConstraint foreignKey =
+					referenced instanceof JmTable ? definition.toJmForeignKey(table, (JmTable) referenced) : null;
+			if (foreignKey == null) {
+				logger.warn("failed to resolve foreign key: {}", definition);
+				continue;
+			}
+			table.add(foreignKey);
+		}
+	}
+	
+	
+	private final MySqlDbObjectImportVisitor dbObjectImportVisitor;
+	
+	/** インポート中のスキーマのスナップショット. テーブルを読み込んでいない場合は{@code null} */
+	private MySqlSchemaSnapshot snapshot;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect 方言
+	 * @param dbObjectImportVisitor 同じインポートでテーブルを読み込む{@link MySqlDbObjectImportVisitor}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlForeignKeyImportVisitor(MySqlDialect dialect, MySqlDbObjectImportVisitor dbObjectImportVisitor) {
+		super(dialect);
+		Validate.notNull(dbObjectImportVisitor);
+		this.dbObjectImportVisitor = dbObjectImportVisitor;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>{@code context}の全てのテーブルに、スナップショットの外部キーを追加する。</p>
+	 */
+	@Override
+	public void intialize(JiemamyContext context) {
+		super.intialize(context);
+		snapshot = dbObjectImportVisitor.getLoadedSnapshot();
+		if (snapshot == null) {
+			return;
+		}
+		Map<String, JmTable> tables = Maps.newHashMap();
+		for (JmTable table : context.getTables()) {
+			tables.put(table.getName(), table);
+		}
+		Map<String, Collection<MySqlForeignKeyDefinition>> foreignKeys = snapshot.getForeignKeys();
+		int count = 0;
+		for (JmTable table : tables.values()) {
+			Collection<MySqlForeignKeyDefinition> definitions = foreignKeys.get(table.getName());
+			if (definitions != null) {
+				addForeignKeys(table, definitions, tables);
+				count += definitions.size();
+			}
+		}
+		logger.debug("{} foreign keys imported from the schema snapshot", count);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>外部キーは{@link #intialize(JiemamyContext)}でスナップショットから組み立て済みのため、
+	 * スナップショットがある場合は何もしない。</p>
+	 */
+	@Override
+	protected void visitRow(ResultSet rs) throws SQLException {
+		if (snapshot == null) {
+			super.visitRow(rs);
+		}
+	}
+}
@@ -18,20 +18,86 @@
  */
 package org.jiemamy.dialect.mysql;
 
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.ReservedWordsChecker;
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifierScanner;
 import org.jiemamy.validator.impl.AbstractIdentifierValidator;
 
 /**
  * MySQL用識別子バリデータ。
  * 
+ * <p>識別子の検査は{@link MySqlIdentifierScanner}で行う。デフォルトでは、バッククォートで囲まずに用いることができる
+ * 識別子のみを有効とし、予約語も無効とする。バッククォートで囲む前提のインスタンスは、MySQLが引用符付きで
+ * 受け付ける識別子を全て有効とし、予約語も有効とする。</p>
+ * 
  * @author daisuke
  */
-public class MySqlIdentifierValidator extends AbstractIdentifierValidator {
+public class MySqlIdentifierValidator extends AbstractIdentifierValidator implements MySqlValidator.LocalValidator {
+	
+	/** 識別子の検査は{@link #isValid(String)}で行うため、親クラスには空でないことのみを検査させる */
+	private static final String ANY_IDENTIFIER = "(?s).+";
+	
+	/** バッククォートで囲む前提の場合に親クラスへ与える、いずれの語も予約語としないチェッカ */
+	private static final ReservedWordsChecker NO_RESERVED_WORDS = new ReservedWordsChecker() {
+		
+		public boolean isReserved(String name) {
+			return false;
+		}
+	};
+	
+	
+	private final MySqlReservedWordsChecker reservedWordsChecker;
+	
+	private final boolean quoted;
+	
 	
 	/**
-	 * インスタンスを生成する。
+	 * MySQL 5.0の予約語でチェックするインスタンスを生成する。
 	 */
 	public MySqlIdentifierValidator() {
-		super("^[0-9-a-zA-Z_]+$", new MySqlReservedWordsChecker());
+		this(new MySqlReservedWordsChecker());
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param reservedWordsChecker 対象サーバのバージョンの{@link MySqlReservedWordsChecker}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @see MySqlReservedWordsChecker#of(MySqlVersion)
+	 */
+	public MySqlIdentifierValidator(MySqlReservedWordsChecker reservedWordsChecker) {
+		this(reservedWordsChecker, false);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param reservedWordsChecker 対象サーバのバージョンの{@link MySqlReservedWordsChecker}
+	 * @param quoted 識別子をバッククォートで囲む前提で検査する場合は{@code true}
+	 * @throws IllegalArgumentException 引数{@code reservedWordsChecker}に{@code null}を与えた場合
+	 */
+	public MySqlIdentifierValidator(MySqlReservedWordsChecker reservedWordsChecker, boolean quoted) {
+		super(ANY_IDENTIFIER, quoted ? NO_RESERVED_WORDS : reservedWordsChecker);
+		Validate.notNull(reservedWordsChecker);
+		this.reservedWordsChecker = reservedWordsChecker;
+		this.quoted = quoted;
+	}
+	
+	/**
+	 * 識別子をバッククォートで囲む前提で検査するかどうかを取得する。
+	 * 
+	 * @return 囲む前提の場合は{@code true}
+	 */
+	public boolean isQuoted() {
+		return quoted;
 	}
 	
+	@Override
+	protected boolean isValid(String name) {
+		if (quoted) {
+			return MySqlIdentifierScanner.isValidQuoted(name);
+		}
+		return MySqlIdentifierScanner.isValidUnquoted(name) && reservedWordsChecker.isReserved(name) == false;
+	}
 }
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dddbase.EntityRef;
+import org.jiemamy.dialect.mysql.internal.MySqlSchemaSnapshot;
+import org.jiemamy.dialect.mysql.internal.MySqlTableDefinition;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * 前回のインポート結果との差分のみを読み直す、MySQL用の差分インポータ。
+ * 
+ * <p>{@link MySqlSchemaFingerprint}を前回の値と比較し、追加・変更されたテーブル及びビューのみを
+ * {@code information_schema}から読み直す。変更のないオブジェクトは前回の{@link JiemamyContext}から引き継ぎ、
+ * 削除されたオブジェクトは引き継がない。発行するクエリの数は、変更の有無やテーブル数によらず一定である。</p>
+ * 
+ * <p>読み直したテーブルは新しいIDを持つため、その外部キーは{@code information_schema}から読み直して、
+ * 読み直したテーブル及び引き継いだテーブルのカラムに解決する。また、読み直すテーブルを外部キーで参照している
+ * テーブルは、変更がなくても読み直す（{@link Result#getChanged()}には含めない）。</p>
+ * 
+ * <p>読み直したテーブルには、{@link MySqlDbObjectImportVisitor}と同様に、ストレージエンジンとテーブル状態の統計値
+ * （{@link MySqlParameterKeys#TABLE_ROWS}, {@link MySqlParameterKeys#DATA_LENGTH}等）を設定する。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIncrementalImporter {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlIncrementalImporter.class);
+	
+	private static final String VIEWS_SQL = "SELECT TABLE_NAME, VIEW_DEFINITION FROM information_schema.VIEWS "
+			+ "WHERE TABLE_SCHEMA = DATABASE()";
+	
+	
+	/**
+	 * 差分インポートを行う。
+	 * 
+	 * <p>{@code previous}に含まれる{@link DbObject}のうち、変更のないものは{@code target}にそのまま追加する。
+	 * {@code target}には、呼び出し側で必要なファセットやメタデータを設定した空のコンテキストを与えること。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @param previous 前回のインポート結果
+	 * @param previousFingerprint 前回のインポート時の指紋. {@code null}の場合は全てのオブジェクトを読み直す
+	 * @param target インポート先のコンテキスト
+	 * @return 差分インポートの結果
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数{@code conn}, {@code previous}, {@code target}に{@code null}を与えた場合
+	 */
+	public Result reimport(Connection conn, JiemamyContext previous, MySqlSchemaFingerprint previousFingerprint,
+			JiemamyContext target) throws SQLException {
+		Validate.notNull(conn);
+		Validate.notNull(previous);
+		Validate.notNull(target);
+		
+		MySqlSchemaFingerprint fingerprint = MySqlSchemaFingerprint.load(conn);
+		Set<String> added = Sets.newTreeSet();
+		Set<String> changed = Sets.newTreeSet();
+		Set<String> dropped = Sets.newTreeSet();
+		for (String name : fingerprint.getNames()) {
+			String previousValue = previousFingerprint == null ? null : previousFingerprint.getFingerprint(name);
+			if (previousValue == null) {
+				added.add(name);
+			} else if (previousValue.equals(fingerprint.getFingerprint(name)) == false) {
+				changed.add(name);
+			}
+		}
+		if (previousFingerprint != null) {
+			for (String name : previousFingerprint.getNames()) {
+				if (fingerprint.getFingerprint(name) == null) {
+					dropped.add(name);
+				}
+			}
+		}
+		
+		Set<String> tableNames = Sets.newTreeSet();
+		Set<String> viewNames = Sets.newTreeSet();
+		for (String name : Sets.union(added, changed)) {
+			if (fingerprint.isView(name)) {
+				viewNames.add(name);
+			} else {
+				tableNames.add(name);
+			}
+		}
+		
+		Set<String> dependents = collectDependents(previous, tableNames, dropped);
+		tableNames.addAll(dependents);
+		
+		Map<String, JmTable> tables = Maps.newHashMap();
+		for (DbObject dbObject : previous.getDbObjects()) {
+			String name = dbObject.getName();
+			if (tableNames.contains(name) || viewNames.contains(name) || dropped.contains(name)) {
+				continue;
+			}
+			target.add(dbObject);
+			if (dbObject instanceof JmTable) {
+				tables.put(name, (JmTable) dbObject);
+			}
+		}
+		
+		MySqlSchemaSnapshot snapshot = MySqlSchemaSnapshot.load(conn, tableNames);
+		Map<String, MySqlTableStatus> statuses = tableNames.isEmpty()
+				? Collections.<String, MySqlTableStatus> emptyMap()
+				: MySqlTableStatus.loadAll(conn, tableNames);
+		List<JmTable> reloaded = Lists.newArrayList();
+		for (MySqlTableDefinition definition : snapshot.getTables()) {
+			JmTable table = definition.toJmTable();
+			MySqlTableStatus status = statuses.get(table.getName());
+			String engine = definition.getEngine() != null ? definition.getEngine()
+					: status == null ? null : status.getEngine();
+			if (engine != null) {
+				table.putParam(MySqlParameterKeys.STORAGE_ENGINE, MySqlDbObjectImportVisitor.toStorageEngineType(engine));
+			}
+			if (status != null) {
+				MySqlDbObjectImportVisitor.putStatistics(table, status);
+			}
+			tables.put(table.getName(), table);
+			reloaded.add(table);
+		}
+		// 参照先のテーブルが全て揃ってから外部キーを解決する
+		for (JmTable table : reloaded) {
+			MySqlForeignKeyImportVisitor.addForeignKeys(table, snapshot.getTable(table.getName()).getForeignKeys(),
+					tables);
+			target.add(table);
+		}
+		if (viewNames.isEmpty() == false) {
+			loadViews(conn, viewNames, target);
+		}
+		
+		logger.debug("reimported: {} added, {} changed, {} dropped, {} dependents", new Object[] {
+			added.size(),
+			changed.size(),
+			dropped.size(),
+			dependents.size()
+		});
+		return new Result(fingerprint, added, changed, dropped);
+	}
+	
+	/**
+	 * 読み直すテーブルを外部キーで参照している、変更のないテーブルの名前を集める。
+	 * 
+	 * <p>読み直したテーブルのカラムは新しいIDを持つため、これを参照する外部キーもテーブルごと読み直す。
+	 * 参照の連鎖をたどり、読み直すテーブルを参照するテーブルがなくなるまで繰り返す。</p>
+	 */
+	private Set<String> collectDependents(JiemamyContext previous, Set<String> tableNames, Set<String> dropped) {
+		Map<UUID, String> columnOwners = Maps.newHashMap();
+		Collection<JmTable> candidates = Lists.newArrayList();
+		for (JmTable table : previous.getTables()) {
+			for (JmColumn column : table.getColumns()) {
+				columnOwners.put(column.getId(), table.getName());
+			}
+			if (tableNames.contains(table.getName()) == false && dropped.contains(table.getName()) == false) {
+				candidates.add(table);
+			}
+		}
+		
+		Set<String> reloading = Sets.newHashSet(tableNames);
+		Set<String> dependents = Sets.newTreeSet();
+		boolean found = true;
+		while (found) {
+			found = false;
+			for (Iterator<JmTable> itr = candidates.iterator(); itr.hasNext();) {
+				JmTable table = itr.next();
+				if (referencesAny(table, columnOwners, reloading)) {
+					itr.remove();
+					reloading.add(table.getName());
+					dependents.add(table.getName());
+					found = true;
+				}
+			}
+		}
+		return dependents;
+	}
+	
+	private void loadViews(Connection conn, Set<String> viewNames, JiemamyContext target) throws SQLException {
+		PreparedStatement ps = null;
+		try {
+			ps = MySqlSchemaSnapshot.prepareFiltered(conn, VIEWS_SQL, "TABLE_NAME", viewNames, "");
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				JmView view = new JmView();
+				view.setName(rs.getString("TABLE_NAME"));
+				view.setDefinition(rs.getString("VIEW_DEFINITION"));
+				target.add(view);
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+	}
+	
+	private boolean referencesAny(JmTable table, Map<UUID, String> columnOwners, Set<String> tableNames) {
+		for (JmForeignKeyConstraint foreignKey : table.getConstraints(JmForeignKeyConstraint.class)) {
+			for (EntityRef<? extends JmColumn> ref : foreignKey.getReferenceColumns()) {
+				String owner = columnOwners.get(ref.getReferentId());
+				if (owner != null && tableNames.contains(owner)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * 差分インポートの結果。
+	 * 
+	 * @version $Id$
+	 * @author daisuke
+	 */
+	public static class Result {
+		
+		private final MySqlSchemaFingerprint fingerprint;
+		
+		private final Set<String> added;
+		
+		private final Set<String> changed;
+		
+		private final Set<String> dropped;
+		
+		
+		Result(MySqlSchemaFingerprint fingerprint, Set<String> added, Set<String> changed, Set<String> dropped) {
+			this.fingerprint = fingerprint;
+			this.added = Collections.unmodifiableSet(added);
+			this.changed = Collections.unmodifiableSet(changed);
+			this.dropped = Collections.unmodifiableSet(dropped);
+		}
+		
+		/**
+		 * 追加されたテーブル名及びビュー名の集合を取得する。
+		 * 
+		 * @return 追加されたオブジェクト名の読み取り専用集合
+		 */
+		public Set<String> getAdded() {
+			return added;
+		}
+		
+		/**
+		 * 変更されたテーブル名及びビュー名の集合を取得する。
+		 * 
+		 * @return 変更されたオブジェクト名の読み取り専用集合
+		 */
+		public Set<String> getChanged() {
+			return changed;
+		}
+		
+		/**
+		 * 削除されたテーブル名及びビュー名の集合を取得する。
+		 * 
+		 * @return 削除されたオブジェクト名の読み取り専用集合
+		 */
+		public Set<String> getDropped() {
+			return dropped;
+		}
+		
+		/**
+		 * 今回のインポート時の指紋を取得する。次回の差分インポートに与える。
+		 * 
+		 * @return 今回のインポート時の指紋
+		 */
+		public MySqlSchemaFingerprint getFingerprint() {
+			return fingerprint;
+		}
+		
+		/**
+		 * 変更があったかどうかを調べる。
+		 * 
+		 * @return 追加・変更・削除のいずれかがあった場合は{@code true}、そうでない場合は{@code false}
+		 */
+		public boolean hasChanges() {
+			return added.isEmpty() == false || changed.isEmpty() == false || dropped.isEmpty() == false;
+		}
+	}
+}
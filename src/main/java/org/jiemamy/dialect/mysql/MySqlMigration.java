@@ -0,0 +1,156 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * 2つの{@link JiemamyContext}の差分。{@link MySqlMigrationEmitter#diff(JiemamyContext, JiemamyContext)}が生成する。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigration {
+	
+	private final JiemamyContext from;
+	
+	private final JiemamyContext to;
+	
+	private final List<JmView> droppedViews;
+	
+	private final List<JmTable> droppedTables;
+	
+	private final List<JmTable> createdTables;
+	
+	private final List<MySqlAlterTable> alteredTables;
+	
+	private final List<JmView> createdViews;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param from 変更前のコンテキスト
+	 * @param to 変更後のコンテキスト
+	 * @param droppedViews 削除するビュー（定義を変更するビューを含む）
+	 * @param droppedTables 削除するテーブル
+	 * @param createdTables 作成するテーブル
+	 * @param alteredTables 変更するテーブル
+	 * @param createdViews 作成するビュー（定義を変更するビューを含む）
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlMigration(JiemamyContext from, JiemamyContext to, List<JmView> droppedViews,
+			List<JmTable> droppedTables, List<JmTable> createdTables, List<MySqlAlterTable> alteredTables,
+			List<JmView> createdViews) {
+		Validate.notNull(from);
+		Validate.notNull(to);
+		Validate.notNull(droppedViews);
+		Validate.notNull(droppedTables);
+		Validate.notNull(createdTables);
+		Validate.notNull(alteredTables);
+		Validate.notNull(createdViews);
+		this.from = from;
+		this.to = to;
+		this.droppedViews = Collections.unmodifiableList(droppedViews);
+		this.droppedTables = Collections.unmodifiableList(droppedTables);
+		this.createdTables = Collections.unmodifiableList(createdTables);
+		this.alteredTables = Collections.unmodifiableList(alteredTables);
+		this.createdViews = Collections.unmodifiableList(createdViews);
+	}
+	
+	/**
+	 * 変更するテーブルを取得する。
+	 * 
+	 * @return 変更するテーブル
+	 */
+	public List<MySqlAlterTable> getAlteredTables() {
+		return alteredTables;
+	}
+	
+	/**
+	 * 作成するテーブルを取得する。
+	 * 
+	 * @return 作成するテーブル
+	 */
+	public List<JmTable> getCreatedTables() {
+		return createdTables;
+	}
+	
+	/**
+	 * 作成するビューを取得する。
+	 * 
+	 * @return 作成するビュー（定義を変更するビューを含む）
+	 */
+	public List<JmView> getCreatedViews() {
+		return createdViews;
+	}
+	
+	/**
+	 * 削除するテーブルを取得する。
+	 * 
+	 * @return 削除するテーブル
+	 */
+	public List<JmTable> getDroppedTables() {
+		return droppedTables;
+	}
+	
+	/**
+	 * 削除するビューを取得する。
+	 * 
+	 * @return 削除するビュー（定義を変更するビューを含む）
+	 */
+	public List<JmView> getDroppedViews() {
+		return droppedViews;
+	}
+	
+	/**
+	 * 変更前のコンテキストを取得する。
+	 * 
+	 * @return 変更前のコンテキスト
+	 */
+	public JiemamyContext getFrom() {
+		return from;
+	}
+	
+	/**
+	 * 変更後のコンテキストを取得する。
+	 * 
+	 * @return 変更後のコンテキスト
+	 */
+	public JiemamyContext getTo() {
+		return to;
+	}
+	
+	/**
+	 * 差分があるかどうかを調べる。
+	 * 
+	 * @return 差分がある場合は{@code true}
+	 */
+	public boolean hasChanges() {
+		return droppedViews.isEmpty() == false || droppedTables.isEmpty() == false || createdTables.isEmpty() == false
+				|| alteredTables.isEmpty() == false || createdViews.isEmpty() == false;
+	}
+}
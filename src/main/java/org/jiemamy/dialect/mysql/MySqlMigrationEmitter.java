@@ -0,0 +1,708 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dddbase.EntityRef;
+import org.jiemamy.dialect.mysql.MySqlAlterOperation.Kind;
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifier;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.dialect.mysql.parameter.StorageEngineType;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.JmKeyConstraint;
+import org.jiemamy.model.constraint.JmUniqueKeyConstraint;
+import org.jiemamy.model.constraint.ReferentialAction;
+import org.jiemamy.model.datatype.LiteralType;
+import org.jiemamy.model.index.JmIndex;
+import org.jiemamy.model.index.JmIndexColumn;
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * 2つの{@link JiemamyContext}を比較し、変更前から変更後へ移行するためのSQL文を生成するクラス。
+ * 
+ * <p>テーブル及びカラムはIDで対応付け、IDが一致しない場合は名前で対応付ける。このため、同じモデルを編集した場合は
+ * テーブル名・カラム名の変更を{@code RENAME TO}, {@code CHANGE COLUMN}として検出する。</p>
+ * 
+ * <p>1つのテーブルに対する変更（カラムの追加・削除・変更、主キー・一意キー・インデックス・外部キー、ストレージエンジン、
+ * テーブル名）は、テーブルの再構築が1回で済むように、全て1つの{@code ALTER TABLE}文にまとめる。
+ * インデックスは一意性と構成するカラムで、外部キーは構成するカラム・参照先のテーブルとカラム・参照動作で対応付け、
+ * 変更があった場合は削除して追加し直す。削除には名前が必要なため、名前のないインデックス・外部キーは削除しない。
+ * カラムの並び順の変更は比較しない。</p>
+ * 
+ * <p>サーバのバージョン（{@link #setServerVersion(MySqlVersion)}）を指定した場合、各{@code ALTER TABLE}文の実行方式を
+ * {@link MySqlAlterAlgorithm}で判定し、実行できる中で最もコストの小さい{@code ALGORITHM}句と{@code LOCK}句を付ける。
+ * テーブルのコピーが必要な文は警告を記録するか、{@link #setFailOnTableCopy(boolean)}の指定に従い例外とする。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationEmitter {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlMigrationEmitter.class);
+	
+	
+	private final MySqlEmitter emitter;
+	
+	/** 実行先サーバのバージョン. {@code null}の場合は実行方式を指定しない */
+	private MySqlVersion serverVersion;
+	
+	/** テーブルのコピーが必要な変更を例外とする場合は{@code true} */
+	private boolean failOnTableCopy;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect {@link MySqlDialect}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlMigrationEmitter(MySqlDialect dialect) {
+		this(new MySqlEmitter(dialect));
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param emitter CREATE文、DROP文及びカラム定義の生成に用いる{@link MySqlEmitter}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlMigrationEmitter(MySqlEmitter emitter) {
+		Validate.notNull(emitter);
+		this.emitter = emitter;
+	}
+	
+	/**
+	 * 2つのコンテキストの差分を求める。
+	 * 
+	 * @param from 変更前のコンテキスト
+	 * @param to 変更後のコンテキスト
+	 * @return 差分
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlMigration diff(JiemamyContext from, JiemamyContext to) {
+		Validate.notNull(from);
+		Validate.notNull(to);
+		
+		List<JmTable> droppedTables = Lists.newArrayList(from.getTables());
+		List<JmTable> createdTables = Lists.newArrayList();
+		List<MySqlAlterTable> alteredTables = Lists.newArrayList();
+		for (JmTable after : to.getTables()) {
+			JmTable before = removeMatching(droppedTables, after);
+			if (before == null) {
+				createdTables.add(after);
+				continue;
+			}
+			MySqlAlterTable alterTable = compare(from, to, before, after);
+			if (alterTable.getOperations().isEmpty() == false) {
+				alteredTables.add(alterTable);
+			}
+		}
+		
+		List<JmView> droppedViews = Lists.newArrayList();
+		List<JmView> remainingViews = Lists.newArrayList(from.getViews());
+		List<JmView> createdViews = Lists.newArrayList();
+		for (JmView after : to.getViews()) {
+			JmView before = removeMatching(remainingViews, after);
+			if (before == null) {
+				createdViews.add(after);
+			} else if (before.getName().equals(after.getName()) == false
+					|| StringUtils.equals(before.getDefinition(), after.getDefinition()) == false) {
+				droppedViews.add(before);
+				createdViews.add(after);
+			}
+		}
+		droppedViews.addAll(remainingViews);
+		
+		return new MySqlMigration(from, to, droppedViews, droppedTables, createdTables, alteredTables, createdViews);
+	}
+	
+	/**
+	 * 2つのコンテキストを比較し、変更前から変更後へ移行するためのSQL文を生成する。
+	 * 
+	 * @param from 変更前のコンテキスト
+	 * @param to 変更後のコンテキスト
+	 * @return SQL文のリスト
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @throws IllegalStateException テーブルのコピーが必要な変更があり、{@link #isFailOnTableCopy()}が{@code true}の場合
+	 */
+	public List<SqlStatement> emit(JiemamyContext from, JiemamyContext to) {
+		return emit(diff(from, to));
+	}
+	
+	/**
+	 * 差分から、変更前から変更後へ移行するためのSQL文を生成する。
+	 * 
+	 * <p>ビューの削除、テーブルの削除、テーブルの作成、テーブルの変更、ビューの作成の順に出力する。</p>
+	 * 
+	 * @param migration 差分
+	 * @return SQL文のリスト
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @throws IllegalStateException テーブルのコピーが必要な変更があり、{@link #isFailOnTableCopy()}が{@code true}の場合
+	 */
+	public List<SqlStatement> emit(MySqlMigration migration) {
+		Validate.notNull(migration);
+		checkTableCopy(migration.getAlteredTables());
+		List<SqlStatement> result = Lists.newArrayList();
+		for (JmView view : migration.getDroppedViews()) {
+			result.add(emitter.emitDropDbObjectStatement(view));
+		}
+		for (JmTable table : migration.getDroppedTables()) {
+			result.add(emitter.emitDropDbObjectStatement(table));
+		}
+		for (JmTable table : migration.getCreatedTables()) {
+			result.add(emitter.emitCreateDbObjectStatement(migration.getTo(), table));
+		}
+		for (MySqlAlterTable alterTable : migration.getAlteredTables()) {
+			result.add(emitAlterTable(alterTable));
+		}
+		for (JmView view : migration.getCreatedViews()) {
+			result.add(emitter.emitCreateDbObjectStatement(migration.getTo(), view));
+		}
+		return result;
+	}
+	
+	/**
+	 * 実行先サーバのバージョンを取得する。
+	 * 
+	 * @return 実行先サーバのバージョン. 指定していない場合は{@code null}
+	 */
+	public MySqlVersion getServerVersion() {
+		return serverVersion;
+	}
+	
+	/**
+	 * テーブルのコピーが必要な変更を例外とするかどうかを取得する。
+	 * 
+	 * @return 例外とする場合は{@code true}
+	 */
+	public boolean isFailOnTableCopy() {
+		return failOnTableCopy;
+	}
+	
+	/**
+	 * テーブルのコピーが必要な変更を例外とするかどうかを設定する。デフォルトは{@code false}（警告を記録する）である。
+	 * 
+	 * @param failOnTableCopy 例外とする場合は{@code true}
+	 */
+	public void setFailOnTableCopy(boolean failOnTableCopy) {
+		this.failOnTableCopy = failOnTableCopy;
+	}
+	
+	/**
+	 * 実行先サーバのバージョンを設定する。
+	 * 
+	 * <p>MySQL 5.6以降を指定した場合、{@code ALTER TABLE}文に{@code ALGORITHM}句と{@code LOCK}句を付ける。</p>
+	 * 
+	 * @param serverVersion 実行先サーバのバージョン. 実行方式を指定しない場合は{@code null}
+	 */
+	public void setServerVersion(MySqlVersion serverVersion) {
+		this.serverVersion = serverVersion;
+	}
+	
+	/**
+	 * テーブルのコピーが必要な変更を検査する。
+	 * 
+	 * <p>該当する変更ごとに警告を記録する。{@link #isFailOnTableCopy()}が{@code true}の場合は、
+	 * 該当する全てのテーブルを挙げて例外とする。実行先サーバのバージョンを指定していない場合は検査しない。</p>
+	 * 
+	 * @param alterTables 変更内容
+	 * @throws IllegalStateException テーブルのコピーが必要な変更があり、{@link #isFailOnTableCopy()}が{@code true}の場合
+	 */
+	void checkTableCopy(Collection<MySqlAlterTable> alterTables) {
+		if (serverVersion == null || serverVersion.compareTo(MySqlAlterAlgorithm.ONLINE_DDL_VERSION) < 0) {
+			return;
+		}
+		List<String> tableNames = Lists.newArrayList();
+		for (MySqlAlterTable alterTable : alterTables) {
+			if (MySqlAlterAlgorithm.classify(alterTable, serverVersion) == MySqlAlterAlgorithm.COPY) {
+				logger.warn("ALTER TABLE " + alterTable.getTableName() + " requires a table copy under lock on MySQL "
+						+ serverVersion + ": " + alterTable.getOperations());
+				tableNames.add(alterTable.getTableName());
+			}
+		}
+		if (failOnTableCopy && tableNames.isEmpty() == false) {
+			throw new IllegalStateException("ALTER TABLE requires a table copy under lock on MySQL " + serverVersion
+					+ ": " + tableNames);
+		}
+	}
+	
+	/**
+	 * {@code ALTER TABLE}文を生成する。
+	 * 
+	 * <p>{@link #isFailOnTableCopy()}は考慮しない。必要に応じて先に{@link #checkTableCopy(Collection)}を呼び出すこと。</p>
+	 * 
+	 * @param alterTable 変更内容
+	 * @return {@code ALTER TABLE}文
+	 */
+	SqlStatement emitAlterTable(MySqlAlterTable alterTable) {
+		if (serverVersion == null || serverVersion.compareTo(MySqlAlterAlgorithm.ONLINE_DDL_VERSION) < 0) {
+			return alterTable.toSqlStatement();
+		}
+		MySqlAlterAlgorithm algorithm = MySqlAlterAlgorithm.classify(alterTable, serverVersion);
+		List<Token> clauses = Lists.newArrayList();
+		clauses.add(Keyword.of("ALGORITHM"));
+		clauses.add(Separator.EQUAL);
+		clauses.add(Keyword.of(algorithm.name()));
+		MySqlAlterLock lock = MySqlAlterAlgorithm.lockFor(alterTable, serverVersion);
+		if (lock != null) {
+			clauses.add(Separator.COMMA);
+			clauses.add(Keyword.of("LOCK"));
+			clauses.add(Separator.EQUAL);
+			clauses.add(Keyword.of(lock.name()));
+		}
+		return alterTable.toSqlStatement(clauses);
+	}
+	
+	/**
+	 * CREATE文、DROP文及びカラム定義の生成に用いる{@link MySqlEmitter}を取得する。
+	 * 
+	 * @return {@link MySqlEmitter}
+	 */
+	MySqlEmitter getEmitter() {
+		return emitter;
+	}
+	
+	private MySqlAlterTable compare(JiemamyContext from, JiemamyContext to, JmTable before, JmTable after) {
+		List<MySqlAlterOperation> operations = Lists.newArrayList();
+		
+		// 変更前のカラムID -> 変更後のカラム名
+		Map<UUID, String> renamed = Maps.newHashMap();
+		List<JmColumn> droppedColumns = Lists.newArrayList(before.getColumns());
+		List<JmColumn> afterColumns = after.getColumns();
+		List<JmColumn> addedColumns = Lists.newArrayList();
+		for (JmColumn afterColumn : afterColumns) {
+			JmColumn beforeColumn = removeMatchingColumn(droppedColumns, afterColumn);
+			if (beforeColumn == null) {
+				addedColumns.add(afterColumn);
+				continue;
+			}
+			renamed.put(beforeColumn.getId(), afterColumn.getName());
+			MySqlAlterOperation operation = compareColumn(to, after, beforeColumn, afterColumn);
+			if (operation != null) {
+				operations.add(operation);
+			}
+		}
+		for (JmColumn column : droppedColumns) {
+			operations.add(new MySqlAlterOperation(Kind.DROP_COLUMN, column.getName(), Lists.newArrayList(
+					Keyword.DROP, Keyword.of("COLUMN"), MySqlIdentifier.of(column.getName()))));
+		}
+		for (JmColumn column : addedColumns) {
+			operations.add(addColumn(to, after, column, addedColumns));
+		}
+		
+		comparePrimaryKey(before, after, renamed, operations);
+		compareUniqueKeys(before, after, renamed, operations);
+		compareIndexes(before, after, renamed, operations);
+		compareForeignKeys(from, to, before, after, renamed, operations);
+		
+		StorageEngineType beforeEngine = before.getParam(MySqlParameterKeys.STORAGE_ENGINE);
+		StorageEngineType afterEngine = after.getParam(MySqlParameterKeys.STORAGE_ENGINE);
+		if (afterEngine != null && StringUtils.isEmpty(afterEngine.toString()) == false
+				&& ObjectUtils.toString(beforeEngine).equals(afterEngine.toString()) == false) {
+			operations.add(new MySqlAlterOperation(Kind.CHANGE_ENGINE, null, Lists.newArrayList(
+					Keyword.of("ENGINE"), Separator.EQUAL, Keyword.of(afterEngine.toString()))));
+		}
+		
+		if (before.getName().equals(after.getName()) == false) {
+			operations.add(new MySqlAlterOperation(Kind.RENAME_TABLE, null, Lists.newArrayList(
+					Keyword.of("RENAME"), Keyword.of("TO"), MySqlIdentifier.of(after.getName()))));
+		}
+		return new MySqlAlterTable(before, after, operations);
+	}
+	
+	private MySqlAlterOperation addColumn(JiemamyContext to, JmTable after, JmColumn column,
+			List<JmColumn> addedColumns) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.ADD);
+		tokens.add(Keyword.of("COLUMN"));
+		tokens.addAll(emitter.emitColumnDefinition(to, after, column));
+		
+		List<JmColumn> afterColumns = after.getColumns();
+		int index = afterColumns.indexOf(column);
+		// 後ろに既存のカラムが続く場合のみ位置を指定する
+		boolean last = addedColumns.containsAll(afterColumns.subList(index, afterColumns.size()));
+		if (last) {
+			return new MySqlAlterOperation(Kind.ADD_COLUMN, column.getName(), tokens);
+		}
+		if (index == 0) {
+			tokens.add(Keyword.of("FIRST"));
+		} else {
+			tokens.add(Keyword.of("AFTER"));
+			tokens.add(MySqlIdentifier.of(afterColumns.get(index - 1).getName()));
+		}
+		return new MySqlAlterOperation(Kind.ADD_COLUMN_IN_MIDDLE, column.getName(), tokens);
+	}
+	
+	private MySqlAlterOperation compareColumn(JiemamyContext to, JmTable after, JmColumn beforeColumn,
+			JmColumn afterColumn) {
+		boolean renamed = beforeColumn.getName().equals(afterColumn.getName()) == false;
+		Kind kind;
+		if (render(emitter.resolveDataType(beforeColumn.getDataType())).equals(
+				render(emitter.resolveDataType(afterColumn.getDataType()))) == false) {
+			kind = Kind.CHANGE_COLUMN_TYPE;
+		} else if (beforeColumn.isNotNull() != afterColumn.isNotNull()) {
+			kind = Kind.CHANGE_COLUMN_NULLABILITY;
+		} else if (StringUtils.equals(StringUtils.trimToNull(beforeColumn.getDefaultValue()),
+				StringUtils.trimToNull(afterColumn.getDefaultValue())) == false) {
+			kind = Kind.CHANGE_COLUMN_DEFAULT;
+		} else if (renamed) {
+			kind = Kind.RENAME_COLUMN;
+		} else {
+			return null;
+		}
+		
+		List<Token> tokens = Lists.newArrayList();
+		if (kind == Kind.CHANGE_COLUMN_DEFAULT && renamed == false) {
+			// デフォルト値のみの変更はテーブル定義のみの変更で済む
+			tokens.add(Keyword.ALTER);
+			tokens.add(Keyword.of("COLUMN"));
+			tokens.add(MySqlIdentifier.of(afterColumn.getName()));
+			if (StringUtils.isEmpty(afterColumn.getDefaultValue())) {
+				tokens.add(Keyword.DROP);
+				tokens.add(Keyword.DEFAULT);
+			} else {
+				tokens.add(Keyword.of("SET"));
+				tokens.add(Keyword.DEFAULT);
+				tokens.add(Literal.of(afterColumn.getDefaultValue(), LiteralType.FRAGMENT));
+			}
+		} else if (renamed) {
+			tokens.add(Keyword.of("CHANGE"));
+			tokens.add(Keyword.of("COLUMN"));
+			tokens.add(MySqlIdentifier.of(beforeColumn.getName()));
+			tokens.addAll(emitter.emitColumnDefinition(to, after, afterColumn));
+		} else {
+			tokens.add(Keyword.of("MODIFY"));
+			tokens.add(Keyword.of("COLUMN"));
+			tokens.addAll(emitter.emitColumnDefinition(to, after, afterColumn));
+		}
+		return new MySqlAlterOperation(kind, beforeColumn.getName(), tokens);
+	}
+	
+	private void comparePrimaryKey(JmTable before, JmTable after, Map<UUID, String> renamed,
+			List<MySqlAlterOperation> operations) {
+		List<String> beforeKey = keyColumnNames(before, before.getPrimaryKey(), renamed);
+		List<String> afterKey = keyColumnNames(after, after.getPrimaryKey(), null);
+		if (beforeKey.equals(afterKey)) {
+			return;
+		}
+		if (before.getPrimaryKey() != null) {
+			operations.add(new MySqlAlterOperation(Kind.DROP_PRIMARY_KEY, null, Lists.newArrayList(Keyword.DROP,
+					Keyword.of("PRIMARY"), Keyword.of("KEY"))));
+		}
+		if (afterKey.isEmpty() == false) {
+			List<Token> tokens = Lists.newArrayList();
+			tokens.add(Keyword.ADD);
+			tokens.add(Keyword.of("PRIMARY"));
+			tokens.add(Keyword.of("KEY"));
+			addColumnList(tokens, afterKey);
+			operations.add(new MySqlAlterOperation(Kind.ADD_PRIMARY_KEY, null, tokens));
+		}
+	}
+	
+	private void compareUniqueKeys(JmTable before, JmTable after, Map<UUID, String> renamed,
+			List<MySqlAlterOperation> operations) {
+		Map<List<String>, JmUniqueKeyConstraint> beforeKeys = Maps.newLinkedHashMap();
+		for (JmUniqueKeyConstraint key : before.getConstraints(JmUniqueKeyConstraint.class)) {
+			beforeKeys.put(keyColumnNames(before, key, renamed), key);
+		}
+		for (JmUniqueKeyConstraint key : after.getConstraints(JmUniqueKeyConstraint.class)) {
+			List<String> columnNames = keyColumnNames(after, key, null);
+			if (beforeKeys.remove(columnNames) != null || columnNames.isEmpty()) {
+				continue;
+			}
+			List<Token> tokens = Lists.newArrayList();
+			tokens.add(Keyword.ADD);
+			tokens.add(Keyword.UNIQUE);
+			tokens.add(Keyword.of("KEY"));
+			if (StringUtils.isEmpty(key.getName()) == false) {
+				tokens.add(MySqlIdentifier.of(key.getName()));
+			}
+			addColumnList(tokens, columnNames);
+			operations.add(new MySqlAlterOperation(Kind.ADD_UNIQUE_KEY, null, tokens));
+		}
+		for (Map.Entry<List<String>, JmUniqueKeyConstraint> entry : beforeKeys.entrySet()) {
+			// インポートした一意キーはインデックス名を持つ. 名前のない一意キーには、MySQLが先頭のカラム名を名前として付ける
+			String name = entry.getValue().getName();
+			if (StringUtils.isEmpty(name)) {
+				List<String> originalNames = keyColumnNames(before, entry.getValue(), null);
+				if (originalNames.isEmpty()) {
+					continue;
+				}
+				name = originalNames.get(0);
+			}
+			operations.add(new MySqlAlterOperation(Kind.DROP_UNIQUE_KEY, null, Lists.newArrayList(Keyword.DROP,
+					Keyword.INDEX, MySqlIdentifier.of(name))));
+		}
+	}
+	
+	private void compareForeignKeys(JiemamyContext from, JiemamyContext to, JmTable before, JmTable after,
+			Map<UUID, String> renamed, List<MySqlAlterOperation> operations) {
+		Map<List<String>, JmForeignKeyConstraint> beforeKeys = Maps.newLinkedHashMap();
+		for (JmForeignKeyConstraint foreignKey : before.getConstraints(JmForeignKeyConstraint.class)) {
+			beforeKeys.put(foreignKeySignature(from, keyColumnNames(before, foreignKey, renamed), foreignKey),
+					foreignKey);
+		}
+		for (JmForeignKeyConstraint foreignKey : after.getConstraints(JmForeignKeyConstraint.class)) {
+			List<String> columnNames = keyColumnNames(after, foreignKey, null);
+			if (beforeKeys.remove(foreignKeySignature(to, columnNames, foreignKey)) != null) {
+				continue;
+			}
+			JmTable referencedTable = findReferencedTable(to, foreignKey);
+			if (referencedTable == null || columnNames.isEmpty()) {
+				logger.warn("failed to resolve foreign key: " + foreignKey.getName() + " on " + after.getName());
+				continue;
+			}
+			List<Token> tokens = Lists.newArrayList();
+			tokens.add(Keyword.ADD);
+			if (StringUtils.isEmpty(foreignKey.getName()) == false) {
+				tokens.add(Keyword.of("CONSTRAINT"));
+				tokens.add(MySqlIdentifier.of(foreignKey.getName()));
+			}
+			tokens.add(Keyword.of("FOREIGN"));
+			tokens.add(Keyword.of("KEY"));
+			addColumnList(tokens, columnNames);
+			tokens.add(Keyword.of("REFERENCES"));
+			tokens.add(MySqlIdentifier.of(referencedTable.getName()));
+			addColumnList(tokens, referenceColumnNames(referencedTable, foreignKey));
+			addReferentialAction(tokens, "DELETE", foreignKey.getOnDelete());
+			addReferentialAction(tokens, "UPDATE", foreignKey.getOnUpdate());
+			operations.add(new MySqlAlterOperation(Kind.ADD_FOREIGN_KEY, null, tokens));
+		}
+		for (JmForeignKeyConstraint foreignKey : beforeKeys.values()) {
+			if (StringUtils.isEmpty(foreignKey.getName())) {
+				// MySQLが付けた名前（テーブル名_ibfk_N）は分からないため、削除できない
+				logger.warn("cannot drop unnamed foreign key on " + before.getName());
+				continue;
+			}
+			operations.add(new MySqlAlterOperation(Kind.DROP_FOREIGN_KEY, null, Lists.newArrayList(Keyword.DROP,
+					Keyword.of("FOREIGN"), Keyword.of("KEY"), MySqlIdentifier.of(foreignKey.getName()))));
+		}
+	}
+	
+	private void compareIndexes(JmTable before, JmTable after, Map<UUID, String> renamed,
+			List<MySqlAlterOperation> operations) {
+		Map<List<String>, JmIndex> beforeIndexes = Maps.newLinkedHashMap();
+		for (JmIndex index : before.getIndexes()) {
+			beforeIndexes.put(indexSignature(index, indexColumnNames(before, index, renamed)), index);
+		}
+		for (JmIndex index : after.getIndexes()) {
+			List<String> columnNames = indexColumnNames(after, index, null);
+			if (beforeIndexes.remove(indexSignature(index, columnNames)) != null || columnNames.isEmpty()) {
+				continue;
+			}
+			List<Token> tokens = Lists.newArrayList();
+			tokens.add(Keyword.ADD);
+			if (index.isUnique()) {
+				tokens.add(Keyword.UNIQUE);
+			}
+			tokens.add(Keyword.INDEX);
+			if (StringUtils.isEmpty(index.getName()) == false) {
+				tokens.add(MySqlIdentifier.of(index.getName()));
+			}
+			addColumnList(tokens, columnNames);
+			operations.add(new MySqlAlterOperation(Kind.ADD_INDEX, null, tokens));
+		}
+		for (JmIndex index : beforeIndexes.values()) {
+			if (StringUtils.isEmpty(index.getName())) {
+				logger.warn("cannot drop unnamed index on " + before.getName());
+				continue;
+			}
+			operations.add(new MySqlAlterOperation(Kind.DROP_INDEX, null, Lists.newArrayList(Keyword.DROP,
+					Keyword.INDEX, MySqlIdentifier.of(index.getName()))));
+		}
+	}
+	
+	private void addColumnList(List<Token> tokens, List<String> columnNames) {
+		tokens.add(Separator.LEFT_PAREN);
+		for (int i = 0; i < columnNames.size(); i++) {
+			if (i > 0) {
+				tokens.add(Separator.COMMA);
+			}
+			tokens.add(MySqlIdentifier.of(columnNames.get(i)));
+		}
+		tokens.add(Separator.RIGHT_PAREN);
+	}
+	
+	/**
+	 * キーを構成するカラム名のリストを取得する。
+	 * 
+	 * @param table キーを持つテーブル
+	 * @param key キー. {@code null}の場合は空のリストを返す
+	 * @param renamed 変更前のカラムIDから変更後のカラム名への対応. {@code null}の場合は変換しない
+	 * @return カラム名のリスト. 変換先のないカラムは{@code null}となる
+	 */
+	private List<String> keyColumnNames(JmTable table, JmKeyConstraint key, Map<UUID, String> renamed) {
+		List<String> result = Lists.newArrayList();
+		if (key == null) {
+			return result;
+		}
+		Map<UUID, String> names = Maps.newHashMap();
+		for (JmColumn column : table.getColumns()) {
+			names.put(column.getId(), column.getName());
+		}
+		for (EntityRef<? extends JmColumn> ref : key.getKeyColumns()) {
+			UUID id = ref.getReferentId();
+			result.add(renamed == null ? names.get(id) : renamed.get(id));
+		}
+		return result;
+	}
+	
+	private void addReferentialAction(List<Token> tokens, String event, ReferentialAction action) {
+		if (action == null) {
+			return;
+		}
+		tokens.add(Keyword.ON);
+		tokens.add(Keyword.of(event));
+		tokens.add(Keyword.of(action.name().replace('_', ' ')));
+	}
+	
+	private JmTable findReferencedTable(JiemamyContext context, JmForeignKeyConstraint foreignKey) {
+		if (foreignKey.getReferenceColumns().isEmpty()) {
+			return null;
+		}
+		UUID id = foreignKey.getReferenceColumns().get(0).getReferentId();
+		for (JmTable table : context.getTables()) {
+			for (JmColumn column : table.getColumns()) {
+				if (column.getId().equals(id)) {
+					return table;
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 外部キーを対応付けるための値を求める。
+	 * 
+	 * @param context 外部キーを含むコンテキスト
+	 * @param columnNames 外部キーを構成するカラム名のリスト
+	 * @param foreignKey 外部キー
+	 * @return 構成するカラム名、参照先のテーブル名とカラム名、参照動作を並べたリスト
+	 */
+	private List<String> foreignKeySignature(JiemamyContext context, List<String> columnNames,
+			JmForeignKeyConstraint foreignKey) {
+		List<String> result = Lists.newArrayList(columnNames);
+		JmTable referencedTable = findReferencedTable(context, foreignKey);
+		result.add(referencedTable == null ? null : referencedTable.getName());
+		if (referencedTable != null) {
+			result.addAll(referenceColumnNames(referencedTable, foreignKey));
+		}
+		result.add(ObjectUtils.toString(foreignKey.getOnDelete()));
+		result.add(ObjectUtils.toString(foreignKey.getOnUpdate()));
+		return result;
+	}
+	
+	private List<String> indexColumnNames(JmTable table, JmIndex index, Map<UUID, String> renamed) {
+		Map<UUID, String> names = Maps.newHashMap();
+		for (JmColumn column : table.getColumns()) {
+			names.put(column.getId(), column.getName());
+		}
+		List<String> result = Lists.newArrayList();
+		for (JmIndexColumn indexColumn : index.getIndexColumns()) {
+			UUID id = indexColumn.getColumnRef().getReferentId();
+			result.add(renamed == null ? names.get(id) : renamed.get(id));
+		}
+		return result;
+	}
+	
+	private List<String> indexSignature(JmIndex index, List<String> columnNames) {
+		List<String> result = Lists.newArrayList(columnNames);
+		result.add(String.valueOf(index.isUnique()));
+		return result;
+	}
+	
+	private List<String> referenceColumnNames(JmTable referencedTable, JmForeignKeyConstraint foreignKey) {
+		Map<UUID, String> names = Maps.newHashMap();
+		for (JmColumn column : referencedTable.getColumns()) {
+			names.put(column.getId(), column.getName());
+		}
+		List<String> result = Lists.newArrayList();
+		for (EntityRef<? extends JmColumn> ref : foreignKey.getReferenceColumns()) {
+			result.add(names.get(ref.getReferentId()));
+		}
+		return result;
+	}
+	
+	private <T extends DbObject> T removeMatching(Collection<T> candidates, T target) {
+		for (T candidate : candidates) {
+			if (candidate.getId().equals(target.getId())) {
+				candidates.remove(candidate);
+				return candidate;
+			}
+		}
+		for (T candidate : candidates) {
+			if (candidate.getName().equals(target.getName())) {
+				candidates.remove(candidate);
+				return candidate;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 候補の中から、対象カラムに対応するカラムを取り除いて返す。
+	 * 
+	 * <p>IDが一致するカラムを優先し、なければ名前が一致するカラムを対応付ける。</p>
+	 * 
+	 * @param candidates 候補となるカラム
+	 * @param target 対象カラム
+	 * @return 対応するカラム. 見つからない場合は{@code null}
+	 */
+	static JmColumn removeMatchingColumn(Collection<JmColumn> candidates, JmColumn target) {
+		for (JmColumn candidate : candidates) {
+			if (candidate.getId().equals(target.getId())) {
+				candidates.remove(candidate);
+				return candidate;
+			}
+		}
+		for (JmColumn candidate : candidates) {
+			if (candidate.getName().equals(target.getName())) {
+				candidates.remove(candidate);
+				return candidate;
+			}
+		}
+		return null;
+	}
+	
+	private String render(List<Token> tokens) {
+		return StringUtils.join(tokens, ' ');
+	}
+}
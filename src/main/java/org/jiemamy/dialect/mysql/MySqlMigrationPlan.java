@@ -0,0 +1,106 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.sql.SqlStatement;
+
+/**
+ * 移行計画。{@link MySqlMigrationPlanner#plan(MySqlMigration, java.util.Map)}が生成する。
+ * 
+ * <p>このクラスはイミュータブルである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationPlan {
+	
+	private final List<MySqlMigrationStep> steps;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param steps 実行順のステップ
+	 * @throws IllegalArgumentException 引数に{@code null}または{@code null}要素を含むリストを与えた場合
+	 */
+	public MySqlMigrationPlan(List<MySqlMigrationStep> steps) {
+		Validate.noNullElements(steps);
+		this.steps = Collections.unmodifiableList(Lists.newArrayList(steps));
+	}
+	
+	/**
+	 * 実行順のSQL文を取得する。
+	 * 
+	 * @return SQL文のリスト
+	 */
+	public List<SqlStatement> getStatements() {
+		List<SqlStatement> result = Lists.newArrayListWithCapacity(steps.size());
+		for (MySqlMigrationStep step : steps) {
+			result.add(step.getStatement());
+		}
+		return result;
+	}
+	
+	/**
+	 * 実行順のステップを取得する。
+	 * 
+	 * @return ステップのリスト
+	 */
+	public List<MySqlMigrationStep> getSteps() {
+		return steps;
+	}
+	
+	/**
+	 * 全ステップの実行時間の合計を取得する。
+	 * 
+	 * @return 見積もった実行時間の合計（ミリ秒）
+	 */
+	public long getTotalEstimatedMillis() {
+		long result = 0;
+		for (MySqlMigrationStep step : steps) {
+			result += step.getEstimatedMillis();
+		}
+		return result;
+	}
+	
+	/**
+	 * 全ステップの、テーブルへの書き込みを妨げる時間の合計を取得する。
+	 * 
+	 * @return テーブルへの書き込みを妨げる時間の合計（ミリ秒）
+	 */
+	public long getTotalLockMillis() {
+		long result = 0;
+		for (MySqlMigrationStep step : steps) {
+			result += step.getLockMillis();
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + steps;
+	}
+}
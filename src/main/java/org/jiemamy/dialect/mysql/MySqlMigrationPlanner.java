@@ -0,0 +1,239 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dialect.mysql.MySqlAlterOperation.Kind;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * 移行に必要なSQL文の実行コストを見積もり、実行順を決めるクラス。
+ * 
+ * <p>{@code ALTER TABLE}文は{@link MySqlAlterAlgorithm}で実行方式を判定し、テーブルの再構築が必要な場合は
+ * {@link MySqlTableStatus}のデータ長とインデックス長の合計を、{@link #getBytesPerSecond() 処理速度}で割って
+ * 実行時間を見積もる。{@link MySqlAlterAlgorithm#COPY}の場合及び{@link MySqlAlterLock#SHARED}を要する場合は、
+ * 実行時間の全てを書き込みを妨げる時間とする。
+ * CREATE文とDROP文はデータを処理しないため、コストを0とする。</p>
+ * 
+ * <p>実行順は{@link MySqlMigrationEmitter#emit(MySqlMigration)}と同じだが、互いに依存しない{@code ALTER TABLE}文は
+ * 書き込みを妨げる時間、実行時間の短い順に並べる。短い文を先に済ませることで、各テーブルが変更の完了を待つ時間の
+ * 合計が最小になる。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationPlanner {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlMigrationPlanner.class);
+	
+	/** 処理速度のデフォルト値（50MiB/秒） */
+	public static final long DEFAULT_BYTES_PER_SECOND = 50L * 1024 * 1024;
+	
+	/** サーバのバージョンが不明な場合に仮定するバージョン. オンラインDDLのないバージョンとみなす */
+	private static final MySqlVersion UNKNOWN_VERSION = MySqlVersion.of(5, 5, 0);
+	
+	/** テーブルの再構築を伴う変更操作 */
+	private static final List<Kind> REBUILD_KINDS = Lists.newArrayList(Kind.DROP_PRIMARY_KEY, Kind.DROP_COLUMN,
+			Kind.CHANGE_COLUMN_NULLABILITY, Kind.CHANGE_COLUMN_TYPE, Kind.ADD_COLUMN, Kind.ADD_COLUMN_IN_MIDDLE,
+			Kind.ADD_PRIMARY_KEY, Kind.CHANGE_ENGINE);
+	
+	private static final Comparator<MySqlMigrationStep> SHORTEST_FIRST = new Comparator<MySqlMigrationStep>() {
+		
+		public int compare(MySqlMigrationStep o1, MySqlMigrationStep o2) {
+			if (o1.getLockMillis() != o2.getLockMillis()) {
+				return o1.getLockMillis() < o2.getLockMillis() ? -1 : 1;
+			}
+			if (o1.getEstimatedMillis() != o2.getEstimatedMillis()) {
+				return o1.getEstimatedMillis() < o2.getEstimatedMillis() ? -1 : 1;
+			}
+			return 0;
+		}
+	};
+	
+	
+	private final MySqlMigrationEmitter migrationEmitter;
+	
+	/** テーブルの再構築の処理速度（バイト/秒） */
+	private long bytesPerSecond = DEFAULT_BYTES_PER_SECOND;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param migrationEmitter SQL文の生成に用いる{@link MySqlMigrationEmitter}.
+	 *  {@link MySqlMigrationEmitter#getServerVersion()}を実行方式の判定に用いる
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlMigrationPlanner(MySqlMigrationEmitter migrationEmitter) {
+		Validate.notNull(migrationEmitter);
+		this.migrationEmitter = migrationEmitter;
+	}
+	
+	/**
+	 * テーブルの再構築の処理速度を取得する。
+	 * 
+	 * @return 処理速度（バイト/秒）
+	 */
+	public long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+	
+	/**
+	 * 2つのコンテキストの差分から、移行計画を立てる。
+	 * 
+	 * @param from 変更前のコンテキスト
+	 * @param to 変更後のコンテキスト
+	 * @param statuses 変更前のテーブル名と{@link MySqlTableStatus}のマップ. 空の場合はテーブルのパラメータを用いる
+	 * @return 移行計画
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @throws IllegalStateException テーブルのコピーが必要な変更があり、
+	 *  {@link MySqlMigrationEmitter#isFailOnTableCopy()}が{@code true}の場合
+	 * @see MySqlTableStatus#loadAll(java.sql.Connection)
+	 */
+	public MySqlMigrationPlan plan(JiemamyContext from, JiemamyContext to, Map<String, MySqlTableStatus> statuses) {
+		return plan(migrationEmitter.diff(from, to), statuses);
+	}
+	
+	/**
+	 * 差分から、移行計画を立てる。
+	 * 
+	 * <p>{@code statuses}に含まれないテーブルは、インポート時に設定した{@link MySqlParameterKeys#DATA_LENGTH},
+	 * {@link MySqlParameterKeys#INDEX_LENGTH}を用いる。いずれもない場合は、データ量を0とみなす。</p>
+	 * 
+	 * @param migration 差分
+	 * @param statuses 変更前のテーブル名と{@link MySqlTableStatus}のマップ
+	 * @return 移行計画
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @throws IllegalStateException テーブルのコピーが必要な変更があり、
+	 *  {@link MySqlMigrationEmitter#isFailOnTableCopy()}が{@code true}の場合
+	 */
+	public MySqlMigrationPlan plan(MySqlMigration migration, Map<String, MySqlTableStatus> statuses) {
+		Validate.notNull(migration);
+		Validate.notNull(statuses);
+		MySqlEmitter emitter = migrationEmitter.getEmitter();
+		List<MySqlMigrationStep> steps = Lists.newArrayList();
+		for (JmView view : migration.getDroppedViews()) {
+			steps.add(new MySqlMigrationStep(emitter.emitDropDbObjectStatement(view), view.getName(), null,
+					MySqlAlterLock.EXCLUSIVE, 0, 0, 0));
+		}
+		for (JmTable table : migration.getDroppedTables()) {
+			steps.add(new MySqlMigrationStep(emitter.emitDropDbObjectStatement(table), table.getName(), null,
+					MySqlAlterLock.EXCLUSIVE, 0, 0, 0));
+		}
+		for (JmTable table : migration.getCreatedTables()) {
+			steps.add(new MySqlMigrationStep(emitter.emitCreateDbObjectStatement(migration.getTo(), table),
+					table.getName(), null, MySqlAlterLock.EXCLUSIVE, 0, 0, 0));
+		}
+		List<MySqlMigrationStep> alterSteps = Lists.newArrayList();
+		for (MySqlAlterTable alterTable : migration.getAlteredTables()) {
+			alterSteps.add(estimate(alterTable, statuses.get(alterTable.getTableName())));
+		}
+		migrationEmitter.checkTableCopy(migration.getAlteredTables());
+		Collections.sort(alterSteps, SHORTEST_FIRST);
+		steps.addAll(alterSteps);
+		for (JmView view : migration.getCreatedViews()) {
+			steps.add(new MySqlMigrationStep(emitter.emitCreateDbObjectStatement(migration.getTo(), view),
+					view.getName(), null, MySqlAlterLock.EXCLUSIVE, 0, 0, 0));
+		}
+		return new MySqlMigrationPlan(steps);
+	}
+	
+	/**
+	 * テーブルの再構築の処理速度を設定する。デフォルトは{@value #DEFAULT_BYTES_PER_SECOND}である。
+	 * 
+	 * <p>実行先のサーバで、同程度の大きさのテーブルに対する{@code ALTER TABLE}の実績から求めておくとよい。</p>
+	 * 
+	 * @param bytesPerSecond 処理速度（バイト/秒）
+	 * @throws IllegalArgumentException 引数に0以下の値を与えた場合
+	 */
+	public void setBytesPerSecond(long bytesPerSecond) {
+		Validate.isTrue(bytesPerSecond > 0);
+		this.bytesPerSecond = bytesPerSecond;
+	}
+	
+	/**
+	 * {@code ALTER TABLE}文の実行コストを見積もる。
+	 * 
+	 * @param alterTable 変更内容
+	 * @param status 変更前のテーブルの状態. 変更前のテーブルのパラメータを用いる場合は{@code null}
+	 * @return ステップ. {@link MySqlMigrationEmitter#isFailOnTableCopy()}に関わらず見積もる
+	 */
+	MySqlMigrationStep estimate(MySqlAlterTable alterTable, MySqlTableStatus status) {
+		MySqlVersion version = migrationEmitter.getServerVersion();
+		if (version == null) {
+			version = UNKNOWN_VERSION;
+		}
+		MySqlAlterAlgorithm algorithm = MySqlAlterAlgorithm.classify(alterTable, version);
+		
+		Long dataLength;
+		Long indexLength;
+		if (status == null) {
+			dataLength = alterTable.getBefore().getParam(MySqlParameterKeys.DATA_LENGTH);
+			indexLength = alterTable.getBefore().getParam(MySqlParameterKeys.INDEX_LENGTH);
+		} else {
+			dataLength = status.getDataLength();
+			indexLength = status.getIndexLength();
+		}
+		
+		long rebuildBytes = 0;
+		if (dataLength == null && indexLength == null) {
+			logger.warn("table status of " + alterTable.getTableName() + " is unknown, assumed to be empty");
+		} else if (algorithm == MySqlAlterAlgorithm.COPY || algorithm == MySqlAlterAlgorithm.INPLACE
+				&& rebuildsTable(alterTable)) {
+			rebuildBytes = toLong(dataLength) + toLong(indexLength);
+		} else if (algorithm == MySqlAlterAlgorithm.INPLACE && alterTable.hasOperation(Kind.ADD_UNIQUE_KEY)) {
+			// インデックスの追加は、テーブルを再構築せずに全行を読んでインデックスのみを作る
+			rebuildBytes = toLong(dataLength);
+		}
+		long estimatedMillis = rebuildBytes * 1000 / bytesPerSecond;
+		MySqlAlterLock lock = MySqlAlterAlgorithm.lockFor(alterTable, version);
+		if (lock == null) {
+			lock = MySqlAlterLock.NONE;
+		}
+		long lockMillis = algorithm == MySqlAlterAlgorithm.COPY || lock == MySqlAlterLock.SHARED ? estimatedMillis : 0;
+		return new MySqlMigrationStep(migrationEmitter.emitAlterTable(alterTable), alterTable.getTableName(),
+				algorithm, lock, rebuildBytes, estimatedMillis, lockMillis);
+	}
+	
+	private boolean rebuildsTable(MySqlAlterTable alterTable) {
+		for (Kind kind : REBUILD_KINDS) {
+			if (alterTable.hasOperation(kind)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private long toLong(Long value) {
+		return value == null ? 0 : value;
+	}
+}
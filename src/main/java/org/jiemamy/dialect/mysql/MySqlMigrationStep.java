@@ -0,0 +1,144 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.sql.SqlStatement;
+
+/**
+ * 移行計画の1ステップ。1つのSQL文と、その実行コストの見積もりを保持する。
+ * 
+ * <p>このクラスはイミュータブルである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationStep {
+	
+	private final SqlStatement statement;
+	
+	private final String objectName;
+	
+	private final MySqlAlterAlgorithm algorithm;
+	
+	private final MySqlAlterLock lock;
+	
+	private final long rebuildBytes;
+	
+	private final long estimatedMillis;
+	
+	private final long lockMillis;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param statement SQL文
+	 * @param objectName 対象のテーブル名またはビュー名
+	 * @param algorithm {@code ALTER TABLE}文の実行方式. {@code ALTER TABLE}文でない場合は{@code null}
+	 * @param lock 実行中に取得するロック
+	 * @param rebuildBytes 再構築するデータ量（バイト）
+	 * @param estimatedMillis 見積もった実行時間（ミリ秒）
+	 * @param lockMillis 見積もった実行時間のうち、テーブルへの書き込みを妨げる時間（ミリ秒）
+	 * @throws IllegalArgumentException 引数{@code statement}, {@code objectName}, {@code lock}に{@code null}を与えた場合
+	 */
+	public MySqlMigrationStep(SqlStatement statement, String objectName, MySqlAlterAlgorithm algorithm,
+			MySqlAlterLock lock, long rebuildBytes, long estimatedMillis, long lockMillis) {
+		Validate.notNull(statement);
+		Validate.notNull(objectName);
+		Validate.notNull(lock);
+		this.statement = statement;
+		this.objectName = objectName;
+		this.algorithm = algorithm;
+		this.lock = lock;
+		this.rebuildBytes = rebuildBytes;
+		this.estimatedMillis = estimatedMillis;
+		this.lockMillis = lockMillis;
+	}
+	
+	/**
+	 * {@code ALTER TABLE}文の実行方式を取得する。
+	 * 
+	 * @return 実行方式. {@code ALTER TABLE}文でない場合は{@code null}
+	 */
+	public MySqlAlterAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+	
+	/**
+	 * 見積もった実行時間を取得する。
+	 * 
+	 * @return 見積もった実行時間（ミリ秒）
+	 */
+	public long getEstimatedMillis() {
+		return estimatedMillis;
+	}
+	
+	/**
+	 * 実行中に取得するロックを取得する。
+	 * 
+	 * @return ロック
+	 */
+	public MySqlAlterLock getLock() {
+		return lock;
+	}
+	
+	/**
+	 * 見積もった実行時間のうち、テーブルへの書き込みを妨げる時間を取得する。
+	 * 
+	 * @return テーブルへの書き込みを妨げる時間（ミリ秒）
+	 */
+	public long getLockMillis() {
+		return lockMillis;
+	}
+	
+	/**
+	 * 対象のテーブル名またはビュー名を取得する。
+	 * 
+	 * @return 対象のテーブル名またはビュー名
+	 */
+	public String getObjectName() {
+		return objectName;
+	}
+	
+	/**
+	 * 再構築するデータ量を取得する。
+	 * 
+	 * @return 再構築するデータ量（バイト）
+	 */
+	public long getRebuildBytes() {
+		return rebuildBytes;
+	}
+	
+	/**
+	 * SQL文を取得する。
+	 * 
+	 * @return SQL文
+	 */
+	public SqlStatement getStatement() {
+		return statement;
+	}
+	
+	@Override
+	public String toString() {
+		return objectName + "[algorithm=" + algorithm + ", lock=" + lock + ", bytes=" + rebuildBytes + ", millis="
+				+ estimatedMillis + ", lockMillis=" + lockMillis + "]";
+	}
+}
@@ -19,47 +19,177 @@
 package org.jiemamy.dialect.mysql;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.SortedSet;
+
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang.Validate;
 
 import org.jiemamy.dialect.ReservedWordsChecker;
 
 /**
  * MySQLの予約語をチェックするクラス。
  * 
+ * <p>予約語は大文字小文字を区別せずに判定する。予約語は大文字の文字配列としてソートしておき、
+ * 判定対象の文字列を1文字ずつ大文字に読み替えながら二分探索するため、判定の際にオブジェクトを生成しない。</p>
+ * 
+ * <p>予約語はサーバのバージョン（5.0, 5.7, 8.0）毎に異なる。{@link #of(MySqlVersion)}で対象のバージョンの
+ * インスタンスを取得すること。</p>
+ * 
  * @author daisuke
  */
 public class MySqlReservedWordsChecker implements ReservedWordsChecker {
 	
-	private static final List<String> RESERVED_WORDS = Arrays.asList("ACCESSIBLE", "ADD", "ALL", "ALTER", "ANALYZE",
-			"AND", "AS", "ASC", "ASENSITIVE", "BEFORE", "BETWEEN", "BIGINT", "BINARY", "BLOB", "BOTH", "BY", "CALL",
-			"CASCADE", "CASE", "CHANGE", "CHAR", "CHARACTER", "CHECK", "COLLATE", "COLUMN", "CONDITION", "CONSTRAINT",
-			"CONTINUE", "CONVERT", "CREATE", "CROSS", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP",
-			"CURRENT_USER", "CURSOR", "DATABASE", "DATABASES", "DAY_HOUR", "DAY_MICROSECOND", "DAY_MINUTE",
-			"DAY_SECOND", "DEC", "DECIMAL", "DECLARE", "DEFAULT", "DELAYED", "DELETE", "DESC", "DESCRIBE",
-			"DETERMINISTIC", "DISTINCT", "DISTINCTROW", "DIV", "DOUBLE", "DROP", "DUAL", "EACH", "ELSE", "ELSEIF",
-			"ENCLOSED", "ESCAPED", "EXISTS", "EXIT", "EXPLAIN", "FALSE", "FETCH", "FLOAT", "FLOAT4", "FLOAT8", "FOR",
-			"FORCE", "FOREIGN", "FROM", "FULLTEXT", "GRANT", "GROUP", "HAVING", "HIGH_PRIORITY", "HOUR_MICROSECOND",
-			"HOUR_MINUTE", "HOUR_SECOND", "IF", "IGNORE", "IN", "INDEX", "INFILE", "INNER", "INOUT", "INSENSITIVE",
-			"INSERT", "INT", "INT1", "INT2", "INT3", "INT4", "INT8", "INTEGER", "INTERVAL", "INTO", "IS", "ITERATE",
-			"JOIN", "KEY", "KEYS", "KILL", "LEADING", "LEAVE", "LEFT", "LIKE", "LIMIT", "LINEAR", "LINES", "LOAD",
-			"LOCALTIME", "LOCALTIMESTAMP", "LOCK", "LONG", "LONGBLOB", "LONGTEXT", "LOOP", "LOW_PRIORITY",
-			"MASTER_SSL_VERIFY_SERVER_CERT", "MATCH", "MEDIUMBLOB", "MEDIUMINT", "MEDIUMTEXT", "MIDDLEINT",
-			"MINUTE_MICROSECOND", "MINUTE_SECOND", "MOD", "MODIFIES", "NATURAL", "NOT", "NO_WRITE_TO_BINLOG", "NULL",
-			"NUMERIC", "ON", "OPTIMIZE", "OPTION", "OPTIONALLY", "OR", "ORDER", "OUT", "OUTER", "OUTFILE", "PRECISION",
-			"PRIMARY", "PROCEDURE", "PURGE", "RANGE", "READ", "READS", "READ_ONLY", "READ_WRITE", "REAL", "REFERENCES",
-			"REGEXP", "RELEASE", "RENAME", "REPEAT", "REPLACE", "REQUIRE", "RESTRICT", "RETURN", "REVOKE", "RIGHT",
-			"RLIKE", "SCHEMA", "SCHEMAS", "SECOND_MICROSECOND", "SELECT", "SENSITIVE", "SEPARATOR", "SET", "SHOW",
-			"SMALLINT", "SPATIAL", "SPECIFIC", "SQL", "SQLEXCEPTION", "SQLSTATE", "SQLWARNING", "SQL_BIG_RESULT",
-			"SQL_CALC_FOUND_ROWS", "SQL_SMALL_RESULT", "SSL", "STARTING", "STRAIGHT_JOIN", "TABLE", "TERMINATED",
-			"THEN", "TINYBLOB", "TINYINT", "TINYTEXT", "TO", "TRAILING", "TRIGGER", "TRUE", "UNDO", "UNION", "UNIQUE",
-			"UNLOCK", "UNSIGNED", "UPDATE", "USAGE", "USE", "USING", "UTC_DATE", "UTC_TIME", "UTC_TIMESTAMP", "VALUES",
-			"VARBINARY", "VARCHAR", "VARCHARACTER", "VARYING", "WHEN", "WHERE", "WHILE", "WITH", "WRITE", "X509",
-			"XOR", "YEAR_MONTH", "ZEROFILL", "ACCESSIBLE", "LINEAR", "MASTER_SSL_VERIFY_SERVER_CERT", "RANGE",
-			"READ_ONLY", "READ_WRITE");
+	// FORMAT-OFF
+	/** MySQL 5.0/5.1の予約語 */
+	private static final String[] WORDS = {
+		"ACCESSIBLE", "ADD", "ALL", "ALTER", "ANALYZE", "AND", "AS", "ASC", "ASENSITIVE", "BEFORE", "BETWEEN", "BIGINT",
+		"BINARY", "BLOB", "BOTH", "BY", "CALL", "CASCADE", "CASE", "CHANGE", "CHAR", "CHARACTER", "CHECK", "COLLATE",
+		"COLUMN", "CONDITION", "CONSTRAINT", "CONTINUE", "CONVERT", "CREATE", "CROSS", "CURRENT_DATE", "CURRENT_TIME",
+		"CURRENT_TIMESTAMP", "CURRENT_USER", "CURSOR", "DATABASE", "DATABASES", "DAY_HOUR", "DAY_MICROSECOND",
+		"DAY_MINUTE", "DAY_SECOND", "DEC", "DECIMAL", "DECLARE", "DEFAULT", "DELAYED", "DELETE", "DESC", "DESCRIBE",
+		"DETERMINISTIC", "DISTINCT", "DISTINCTROW", "DIV", "DOUBLE", "DROP", "DUAL", "EACH", "ELSE", "ELSEIF",
+		"ENCLOSED", "ESCAPED", "EXISTS", "EXIT", "EXPLAIN", "FALSE", "FETCH", "FLOAT", "FLOAT4", "FLOAT8", "FOR",
+		"FORCE", "FOREIGN", "FROM", "FULLTEXT", "GRANT", "GROUP", "HAVING", "HIGH_PRIORITY", "HOUR_MICROSECOND",
+		"HOUR_MINUTE", "HOUR_SECOND", "IF", "IGNORE", "IN", "INDEX", "INFILE", "INNER", "INOUT", "INSENSITIVE",
+		"INSERT", "INT", "INT1", "INT2", "INT3", "INT4", "INT8", "INTEGER", "INTERVAL", "INTO", "IS", "ITERATE", "JOIN",
+		"KEY", "KEYS", "KILL", "LEADING", "LEAVE", "LEFT", "LIKE", "LIMIT", "LINEAR", "LINES", "LOAD", "LOCALTIME",
+		"LOCALTIMESTAMP", "LOCK", "LONG", "LONGBLOB", "LONGTEXT", "LOOP", "LOW_PRIORITY",
+		"MASTER_SSL_VERIFY_SERVER_CERT", "MATCH", "MEDIUMBLOB", "MEDIUMINT", "MEDIUMTEXT", "MIDDLEINT",
+		"MINUTE_MICROSECOND", "MINUTE_SECOND", "MOD", "MODIFIES", "NATURAL", "NOT", "NO_WRITE_TO_BINLOG", "NULL",
+		"NUMERIC", "ON", "OPTIMIZE", "OPTION", "OPTIONALLY", "OR", "ORDER", "OUT", "OUTER", "OUTFILE", "PRECISION",
+		"PRIMARY", "PROCEDURE", "PURGE", "RANGE", "READ", "READS", "READ_ONLY", "READ_WRITE", "REAL", "REFERENCES",
+		"REGEXP", "RELEASE", "RENAME", "REPEAT", "REPLACE", "REQUIRE", "RESTRICT", "RETURN", "REVOKE", "RIGHT", "RLIKE",
+		"SCHEMA", "SCHEMAS", "SECOND_MICROSECOND", "SELECT", "SENSITIVE", "SEPARATOR", "SET", "SHOW", "SMALLINT",
+		"SPATIAL", "SPECIFIC", "SQL", "SQLEXCEPTION", "SQLSTATE", "SQLWARNING", "SQL_BIG_RESULT", "SQL_CALC_FOUND_ROWS",
+		"SQL_SMALL_RESULT", "SSL", "STARTING", "STRAIGHT_JOIN", "TABLE", "TERMINATED", "THEN", "TINYBLOB", "TINYINT",
+		"TINYTEXT", "TO", "TRAILING", "TRIGGER", "TRUE", "UNDO", "UNION", "UNIQUE", "UNLOCK", "UNSIGNED", "UPDATE",
+		"USAGE", "USE", "USING", "UTC_DATE", "UTC_TIME", "UTC_TIMESTAMP", "VALUES", "VARBINARY", "VARCHAR",
+		"VARCHARACTER", "VARYING", "WHEN", "WHERE", "WHILE", "WITH", "WRITE", "X509", "XOR", "YEAR_MONTH", "ZEROFILL"
+	};
+	
+	/** MySQL 5.7で追加された予約語 */
+	private static final String[] WORDS_5_7 = {
+		"GENERATED", "GET", "IO_AFTER_GTIDS", "IO_BEFORE_GTIDS", "MASTER_BIND", "MAXVALUE", "OPTIMIZER_COSTS",
+		"PARTITION", "RESIGNAL", "SIGNAL", "STORED", "VIRTUAL"
+	};
+	
+	/** MySQL 8.0で追加された予約語（ウィンドウ関数、共通テーブル式等） */
+	private static final String[] WORDS_8_0 = {
+		"CUBE", "CUME_DIST", "DENSE_RANK", "EMPTY", "EXCEPT", "FIRST_VALUE", "FUNCTION", "GROUPING", "GROUPS",
+		"INTERSECT", "JSON_TABLE", "LAG", "LAST_VALUE", "LATERAL", "LEAD", "NTH_VALUE", "NTILE", "OF", "OVER",
+		"PERCENT_RANK", "RANK", "RECURSIVE", "ROW", "ROWS", "ROW_NUMBER", "SYSTEM", "WINDOW"
+	};
+	// FORMAT-ON
+	
+	private static final MySqlReservedWordsChecker MYSQL_5_0 = new MySqlReservedWordsChecker(toSortedChars(WORDS));
+	
+	private static final MySqlReservedWordsChecker MYSQL_5_7 = new MySqlReservedWordsChecker(toSortedChars(WORDS,
+			WORDS_5_7));
+	
+	private static final MySqlReservedWordsChecker MYSQL_8_0 = new MySqlReservedWordsChecker(toSortedChars(WORDS,
+			WORDS_5_7, WORDS_8_0));
+	
+	
+	/**
+	 * 指定したバージョンのMySQLの予約語をチェックするインスタンスを取得する。
+	 * 
+	 * <p>予約語の表はバージョン毎に1度だけ構築し、全てのインスタンスで共有する。</p>
+	 * 
+	 * @param version 対象サーバのバージョン
+	 * @return インスタンス
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlReservedWordsChecker of(MySqlVersion version) {
+		Validate.notNull(version);
+		if (version.isAtLeast(8, 0, 0)) {
+			return MYSQL_8_0;
+		}
+		if (version.isAtLeast(5, 7, 0)) {
+			return MYSQL_5_7;
+		}
+		return MYSQL_5_0;
+	}
+	
+	/**
+	 * MySQL 5.0/5.1の予約語の一覧を取得する。
+	 * 
+	 * @return 大文字の予約語の配列
+	 */
+	static String[] getReservedWords() {
+		return WORDS.clone();
+	}
+	
+	/**
+	 * 予約語と文字列を、文字列側の英小文字を大文字とみなして比較する。
+	 * 
+	 * @param word 大文字の予約語
+	 * @param name 比較対象の文字列
+	 * @return {@code word}が小さい場合は負の値、等しい場合は0、大きい場合は正の値
+	 */
+	private static int compareIgnoreCase(char[] word, String name) {
+		int length = Math.min(word.length, name.length());
+		for (int i = 0; i < length; i++) {
+			char c = name.charAt(i);
+			if (c >= 'a' && c <= 'z') {
+				c -= 'a' - 'A';
+			}
+			if (word[i] != c) {
+				return word[i] - c;
+			}
+		}
+		return word.length - name.length();
+	}
+	
+	private static char[][] toSortedChars(String[]... wordSets) {
+		SortedSet<String> sorted = Sets.newTreeSet();
+		for (String[] words : wordSets) {
+			sorted.addAll(Arrays.asList(words));
+		}
+		char[][] result = new char[sorted.size()][];
+		int i = 0;
+		for (String word : sorted) {
+			result[i++] = word.toCharArray();
+		}
+		return result;
+	}
+	
+	
+	/** 大文字の予約語を、文字の並びの昇順にソートしたもの */
+	private final char[][] reservedWords;
+	
 	
+	/**
+	 * MySQL 5.0の予約語をチェックするインスタンスを生成する。
+	 * 
+	 * @see #of(MySqlVersion)
+	 */
+	public MySqlReservedWordsChecker() {
+		this(MYSQL_5_0.reservedWords);
+	}
+	
+	private MySqlReservedWordsChecker(char[][] reservedWords) {
+		this.reservedWords = reservedWords;
+	}
 	
 	public boolean isReserved(String name) {
-		return RESERVED_WORDS.contains(name);
+		if (name == null) {
+			return false;
+		}
+		int low = 0;
+		int high = reservedWords.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareIgnoreCase(reservedWords[mid], name);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
 	}
 	
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.io.UnsupportedEncodingException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * スキーマ内の各テーブル・ビューの指紋（フィンガープリント）の集合。
+ * 
+ * <p>テーブルの指紋は {@code TABLE_TYPE}, {@code CREATE_TIME}, {@code TABLE_COLLATION} と、カラム定義・インデックス定義・
+ * 外部キー定義のチェックサムから成る。ビューの指紋はビュー定義とカラム定義のチェックサムから成る。
+ * 前回の指紋と比較することで、追加・変更・削除されたオブジェクトを特定できる。</p>
+ * 
+ * <p>このクラスはイミュータブルである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ * @see MySqlIncrementalImporter
+ */
+public class MySqlSchemaFingerprint {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlSchemaFingerprint.class);
+	
+	private static final String TABLES_SQL = "SELECT TABLE_NAME, TABLE_TYPE, CREATE_TIME, TABLE_COLLATION "
+			+ "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()";
+	
+	private static final String COLUMNS_SQL = "SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, "
+			+ "COLUMN_DEFAULT, EXTRA FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+			+ "ORDER BY TABLE_NAME, ORDINAL_POSITION";
+	
+	private static final String STATISTICS_SQL = "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, COLUMN_NAME "
+			+ "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+			+ "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+	
+	private static final String FOREIGN_KEYS_SQL = "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_NAME, "
+			+ "k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE "
+			+ "FROM information_schema.KEY_COLUMN_USAGE k JOIN information_schema.REFERENTIAL_CONSTRAINTS r "
+			+ "ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.TABLE_NAME = k.TABLE_NAME "
+			+ "AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME "
+			+ "WHERE k.TABLE_SCHEMA = DATABASE() AND k.REFERENCED_TABLE_NAME IS NOT NULL "
+			+ "ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION";
+	
+	private static final String VIEWS_SQL = "SELECT TABLE_NAME, VIEW_DEFINITION "
+			+ "FROM information_schema.VIEWS WHERE TABLE_SCHEMA = DATABASE()";
+	
+	private static final String VIEW_TYPE = "VIEW";
+	
+	
+	/**
+	 * 接続中のデータベース（{@code DATABASE()}）の指紋を読み込む。
+	 * 
+	 * <p>テーブル数によらず、{@code information_schema}に対する5回のクエリで読み込む。</p>
+	 * 
+	 * @param conn {@link Connection}
+	 * @return 指紋
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlSchemaFingerprint load(Connection conn) throws SQLException {
+		Validate.notNull(conn);
+		Map<String, String> headers = Maps.newTreeMap();
+		Map<String, CRC32> checksums = Maps.newHashMap();
+		
+		PreparedStatement ps = null;
+		try {
+			ps = conn.prepareStatement(TABLES_SQL);
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				String tableName = rs.getString("TABLE_NAME");
+				String tableType = rs.getString("TABLE_TYPE");
+				headers.put(tableName, (tableType.equals(VIEW_TYPE) ? VIEW_TYPE : tableType) + "/"
+						+ rs.getString("CREATE_TIME") + "/" + rs.getString("TABLE_COLLATION"));
+				checksums.put(tableName, new CRC32());
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+		
+		updateChecksums(conn, COLUMNS_SQL, checksums);
+		updateChecksums(conn, STATISTICS_SQL, checksums);
+		try {
+			updateChecksums(conn, FOREIGN_KEYS_SQL, checksums);
+		} catch (SQLException e) {
+			// REFERENTIAL_CONSTRAINTS は MySQL 5.1.10 以降にしか存在しない
+			logger.warn("failed to load foreign keys from information_schema", e);
+		}
+		updateChecksums(conn, VIEWS_SQL, checksums);
+		
+		Map<String, String> fingerprints = Maps.newTreeMap();
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			long checksum = checksums.get(entry.getKey()).getValue();
+			fingerprints.put(entry.getKey(), entry.getValue() + "/" + Long.toHexString(checksum));
+		}
+		return new MySqlSchemaFingerprint(fingerprints);
+	}
+	
+	private static void updateChecksums(Connection conn, String sql, Map<String, CRC32> checksums)
+			throws SQLException {
+		PreparedStatement ps = null;
+		try {
+			ps = conn.prepareStatement(sql);
+			ResultSet rs = ps.executeQuery();
+			int columnCount = rs.getMetaData().getColumnCount();
+			while (rs.next()) {
+				CRC32 checksum = checksums.get(rs.getString(1));
+				if (checksum == null) {
+					continue;
+				}
+				for (int i = 2; i <= columnCount; i++) {
+					String value = rs.getString(i);
+					update(checksum, value == null ? "\u0000" : value);
+					checksum.update('\u001F');
+				}
+				checksum.update('\u001E');
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+	}
+	
+	private static void update(CRC32 checksum, String value) {
+		try {
+			checksum.update(value.getBytes("UTF-8"));
+		} catch (UnsupportedEncodingException e) {
+			throw new Error(e);
+		}
+	}
+	
+	
+	private final Map<String, String> fingerprints;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * <p>{@link #getFingerprints()}で取得して永続化した値から、指紋を復元する際に用いる。</p>
+	 * 
+	 * @param fingerprints オブジェクト名と指紋のマップ
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlSchemaFingerprint(Map<String, String> fingerprints) {
+		Validate.notNull(fingerprints);
+		this.fingerprints = Collections.unmodifiableMap(new TreeMap<String, String>(fingerprints));
+	}
+	
+	/**
+	 * オブジェクトの指紋を取得する。
+	 * 
+	 * @param name テーブル名またはビュー名
+	 * @return 指紋. 存在しない場合は{@code null}
+	 */
+	public String getFingerprint(String name) {
+		return fingerprints.get(name);
+	}
+	
+	/**
+	 * オブジェクト名と指紋のマップを取得する。
+	 * 
+	 * @return オブジェクト名と指紋の読み取り専用マップ
+	 */
+	public Map<String, String> getFingerprints() {
+		return fingerprints;
+	}
+	
+	/**
+	 * オブジェクト名の集合を取得する。
+	 * 
+	 * @return オブジェクト名の読み取り専用集合（名前順）
+	 */
+	public Set<String> getNames() {
+		return fingerprints.keySet();
+	}
+	
+	/**
+	 * オブジェクトがビューであるかどうかを調べる。
+	 * 
+	 * @param name テーブル名またはビュー名
+	 * @return ビューである場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public boolean isView(String name) {
+		String fingerprint = fingerprints.get(name);
+		return fingerprint != null && fingerprint.startsWith(VIEW_TYPE + "/");
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + fingerprints;
+	}
+}
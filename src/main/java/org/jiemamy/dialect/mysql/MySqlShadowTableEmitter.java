@@ -0,0 +1,455 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dddbase.EntityRef;
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifier;
+import org.jiemamy.dialect.mysql.internal.MySqlIdentifierScanner;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.JmPrimaryKeyConstraint;
+import org.jiemamy.model.datatype.LiteralType;
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * シャドウテーブルを用いて、テーブルをロックせずに{@code ALTER TABLE}と同じ変更を行うSQL文を生成するクラス。
+ * 
+ * <p>{@code pt-online-schema-change}と同じ手順で、次の文を順に出力する。</p>
+ * <ol>
+ *   <li>変更後のテーブル定義で、シャドウテーブル（{@code _テーブル名_new}）を作成する</li>
+ *   <li>元のテーブルへの{@code INSERT}, {@code UPDATE}, {@code DELETE}をシャドウテーブルに反映するトリガを作成する</li>
+ *   <li>既存の行を主キーの順に{@link #getChunkSize() チャンク}の行数ずつ、シャドウテーブルにコピーする</li>
+ *   <li>残りの行を、一時的なストアドプロシージャ（{@code _テーブル名_new_cpy}）の中でチャンクずつコピーする</li>
+ *   <li>{@code RENAME TABLE}で元のテーブル（{@code _テーブル名_old}へ退避）とシャドウテーブルを入れ替える</li>
+ *   <li>トリガを削除する</li>
+ * </ol>
+ * 
+ * <p>1回のコピーで扱う行を抑えることで、ロックの時間とレプリケーションの遅延を一定の範囲に収める。
+ * 退避した元のテーブルは削除しないため、結果を確認した後に削除すること。</p>
+ * 
+ * <p>対象のテーブルは整数型の単一カラムの主キーを持ち、変更後もそのカラムが残っている必要がある。
+ * 外部キーを持つテーブルには用いることができない（シャドウテーブルの外部キーの制約名が、元のテーブルと重複するため）。
+ * コピーの進捗はセッションのユーザ変数で受け渡すため、生成した文は同じ接続で順に実行すること。
+ * また、{@code UPDATE}のトリガは{@code BEGIN ... END}の中に複数の文を含むため、文の途中の{@code ;}で区切らずに
+ * 1文として実行すること。ストアドプロシージャの{@code CREATE PROCEDURE}文も同様である。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlShadowTableEmitter {
+	
+	/** チャンクの大きさのデフォルト値 */
+	public static final long DEFAULT_CHUNK_SIZE = 1000;
+	
+	/** コピー済みの主キーの上限を保持するユーザ変数 */
+	private static final Token LOWER = Literal.of("@jiemamy_copy_lower", LiteralType.FRAGMENT);
+	
+	/** コピー中のチャンクの主キーの上限を保持するユーザ変数 */
+	private static final Token UPPER = Literal.of("@jiemamy_copy_upper", LiteralType.FRAGMENT);
+	
+	
+	private final MySqlEmitter emitter;
+	
+	/** 1回のコピーで扱う行数 */
+	private long chunkSize = DEFAULT_CHUNK_SIZE;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect {@link MySqlDialect}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlShadowTableEmitter(MySqlDialect dialect) {
+		this(new MySqlEmitter(dialect));
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param emitter シャドウテーブルのCREATE文の生成に用いる{@link MySqlEmitter}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlShadowTableEmitter(MySqlEmitter emitter) {
+		Validate.notNull(emitter);
+		this.emitter = emitter;
+	}
+	
+	/**
+	 * テーブルの変更を、シャドウテーブルを用いて行うSQL文を生成する。
+	 * 
+	 * <p>既存の行は、主キーの順に{@link #getChunkSize() チャンク}の行数ずつコピーする。各チャンクは、
+	 * 実際の行から求めた主キーの境界（{@code SELECT MAX(主キー) ... LIMIT チャンクの行数}）までをコピーするため、
+	 * 主キーの値がまばらでも文の数は行数に比例する。{@code rowCount}は事前に{@code SELECT COUNT(*) FROM テーブル名}
+	 * 等で求めておく。推定値でもよく、実際の行数より多い分は空のチャンクとなる。少ない分は、一時的なストアドプロシージャが
+	 * 残りの行がなくなる（{@code @jiemamy_copy_upper}が{@code NULL}となる）までチャンクずつコピーする。</p>
+	 * 
+	 * @param to 変更後のコンテキスト
+	 * @param alterTable 変更内容
+	 * @param rowCount コピーする行数
+	 * @return SQL文のリスト
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合, {@code rowCount}が負の値の場合,
+	 *  対象のテーブルが単一カラムの主キーを持たない場合, 外部キーを持つ場合, または生成する名前が
+	 *  {@value MySqlIdentifierScanner#MAX_LENGTH}文字を超える場合
+	 */
+	public List<SqlStatement> emit(JiemamyContext to, MySqlAlterTable alterTable, long rowCount) {
+		Validate.notNull(to);
+		Validate.notNull(alterTable);
+		Validate.isTrue(rowCount >= 0);
+		JmTable before = alterTable.getBefore();
+		JmTable after = alterTable.getAfter();
+		// シャドウテーブルのCREATE文は外部キーの制約名を引き継ぐため、同じ名前の制約を作れない
+		Validate.isTrue(before.getConstraints(JmForeignKeyConstraint.class).isEmpty()
+				&& after.getConstraints(JmForeignKeyConstraint.class).isEmpty(),
+				"table with foreign keys is not supported: " + before.getName());
+		
+		// 変更前のカラム名 -> 変更後のカラム名
+		Map<String, String> copiedColumns = Maps.newLinkedHashMap();
+		List<JmColumn> candidates = Lists.newArrayList(before.getColumns());
+		for (JmColumn afterColumn : after.getColumns()) {
+			JmColumn beforeColumn = MySqlMigrationEmitter.removeMatchingColumn(candidates, afterColumn);
+			if (beforeColumn != null) {
+				copiedColumns.put(beforeColumn.getName(), afterColumn.getName());
+			}
+		}
+		String keyColumn = getKeyColumnName(before);
+		Validate.isTrue(copiedColumns.containsKey(keyColumn), "primary key column is dropped: " + keyColumn);
+		String shadowKeyColumn = copiedColumns.get(keyColumn);
+		
+		String tableName = before.getName();
+		String shadowName = "_" + tableName + "_new";
+		String oldName = "_" + tableName + "_old";
+		String procedureName = shadowName + "_cpy";
+		String[] triggerNames = {
+			shadowName + "_ins",
+			shadowName + "_upd",
+			shadowName + "_del"
+		};
+		List<String> names = Lists.newArrayList(shadowName, oldName, procedureName);
+		Collections.addAll(names, triggerNames);
+		for (String name : names) {
+			Validate.isTrue(name.length() <= MySqlIdentifierScanner.MAX_LENGTH, "name is too long: " + name);
+		}
+		
+		List<SqlStatement> result = Lists.newArrayList();
+		result.add(createShadowTable(to, after, shadowName));
+		
+		List<Token> replace = Lists.newArrayList();
+		replace.add(Keyword.of("REPLACE"));
+		replace.add(Keyword.INTO);
+		replace.add(MySqlIdentifier.of(shadowName));
+		addColumnList(replace, copiedColumns.values(), null);
+		replace.add(Keyword.VALUES);
+		addColumnList(replace, copiedColumns.keySet(), "NEW.");
+		result.add(createTrigger(triggerNames[0], "INSERT", tableName, replace));
+		
+		// 主キーが更新された場合は、更新前の主キーの行をシャドウテーブルから削除してから反映する
+		List<Token> update = Lists.newArrayList();
+		update.add(Keyword.of("BEGIN"));
+		update.addAll(deleteFromShadow(shadowName, keyColumn, shadowKeyColumn));
+		update.add(Keyword.of("AND"));
+		update.add(Keyword.NOT);
+		update.add(Separator.LEFT_PAREN);
+		update.add(Literal.of("OLD." + MySqlIdentifier.quote(keyColumn), LiteralType.FRAGMENT));
+		update.add(Keyword.of("<=>"));
+		update.add(Literal.of("NEW." + MySqlIdentifier.quote(keyColumn), LiteralType.FRAGMENT));
+		update.add(Separator.RIGHT_PAREN);
+		update.add(Separator.SEMICOLON);
+		update.addAll(replace);
+		update.add(Separator.SEMICOLON);
+		update.add(Keyword.of("END"));
+		result.add(createTrigger(triggerNames[1], "UPDATE", tableName, update));
+		result.add(createTrigger(triggerNames[2], "DELETE", tableName, deleteFromShadow(shadowName, keyColumn,
+				shadowKeyColumn)));
+		
+		long chunks = Math.max(1, (rowCount + chunkSize - 1) / chunkSize);
+		for (long i = 0; i < chunks; i++) {
+			boolean first = i == 0;
+			result.add(selectUpperBound(tableName, keyColumn, first));
+			result.add(copyChunk(tableName, shadowName, copiedColumns, keyColumn, first == false));
+			result.add(advanceLowerBound());
+		}
+		// 行数の見積もりより多くの行があった場合に、残りの行もチャンクずつコピーする
+		List<Token> copyRest = Lists.newArrayList();
+		copyRest.add(Keyword.of("BEGIN"));
+		copyRest.add(Keyword.of("REPEAT"));
+		copyRest.addAll(selectUpperBound(tableName, keyColumn, false).toTokens());
+		copyRest.addAll(copyChunk(tableName, shadowName, copiedColumns, keyColumn, true).toTokens());
+		copyRest.addAll(advanceLowerBound().toTokens());
+		copyRest.add(Keyword.of("UNTIL"));
+		copyRest.add(UPPER);
+		copyRest.add(Keyword.of("IS"));
+		copyRest.add(Keyword.NULL);
+		copyRest.add(Keyword.of("END"));
+		copyRest.add(Keyword.of("REPEAT"));
+		copyRest.add(Separator.SEMICOLON);
+		copyRest.add(Keyword.of("END"));
+		result.add(createProcedure(procedureName, copyRest));
+		result.add(new SimpleSqlStatement(Lists.<Token> newArrayList(Keyword.of("CALL"),
+				MySqlIdentifier.of(procedureName), Separator.LEFT_PAREN, Separator.RIGHT_PAREN, Separator.SEMICOLON)));
+		result.add(dropIfExists("PROCEDURE", procedureName));
+		
+		List<Token> rename = Lists.newArrayList();
+		rename.add(Keyword.of("RENAME"));
+		rename.add(Keyword.TABLE);
+		rename.add(MySqlIdentifier.of(tableName));
+		rename.add(Keyword.of("TO"));
+		rename.add(MySqlIdentifier.of(oldName));
+		rename.add(Separator.COMMA);
+		rename.add(MySqlIdentifier.of(shadowName));
+		rename.add(Keyword.of("TO"));
+		rename.add(MySqlIdentifier.of(after.getName()));
+		rename.add(Separator.SEMICOLON);
+		result.add(new SimpleSqlStatement(rename));
+		
+		for (String triggerName : triggerNames) {
+			result.add(dropIfExists("TRIGGER", triggerName));
+		}
+		return result;
+	}
+	
+	/**
+	 * 1回のコピーで扱う行数を取得する。
+	 * 
+	 * @return 1回のコピーで扱う行数
+	 */
+	public long getChunkSize() {
+		return chunkSize;
+	}
+	
+	/**
+	 * 1回のコピーで扱う行数を設定する。デフォルトは{@value #DEFAULT_CHUNK_SIZE}である。
+	 * 
+	 * @param chunkSize 1回のコピーで扱う行数
+	 * @throws IllegalArgumentException 引数に0以下の値を与えた場合
+	 */
+	public void setChunkSize(long chunkSize) {
+		Validate.isTrue(chunkSize > 0);
+		this.chunkSize = chunkSize;
+	}
+	
+	private void addColumnList(List<Token> tokens, Iterable<String> columnNames, String qualifier) {
+		tokens.add(Separator.LEFT_PAREN);
+		boolean first = true;
+		for (String columnName : columnNames) {
+			if (first == false) {
+				tokens.add(Separator.COMMA);
+			}
+			first = false;
+			if (qualifier == null) {
+				tokens.add(MySqlIdentifier.of(columnName));
+			} else {
+				tokens.add(Literal.of(qualifier + MySqlIdentifier.quote(columnName), LiteralType.FRAGMENT));
+			}
+		}
+		tokens.add(Separator.RIGHT_PAREN);
+	}
+	
+	private SqlStatement advanceLowerBound() {
+		return new SimpleSqlStatement(Lists.<Token> newArrayList(Keyword.of("SET"), LOWER, Separator.EQUAL, UPPER,
+				Separator.SEMICOLON));
+	}
+	
+	/**
+	 * 下限（{@code lowerBound}が{@code true}の場合）から、{@link #selectUpperBound}で求めた上限までの行をコピーする文を生成する。
+	 */
+	private SqlStatement copyChunk(String tableName, String shadowName, Map<String, String> copiedColumns,
+			String keyColumn, boolean lowerBound) {
+		List<Token> tokens = Lists.newArrayList();
+		// トリガが先に反映した行の方が新しいため、既にある行は上書きしない
+		tokens.add(Keyword.INSERT);
+		tokens.add(Keyword.of("LOW_PRIORITY"));
+		tokens.add(Keyword.of("IGNORE"));
+		tokens.add(Keyword.INTO);
+		tokens.add(MySqlIdentifier.of(shadowName));
+		addColumnList(tokens, copiedColumns.values(), null);
+		tokens.add(Keyword.of("SELECT"));
+		boolean first = true;
+		for (String columnName : copiedColumns.keySet()) {
+			if (first == false) {
+				tokens.add(Separator.COMMA);
+			}
+			first = false;
+			tokens.add(MySqlIdentifier.of(columnName));
+		}
+		tokens.add(Keyword.of("FROM"));
+		tokens.add(MySqlIdentifier.of(tableName));
+		addForcePrimary(tokens);
+		tokens.add(Keyword.of("WHERE"));
+		if (lowerBound) {
+			tokens.add(MySqlIdentifier.of(keyColumn));
+			tokens.add(Keyword.of(">"));
+			tokens.add(LOWER);
+			tokens.add(Keyword.of("AND"));
+		}
+		tokens.add(MySqlIdentifier.of(keyColumn));
+		tokens.add(Keyword.of("<="));
+		tokens.add(UPPER);
+		tokens.add(Keyword.of("LOCK"));
+		tokens.add(Keyword.of("IN"));
+		tokens.add(Keyword.of("SHARE"));
+		tokens.add(Keyword.of("MODE"));
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	private void addForcePrimary(List<Token> tokens) {
+		tokens.add(Keyword.of("FORCE"));
+		tokens.add(Keyword.INDEX);
+		tokens.add(Separator.LEFT_PAREN);
+		tokens.add(Keyword.of("PRIMARY"));
+		tokens.add(Separator.RIGHT_PAREN);
+	}
+	
+	private SqlStatement createShadowTable(JiemamyContext to, JmTable after, String shadowName) {
+		List<Token> tokens = emitter.emitCreateDbObjectStatement(to, after).toTokens();
+		for (int i = 0; i < tokens.size(); i++) {
+			if (tokens.get(i) instanceof MySqlIdentifier && tokens.get(i).toString().equals(
+					MySqlIdentifier.quote(after.getName()))) {
+				tokens.set(i, MySqlIdentifier.of(shadowName));
+				break;
+			}
+		}
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	/**
+	 * 次のチャンクの上限となる主キーの値を、実際の行から求める文を生成する。
+	 * 
+	 * <p>上限を先に求めてからコピーするため、コピーの間に行が削除されても、読み飛ばす行は生じない。</p>
+	 */
+	private SqlStatement selectUpperBound(String tableName, String keyColumn, boolean first) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.of("SELECT"));
+		tokens.add(Keyword.of("MAX"));
+		tokens.add(Separator.LEFT_PAREN);
+		tokens.add(MySqlIdentifier.of(keyColumn));
+		tokens.add(Separator.RIGHT_PAREN);
+		tokens.add(Keyword.INTO);
+		tokens.add(UPPER);
+		tokens.add(Keyword.of("FROM"));
+		tokens.add(Separator.LEFT_PAREN);
+		tokens.add(Keyword.of("SELECT"));
+		tokens.add(MySqlIdentifier.of(keyColumn));
+		tokens.add(Keyword.of("FROM"));
+		tokens.add(MySqlIdentifier.of(tableName));
+		addForcePrimary(tokens);
+		if (first == false) {
+			tokens.add(Keyword.of("WHERE"));
+			tokens.add(MySqlIdentifier.of(keyColumn));
+			tokens.add(Keyword.of(">"));
+			tokens.add(LOWER);
+		}
+		tokens.add(Keyword.of("ORDER"));
+		tokens.add(Keyword.of("BY"));
+		tokens.add(MySqlIdentifier.of(keyColumn));
+		tokens.add(Keyword.of("LIMIT"));
+		tokens.add(Literal.of(chunkSize));
+		tokens.add(Separator.RIGHT_PAREN);
+		tokens.add(Keyword.of("AS"));
+		tokens.add(Keyword.of("chunk"));
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	private SqlStatement createProcedure(String procedureName, List<Token> body) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.CREATE);
+		tokens.add(Keyword.of("PROCEDURE"));
+		tokens.add(MySqlIdentifier.of(procedureName));
+		tokens.add(Separator.LEFT_PAREN);
+		tokens.add(Separator.RIGHT_PAREN);
+		tokens.addAll(body);
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	private SqlStatement createTrigger(String triggerName, String event, String tableName, List<Token> body) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.CREATE);
+		tokens.add(Keyword.of("TRIGGER"));
+		tokens.add(MySqlIdentifier.of(triggerName));
+		tokens.add(Keyword.of("AFTER"));
+		tokens.add(Keyword.of(event));
+		tokens.add(Keyword.ON);
+		tokens.add(MySqlIdentifier.of(tableName));
+		tokens.add(Keyword.of("FOR"));
+		tokens.add(Keyword.of("EACH"));
+		tokens.add(Keyword.of("ROW"));
+		tokens.addAll(body);
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	/**
+	 * 元のテーブルの主キー（{@code keyColumn}）の更新前の値を持つ行を、シャドウテーブルから削除する文を生成する。
+	 */
+	private List<Token> deleteFromShadow(String shadowName, String keyColumn, String shadowKeyColumn) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.of("DELETE"));
+		tokens.add(Keyword.of("IGNORE"));
+		tokens.add(Keyword.of("FROM"));
+		tokens.add(MySqlIdentifier.of(shadowName));
+		tokens.add(Keyword.of("WHERE"));
+		tokens.add(MySqlIdentifier.of(shadowKeyColumn));
+		tokens.add(Keyword.of("<=>"));
+		tokens.add(Literal.of("OLD." + MySqlIdentifier.quote(keyColumn), LiteralType.FRAGMENT));
+		return tokens;
+	}
+	
+	private SqlStatement dropIfExists(String objectType, String name) {
+		List<Token> tokens = Lists.newArrayList();
+		tokens.add(Keyword.DROP);
+		tokens.add(Keyword.of(objectType));
+		tokens.add(Keyword.of("IF"));
+		tokens.add(Keyword.of("EXISTS"));
+		tokens.add(MySqlIdentifier.of(name));
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	private String getKeyColumnName(JmTable table) {
+		JmPrimaryKeyConstraint primaryKey = table.getPrimaryKey();
+		Validate.isTrue(primaryKey != null && primaryKey.getKeyColumns().size() == 1,
+				"single column primary key is required: " + table.getName());
+		EntityRef<? extends JmColumn> ref = primaryKey.getKeyColumns().get(0);
+		for (JmColumn column : table.getColumns()) {
+			if (column.getId().equals(ref.getReferentId())) {
+				return column.getName();
+			}
+		}
+		throw new IllegalArgumentException("primary key column is not found: " + table.getName());
+	}
+}
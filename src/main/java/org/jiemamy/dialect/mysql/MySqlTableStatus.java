@@ -0,0 +1,264 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.mysql.internal.MySqlSchemaSnapshot;
+
+/**
+ * {@code information_schema.TABLES} の1行分を表すテーブル状態クラス。
+ * 
+ * <p>{@code SHOW TABLE STATUS} の結果と同等の情報を保持する。値が取得できなかった項目は{@code null}となる。</p>
+ * 
+ * <p>このクラスはイミュータブルである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlTableStatus {
+	
+	/** {@link #MySqlTableStatus(ResultSet)}が読み込む列を返すSELECT文 */
+	static final String SELECT_SQL = "SELECT TABLE_NAME, ENGINE, ROW_FORMAT, TABLE_ROWS, AVG_ROW_LENGTH, "
+			+ "DATA_LENGTH, INDEX_LENGTH, DATA_FREE, AUTO_INCREMENT, CREATE_TIME, UPDATE_TIME, TABLE_COLLATION "
+			+ "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()";
+	
+	
+	/**
+	 * 接続先スキーマの全テーブルの状態を、1回のクエリで読み込む。
+	 * 
+	 * @param conn {@link Connection}
+	 * @return テーブル名と{@link MySqlTableStatus}のマップ
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static Map<String, MySqlTableStatus> loadAll(Connection conn) throws SQLException {
+		return loadAll(conn, null);
+	}
+	
+	/**
+	 * 接続先スキーマのうち、指定したテーブルの状態を、1回のクエリで読み込む。
+	 * 
+	 * @param conn {@link Connection}
+	 * @param tableNames 読み込むテーブル名の集合. {@code null}の場合は全てのテーブル
+	 * @return テーブル名と{@link MySqlTableStatus}のマップ
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数{@code conn}に{@code null}を与えた場合
+	 */
+	public static Map<String, MySqlTableStatus> loadAll(Connection conn, Collection<String> tableNames)
+			throws SQLException {
+		Validate.notNull(conn);
+		Map<String, MySqlTableStatus> result = Maps.newHashMap();
+		PreparedStatement ps = null;
+		try {
+			ps = MySqlSchemaSnapshot.prepareFiltered(conn, SELECT_SQL, "TABLE_NAME", tableNames, "");
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				MySqlTableStatus status = new MySqlTableStatus(rs);
+				result.put(status.getTableName(), status);
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+		return result;
+	}
+	
+	private static Long getLong(ResultSet rs, String columnName) throws SQLException {
+		long value = rs.getLong(columnName);
+		return rs.wasNull() ? null : value;
+	}
+	
+	
+	private final String tableName;
+	
+	private final String engine;
+	
+	private final String rowFormat;
+	
+	private final Long tableRows;
+	
+	private final Long avgRowLength;
+	
+	private final Long dataLength;
+	
+	private final Long indexLength;
+	
+	private final Long dataFree;
+	
+	private final Long autoIncrement;
+	
+	private final Timestamp createTime;
+	
+	private final Timestamp updateTime;
+	
+	private final String tableCollation;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * <p>{@code rs}は{@code information_schema.TABLES}の列を持ち、読み込み対象の行にカーソルがあること。</p>
+	 * 
+	 * @param rs {@link ResultSet}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlTableStatus(ResultSet rs) throws SQLException {
+		Validate.notNull(rs);
+		tableName = rs.getString("TABLE_NAME");
+		engine = rs.getString("ENGINE");
+		rowFormat = rs.getString("ROW_FORMAT");
+		tableRows = getLong(rs, "TABLE_ROWS");
+		avgRowLength = getLong(rs, "AVG_ROW_LENGTH");
+		dataLength = getLong(rs, "DATA_LENGTH");
+		indexLength = getLong(rs, "INDEX_LENGTH");
+		dataFree = getLong(rs, "DATA_FREE");
+		autoIncrement = getLong(rs, "AUTO_INCREMENT");
+		createTime = rs.getTimestamp("CREATE_TIME");
+		updateTime = rs.getTimestamp("UPDATE_TIME");
+		tableCollation = rs.getString("TABLE_COLLATION");
+	}
+	
+	/**
+	 * 次に採番される{@code AUTO_INCREMENT}値を取得する。
+	 * 
+	 * @return 次に採番される{@code AUTO_INCREMENT}値
+	 */
+	public Long getAutoIncrement() {
+		return autoIncrement;
+	}
+	
+	/**
+	 * 平均行長（バイト）を取得する。
+	 * 
+	 * @return 平均行長
+	 */
+	public Long getAvgRowLength() {
+		return avgRowLength;
+	}
+	
+	/**
+	 * テーブルの作成日時を取得する。
+	 * 
+	 * @return テーブルの作成日時
+	 */
+	public Timestamp getCreateTime() {
+		return createTime == null ? null : (Timestamp) createTime.clone();
+	}
+	
+	/**
+	 * 未使用の割当済み領域（バイト）を取得する。
+	 * 
+	 * @return 未使用の割当済み領域
+	 */
+	public Long getDataFree() {
+		return dataFree;
+	}
+	
+	/**
+	 * データ長（バイト）を取得する。
+	 * 
+	 * @return データ長
+	 */
+	public Long getDataLength() {
+		return dataLength;
+	}
+	
+	/**
+	 * ストレージエンジン名を取得する。
+	 * 
+	 * @return ストレージエンジン名. VIEWの場合は{@code null}
+	 */
+	public String getEngine() {
+		return engine;
+	}
+	
+	/**
+	 * インデックス長（バイト）を取得する。
+	 * 
+	 * @return インデックス長
+	 */
+	public Long getIndexLength() {
+		return indexLength;
+	}
+	
+	/**
+	 * 行フォーマットを取得する。
+	 * 
+	 * @return 行フォーマット
+	 */
+	public String getRowFormat() {
+		return rowFormat;
+	}
+	
+	/**
+	 * テーブルの照合順序を取得する。
+	 * 
+	 * @return テーブルの照合順序
+	 */
+	public String getTableCollation() {
+		return tableCollation;
+	}
+	
+	/**
+	 * テーブル名を取得する。
+	 * 
+	 * @return テーブル名
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+	
+	/**
+	 * 行数を取得する。
+	 * 
+	 * <p>InnoDBの場合は概算値である。</p>
+	 * 
+	 * @return 行数
+	 */
+	public Long getTableRows() {
+		return tableRows;
+	}
+	
+	/**
+	 * テーブルの更新日時を取得する。
+	 * 
+	 * @return テーブルの更新日時
+	 */
+	public Timestamp getUpdateTime() {
+		return updateTime == null ? null : (Timestamp) updateTime.clone();
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + tableName + ", engine=" + engine + ", rows=" + tableRows + "]";
+	}
+}
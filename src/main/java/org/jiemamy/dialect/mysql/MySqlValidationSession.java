@@ -0,0 +1,314 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dddbase.EntityRef;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmConstraint;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.JmKeyConstraint;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.TypeParameterKey;
+import org.jiemamy.model.index.JmIndex;
+import org.jiemamy.model.index.JmIndexColumn;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.TableParameterKey;
+import org.jiemamy.model.view.JmView;
+import org.jiemamy.validator.Problem;
+import org.jiemamy.validator.Validator;
+
+/**
+ * 同じモデルを繰り返し検証する場合に、前回の検証から変更のあった{@link DbObject}のみを検証し直すクラス。
+ * 
+ * <p>{@link MySqlDialect#getValidator()}の子バリデータを、1つの{@link DbObject}の中で完結する検証
+ * （{@link MySqlValidator.LocalValidator}）と、複数の{@link DbObject}にまたがる検証（それ以外）に分けて扱う。</p>
+ * 
+ * <ul>
+ *   <li>{@link DbObject}ごとに前回の検証結果を保持し、変更された{@link DbObject}と新しい{@link DbObject}のみ、
+ *   そのオブジェクトだけを含むコンテキストで前者のバリデータを実行する。</li>
+ *   <li>後者のバリデータは、いずれかの{@link DbObject}が追加、変更、削除された場合にのみ、
+ *   コンテキスト全体に対して実行する。</li>
+ * </ul>
+ * 
+ * <p>{@link MySqlDialect}の親クラスが提供する汎用の子バリデータは、1つの{@link DbObject}の中で完結するかどうかを
+ * 判別できないため、全て後者として扱う。このため、いずれかの{@link DbObject}が変更された場合、汎用の子バリデータは
+ * コンテキスト全体に対して実行し直す。差分による検証の効果が及ぶのは、{@link MySqlIdentifierValidator}等の
+ * {@link MySqlValidator.LocalValidator}のみである。</p>
+ * 
+ * <p>変更された{@link DbObject}は、呼び出し側が{@link #validate(JiemamyContext, Collection)}で与えるか、
+ * {@link #validate(JiemamyContext)}で指紋を比較して検出する。指紋は名前、カラム、制約、インデックス、ビューの定義及び
+ * {@link MySqlParameterKeys}のパラメータから計算するハッシュ値であり、SQL文を生成しないため、全体の検証に比べて
+ * 十分に安価である。{@link MySqlParameterKeys}以外のパラメータのみの変更は検出しないため、その場合は前者で変更を与えること。</p>
+ * 
+ * <p>このクラスは状態を持つため、スレッドセーフではない。編集中のモデル1つにつき1つのインスタンスを用いる。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlValidationSession {
+	
+	/** 指紋に含める、{@link DbObject}のパラメータのキー */
+	private static final List<TableParameterKey<?>> TABLE_PARAMETER_KEYS = Arrays.<TableParameterKey<?>> asList(
+			MySqlParameterKeys.STORAGE_ENGINE,
+			MySqlParameterKeys.TABLE_ROWS,
+			MySqlParameterKeys.AVG_ROW_LENGTH,
+			MySqlParameterKeys.DATA_LENGTH,
+			MySqlParameterKeys.INDEX_LENGTH,
+			MySqlParameterKeys.DATA_FREE,
+			MySqlParameterKeys.AUTO_INCREMENT);
+	
+	
+	private static long fingerprint(DbObject dbObject) {
+		long hash = dbObject.getClass().getName().hashCode();
+		hash = hash(hash, dbObject.getName());
+		hash = hash(hash, dbObject.getLogicalName());
+		hash = hash(hash, dbObject.getDescription());
+		for (TableParameterKey<?> key : TABLE_PARAMETER_KEYS) {
+			hash = hash(hash, String.valueOf(dbObject.getParam(key)));
+		}
+		if (dbObject instanceof JmTable) {
+			JmTable table = (JmTable) dbObject;
+			for (JmColumn column : table.getColumns()) {
+				hash = hash(hash, column.getId());
+				hash = hash(hash, column.getName());
+				hash = hash(hash, column.getLogicalName());
+				hash = hash(hash, column.getDefaultValue());
+				hash = hash(hash, column.isNotNull());
+				hash = hash(hash, column.getDataType());
+			}
+			for (JmConstraint constraint : table.getConstraints(JmConstraint.class)) {
+				hash = hash(hash, constraint.getClass().getName());
+				hash = hash(hash, constraint.getName());
+				if (constraint instanceof JmKeyConstraint) {
+					hash = hash(hash, ((JmKeyConstraint) constraint).getKeyColumns());
+				}
+				if (constraint instanceof JmForeignKeyConstraint) {
+					JmForeignKeyConstraint foreignKey = (JmForeignKeyConstraint) constraint;
+					hash = hash(hash, foreignKey.getReferenceColumns());
+					hash = hash(hash, foreignKey.getOnDelete());
+					hash = hash(hash, foreignKey.getOnUpdate());
+				}
+			}
+			for (JmIndex index : table.getIndexes()) {
+				hash = hash(hash, index.getName());
+				hash = hash(hash, index.isUnique());
+				hash = hash(hash, index.getIndexColumns().size());
+				for (JmIndexColumn indexColumn : index.getIndexColumns()) {
+					hash = hash(hash, indexColumn.getColumnRef().getReferentId());
+				}
+			}
+		} else if (dbObject instanceof JmView) {
+			hash = hash(hash, ((JmView) dbObject).getDefinition());
+		}
+		return hash;
+	}
+	
+	private static long hash(long hash, DataType dataType) {
+		if (dataType == null) {
+			return hash(hash, (Object) null);
+		}
+		long result = hash(hash, dataType.getRawTypeDescriptor().getTypeName());
+		result = hash(result, dataType.getParam(TypeParameterKey.SIZE));
+		result = hash(result, dataType.getParam(TypeParameterKey.PRECISION));
+		result = hash(result, dataType.getParam(TypeParameterKey.SCALE));
+		result = hash(result, dataType.getParam(TypeParameterKey.SERIAL));
+		result = hash(result, dataType.getParam(TypeParameterKey.WITH_TIMEZONE));
+		result = hash(result, dataType.getParam(MySqlParameterKeys.UNSIGNED));
+		return hash(result, dataType.getParam(MySqlParameterKeys.CHARSET));
+	}
+	
+	private static long hash(long hash, List<? extends EntityRef<?>> refs) {
+		long result = hash(hash, refs.size());
+		for (EntityRef<?> ref : refs) {
+			result = hash(result, ref.getReferentId());
+		}
+		return result;
+	}
+	
+	private static long hash(long hash, Object value) {
+		return hash * 1000003 + (value == null ? 0 : value.hashCode());
+	}
+	
+	
+	/** 1つの{@link DbObject}の中で完結するバリデータ */
+	private final List<Validator> localValidators;
+	
+	/** 複数の{@link DbObject}にまたがるバリデータ */
+	private final List<Validator> globalValidators;
+	
+	/** {@link DbObject}のIDと、前回の検証結果 */
+	private final Map<UUID, Entry> entries = Maps.newHashMap();
+	
+	/** 複数の{@link DbObject}にまたがるバリデータの前回の検証結果. 未検証の場合は{@code null} */
+	private List<Problem> globalProblems;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param dialect 方言
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlValidationSession(MySqlDialect dialect) {
+		this(split(dialect, true), split(dialect, false));
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param localValidators 1つの{@link DbObject}の中で完結するバリデータ
+	 * @param globalValidators 複数の{@link DbObject}にまたがるバリデータ
+	 */
+	MySqlValidationSession(List<? extends Validator> localValidators, List<? extends Validator> globalValidators) {
+		Validate.noNullElements(localValidators);
+		Validate.noNullElements(globalValidators);
+		this.localValidators = Lists.<Validator> newArrayList(localValidators);
+		this.globalValidators = Lists.<Validator> newArrayList(globalValidators);
+	}
+	
+	private static List<Validator> split(MySqlDialect dialect, boolean local) {
+		Validate.notNull(dialect);
+		List<Validator> result = Lists.newArrayList();
+		for (Validator validator : ((MySqlValidator) dialect.getValidator()).getValidators()) {
+			if (validator instanceof MySqlValidator.LocalValidator == local) {
+				result.add(validator);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 保持している検証結果を破棄する。次回の{@link #validate(JiemamyContext)}はモデル全体を検証する。
+	 */
+	public void clear() {
+		entries.clear();
+		globalProblems = null;
+	}
+	
+	/**
+	 * モデルを検証する。
+	 * 
+	 * <p>前回の検証から変更された{@link DbObject}を、指紋の比較によって検出する。
+	 * 結果は{@link MySqlDialect#getValidator()}でモデル全体を検証した場合と同じ問題を含む。</p>
+	 * 
+	 * @param context 検証するコンテキスト
+	 * @return 問題のリスト
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public List<Problem> validate(JiemamyContext context) {
+		return validate(context, null);
+	}
+	
+	/**
+	 * 変更された{@link DbObject}を指定して、モデルを検証する。
+	 * 
+	 * <p>{@code changedObjects}に含まれない{@link DbObject}は、前回の検証から変更されていないものとみなし、
+	 * 指紋も比較しない。前回の検証になかった{@link DbObject}は、{@code changedObjects}に含まれなくても検証する。
+	 * 結果は{@link MySqlDialect#getValidator()}でモデル全体を検証した場合と同じ問題を含む。</p>
+	 * 
+	 * @param context 検証するコンテキスト
+	 * @param changedObjects 前回の検証から変更された{@link DbObject}. {@code null}の場合は指紋の比較によって検出する
+	 * @return 問題のリスト
+	 * @throws IllegalArgumentException 引数{@code context}に{@code null}を与えた場合
+	 */
+	public List<Problem> validate(JiemamyContext context, Collection<? extends DbObject> changedObjects) {
+		Validate.notNull(context);
+		Set<UUID> changedIds = null;
+		if (changedObjects != null) {
+			changedIds = Sets.newHashSet();
+			for (DbObject dbObject : changedObjects) {
+				changedIds.add(dbObject.getId());
+			}
+		}
+		List<Problem> problems = Lists.newArrayList();
+		Set<UUID> seen = Sets.newHashSet();
+		boolean changed = globalProblems == null;
+		for (DbObject dbObject : context.getDbObjects()) {
+			seen.add(dbObject.getId());
+			Entry entry = entries.get(dbObject.getId());
+			if (entry == null || isChanged(dbObject, entry, changedIds)) {
+				entry = new Entry(fingerprint(dbObject), validateLocally(dbObject));
+				entries.put(dbObject.getId(), entry);
+				changed = true;
+			}
+			problems.addAll(entry.problems);
+		}
+		if (entries.keySet().retainAll(seen)) {
+			changed = true;
+		}
+		if (changed) {
+			globalProblems = Collections.unmodifiableList(validate(globalValidators, context));
+		}
+		problems.addAll(globalProblems);
+		return problems;
+	}
+	
+	private boolean isChanged(DbObject dbObject, Entry entry, Set<UUID> changedIds) {
+		if (changedIds != null) {
+			return changedIds.contains(dbObject.getId());
+		}
+		return entry.fingerprint != fingerprint(dbObject);
+	}
+	
+	private List<Problem> validate(List<Validator> validators, JiemamyContext context) {
+		List<Problem> problems = Lists.newArrayList();
+		for (Validator validator : validators) {
+			problems.addAll(validator.validate(context));
+		}
+		return problems;
+	}
+	
+	private List<Problem> validateLocally(DbObject dbObject) {
+		if (localValidators.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(validate(localValidators, MySqlValidator.singleObjectContext(dbObject)));
+	}
+	
+	
+	private static class Entry {
+		
+		final long fingerprint;
+		
+		final Collection<Problem> problems;
+		
+		
+		Entry(long fingerprint, Collection<Problem> problems) {
+			this.fingerprint = fingerprint;
+			this.problems = problems;
+		}
+	}
+}
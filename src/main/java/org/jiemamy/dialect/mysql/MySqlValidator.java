@@ -0,0 +1,309 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.validator.CompositeValidator;
+import org.jiemamy.validator.Problem;
+import org.jiemamy.validator.Validator;
+
+/**
+ * {@link MySqlDialect}のバリデータ。子バリデータを順に適用し、その結果を連結して返す。
+ * 
+ * <p>{@link CompositeValidator}と異なり、子バリデータの構成は生成後に変更できない。
+ * 子バリデータが状態を持たない限り、このクラスはスレッドセーフであり、1つのインスタンスを
+ * 複数のコンテキストの検証に繰り返し用いることができる。</p>
+ * 
+ * <p>並列度（{@link #withParallelism(int)}）に2以上を指定した場合、子バリデータを複数のスレッドで実行する。
+ * 1つの{@link DbObject}の中で完結する子バリデータ（{@link LocalValidator}）は、{@link DbObject}を並列度と同じ数の
+ * 塊に分け、塊ごとに実行する。問題の並び順は、子バリデータの順、{@link LocalValidator}の中では
+ * {@link JiemamyContext#getDbObjects()}の順であり、スレッドの実行順によらず一定である。</p>
+ * 
+ * <p>スレッドプールはインスタンスにつき1度だけ、最初の並列実行時に生成し、以降の検証で使い回す。
+ * プールのスレッドはデーモンスレッドであり、一定時間（{@value #KEEP_ALIVE_SECONDS}秒）使われなければ終了するため、
+ * 終了処理は不要であり、使われなくなったインスタンスのスレッドが残り続けることもない。
+ * 呼び出し側のスレッドプールを用いる場合は{@link #withExecutor(ExecutorService, int)}を用いる。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ * @see MySqlDialect#getValidator()
+ */
+public final class MySqlValidator implements Validator {
+	
+	/**
+	 * 1つの{@link DbObject}のみを含むコンテキストを生成する。
+	 * 
+	 * @param dbObject {@link DbObject}
+	 * @return コンテキスト
+	 */
+	static JiemamyContext singleObjectContext(DbObject dbObject) {
+		JiemamyContext context = new JiemamyContext();
+		context.add(dbObject);
+		return context;
+	}
+	
+	/**
+	 * {@link DbObject}を、並び順を保ったまま最大{@code count}個の塊に分け、塊ごとのコンテキストを生成する。
+	 * 
+	 * @param dbObjects {@link DbObject}
+	 * @param count 塊の数の上限
+	 * @return コンテキストのリスト
+	 */
+	private static List<JiemamyContext> chunkContexts(Collection<DbObject> dbObjects, int count) {
+		List<JiemamyContext> result = Lists.newArrayList();
+		int chunkSize = (dbObjects.size() + count - 1) / count;
+		JiemamyContext chunk = null;
+		int index = 0;
+		for (DbObject dbObject : dbObjects) {
+			if (index++ % chunkSize == 0) {
+				chunk = new JiemamyContext();
+				result.add(chunk);
+			}
+			chunk.add(dbObject);
+		}
+		return result;
+	}
+	
+	
+	/** 使われていないプールのスレッドを終了するまでの秒数 */
+	static final long KEEP_ALIVE_SECONDS = 60;
+	
+	
+	private final List<Validator> validators;
+	
+	/** 子バリデータを実行するスレッド数の上限 */
+	private final int parallelism;
+	
+	/** 子バリデータを実行するスレッドプール. 呼び出し側が与えていない場合は、最初の並列実行時に生成する */
+	private volatile ExecutorService executor;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * <p>{@link CompositeValidator}を与えた場合は、その時点の子バリデータを展開して保持する。</p>
+	 * 
+	 * @param validators 子バリデータ
+	 * @throws IllegalArgumentException 引数に{@code null}または{@code null}要素を含むリストを与えた場合
+	 */
+	MySqlValidator(List<? extends Validator> validators) {
+		Validate.noNullElements(validators);
+		List<Validator> flattened = Lists.newArrayList();
+		for (Validator validator : validators) {
+			if (validator instanceof CompositeValidator) {
+				flattened.addAll(((CompositeValidator) validator).getValidators());
+			} else {
+				flattened.add(validator);
+			}
+		}
+		this.validators = Collections.unmodifiableList(flattened);
+		parallelism = 1;
+	}
+	
+	private MySqlValidator(MySqlValidator source, int parallelism, ExecutorService executor) {
+		validators = source.validators;
+		this.parallelism = parallelism;
+		this.executor = executor;
+	}
+	
+	/**
+	 * 子バリデータを実行するスレッド数の上限を取得する。
+	 * 
+	 * @return スレッド数の上限
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * 子バリデータのリストを取得する。
+	 * 
+	 * @return 子バリデータの変更不可能なリスト
+	 */
+	public List<Validator> getValidators() {
+		return validators;
+	}
+	
+	public Collection<? extends Problem> validate(JiemamyContext context) {
+		Validate.notNull(context);
+		if (parallelism <= 1) {
+			return validateSequentially(context);
+		}
+		return validateInParallel(context);
+	}
+	
+	/**
+	 * 子バリデータの構成が同じで、呼び出し側のスレッドプールで子バリデータを実行するインスタンスを返す。
+	 * 
+	 * <p>返すインスタンスは{@code executor}を終了しない。{@code executor}の終了は呼び出し側が行うこと。</p>
+	 * 
+	 * @param executor 子バリデータを実行するスレッドプール
+	 * @param parallelism {@link LocalValidator}の実行を分ける塊の数. {@code 1}の場合は逐次実行する
+	 * @return 新しいインスタンス
+	 * @throws IllegalArgumentException 引数{@code executor}に{@code null}を与えた場合、
+	 *  または引数{@code parallelism}が正の値でない場合
+	 */
+	public MySqlValidator withExecutor(ExecutorService executor, int parallelism) {
+		Validate.notNull(executor);
+		Validate.isTrue(parallelism > 0);
+		return new MySqlValidator(this, parallelism, executor);
+	}
+	
+	/**
+	 * 子バリデータの構成が同じで、並列度のみが異なるインスタンスを返す。
+	 * 
+	 * <p>返すインスタンスはそれぞれ専用のスレッドプールを持つため、繰り返し検証する場合は同じインスタンスを使い回すこと。</p>
+	 * 
+	 * @param parallelism 子バリデータを実行するスレッド数の上限. {@code 1}の場合は逐次実行する
+	 * @return 新しいインスタンス
+	 * @throws IllegalArgumentException 引数が正の値でない場合
+	 */
+	public MySqlValidator withParallelism(int parallelism) {
+		Validate.isTrue(parallelism > 0);
+		return new MySqlValidator(this, parallelism, null);
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + validators;
+	}
+	
+	private ExecutorService getExecutor() {
+		ExecutorService result = executor;
+		if (result == null) {
+			synchronized (this) {
+				result = executor;
+				if (result == null) {
+					ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE_SECONDS,
+							TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+					pool.allowCoreThreadTimeOut(true);
+					result = pool;
+					executor = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	private List<Problem> validateInParallel(JiemamyContext context) {
+		List<JiemamyContext> chunks = null;
+		List<Callable<Collection<? extends Problem>>> tasks = Lists.newArrayList();
+		for (Validator validator : validators) {
+			if (validator instanceof LocalValidator) {
+				if (chunks == null) {
+					chunks = chunkContexts(context.getDbObjects(), parallelism);
+				}
+				for (JiemamyContext chunk : chunks) {
+					tasks.add(new ValidationTask(validator, chunk));
+				}
+			} else {
+				tasks.add(new ValidationTask(validator, context));
+			}
+		}
+		
+		List<Problem> problems = Lists.newArrayList();
+		try {
+			for (Future<Collection<? extends Problem>> future : getExecutor().invokeAll(tasks)) {
+				problems.addAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			// 並列実行を諦め、逐次実行する
+			Thread.currentThread().interrupt();
+			return validateSequentially(context);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+		return problems;
+	}
+	
+	private List<Problem> validateSequentially(JiemamyContext context) {
+		List<Problem> problems = Lists.newArrayList();
+		for (Validator validator : validators) {
+			problems.addAll(validator.validate(context));
+		}
+		return problems;
+	}
+	
+	
+	/**
+	 * 1つの{@link DbObject}の中で完結する検証を行うバリデータを表すマーカーインタフェース。
+	 * 
+	 * <p>このインタフェースを実装するバリデータは、{@link DbObject}を任意の塊に分けたコンテキストに対して実行しても、
+	 * コンテキスト全体に対して実行した場合と同じ問題を返さなければならない。</p>
+	 * 
+	 * @version $Id$
+	 * @author daisuke
+	 */
+	interface LocalValidator extends Validator {
+	}
+	
+	private static class DaemonThreadFactory implements ThreadFactory {
+		
+		private final AtomicInteger count = new AtomicInteger();
+		
+		
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, MySqlValidator.class.getSimpleName() + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+	
+	private static class ValidationTask implements Callable<Collection<? extends Problem>> {
+		
+		private final Validator validator;
+		
+		private final JiemamyContext context;
+		
+		
+		ValidationTask(Validator validator, JiemamyContext context) {
+			this.validator = validator;
+			this.context = context;
+		}
+		
+		public Collection<? extends Problem> call() {
+			return validator.validate(context);
+		}
+	}
+}
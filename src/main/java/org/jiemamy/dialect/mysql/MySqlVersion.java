@@ -0,0 +1,161 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import java.io.Serializable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * MySQLサーバのバージョンを表すクラス。
+ * 
+ * <p>{@link MySqlDialect}が対象とするバージョンとして保持するため、直列化可能である。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+@SuppressWarnings("serial")
+public final class MySqlVersion implements Comparable<MySqlVersion>, Serializable {
+	
+	private static final Pattern VERSION = Pattern.compile("^(\\d+)\\.(\\d+)(?:\\.(\\d+))?");
+	
+	
+	/**
+	 * インスタンスを取得する。
+	 * 
+	 * @param major メジャーバージョン
+	 * @param minor マイナーバージョン
+	 * @param patch パッチバージョン
+	 * @return インスタンス
+	 * @throws IllegalArgumentException 引数に負の値を与えた場合
+	 */
+	public static MySqlVersion of(int major, int minor, int patch) {
+		return new MySqlVersion(major, minor, patch);
+	}
+	
+	/**
+	 * バージョン文字列（{@code SELECT VERSION()}の結果や{@link java.sql.DatabaseMetaData#getDatabaseProductVersion()}）
+	 * を解析する。
+	 * 
+	 * <p>{@code 8.0.29-log}のような接尾辞は無視する。</p>
+	 * 
+	 * @param version バージョン文字列
+	 * @return インスタンス
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合、またはバージョンとして解釈できない場合
+	 */
+	public static MySqlVersion parse(String version) {
+		Validate.notNull(version);
+		Matcher matcher = VERSION.matcher(version.trim());
+		if (matcher.find() == false) {
+			throw new IllegalArgumentException("invalid version: " + version);
+		}
+		int patch = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+		return new MySqlVersion(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), patch);
+	}
+	
+	
+	private final int major;
+	
+	private final int minor;
+	
+	private final int patch;
+	
+	
+	private MySqlVersion(int major, int minor, int patch) {
+		Validate.isTrue(major >= 0 && minor >= 0 && patch >= 0);
+		this.major = major;
+		this.minor = minor;
+		this.patch = patch;
+	}
+	
+	public int compareTo(MySqlVersion o) {
+		if (major != o.major) {
+			return major < o.major ? -1 : 1;
+		}
+		if (minor != o.minor) {
+			return minor < o.minor ? -1 : 1;
+		}
+		if (patch != o.patch) {
+			return patch < o.patch ? -1 : 1;
+		}
+		return 0;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj instanceof MySqlVersion == false) {
+			return false;
+		}
+		return compareTo((MySqlVersion) obj) == 0;
+	}
+	
+	/**
+	 * メジャーバージョンを取得する。
+	 * 
+	 * @return メジャーバージョン
+	 */
+	public int getMajor() {
+		return major;
+	}
+	
+	/**
+	 * マイナーバージョンを取得する。
+	 * 
+	 * @return マイナーバージョン
+	 */
+	public int getMinor() {
+		return minor;
+	}
+	
+	/**
+	 * パッチバージョンを取得する。
+	 * 
+	 * @return パッチバージョン
+	 */
+	public int getPatch() {
+		return patch;
+	}
+	
+	@Override
+	public int hashCode() {
+		return (major * 31 + minor) * 31 + patch;
+	}
+	
+	/**
+	 * このバージョンが指定したバージョン以降であるかどうかを調べる。
+	 * 
+	 * @param major メジャーバージョン
+	 * @param minor マイナーバージョン
+	 * @param patch パッチバージョン
+	 * @return 指定したバージョン以降である場合は{@code true}
+	 */
+	public boolean isAtLeast(int major, int minor, int patch) {
+		return compareTo(new MySqlVersion(major, minor, patch)) >= 0;
+	}
+	
+	@Override
+	public String toString() {
+		return major + "." + minor + "." + patch;
+	}
+}
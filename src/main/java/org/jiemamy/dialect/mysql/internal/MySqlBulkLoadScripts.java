@@ -0,0 +1,231 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+
+/**
+ * SQLスクリプトを、データの一括投入に適した順序に並べ替えるユーティリティクラス。
+ * 
+ * <p>テーブルは主キーのみを持つ状態で作成し、データを投入した後に、二次インデックス・一意キー・外部キーを
+ * テーブル毎に1つの{@code ALTER TABLE ... ADD ..., ADD ...}文でまとめて追加する。
+ * 行毎にインデックスを更新するよりも、投入後にまとめて構築する方が速い。</p>
+ * 
+ * <p>スクリプト全体は{@code FOREIGN_KEY_CHECKS=0}, {@code UNIQUE_CHECKS=0}（と、指定した場合は{@code SQL_LOG_BIN=0}）の
+ * セッション設定で囲み、最後に元の値に戻す。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public final class MySqlBulkLoadScripts {
+	
+	private static final String FOREIGN_KEY_CHECKS = "FOREIGN_KEY_CHECKS";
+	
+	private static final String UNIQUE_CHECKS = "UNIQUE_CHECKS";
+	
+	private static final String SQL_LOG_BIN = "SQL_LOG_BIN";
+	
+	
+	/**
+	 * SQL文のリストを、データの一括投入に適した順序に並べ替える。
+	 * 
+	 * <p>{@code CREATE TABLE}文中の主キー以外のインデックス・キー・外部キー定義、{@code CREATE INDEX}文、
+	 * {@code ALTER TABLE ... ADD}文は、全ての{@code INSERT}及び{@code LOAD DATA}文の後ろに、
+	 * テーブル毎の{@code ALTER TABLE}文としてまとめる。その他の文の相対的な順序は変えない。</p>
+	 * 
+	 * @param statements SQL文のリスト
+	 * @param disableBinaryLog バイナリログへの記録を止める（{@code SQL_LOG_BIN=0}）場合は{@code true}
+	 * @return 並べ替えた後のSQL文のリスト
+	 * @throws IllegalArgumentException 引数{@code statements}に{@code null}を与えた場合
+	 */
+	public static List<SqlStatement> reorder(List<SqlStatement> statements, boolean disableBinaryLog) {
+		Validate.notNull(statements);
+		List<String> variables = Lists.newArrayList(FOREIGN_KEY_CHECKS, UNIQUE_CHECKS);
+		if (disableBinaryLog) {
+			variables.add(SQL_LOG_BIN);
+		}
+		
+		List<SqlStatement> schema = Lists.newArrayList();
+		List<SqlStatement> data = Lists.newArrayList();
+		Map<String, List<Token>> alters = Maps.newLinkedHashMap();
+		for (SqlStatement statement : statements) {
+			List<Token> tokens = statement.toTokens();
+			String first = keywordAt(tokens, 0);
+			String second = keywordAt(tokens, 1);
+			if ("INSERT".equals(first) || "LOAD".equals(first)) {
+				data.add(statement);
+			} else if ("CREATE".equals(first) && "TABLE".equals(second)) {
+				schema.add(stripDeferredElements(tokens, alters));
+			} else if ("CREATE".equals(first) && ("INDEX".equals(second) || "INDEX".equals(keywordAt(tokens, 2)))) {
+				if (deferCreateIndex(tokens, alters) == false) {
+					schema.add(statement);
+				}
+			} else if ("ALTER".equals(first) && "TABLE".equals(second) && "ADD".equals(keywordAt(tokens, 3))) {
+				addAlterElements(alters, tokens.get(2), tokens.subList(3, endOf(tokens)));
+			} else {
+				schema.add(statement);
+			}
+		}
+		
+		List<SqlStatement> result = Lists.newArrayListWithCapacity(schema.size() + data.size() + alters.size() + 6);
+		for (String variable : variables) {
+			// FORMAT-OFF
+			result.add(new SimpleSqlStatement(Lists.newArrayList(
+					(Token) Keyword.of("SET"),
+					Keyword.of("@OLD_" + variable), Separator.EQUAL, Keyword.of("@@" + variable), Separator.COMMA,
+					Keyword.of(variable), Separator.EQUAL, Literal.of(0),
+					Separator.SEMICOLON)));
+			// FORMAT-ON
+		}
+		result.addAll(schema);
+		result.addAll(data);
+		for (List<Token> alter : alters.values()) {
+			alter.add(Separator.SEMICOLON);
+			result.add(new SimpleSqlStatement(alter));
+		}
+		for (String variable : Lists.reverse(variables)) {
+			// FORMAT-OFF
+			result.add(new SimpleSqlStatement(Lists.newArrayList(
+					(Token) Keyword.of("SET"),
+					Keyword.of(variable), Separator.EQUAL, Keyword.of("@OLD_" + variable),
+					Separator.SEMICOLON)));
+			// FORMAT-ON
+		}
+		return result;
+	}
+	
+	private static void addAlterElements(Map<String, List<Token>> alters, Token tableName, List<Token> elements) {
+		List<Token> alter = alters.get(tableName.toString());
+		if (alter == null) {
+			alter = Lists.newArrayList(Keyword.ALTER, Keyword.TABLE, tableName);
+			alters.put(tableName.toString(), alter);
+		} else {
+			alter.add(Separator.COMMA);
+		}
+		alter.addAll(elements);
+	}
+	
+	private static boolean deferCreateIndex(List<Token> tokens, Map<String, List<Token>> alters) {
+		// CREATE [UNIQUE] INDEX name ON table (columns) を ADD [UNIQUE] INDEX name (columns) に読み替える
+		int on = -1;
+		for (int i = 0; i < tokens.size(); i++) {
+			if ("ON".equals(keywordAt(tokens, i))) {
+				on = i;
+				break;
+			}
+		}
+		if (on < 0 || on + 1 >= tokens.size()) {
+			return false;
+		}
+		List<Token> element = Lists.newArrayList();
+		element.add(Keyword.ADD);
+		element.addAll(tokens.subList(1, on));
+		element.addAll(tokens.subList(on + 2, endOf(tokens)));
+		addAlterElements(alters, tokens.get(on + 1), element);
+		return true;
+	}
+	
+	private static int endOf(List<Token> tokens) {
+		int end = tokens.size();
+		return end > 0 && Separator.SEMICOLON.equals(tokens.get(end - 1)) ? end - 1 : end;
+	}
+	
+	private static boolean isDeferred(List<Token> element) {
+		String first = keywordAt(element, 0);
+		if ("CONSTRAINT".equals(first)) {
+			// CONSTRAINT [symbol] PRIMARY KEY ... 及び CHECK制約はテーブル作成時に残す
+			String kind = keywordAt(element, 1) != null ? keywordAt(element, 1) : keywordAt(element, 2);
+			return "PRIMARY".equals(kind) == false && "CHECK".equals(kind) == false;
+		}
+		return "UNIQUE".equals(first) || "KEY".equals(first) || "INDEX".equals(first) || "FOREIGN".equals(first)
+				|| "FULLTEXT".equals(first) || "SPATIAL".equals(first);
+	}
+	
+	private static String keywordAt(List<Token> tokens, int index) {
+		if (index < 0 || index >= tokens.size() || tokens.get(index) instanceof Keyword == false) {
+			return null;
+		}
+		return tokens.get(index).toString().toUpperCase(Locale.ENGLISH);
+	}
+	
+	private static SqlStatement stripDeferredElements(List<Token> tokens, Map<String, List<Token>> alters) {
+		int open = tokens.indexOf(Separator.LEFT_PAREN);
+		if (open < 0) {
+			return new SimpleSqlStatement(tokens);
+		}
+		List<Token> result = Lists.newArrayList(tokens.subList(0, open + 1));
+		List<List<Token>> elements = Lists.newArrayList();
+		List<Token> element = Lists.newArrayList();
+		int depth = 1;
+		int close = tokens.size();
+		for (int i = open + 1; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+			if (Separator.LEFT_PAREN.equals(token)) {
+				depth++;
+			} else if (Separator.RIGHT_PAREN.equals(token)) {
+				depth--;
+				if (depth == 0) {
+					close = i;
+					break;
+				}
+			} else if (depth == 1 && Separator.COMMA.equals(token)) {
+				elements.add(element);
+				element = Lists.newArrayList();
+				continue;
+			}
+			element.add(token);
+		}
+		elements.add(element);
+		
+		boolean first = true;
+		for (List<Token> each : elements) {
+			if (isDeferred(each)) {
+				List<Token> addition = Lists.newArrayList();
+				addition.add(Keyword.ADD);
+				addition.addAll(each);
+				addAlterElements(alters, tokens.get(2), addition);
+				continue;
+			}
+			if (first == false) {
+				result.add(Separator.COMMA);
+			}
+			first = false;
+			result.addAll(each);
+		}
+		result.addAll(tokens.subList(close, tokens.size()));
+		return new SimpleSqlStatement(result);
+	}
+	
+	private MySqlBulkLoadScripts() {
+	}
+}
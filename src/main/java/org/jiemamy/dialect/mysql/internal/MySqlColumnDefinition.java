@@ -0,0 +1,351 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.Locale;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.RawTypeDescriptor;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.TypeParameterKey;
+
+/**
+ * MySQLから読み込んだカラム定義。
+ * 
+ * <p>{@code information_schema.COLUMNS} の1行や、{@code CREATE TABLE} 文のカラム定義1つに相当する。
+ * 型名は、生成時に与えた{@link MySqlTypeCatalog}で解決する。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlColumnDefinition {
+	
+	private final String name;
+	
+	/** 型名を解決する型の一覧 */
+	private final MySqlTypeCatalog typeCatalog;
+	
+	private String typeName;
+	
+	private Integer size;
+	
+	private Integer precision;
+	
+	private Integer scale;
+	
+	private boolean unsigned;
+	
+	private boolean autoIncrement;
+	
+	private boolean notNull;
+	
+	private String defaultValue;
+	
+	private String charset;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * <p>型名は、対象とするバージョンによらず全ての型を含む{@link MySqlTypeCatalog#MYSQL_5_7}で解決する。</p>
+	 * 
+	 * @param name カラム名
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlColumnDefinition(String name) {
+		this(name, MySqlTypeCatalog.MYSQL_5_7);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name カラム名
+	 * @param typeCatalog 型名を解決する型の一覧. 通常は{@link org.jiemamy.dialect.mysql.MySqlDialect#getTypeCatalog()}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlColumnDefinition(String name, MySqlTypeCatalog typeCatalog) {
+		Validate.notNull(name);
+		Validate.notNull(typeCatalog);
+		this.name = name;
+		this.typeCatalog = typeCatalog;
+	}
+	
+	/**
+	 * 文字セット名を取得する。
+	 * 
+	 * @return 文字セット名. 指定がない場合は{@code null}
+	 */
+	public String getCharset() {
+		return charset;
+	}
+	
+	/**
+	 * デフォルト値を取得する。
+	 * 
+	 * <p>戻り値はSQL上の表現（文字列の場合は引用符付き）である。</p>
+	 * 
+	 * @return デフォルト値. 指定がない場合は{@code null}
+	 */
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+	
+	/**
+	 * カラム名を取得する。
+	 * 
+	 * @return カラム名
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * 精度を取得する。
+	 * 
+	 * @return 精度. 指定がない場合は{@code null}
+	 */
+	public Integer getPrecision() {
+		return precision;
+	}
+	
+	/**
+	 * スケールを取得する。
+	 * 
+	 * @return スケール. 指定がない場合は{@code null}
+	 */
+	public Integer getScale() {
+		return scale;
+	}
+	
+	/**
+	 * サイズを取得する。
+	 * 
+	 * @return サイズ. 指定がない場合は{@code null}
+	 */
+	public Integer getSize() {
+		return size;
+	}
+	
+	/**
+	 * 型名を取得する。
+	 * 
+	 * @return 大文字の型名
+	 */
+	public String getTypeName() {
+		return typeName;
+	}
+	
+	/**
+	 * {@code AUTO_INCREMENT}であるかどうかを取得する。
+	 * 
+	 * @return {@code AUTO_INCREMENT}である場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public boolean isAutoIncrement() {
+		return autoIncrement;
+	}
+	
+	/**
+	 * {@code NOT NULL}であるかどうかを取得する。
+	 * 
+	 * @return {@code NOT NULL}である場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public boolean isNotNull() {
+		return notNull;
+	}
+	
+	/**
+	 * {@code UNSIGNED}であるかどうかを取得する。
+	 * 
+	 * @return {@code UNSIGNED}である場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public boolean isUnsigned() {
+		return unsigned;
+	}
+	
+	/**
+	 * {@code AUTO_INCREMENT}であるかどうかを設定する。
+	 * 
+	 * @param autoIncrement {@code AUTO_INCREMENT}である場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public void setAutoIncrement(boolean autoIncrement) {
+		this.autoIncrement = autoIncrement;
+	}
+	
+	/**
+	 * 文字セット名を設定する。
+	 * 
+	 * @param charset 文字セット名
+	 */
+	public void setCharset(String charset) {
+		this.charset = charset;
+	}
+	
+	/**
+	 * {@code COLUMN_TYPE} 形式の型表現（例: {@code int(10) unsigned}, {@code decimal(10,2)}）を解析して設定する。
+	 * 
+	 * @param columnType 型表現
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public void setColumnType(String columnType) {
+		Validate.notNull(columnType);
+		String lower = columnType.trim().toLowerCase(Locale.ENGLISH);
+		int open = lower.indexOf('(');
+		int close = lower.lastIndexOf(')');
+		String rest;
+		if (open >= 0 && close > open) {
+			typeName = lower.substring(0, open).trim().toUpperCase(Locale.ENGLISH);
+			setArguments(lower.substring(open + 1, close));
+			rest = lower.substring(close + 1);
+		} else {
+			int space = lower.indexOf(' ');
+			typeName = (space < 0 ? lower : lower.substring(0, space)).toUpperCase(Locale.ENGLISH);
+			rest = space < 0 ? "" : lower.substring(space);
+		}
+		unsigned = rest.contains("unsigned");
+	}
+	
+	/**
+	 * SQL上の表現でデフォルト値を設定する。
+	 * 
+	 * @param defaultValue デフォルト値
+	 */
+	public void setDefaultValue(String defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	/**
+	 * {@code NOT NULL}であるかどうかを設定する。
+	 * 
+	 * @param notNull {@code NOT NULL}である場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public void setNotNull(boolean notNull) {
+		this.notNull = notNull;
+	}
+	
+	/**
+	 * 引用符を含まない生の値としてデフォルト値を設定する。
+	 * 
+	 * <p>{@code information_schema.COLUMNS.COLUMN_DEFAULT} の値を想定し、文字列型のカラムであれば引用符で囲む。
+	 * {@link #setColumnType(String)}の後に呼び出すこと。</p>
+	 * 
+	 * @param rawDefaultValue デフォルト値
+	 */
+	public void setRawDefaultValue(String rawDefaultValue) {
+		if (rawDefaultValue == null || isQuotedType() == false
+				|| rawDefaultValue.equalsIgnoreCase("CURRENT_TIMESTAMP")) {
+			defaultValue = rawDefaultValue;
+		} else {
+			defaultValue = "'" + StringUtils.replace(rawDefaultValue, "'", "''") + "'";
+		}
+	}
+	
+	/**
+	 * {@link JmColumn}に変換する。
+	 * 
+	 * @return {@link JmColumn}
+	 */
+	public JmColumn toJmColumn() {
+		RawTypeDescriptor descriptor = typeCatalog.find(typeName);
+		SimpleDataType dataType = new SimpleDataType(descriptor);
+		if (usesPrecision(descriptor.getCategory())) {
+			if (precision != null) {
+				dataType.putParam(TypeParameterKey.PRECISION, precision);
+			}
+			if (scale != null) {
+				dataType.putParam(TypeParameterKey.SCALE, scale);
+			}
+		} else if (size != null) {
+			dataType.putParam(TypeParameterKey.SIZE, size);
+		}
+		if (unsigned) {
+			dataType.putParam(MySqlParameterKeys.UNSIGNED, true);
+		}
+		if (autoIncrement) {
+			dataType.putParam(TypeParameterKey.SERIAL, true);
+		}
+		if (charset != null) {
+			dataType.putParam(MySqlParameterKeys.CHARSET, charset);
+		}
+		
+		JmColumn column = new JmColumnBuilder(name).type(dataType).build();
+		column.setNotNull(notNull);
+		column.setDefaultValue(defaultValue);
+		return column;
+	}
+	
+	@Override
+	public String toString() {
+		return name + " " + typeName;
+	}
+	
+	private boolean isQuotedType() {
+		RawTypeCategory category = typeCatalog.find(typeName).getCategory();
+		switch (category) {
+			case CHARACTER:
+			case VARCHAR:
+			case CLOB:
+			case DATE:
+			case TIME:
+			case TIMESTAMP:
+			case OTHER:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	private void setArguments(String arguments) {
+		if (arguments.startsWith("'")) {
+			// ENUM, SET の値リストはパラメータとして扱わない
+			return;
+		}
+		int comma = arguments.indexOf(',');
+		try {
+			if (comma < 0) {
+				int value = Integer.parseInt(arguments.trim());
+				size = value;
+				precision = value;
+			} else {
+				precision = Integer.valueOf(arguments.substring(0, comma).trim());
+				scale = Integer.valueOf(arguments.substring(comma + 1).trim());
+			}
+		} catch (NumberFormatException e) {
+			// 解釈できない引数は無視する
+		}
+	}
+	
+	private boolean usesPrecision(RawTypeCategory category) {
+		switch (category) {
+			case NUMERIC:
+			case DECIMAL:
+			case FLOAT:
+			case REAL:
+			case DOUBLE:
+				return true;
+			default:
+				return false;
+		}
+	}
+}
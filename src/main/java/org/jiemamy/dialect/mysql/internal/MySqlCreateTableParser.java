@@ -0,0 +1,592 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+
+/**
+ * MySQLの{@code CREATE TABLE}文を解析し、{@link MySqlTableDefinition}を組み立てるパーサ。
+ * 
+ * <p>{@code SHOW CREATE TABLE}の出力や{@code mysqldump}が出力する形式を対象とする。
+ * 文字列を先頭から1度だけ走査してトークンに分割し、正規表現は用いない。
+ * カラム（UNSIGNED, AUTO_INCREMENT, CHARACTER SETを含む）、主キー、インデックス、外部キー、ENGINE及び
+ * デフォルト文字セットを読み取り、それ以外の句（COMMENT, COLLATE, PARTITION等）は読み飛ばす。</p>
+ * 
+ * <p>このクラスはスレッドセーフである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlCreateTableParser {
+	
+	/** カラムの型名を解決する型の一覧 */
+	private final MySqlTypeCatalog typeCatalog;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * <p>カラムの型名は、対象とするバージョンによらず全ての型を含む{@link MySqlTypeCatalog#MYSQL_5_7}で解決する。</p>
+	 */
+	public MySqlCreateTableParser() {
+		this(MySqlTypeCatalog.MYSQL_5_7);
+	}
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param typeCatalog カラムの型名を解決する型の一覧
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlCreateTableParser(MySqlTypeCatalog typeCatalog) {
+		Validate.notNull(typeCatalog);
+		this.typeCatalog = typeCatalog;
+	}
+	
+	/**
+	 * {@code CREATE TABLE}文を解析する。
+	 * 
+	 * @param sql {@code CREATE TABLE}文. 末尾のセミコロンはあってもなくてもよい
+	 * @return テーブル定義
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @throws IllegalArgumentException {@code CREATE TABLE}文として解析できなかった場合
+	 */
+	public MySqlTableDefinition parse(String sql) {
+		Validate.notNull(sql);
+		return new Parser(tokenize(sql), typeCatalog).parseCreateTable();
+	}
+	
+	List<Token> tokenize(String sql) {
+		List<Token> tokens = Lists.newArrayList();
+		int length = sql.length();
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				i++;
+			} else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+				i = skipLine(sql, i);
+			} else if (c == '#') {
+				i = skipLine(sql, i);
+			} else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				if (i + 2 < length && sql.charAt(i + 2) == '!') {
+					// バージョン付きコメント /*!40101 ... */ の中身は文として扱う
+					i += 3;
+					while (i < length && Character.isDigit(sql.charAt(i))) {
+						i++;
+					}
+				} else {
+					int end = sql.indexOf("*/", i + 2);
+					i = end < 0 ? length : end + 2;
+				}
+			} else if (c == '*' && i + 1 < length && sql.charAt(i + 1) == '/') {
+				// バージョン付きコメントの終端
+				i += 2;
+			} else if (c == '`' || c == '"') {
+				i = readQuoted(sql, i, c, c == '`' ? TokenType.IDENTIFIER : TokenType.STRING, tokens);
+			} else if (c == '\'') {
+				i = readQuoted(sql, i, c, TokenType.STRING, tokens);
+			} else if (c == '(' || c == ')' || c == ',' || c == '=' || c == ';') {
+				tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c)));
+				i++;
+			} else {
+				int start = i;
+				while (i < length && isWordPart(sql.charAt(i))) {
+					i++;
+				}
+				if (start == i) {
+					// 単独の記号
+					i++;
+				}
+				tokens.add(new Token(TokenType.WORD, sql.substring(start, i)));
+			}
+		}
+		return tokens;
+	}
+	
+	private boolean isWordPart(char c) {
+		return Character.isWhitespace(c) == false && "()=,;`'\"".indexOf(c) < 0;
+	}
+	
+	private int readQuoted(String sql, int start, char quote, TokenType type, List<Token> tokens) {
+		StringBuilder sb = new StringBuilder();
+		int length = sql.length();
+		int i = start + 1;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (c == '\\' && quote != '`' && i + 1 < length) {
+				sb.append(unescape(sql.charAt(i + 1)));
+				i += 2;
+			} else if (c == quote) {
+				if (i + 1 < length && sql.charAt(i + 1) == quote) {
+					sb.append(quote);
+					i += 2;
+				} else {
+					tokens.add(new Token(type, sb.toString()));
+					return i + 1;
+				}
+			} else {
+				sb.append(c);
+				i++;
+			}
+		}
+		throw new IllegalArgumentException("unterminated quotation: " + sql.substring(start));
+	}
+	
+	private int skipLine(String sql, int start) {
+		int end = sql.indexOf('\n', start);
+		return end < 0 ? sql.length() : end + 1;
+	}
+	
+	private char unescape(char c) {
+		switch (c) {
+			case '0':
+				return '\0';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'Z':
+				return '\u001A';
+			default:
+				return c;
+		}
+	}
+	
+	
+	private static class Parser {
+		
+		private final List<Token> tokens;
+		
+		private final MySqlTypeCatalog typeCatalog;
+		
+		private int position;
+		
+		
+		Parser(List<Token> tokens, MySqlTypeCatalog typeCatalog) {
+			this.tokens = tokens;
+			this.typeCatalog = typeCatalog;
+		}
+		
+		MySqlTableDefinition parseCreateTable() {
+			expectWord("CREATE");
+			acceptWord("TEMPORARY");
+			expectWord("TABLE");
+			if (acceptWord("IF")) {
+				expectWord("NOT");
+				expectWord("EXISTS");
+			}
+			String tableName = readName();
+			if (acceptSymbol(".")) {
+				// 修飾名の場合はテーブル名部分のみを用いる
+				tableName = readName();
+			}
+			MySqlTableDefinition table = new MySqlTableDefinition(tableName);
+			
+			expectSymbol("(");
+			do {
+				parseElement(table);
+			} while (acceptSymbol(","));
+			expectSymbol(")");
+			
+			parseTableOptions(table);
+			return table;
+		}
+		
+		private boolean acceptSymbol(String symbol) {
+			Token token = peek();
+			if (token != null && (token.type == TokenType.SYMBOL || token.type == TokenType.WORD)
+					&& token.text.equals(symbol)) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+		
+		private boolean acceptWord(String word) {
+			if (isWord(peek(), word)) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+		
+		private void expectSymbol(String symbol) {
+			if (acceptSymbol(symbol) == false) {
+				throw unexpected("'" + symbol + "'");
+			}
+		}
+		
+		private void expectWord(String word) {
+			if (acceptWord(word) == false) {
+				throw unexpected(word);
+			}
+		}
+		
+		private boolean isWord(Token token, String word) {
+			return token != null && token.type == TokenType.WORD && token.text.equalsIgnoreCase(word);
+		}
+		
+		private Token next() {
+			Token token = peek();
+			if (token == null) {
+				throw unexpected("more tokens");
+			}
+			position++;
+			return token;
+		}
+		
+		private void parseColumn(MySqlTableDefinition table) {
+			MySqlColumnDefinition column = new MySqlColumnDefinition(readName(), typeCatalog);
+			
+			StringBuilder columnType = new StringBuilder(next().text);
+			if (isSymbol(peek(), "(")) {
+				columnType.append(readGroup());
+			}
+			while (isWord(peek(), "UNSIGNED") || isWord(peek(), "ZEROFILL") || isWord(peek(), "SIGNED")) {
+				columnType.append(' ').append(next().text);
+			}
+			column.setColumnType(columnType.toString());
+			
+			while (isEndOfElement(peek()) == false) {
+				Token token = next();
+				if (isWord(token, "NOT")) {
+					expectWord("NULL");
+					column.setNotNull(true);
+				} else if (isWord(token, "NULL")) {
+					column.setNotNull(false);
+				} else if (isWord(token, "DEFAULT")) {
+					column.setDefaultValue(readDefaultValue());
+				} else if (isWord(token, "AUTO_INCREMENT")) {
+					column.setAutoIncrement(true);
+				} else if (isWord(token, "CHARACTER") && acceptWord("SET")) {
+					column.setCharset(next().text);
+				} else if (isWord(token, "CHARSET")) {
+					column.setCharset(next().text);
+				} else if (isWord(token, "PRIMARY")) {
+					acceptWord("KEY");
+					table.getPrimaryKeyColumnNames().add(column.getName());
+				} else if (isWord(token, "UNIQUE")) {
+					acceptWord("KEY");
+					MySqlIndexDefinition index = new MySqlIndexDefinition(column.getName(), true);
+					index.getColumnNames().add(column.getName());
+					table.addIndex(index);
+				} else if (isSymbol(token, "(")) {
+					// 生成カラムの式などは読み飛ばす
+					position--;
+					readGroup();
+				}
+				// COMMENT, COLLATE, ON UPDATE 等のその他の属性は読み飛ばす
+			}
+			table.addColumn(column);
+		}
+		
+		private void parseElement(MySqlTableDefinition table) {
+			Token token = peek();
+			if (token == null) {
+				throw unexpected("table element");
+			}
+			if (token.type == TokenType.IDENTIFIER) {
+				parseColumn(table);
+				return;
+			}
+			String constraintName = null;
+			if (isWord(token, "CONSTRAINT")) {
+				position++;
+				if (isWord(peek(), "PRIMARY") == false && isWord(peek(), "UNIQUE") == false
+						&& isWord(peek(), "FOREIGN") == false && isWord(peek(), "CHECK") == false) {
+					constraintName = readName();
+				}
+				token = peek();
+			}
+			if (isWord(token, "PRIMARY")) {
+				position++;
+				expectWord("KEY");
+				skipIndexType();
+				table.getPrimaryKeyColumnNames().addAll(readColumnNames());
+				skipToEndOfElement();
+			} else if (isWord(token, "UNIQUE") || isWord(token, "KEY") || isWord(token, "INDEX")
+					|| isWord(token, "FULLTEXT") || isWord(token, "SPATIAL")) {
+				parseIndex(table, constraintName);
+			} else if (isWord(token, "FOREIGN")) {
+				parseForeignKey(table, constraintName);
+			} else if (isWord(token, "CHECK")) {
+				skipToEndOfElement();
+			} else {
+				parseColumn(table);
+			}
+		}
+		
+		private void parseForeignKey(MySqlTableDefinition table, String constraintName) {
+			expectWord("FOREIGN");
+			expectWord("KEY");
+			String name = constraintName;
+			if (isSymbol(peek(), "(") == false) {
+				String indexName = readName();
+				if (name == null) {
+					name = indexName;
+				}
+			}
+			List<String> columnNames = readColumnNames();
+			expectWord("REFERENCES");
+			String referencedTableName = readName();
+			if (acceptSymbol(".")) {
+				referencedTableName = readName();
+			}
+			MySqlForeignKeyDefinition foreignKey = new MySqlForeignKeyDefinition(name == null
+					? table.getName() + "_ibfk_" + (table.getForeignKeys().size() + 1) : name, referencedTableName);
+			foreignKey.getColumnNames().addAll(columnNames);
+			foreignKey.getReferencedColumnNames().addAll(readColumnNames());
+			
+			while (isEndOfElement(peek()) == false) {
+				Token token = next();
+				if (isWord(token, "ON")) {
+					Token event = next();
+					String action = readReferenceOption();
+					if (isWord(event, "DELETE")) {
+						foreignKey.setOnDelete(action);
+					} else if (isWord(event, "UPDATE")) {
+						foreignKey.setOnUpdate(action);
+					}
+				}
+				// MATCH 句は読み飛ばす
+			}
+			table.addForeignKey(foreignKey);
+		}
+		
+		private void parseIndex(MySqlTableDefinition table, String constraintName) {
+			boolean unique = acceptWord("UNIQUE");
+			if (unique == false) {
+				// FULLTEXT, SPATIAL
+				acceptWord("FULLTEXT");
+				acceptWord("SPATIAL");
+			}
+			if (acceptWord("KEY") == false) {
+				acceptWord("INDEX");
+			}
+			String name = constraintName;
+			if (isSymbol(peek(), "(") == false && isWord(peek(), "USING") == false) {
+				name = readName();
+			}
+			skipIndexType();
+			List<String> columnNames = readColumnNames();
+			if (name == null) {
+				// 名前のないインデックスは、MySQLと同様に先頭カラム名で命名する
+				name = columnNames.isEmpty() ? "index" + (table.getIndexes().size() + 1) : columnNames.get(0);
+			}
+			MySqlIndexDefinition index = new MySqlIndexDefinition(name, unique);
+			index.getColumnNames().addAll(columnNames);
+			table.addIndex(index);
+			skipToEndOfElement();
+		}
+		
+		private void parseTableOptions(MySqlTableDefinition table) {
+			while (peek() != null && isSymbol(peek(), ";") == false) {
+				Token token = next();
+				if (isWord(token, "ENGINE") || isWord(token, "TYPE")) {
+					acceptSymbol("=");
+					table.setEngine(next().text);
+				} else if (isWord(token, "CHARSET")) {
+					acceptSymbol("=");
+					table.setCharset(next().text);
+				} else if (isWord(token, "CHARACTER") && acceptWord("SET")) {
+					acceptSymbol("=");
+					table.setCharset(next().text);
+				} else if (isSymbol(token, "(")) {
+					// PARTITION 定義などは読み飛ばす
+					position--;
+					readGroup();
+				}
+			}
+		}
+		
+		private boolean isEndOfElement(Token token) {
+			return token == null || isSymbol(token, ",") || isSymbol(token, ")");
+		}
+		
+		private boolean isSymbol(Token token, String symbol) {
+			return token != null && token.type == TokenType.SYMBOL && token.text.equals(symbol);
+		}
+		
+		private Token peek() {
+			return position < tokens.size() ? tokens.get(position) : null;
+		}
+		
+		private List<String> readColumnNames() {
+			expectSymbol("(");
+			List<String> result = Lists.newArrayList();
+			do {
+				// MySQL 8.0 の関数インデックスは式をそのまま名前として扱う
+				result.add(isSymbol(peek(), "(") ? readGroup() : readName());
+				while (isEndOfElement(peek()) == false) {
+					// プレフィックス長 (10) や ASC/DESC は読み飛ばす
+					if (isSymbol(peek(), "(")) {
+						readGroup();
+					} else {
+						position++;
+					}
+				}
+			} while (acceptSymbol(","));
+			expectSymbol(")");
+			return result;
+		}
+		
+		private String readDefaultValue() {
+			Token token = next();
+			if (token.type == TokenType.STRING) {
+				return quote(token.text);
+			}
+			if (isSymbol(token, "(")) {
+				position--;
+				return readGroup();
+			}
+			if (isWord(token, "NULL")) {
+				return null;
+			}
+			Token following = peek();
+			if (following != null && following.type == TokenType.STRING
+					&& (isWord(token, "b") || isWord(token, "x") || token.text.startsWith("_"))) {
+				// b'0101', x'FF', _utf8'abc' 形式のリテラル
+				position++;
+				return token.text + quote(following.text);
+			}
+			if (isSymbol(following, "(")) {
+				// CURRENT_TIMESTAMP(6) 等の関数呼び出し
+				return token.text + readGroup();
+			}
+			return token.text;
+		}
+		
+		/**
+		 * 括弧で囲まれた部分を読み、SQL上の表現として再構成した文字列を返す。
+		 */
+		private String readGroup() {
+			StringBuilder sb = new StringBuilder();
+			int depth = 0;
+			Token previous = null;
+			do {
+				Token token = next();
+				if (isSymbol(token, "(")) {
+					depth++;
+				} else if (isSymbol(token, ")")) {
+					depth--;
+				}
+				if (previous != null && previous.type != TokenType.SYMBOL && token.type != TokenType.SYMBOL) {
+					sb.append(' ');
+				}
+				if (token.type == TokenType.STRING) {
+					sb.append(quote(token.text));
+				} else if (token.type == TokenType.IDENTIFIER) {
+					sb.append('`').append(StringUtils.replace(token.text, "`", "``")).append('`');
+				} else {
+					sb.append(token.text);
+				}
+				previous = token;
+			} while (depth > 0);
+			return sb.toString();
+		}
+		
+		private String readName() {
+			Token token = next();
+			if (token.type == TokenType.SYMBOL) {
+				throw new IllegalArgumentException("name expected but was '" + token.text + "'");
+			}
+			if (token.type == TokenType.WORD && token.text.indexOf('.') > 0) {
+				// 引用符のない修飾名の場合は最後の部分のみを用いる
+				return token.text.substring(token.text.lastIndexOf('.') + 1);
+			}
+			return token.text;
+		}
+		
+		private String readReferenceOption() {
+			Token token = next();
+			if (isWord(token, "SET") || isWord(token, "NO")) {
+				return token.text.toUpperCase(Locale.ENGLISH) + " " + next().text.toUpperCase(Locale.ENGLISH);
+			}
+			return token.text.toUpperCase(Locale.ENGLISH);
+		}
+		
+		private String quote(String text) {
+			return "'" + StringUtils.replace(text, "'", "''") + "'";
+		}
+		
+		private void skipIndexType() {
+			if (acceptWord("USING")) {
+				position++;
+			}
+		}
+		
+		private void skipToEndOfElement() {
+			while (isEndOfElement(peek()) == false) {
+				if (isSymbol(peek(), "(")) {
+					readGroup();
+				} else {
+					position++;
+				}
+			}
+		}
+		
+		private IllegalArgumentException unexpected(String expected) {
+			Token token = peek();
+			return new IllegalArgumentException(expected + " expected but was "
+					+ (token == null ? "end of statement" : "'" + token.text + "'"));
+		}
+	}
+	
+	static class Token {
+		
+		final TokenType type;
+		
+		final String text;
+		
+		
+		Token(TokenType type, String text) {
+			this.type = type;
+			this.text = text;
+		}
+		
+		@Override
+		public String toString() {
+			return type + ":" + text;
+		}
+	}
+	
+	enum TokenType {
+		
+		/** 予約語・非引用識別子・数値 */
+		WORD,
+		
+		/** バッククォートで囲まれた識別子 */
+		IDENTIFIER,
+		
+		/** 文字列リテラル */
+		STRING,
+		
+		/** 記号 */
+		SYMBOL
+	}
+}
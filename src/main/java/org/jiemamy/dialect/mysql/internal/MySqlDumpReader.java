@@ -0,0 +1,284 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code mysqldump}形式のSQLスクリプトから、文を1つずつ読み出すリーダ。
+ * 
+ * <p>入力を1文字ずつ走査し、引用符・コメント・{@code DELIMITER}コマンドを考慮して文を区切る。
+ * 通常のコメントは取り除き、バージョン付きコメント（{@code /*!40101 ... *}{@code /}）はその中身を文として扱う。</p>
+ * 
+ * <p>{@code INSERT}, {@code REPLACE}文はデータであるため、先頭の単語を読んだ時点で以降をバッファせずに読み飛ばす。
+ * また、{@code maxStatementLength}を超える文も読み飛ばす。このため、入力の大きさによらず使用するメモリは一定である。</p>
+ * 
+ * <p>このクラスはスレッドセーフではない。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlDumpReader {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlDumpReader.class);
+	
+	private static final int NORMAL = 0;
+	
+	private static final int SINGLE_QUOTE = 1;
+	
+	private static final int DOUBLE_QUOTE = 2;
+	
+	private static final int BACKTICK = 3;
+	
+	private static final int LINE_COMMENT = 4;
+	
+	private static final int BLOCK_COMMENT = 5;
+	
+	private static final String DEFAULT_DELIMITER = ";";
+	
+	
+	private final BufferedReader reader;
+	
+	private final int maxStatementLength;
+	
+	private final StringBuilder buffer = new StringBuilder();
+	
+	private String delimiter = DEFAULT_DELIMITER;
+	
+	private int pushedBack = -2;
+	
+	private long skippedStatements;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param reader 入力
+	 * @param maxStatementLength 読み出す文の最大長. これを超える文は読み飛ばす
+	 * @throws IllegalArgumentException 引数{@code reader}に{@code null}を与えた場合
+	 * @throws IllegalArgumentException 引数{@code maxStatementLength}が正の値でない場合
+	 */
+	public MySqlDumpReader(Reader reader, int maxStatementLength) {
+		Validate.notNull(reader);
+		Validate.isTrue(maxStatementLength > 0);
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		this.maxStatementLength = maxStatementLength;
+	}
+	
+	/**
+	 * 読み飛ばした文の数を取得する。
+	 * 
+	 * @return 読み飛ばした文の数
+	 */
+	public long getSkippedStatements() {
+		return skippedStatements;
+	}
+	
+	/**
+	 * 次の文を読み出す。
+	 * 
+	 * <p>返す文には区切り文字を含まず、前後の空白は取り除かれる。</p>
+	 * 
+	 * @return 次の文. 入力の終端に達した場合は{@code null}
+	 * @throws IOException 入力の読み込みに失敗した場合
+	 */
+	public String nextStatement() throws IOException {
+		while (true) {
+			buffer.setLength(0);
+			boolean classified = false;
+			boolean skipping = false;
+			int state = NORMAL;
+			int versionCommentDepth = 0;
+			int matched = 0;
+			int c;
+			boolean terminated = false;
+			while (terminated == false && (c = read()) != -1) {
+				char ch = (char) c;
+				switch (state) {
+					case LINE_COMMENT:
+						if (ch == '\n') {
+							state = NORMAL;
+							append('\n', skipping);
+						}
+						continue;
+					case BLOCK_COMMENT:
+						if (ch == '*' && peek() == '/') {
+							read();
+							state = NORMAL;
+							append(' ', skipping);
+						}
+						continue;
+					case SINGLE_QUOTE:
+					case DOUBLE_QUOTE:
+					case BACKTICK:
+						append(ch, skipping);
+						if (ch == '\\' && state != BACKTICK) {
+							int escaped = read();
+							if (escaped != -1) {
+								append((char) escaped, skipping);
+							}
+						} else if (ch == quoteOf(state)) {
+							state = NORMAL;
+						}
+						continue;
+					default:
+						break;
+				}
+				
+				if (matched > 0 && ch != delimiter.charAt(matched)) {
+					// 区切り文字の途中までが一致していた場合は、その部分を文の一部として扱う
+					for (int i = 0; i < matched; i++) {
+						append(delimiter.charAt(i), skipping);
+					}
+					matched = 0;
+				}
+				if (ch == delimiter.charAt(matched)) {
+					matched++;
+					if (matched == delimiter.length()) {
+						terminated = true;
+					}
+					continue;
+				}
+				
+				if (ch == '-' && peek() == '-') {
+					read();
+					state = LINE_COMMENT;
+				} else if (ch == '#') {
+					state = LINE_COMMENT;
+				} else if (ch == '/' && peek() == '*') {
+					read();
+					if (peek() == '!') {
+						read();
+						while (Character.isDigit((char) peek())) {
+							read();
+						}
+						versionCommentDepth++;
+						append(' ', skipping);
+					} else {
+						state = BLOCK_COMMENT;
+					}
+				} else if (ch == '*' && peek() == '/' && versionCommentDepth > 0) {
+					read();
+					versionCommentDepth--;
+					append(' ', skipping);
+				} else {
+					if (ch == '\'') {
+						state = SINGLE_QUOTE;
+					} else if (ch == '"') {
+						state = DOUBLE_QUOTE;
+					} else if (ch == '`') {
+						state = BACKTICK;
+					}
+					if (classified == false && isWordBoundary(ch) && isBlank() == false) {
+						classified = true;
+						String firstWord = buffer.toString().trim().toUpperCase(Locale.ENGLISH);
+						if (firstWord.equals("DELIMITER")) {
+							delimiter = readLine().trim();
+							logger.debug("delimiter changed to {}", delimiter);
+							buffer.setLength(0);
+							classified = false;
+							continue;
+						}
+						if (firstWord.equals("INSERT") || firstWord.equals("REPLACE")) {
+							skipping = true;
+						}
+					}
+					append(ch, skipping);
+					if (skipping == false && buffer.length() > maxStatementLength) {
+						logger.warn("statement exceeds {} characters and is skipped: {}...", maxStatementLength,
+								buffer.substring(0, Math.min(buffer.length(), 64)));
+						skipping = true;
+						buffer.setLength(0);
+					}
+				}
+			}
+			
+			if (skipping) {
+				skippedStatements++;
+			} else if (isBlank() == false) {
+				return buffer.toString().trim();
+			}
+			if (terminated == false) {
+				return null;
+			}
+		}
+	}
+	
+	private void append(char ch, boolean skipping) {
+		if (skipping == false) {
+			buffer.append(ch);
+		}
+	}
+	
+	private boolean isBlank() {
+		for (int i = 0; i < buffer.length(); i++) {
+			if (Character.isWhitespace(buffer.charAt(i)) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private boolean isWordBoundary(char ch) {
+		return Character.isWhitespace(ch) || ch == '(' || ch == '`' || ch == '\'' || ch == '"';
+	}
+	
+	private int peek() throws IOException {
+		if (pushedBack == -2) {
+			pushedBack = reader.read();
+		}
+		return pushedBack;
+	}
+	
+	private char quoteOf(int state) {
+		switch (state) {
+			case SINGLE_QUOTE:
+				return '\'';
+			case DOUBLE_QUOTE:
+				return '"';
+			default:
+				return '`';
+		}
+	}
+	
+	private int read() throws IOException {
+		if (pushedBack != -2) {
+			int c = pushedBack;
+			pushedBack = -2;
+			return c;
+		}
+		return reader.read();
+	}
+	
+	private String readLine() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		int c;
+		while ((c = read()) != -1 && c != '\n') {
+			sb.append((char) c);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.ReferentialAction;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * MySQLから読み込んだ外部キー定義。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlForeignKeyDefinition {
+	
+	private static JmColumn findColumn(JmTable table, String columnName) {
+		for (JmColumn column : table.getColumns()) {
+			if (column.getName().equals(columnName)) {
+				return column;
+			}
+		}
+		return null;
+	}
+	
+	private static ReferentialAction toReferentialAction(String action) {
+		if (action == null) {
+			return null;
+		}
+		try {
+			return ReferentialAction.valueOf(action.trim().toUpperCase(Locale.ENGLISH).replaceAll("\\s+", "_"));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	
+	private final String name;
+	
+	private final String referencedTableName;
+	
+	private final List<String> columnNames = Lists.newArrayList();
+	
+	private final List<String> referencedColumnNames = Lists.newArrayList();
+	
+	private String onDelete;
+	
+	private String onUpdate;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name 制約名
+	 * @param referencedTableName 参照先テーブル名
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlForeignKeyDefinition(String name, String referencedTableName) {
+		Validate.notNull(name);
+		Validate.notNull(referencedTableName);
+		this.name = name;
+		this.referencedTableName = referencedTableName;
+	}
+	
+	/**
+	 * 参照元カラム名のリストを取得する。
+	 * 
+	 * @return 参照元カラム名のリスト
+	 */
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+	
+	/**
+	 * 制約名を取得する。
+	 * 
+	 * @return 制約名
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * 削除時の参照動作（{@code CASCADE}等）を取得する。
+	 * 
+	 * @return 削除時の参照動作. 指定がない場合は{@code null}
+	 */
+	public String getOnDelete() {
+		return onDelete;
+	}
+	
+	/**
+	 * 更新時の参照動作（{@code CASCADE}等）を取得する。
+	 * 
+	 * @return 更新時の参照動作. 指定がない場合は{@code null}
+	 */
+	public String getOnUpdate() {
+		return onUpdate;
+	}
+	
+	/**
+	 * 参照先カラム名のリストを取得する。
+	 * 
+	 * @return 参照先カラム名のリスト
+	 */
+	public List<String> getReferencedColumnNames() {
+		return referencedColumnNames;
+	}
+	
+	/**
+	 * 参照先テーブル名を取得する。
+	 * 
+	 * @return 参照先テーブル名
+	 */
+	public String getReferencedTableName() {
+		return referencedTableName;
+	}
+	
+	/**
+	 * 削除時の参照動作を設定する。
+	 * 
+	 * @param onDelete 削除時の参照動作
+	 */
+	public void setOnDelete(String onDelete) {
+		this.onDelete = onDelete;
+	}
+	
+	/**
+	 * 更新時の参照動作を設定する。
+	 * 
+	 * @param onUpdate 更新時の参照動作
+	 */
+	public void setOnUpdate(String onUpdate) {
+		this.onUpdate = onUpdate;
+	}
+	
+	/**
+	 * {@link JmForeignKeyConstraint}に変換する。
+	 * 
+	 * <p>参照元・参照先のカラムは、それぞれのテーブルからカラム名で解決する。</p>
+	 * 
+	 * @param table 参照元テーブル
+	 * @param referencedTable 参照先テーブル
+	 * @return 外部キー制約. 解決できないカラムがある場合は{@code null}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public JmForeignKeyConstraint toJmForeignKey(JmTable table, JmTable referencedTable) {
+		Validate.notNull(table);
+		Validate.notNull(referencedTable);
+		if (columnNames.isEmpty() || columnNames.size() != referencedColumnNames.size()) {
+			return null;
+		}
+		JmForeignKeyConstraint foreignKey = new JmForeignKeyConstraint();
+		foreignKey.setName(name);
+		for (int i = 0; i < columnNames.size(); i++) {
+			JmColumn column = findColumn(table, columnNames.get(i));
+			JmColumn referencedColumn = findColumn(referencedTable, referencedColumnNames.get(i));
+			if (column == null || referencedColumn == null) {
+				return null;
+			}
+			foreignKey.addKeyColumn(column.toReference());
+			foreignKey.addReferenceColumn(referencedColumn.toReference());
+		}
+		foreignKey.setOnDelete(toReferentialAction(onDelete));
+		foreignKey.setOnUpdate(toReferentialAction(onUpdate));
+		return foreignKey;
+	}
+	
+	@Override
+	public String toString() {
+		return name + columnNames + " -> " + referencedTableName + referencedColumnNames;
+	}
+}
@@ -18,11 +18,17 @@
  */
 package org.jiemamy.dialect.mysql.internal;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+
 import org.jiemamy.model.sql.Identifier;
 
 /**
  * MySQL用識別子クラス。
  * 
+ * <p>識別子はバッククォートで囲んで出力し、識別子中のバッククォートは二重にしてエスケープする。
+ * 引用済みの文字列は生成時に1度だけ組み立てる。</p>
+ * 
  * <p>このクラスはイミュータブルである。</p>
  * 
  * @author daisuke
@@ -39,6 +45,22 @@ public class MySqlIdentifier extends Identifier {
 		return new MySqlIdentifier(string);
 	}
 	
+	/**
+	 * 識別子文字列をバッククォートで囲み、MySQL上の表現に変換する。
+	 * 
+	 * @param identifier 識別子文字列
+	 * @return バッククォートで囲んだ識別子
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static String quote(String identifier) {
+		Validate.notNull(identifier);
+		return "`" + StringUtils.replace(identifier, "`", "``") + "`";
+	}
+	
+	
+	private final String quoted;
+	
+	
 	/**
 	 * インスタンスを生成する。
 	 * 
@@ -46,10 +68,11 @@ public class MySqlIdentifier extends Identifier {
 	 */
 	protected MySqlIdentifier(String identifier) {
 		super(identifier);
+		quoted = quote(identifier);
 	}
 	
 	@Override
 	public String toString() {
-		return "`" + super.toString() + "`";
+		return quoted;
 	}
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+/**
+ * MySQLの識別子の規則に従って、識別子文字列を検査するユーティリティクラス。
+ * 
+ * <p>以下の規則を、1文字ずつの走査で検査する。正規表現は用いず、検査中にオブジェクトを生成しない。</p>
+ * 
+ * <ul>
+ *   <li>長さは1文字以上{@value #MAX_LENGTH}文字以下である。</li>
+ *   <li>バッククォートで囲まない識別子には、{@code [0-9a-zA-Z$_]}とU+0080〜U+FFFFの文字を用いることができる。
+ *   ただし、数字のみからなる識別子は用いることができない。</li>
+ *   <li>バッククォートで囲む識別子には、U+0001〜U+FFFFの文字を用いることができる。ただし、末尾を空白とすることはできない。</li>
+ *   <li>いずれの場合も、U+10000以上の文字（サロゲートペア）は用いることができない。</li>
+ * </ul>
+ * 
+ * <p>バッククォートで囲む識別子は、囲む前の文字列を与える。識別子中のバッククォートは
+ * {@link MySqlIdentifier#quote(String)}がエスケープするため、検査では通常の文字として扱う。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public final class MySqlIdentifierScanner {
+	
+	/** 識別子の最大長 */
+	public static final int MAX_LENGTH = 64;
+	
+	/** バッククォートで囲まずに用いることができる文字 */
+	private static final byte UNQUOTED = 1;
+	
+	/** 数字 */
+	private static final byte DIGIT = 2;
+	
+	/** ASCII文字の文字種表 */
+	private static final byte[] ASCII_CLASSES = new byte[128];
+	
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			ASCII_CLASSES[c] = UNQUOTED | DIGIT;
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			ASCII_CLASSES[c] = UNQUOTED;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			ASCII_CLASSES[c] = UNQUOTED;
+		}
+		ASCII_CLASSES['$'] = UNQUOTED;
+		ASCII_CLASSES['_'] = UNQUOTED;
+	}
+	
+	
+	/**
+	 * バッククォートで囲む識別子として有効かどうかを調べる。
+	 * 
+	 * @param identifier 囲む前の識別子文字列
+	 * @return 有効な場合は{@code true}、そうでない場合は{@code false}. 引数に{@code null}を与えた場合は{@code false}
+	 */
+	public static boolean isValidQuoted(CharSequence identifier) {
+		if (identifier == null) {
+			return false;
+		}
+		int length = identifier.length();
+		if (length == 0 || length > MAX_LENGTH || identifier.charAt(length - 1) == ' ') {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = identifier.charAt(i);
+			if (c == '\u0000' || isSurrogate(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * バッククォートで囲まない識別子として有効かどうかを調べる。
+	 * 
+	 * <p>予約語かどうかは調べない。</p>
+	 * 
+	 * @param identifier 識別子文字列
+	 * @return 有効な場合は{@code true}、そうでない場合は{@code false}. 引数に{@code null}を与えた場合は{@code false}
+	 */
+	public static boolean isValidUnquoted(CharSequence identifier) {
+		if (identifier == null) {
+			return false;
+		}
+		int length = identifier.length();
+		if (length == 0 || length > MAX_LENGTH) {
+			return false;
+		}
+		boolean digitsOnly = true;
+		for (int i = 0; i < length; i++) {
+			char c = identifier.charAt(i);
+			if (c < 0x80) {
+				byte charClass = ASCII_CLASSES[c];
+				if ((charClass & UNQUOTED) == 0) {
+					return false;
+				}
+				if ((charClass & DIGIT) == 0) {
+					digitsOnly = false;
+				}
+			} else if (isSurrogate(c)) {
+				return false;
+			} else {
+				digitsOnly = false;
+			}
+		}
+		return digitsOnly == false;
+	}
+	
+	private static boolean isSurrogate(char c) {
+		return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+	}
+	
+	private MySqlIdentifierScanner() {
+	}
+}
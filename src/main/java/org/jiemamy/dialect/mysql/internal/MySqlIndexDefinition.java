@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * MySQLから読み込んだインデックス定義。主キー以外のインデックス（UNIQUEを含む）を表す。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIndexDefinition {
+	
+	private final String name;
+	
+	private final boolean unique;
+	
+	private final List<String> columnNames = Lists.newArrayList();
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name インデックス名
+	 * @param unique UNIQUEインデックスである場合は{@code true}、そうでない場合は{@code false}
+	 * @throws IllegalArgumentException 引数{@code name}に{@code null}を与えた場合
+	 */
+	public MySqlIndexDefinition(String name, boolean unique) {
+		Validate.notNull(name);
+		this.name = name;
+		this.unique = unique;
+	}
+	
+	/**
+	 * インデックスを構成するカラム名のリストを取得する。
+	 * 
+	 * @return カラム名のリスト（インデックス内の順序）
+	 */
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+	
+	/**
+	 * インデックス名を取得する。
+	 * 
+	 * @return インデックス名
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * UNIQUEインデックスであるかどうかを取得する。
+	 * 
+	 * @return UNIQUEインデックスである場合は{@code true}、そうでない場合は{@code false}
+	 */
+	public boolean isUnique() {
+		return unique;
+	}
+	
+	@Override
+	public String toString() {
+		return (unique ? "UNIQUE " : "") + name + columnNames;
+	}
+}
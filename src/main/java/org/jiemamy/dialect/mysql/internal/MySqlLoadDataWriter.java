@@ -0,0 +1,328 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.dialect.mysql.MySqlVersion;
+import org.jiemamy.model.datatype.LiteralType;
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+
+/**
+ * INSERT文の値を、{@code LOAD DATA INFILE}で読み込めるタブ区切りのデータファイルに書き出すライタ。
+ * 
+ * <p>データファイルは、テーブルとカラムリストの組毎に1つ作成し、UTF-8で書き出す。
+ * 同じテーブルへのINSERT文でもカラムリストが異なれば、別のデータファイルと{@code LOAD DATA}文とする。フィールドはタブ、行は改行で区切り、
+ * 値中のバックスラッシュ・タブ・改行等は{@code LOAD DATA}のデフォルトに合わせてバックスラッシュでエスケープする。
+ * {@code NULL}は{@code \N}として書き出す。値は受け取った都度ファイルに書き出し、メモリには保持しない。</p>
+ * 
+ * <p>{@code LOAD DATA}文の文字セットは、サーバが対応していれば{@code utf8mb4}（MySQL 5.5.3以降）、
+ * そうでなければ{@code utf8}とする。{@code utf8}の場合、BMP外の文字を含む値は正しく読み込まれない。</p>
+ * 
+ * <p>データファイルには値をそのまま書き出すため、関数呼び出し（{@code NOW()}等）やキーワード
+ * （{@code CURRENT_TIMESTAMP}等）を値に含むINSERT文は書き出せない。{@link #isLoadable(List, int)}で
+ * 事前に判定し、書き出せない文はINSERT文のまま残すこと。</p>
+ * 
+ * <p>このクラスはスレッドセーフではない。使用後は必ず{@link #close()}を呼び出すこと。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlLoadDataWriter {
+	
+	private static final String FILE_EXTENSION = ".tsv";
+	
+	private static final String CHARSET = "UTF-8";
+	
+	private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+	
+	
+	/**
+	 * INSERT文の値が全てリテラルであり、データファイルに書き出せるかどうかを調べる。
+	 * 
+	 * <p>各値が{@code NULL}、文字列リテラル、数値リテラルのいずれか1トークンである場合に書き出せると判定する。</p>
+	 * 
+	 * @param tokens INSERT文のトークン列
+	 * @param valuesIndex {@code tokens}中の{@code VALUES}の位置
+	 * @return 書き出せる場合は{@code true}、そうでない場合は{@code false}
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static boolean isLoadable(List<Token> tokens, int valuesIndex) {
+		Validate.notNull(tokens);
+		Validate.isTrue(valuesIndex >= 0 && valuesIndex < tokens.size());
+		int depth = 0;
+		Token field = null;
+		int fieldTokens = 0;
+		for (Token token : tokens.subList(valuesIndex + 1, tokens.size())) {
+			if (Separator.LEFT_PAREN.equals(token)) {
+				if (depth > 0) {
+					// 値の中の括弧は関数呼び出しまたは式である
+					return false;
+				}
+				depth++;
+				fieldTokens = 0;
+			} else if (depth == 1 && (Separator.RIGHT_PAREN.equals(token) || Separator.COMMA.equals(token))) {
+				if (fieldTokens != 1 || isLiteral(field) == false) {
+					return false;
+				}
+				fieldTokens = 0;
+				if (Separator.RIGHT_PAREN.equals(token)) {
+					depth--;
+				}
+			} else if (depth == 1) {
+				field = token;
+				fieldTokens++;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isLiteral(Token token) {
+		if (Keyword.NULL.equals(token)) {
+			return true;
+		}
+		String text = token.toString();
+		if (text.length() >= 2 && text.charAt(0) == '\'' && text.charAt(text.length() - 1) == '\'') {
+			return true;
+		}
+		return NUMBER.matcher(text).matches();
+	}
+	
+	
+	private final File directory;
+	
+	/** {@code LOAD DATA}文で指定する文字セット名 */
+	private final String mysqlCharset;
+	
+	/** テーブル識別子とカラムリストの文字列とデータファイルの出力先 */
+	private final Map<String, Writer> writers = Maps.newHashMap();
+	
+	private final Set<String> fileNames = Sets.newHashSet();
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param directory データファイルの出力先ディレクトリ
+	 * @param serverVersion 読み込み先サーバのバージョン. 不明な場合は{@code null}
+	 * @throws IllegalArgumentException 引数{@code directory}に{@code null}を与えた場合
+	 */
+	public MySqlLoadDataWriter(File directory, MySqlVersion serverVersion) {
+		Validate.notNull(directory);
+		this.directory = directory;
+		mysqlCharset = serverVersion != null && serverVersion.isAtLeast(5, 5, 3) ? "utf8mb4" : "utf8";
+	}
+	
+	/**
+	 * 開いている全てのデータファイルを閉じる。
+	 * 
+	 * @throws IOException データファイルへの書き出しに失敗した場合
+	 */
+	public void close() throws IOException {
+		IOException exception = null;
+		for (Writer writer : writers.values()) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+		}
+		writers.clear();
+		if (exception != null) {
+			throw exception;
+		}
+	}
+	
+	/**
+	 * INSERT文の値をデータファイルに書き出す。
+	 * 
+	 * <p>{@code tokens}は{@code INSERT INTO テーブル名 [(カラム名, ...)] VALUES (値, ...) [, (値, ...)]}の形式であること。
+	 * そのテーブルとカラムリストの組への最初の書き出しの場合は、データファイルを作成し、
+	 * そのファイルを読み込む{@code LOAD DATA LOCAL INFILE}文を返す。値は{@link #isLoadable(List, int)}が
+	 * {@code true}を返すものであること。</p>
+	 * 
+	 * @param tokens INSERT文のトークン列
+	 * @param valuesIndex {@code tokens}中の{@code VALUES}の位置
+	 * @return データファイルを読み込む文. 既にそのテーブルとカラムリストの組のデータファイルが作成済みの場合は{@code null}
+	 * @throws IOException データファイルへの書き出しに失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public SqlStatement write(List<Token> tokens, int valuesIndex) throws IOException {
+		Validate.notNull(tokens);
+		Validate.isTrue(valuesIndex >= 3 && valuesIndex < tokens.size());
+		Token tableName = tokens.get(2);
+		List<Token> columns = tokens.subList(3, valuesIndex);
+		String key = tableName + " " + StringUtils.join(columns, ' ');
+		SqlStatement loadStatement = null;
+		Writer writer = writers.get(key);
+		if (writer == null) {
+			File file = newFile(tableName.toString());
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), CHARSET));
+			writers.put(key, writer);
+			loadStatement = createLoadStatement(file, tableName, columns);
+		}
+		
+		int depth = 0;
+		StringBuilder value = new StringBuilder();
+		boolean firstField = true;
+		boolean isNull = false;
+		for (Token token : tokens.subList(valuesIndex + 1, tokens.size())) {
+			if (Separator.LEFT_PAREN.equals(token)) {
+				depth++;
+				if (depth == 1) {
+					firstField = true;
+					continue;
+				}
+			} else if (Separator.RIGHT_PAREN.equals(token)) {
+				depth--;
+				if (depth == 0) {
+					writeField(writer, value, isNull, firstField);
+					writer.write('\n');
+					value.setLength(0);
+					isNull = false;
+					continue;
+				}
+			} else if (depth == 1 && Separator.COMMA.equals(token)) {
+				writeField(writer, value, isNull, firstField);
+				firstField = false;
+				value.setLength(0);
+				isNull = false;
+				continue;
+			}
+			if (depth == 0) {
+				continue;
+			}
+			if (value.length() == 0 && isNull == false && Keyword.NULL.equals(token)) {
+				isNull = true;
+			} else {
+				isNull = false;
+				value.append(unquote(token.toString()));
+			}
+		}
+		return loadStatement;
+	}
+	
+	/**
+	 * 値を{@code LOAD DATA}のデフォルトの形式でエスケープする。
+	 * 
+	 * @param value 値
+	 * @return エスケープした値
+	 */
+	static String escape(CharSequence value) {
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			switch (ch) {
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\0':
+					sb.append("\\0");
+					break;
+				default:
+					sb.append(ch);
+			}
+		}
+		return sb.toString();
+	}
+	
+	private SqlStatement createLoadStatement(File file, Token tableName, List<Token> columns) {
+		// WindowsのパスもMySQLはスラッシュ区切りで解釈できる
+		String path = StringUtils.replace(file.getAbsolutePath(), "\\", "/");
+		// FORMAT-OFF
+		List<Token> tokens = Lists.newArrayList(
+				(Token) Keyword.of("LOAD"), Keyword.of("DATA"), Keyword.of("LOCAL"), Keyword.of("INFILE"),
+				Literal.of(path, LiteralType.CHARACTER),
+				Keyword.INTO, Keyword.TABLE, tableName,
+				Keyword.of("CHARACTER"), Keyword.of("SET"), Keyword.of(mysqlCharset));
+		// FORMAT-ON
+		tokens.addAll(columns);
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
+	
+	private File newFile(String tableName) throws IOException {
+		StringBuilder sb = new StringBuilder(tableName.length());
+		for (int i = 0; i < tableName.length(); i++) {
+			char ch = tableName.charAt(i);
+			if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_'
+					|| ch == '-') {
+				sb.append(ch);
+			} else if (ch != '`') {
+				sb.append('_');
+			}
+		}
+		String baseName = sb.length() == 0 ? "table" : sb.toString();
+		String fileName = baseName;
+		for (int i = 2; fileNames.add(fileName.toLowerCase(Locale.ENGLISH)) == false; i++) {
+			fileName = baseName + "_" + i;
+		}
+		if (directory.isDirectory() == false && directory.mkdirs() == false) {
+			throw new IOException("failed to create directory: " + directory);
+		}
+		return new File(directory, fileName + FILE_EXTENSION);
+	}
+	
+	private String unquote(String literal) {
+		if (literal.length() >= 2 && literal.charAt(0) == '\'' && literal.charAt(literal.length() - 1) == '\'') {
+			return StringUtils.replace(literal.substring(1, literal.length() - 1), "''", "'");
+		}
+		return literal;
+	}
+	
+	private void writeField(Writer writer, CharSequence value, boolean isNull, boolean firstField) throws IOException {
+		if (firstField == false) {
+			writer.write('\t');
+		}
+		writer.write(isNull ? "\\N" : escape(value));
+	}
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * スキーマ内の全テーブル定義のスナップショット。
+ * 
+ * <p>{@link #load(Connection)}は、テーブル数によらず{@code information_schema}に対する一定回数の
+ * 集合クエリ（COLUMNS, STATISTICS, KEY_COLUMN_USAGE/REFERENTIAL_CONSTRAINTS）でスキーマ全体を読み込む。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlSchemaSnapshot {
+	
+	private static Logger logger = LoggerFactory.getLogger(MySqlSchemaSnapshot.class);
+	
+	// FORMAT-OFF
+	private static final String COLUMNS_SQL = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE, "
+			+ "c.COLUMN_DEFAULT, c.EXTRA, t.ENGINE "
+			+ "FROM information_schema.COLUMNS c JOIN information_schema.TABLES t "
+			+ "ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME "
+			+ "WHERE c.TABLE_SCHEMA = DATABASE() AND t.TABLE_TYPE = 'BASE TABLE'";
+	
+	private static final String COLUMNS_ORDER = " ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+	
+	private static final String STATISTICS_SQL = "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, COLUMN_NAME "
+			+ "FROM information_schema.STATISTICS "
+			+ "WHERE TABLE_SCHEMA = DATABASE()";
+	
+	private static final String STATISTICS_ORDER = " ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+	
+	private static final String FOREIGN_KEYS_SQL = "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_NAME, "
+			+ "k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE "
+			+ "FROM information_schema.KEY_COLUMN_USAGE k JOIN information_schema.REFERENTIAL_CONSTRAINTS r "
+			+ "ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.TABLE_NAME = k.TABLE_NAME "
+			+ "AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME "
+			+ "WHERE k.TABLE_SCHEMA = DATABASE() AND k.REFERENCED_TABLE_NAME IS NOT NULL";
+	
+	private static final String FOREIGN_KEYS_ORDER = " ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION";
+	// FORMAT-ON
+	
+	private static final String PRIMARY = "PRIMARY";
+	
+	private static final MySqlCreateTableParser PARSER = new MySqlCreateTableParser();
+	
+	
+	/**
+	 * 接続中のデータベース（{@code DATABASE()}）のスナップショットを読み込む。
+	 * 
+	 * @param conn {@link Connection}
+	 * @return スナップショット
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlSchemaSnapshot load(Connection conn) throws SQLException {
+		return load(conn, null);
+	}
+	
+	/**
+	 * 接続中のデータベース（{@code DATABASE()}）のうち、指定したテーブルのスナップショットを読み込む。
+	 * 
+	 * @param conn {@link Connection}
+	 * @param tableNames 読み込むテーブル名の集合. {@code null}の場合は全てのテーブル
+	 * @return スナップショット
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数{@code conn}に{@code null}を与えた場合
+	 */
+	public static MySqlSchemaSnapshot load(Connection conn, Collection<String> tableNames) throws SQLException {
+		return load(conn, tableNames, MySqlTypeCatalog.MYSQL_5_7);
+	}
+	
+	/**
+	 * 接続中のデータベース（{@code DATABASE()}）のうち、指定したテーブルのスナップショットを、
+	 * 指定した型の一覧でカラムの型名を解決して読み込む。
+	 * 
+	 * @param conn {@link Connection}
+	 * @param tableNames 読み込むテーブル名の集合. {@code null}の場合は全てのテーブル
+	 * @param typeCatalog カラムの型名を解決する型の一覧
+	 * @return スナップショット
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数{@code conn}, {@code typeCatalog}に{@code null}を与えた場合
+	 */
+	public static MySqlSchemaSnapshot load(Connection conn, Collection<String> tableNames,
+			MySqlTypeCatalog typeCatalog) throws SQLException {
+		Validate.notNull(conn);
+		Validate.notNull(typeCatalog);
+		MySqlSchemaSnapshot snapshot = new MySqlSchemaSnapshot();
+		if (tableNames != null && tableNames.isEmpty()) {
+			return snapshot;
+		}
+		snapshot.loadColumns(conn, tableNames, typeCatalog);
+		snapshot.loadStatistics(conn, tableNames);
+		try {
+			snapshot.loadForeignKeys(conn, tableNames);
+		} catch (SQLException e) {
+			// REFERENTIAL_CONSTRAINTS は MySQL 5.1.10 以降にしか存在しない
+			logger.warn("failed to load foreign keys from information_schema", e);
+		}
+		logger.debug("{} table definitions loaded", snapshot.tables.size());
+		return snapshot;
+	}
+	
+	/**
+	 * {@code SHOW CREATE TABLE}文を発行し、その結果を解析したテーブル定義を返す。
+	 * 
+	 * <p>カラム・インデックス・外部キー・ENGINE・デフォルト文字セットを、1テーブルあたり1回の往復で読み込む。</p>
+	 * 
+	 * @param stmt {@link Statement}. 複数のテーブルで使い回してよい
+	 * @param tableName テーブル名
+	 * @return テーブル定義. 結果が得られなかった場合は{@code null}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public static MySqlTableDefinition showCreateTable(Statement stmt, String tableName) throws SQLException {
+		return showCreateTable(stmt, tableName, PARSER);
+	}
+	
+	/**
+	 * {@code SHOW CREATE TABLE}文を発行し、その結果を、指定した型の一覧でカラムの型名を解決して解析したテーブル定義を返す。
+	 * 
+	 * @param stmt {@link Statement}. 複数のテーブルで使い回してよい
+	 * @param tableName テーブル名
+	 * @param parser {@code CREATE TABLE}文の解析器
+	 * @return テーブル定義. 結果が得られなかった場合は{@code null}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 * @see MySqlCreateTableParser#MySqlCreateTableParser(MySqlTypeCatalog)
+	 */
+	public static MySqlTableDefinition showCreateTable(Statement stmt, String tableName, MySqlCreateTableParser parser)
+			throws SQLException {
+		Validate.notNull(stmt);
+		Validate.notNull(parser);
+		Validate.notNull(tableName);
+		ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE `" + StringUtils.replace(tableName, "`", "``") + "`");
+		try {
+			if (rs.next() == false) {
+				return null;
+			}
+			String createTable = rs.getString(2);
+			if (createTable == null || createTable.startsWith("CREATE TABLE") == false) {
+				// ビューの場合は CREATE VIEW が返る
+				return null;
+			}
+			return parser.parse(createTable);
+		} finally {
+			rs.close();
+		}
+	}
+	
+	/**
+	 * {@code tableNames}で絞り込んだクエリの{@link PreparedStatement}を生成する。
+	 * 
+	 * @param conn {@link Connection}
+	 * @param sql WHERE句までのSELECT文
+	 * @param tableNameColumn テーブル名の列
+	 * @param tableNames 絞り込むテーブル名の集合. {@code null}の場合は絞り込まない
+	 * @param orderBy ORDER BY句
+	 * @return {@link PreparedStatement}
+	 * @throws SQLException SQLの実行に失敗した場合
+	 */
+	public static PreparedStatement prepareFiltered(Connection conn, String sql, String tableNameColumn,
+			Collection<String> tableNames, String orderBy) throws SQLException {
+		StringBuilder sb = new StringBuilder(sql);
+		if (tableNames != null) {
+			sb.append(" AND ").append(tableNameColumn).append(" IN (");
+			for (int i = 0; i < tableNames.size(); i++) {
+				sb.append(i == 0 ? "?" : ", ?");
+			}
+			sb.append(")");
+		}
+		sb.append(orderBy);
+		PreparedStatement ps = conn.prepareStatement(sb.toString());
+		if (tableNames != null) {
+			int index = 1;
+			for (String tableName : tableNames) {
+				ps.setString(index++, tableName);
+			}
+		}
+		return ps;
+	}
+	
+	
+	private final Map<String, MySqlTableDefinition> tables = Maps.newLinkedHashMap();
+	
+	
+	/**
+	 * 空のスナップショットを生成する。
+	 */
+	public MySqlSchemaSnapshot() {
+	}
+	
+	/**
+	 * テーブル定義を追加する。同名のテーブル定義が既にある場合は置き換える。
+	 * 
+	 * @param table テーブル定義
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public void add(MySqlTableDefinition table) {
+		Validate.notNull(table);
+		tables.put(table.getName(), table);
+	}
+	
+	/**
+	 * テーブル定義を取得する。
+	 * 
+	 * @param tableName テーブル名
+	 * @return テーブル定義. 存在しない場合は{@code null}
+	 */
+	public MySqlTableDefinition getTable(String tableName) {
+		return tables.get(tableName);
+	}
+	
+	/**
+	 * 外部キー定義を、参照元テーブルごとに取得する。
+	 * 
+	 * @return 参照元テーブル名と、そのテーブルの外部キー定義の一覧のマップ. 外部キーのないテーブルは含まない
+	 */
+	public Map<String, Collection<MySqlForeignKeyDefinition>> getForeignKeys() {
+		Map<String, Collection<MySqlForeignKeyDefinition>> result = Maps.newLinkedHashMap();
+		for (MySqlTableDefinition table : tables.values()) {
+			if (table.getForeignKeys().isEmpty() == false) {
+				result.put(table.getName(), table.getForeignKeys());
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * テーブル定義の一覧を取得する。
+	 * 
+	 * @return テーブル定義の一覧（追加した順. {@link #load(Connection)}で読み込んだ場合は、サーバの照合順序による
+	 *          テーブル名順）
+	 */
+	public Collection<MySqlTableDefinition> getTables() {
+		return tables.values();
+	}
+	
+	private MySqlTableDefinition getOrCreateTable(String tableName) {
+		MySqlTableDefinition table = tables.get(tableName);
+		if (table == null) {
+			table = new MySqlTableDefinition(tableName);
+			tables.put(tableName, table);
+		}
+		return table;
+	}
+	
+	private void loadColumns(Connection conn, Collection<String> tableNames, MySqlTypeCatalog typeCatalog)
+			throws SQLException {
+		PreparedStatement ps = null;
+		try {
+			ps = prepareFiltered(conn, COLUMNS_SQL, "c.TABLE_NAME", tableNames, COLUMNS_ORDER);
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				MySqlTableDefinition table = getOrCreateTable(rs.getString("TABLE_NAME"));
+				table.setEngine(rs.getString("ENGINE"));
+				
+				MySqlColumnDefinition column = new MySqlColumnDefinition(rs.getString("COLUMN_NAME"), typeCatalog);
+				column.setColumnType(rs.getString("COLUMN_TYPE"));
+				column.setNotNull("NO".equals(rs.getString("IS_NULLABLE")));
+				column.setRawDefaultValue(rs.getString("COLUMN_DEFAULT"));
+				String extra = rs.getString("EXTRA");
+				column.setAutoIncrement(extra != null && extra.toLowerCase(Locale.ENGLISH).contains("auto_increment"));
+				table.addColumn(column);
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+	}
+	
+	private void loadForeignKeys(Connection conn, Collection<String> tableNames) throws SQLException {
+		PreparedStatement ps = null;
+		try {
+			ps = prepareFiltered(conn, FOREIGN_KEYS_SQL, "k.TABLE_NAME", tableNames, FOREIGN_KEYS_ORDER);
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				MySqlTableDefinition table = tables.get(rs.getString("TABLE_NAME"));
+				if (table == null) {
+					continue;
+				}
+				String constraintName = rs.getString("CONSTRAINT_NAME");
+				MySqlForeignKeyDefinition foreignKey = table.getForeignKey(constraintName);
+				if (foreignKey == null) {
+					foreignKey = new MySqlForeignKeyDefinition(constraintName, rs.getString("REFERENCED_TABLE_NAME"));
+					foreignKey.setOnUpdate(rs.getString("UPDATE_RULE"));
+					foreignKey.setOnDelete(rs.getString("DELETE_RULE"));
+					table.addForeignKey(foreignKey);
+				}
+				foreignKey.getColumnNames().add(rs.getString("COLUMN_NAME"));
+				foreignKey.getReferencedColumnNames().add(rs.getString("REFERENCED_COLUMN_NAME"));
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+	}
+	
+	private void loadStatistics(Connection conn, Collection<String> tableNames) throws SQLException {
+		PreparedStatement ps = null;
+		try {
+			ps = prepareFiltered(conn, STATISTICS_SQL, "TABLE_NAME", tableNames, STATISTICS_ORDER);
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				MySqlTableDefinition table = tables.get(rs.getString("TABLE_NAME"));
+				if (table == null) {
+					continue;
+				}
+				String indexName = rs.getString("INDEX_NAME");
+				String columnName = rs.getString("COLUMN_NAME");
+				if (PRIMARY.equals(indexName)) {
+					table.getPrimaryKeyColumnNames().add(columnName);
+					continue;
+				}
+				MySqlIndexDefinition index = table.getIndex(indexName);
+				if (index == null) {
+					index = new MySqlIndexDefinition(indexName, rs.getInt("NON_UNIQUE") == 0);
+					table.addIndex(index);
+				}
+				index.getColumnNames().add(columnName);
+			}
+		} finally {
+			if (ps != null) {
+				ps.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.lang.Validate;
+
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.constraint.JmPrimaryKeyConstraint;
+import org.jiemamy.model.constraint.JmUniqueKeyConstraint;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+
+/**
+ * MySQLから読み込んだテーブル定義。
+ * 
+ * <p>{@code information_schema}や{@code CREATE TABLE}文から組み立てた中間表現であり、
+ * {@link #toJmTable()}で{@link JmTable}に変換する。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlTableDefinition {
+	
+	private final String name;
+	
+	private final Map<String, MySqlColumnDefinition> columns = Maps.newLinkedHashMap();
+	
+	private final List<String> primaryKeyColumnNames = Lists.newArrayList();
+	
+	private final Map<String, MySqlIndexDefinition> indexes = Maps.newLinkedHashMap();
+	
+	private final Map<String, MySqlForeignKeyDefinition> foreignKeys = Maps.newLinkedHashMap();
+	
+	private String engine;
+	
+	private String charset;
+	
+	
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name テーブル名
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public MySqlTableDefinition(String name) {
+		Validate.notNull(name);
+		this.name = name;
+	}
+	
+	/**
+	 * カラム定義を追加する。
+	 * 
+	 * @param column カラム定義
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public void addColumn(MySqlColumnDefinition column) {
+		Validate.notNull(column);
+		columns.put(column.getName(), column);
+	}
+	
+	/**
+	 * 外部キー定義を追加する。
+	 * 
+	 * @param foreignKey 外部キー定義
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public void addForeignKey(MySqlForeignKeyDefinition foreignKey) {
+		Validate.notNull(foreignKey);
+		foreignKeys.put(foreignKey.getName(), foreignKey);
+	}
+	
+	/**
+	 * インデックス定義を追加する。
+	 * 
+	 * @param index インデックス定義
+	 * @throws IllegalArgumentException 引数に{@code null}を与えた場合
+	 */
+	public void addIndex(MySqlIndexDefinition index) {
+		Validate.notNull(index);
+		indexes.put(index.getName(), index);
+	}
+	
+	/**
+	 * デフォルト文字セット名を取得する。
+	 * 
+	 * @return デフォルト文字セット名. 指定がない場合は{@code null}
+	 */
+	public String getCharset() {
+		return charset;
+	}
+	
+	/**
+	 * カラム定義を取得する。
+	 * 
+	 * @param columnName カラム名
+	 * @return カラム定義. 存在しない場合は{@code null}
+	 */
+	public MySqlColumnDefinition getColumn(String columnName) {
+		return columns.get(columnName);
+	}
+	
+	/**
+	 * カラム定義の一覧を取得する。
+	 * 
+	 * @return カラム定義の一覧（定義順）
+	 */
+	public Collection<MySqlColumnDefinition> getColumns() {
+		return columns.values();
+	}
+	
+	/**
+	 * ストレージエンジン名を取得する。
+	 * 
+	 * @return ストレージエンジン名. 指定がない場合は{@code null}
+	 */
+	public String getEngine() {
+		return engine;
+	}
+	
+	/**
+	 * 外部キー定義を取得する。
+	 * 
+	 * @param foreignKeyName 制約名
+	 * @return 外部キー定義. 存在しない場合は{@code null}
+	 */
+	public MySqlForeignKeyDefinition getForeignKey(String foreignKeyName) {
+		return foreignKeys.get(foreignKeyName);
+	}
+	
+	/**
+	 * 外部キー定義の一覧を取得する。
+	 * 
+	 * @return 外部キー定義の一覧（定義順）
+	 */
+	public Collection<MySqlForeignKeyDefinition> getForeignKeys() {
+		return foreignKeys.values();
+	}
+	
+	/**
+	 * インデックス定義を取得する。
+	 * 
+	 * @param indexName インデックス名
+	 * @return インデックス定義. 存在しない場合は{@code null}
+	 */
+	public MySqlIndexDefinition getIndex(String indexName) {
+		return indexes.get(indexName);
+	}
+	
+	/**
+	 * インデックス定義の一覧を取得する。
+	 * 
+	 * @return インデックス定義の一覧（定義順）
+	 */
+	public Collection<MySqlIndexDefinition> getIndexes() {
+		return indexes.values();
+	}
+	
+	/**
+	 * テーブル名を取得する。
+	 * 
+	 * @return テーブル名
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * 主キーを構成するカラム名のリストを取得する。
+	 * 
+	 * @return 主キーを構成するカラム名のリスト. 主キーがない場合は空のリスト
+	 */
+	public List<String> getPrimaryKeyColumnNames() {
+		return primaryKeyColumnNames;
+	}
+	
+	/**
+	 * デフォルト文字セット名を設定する。
+	 * 
+	 * @param charset デフォルト文字セット名
+	 */
+	public void setCharset(String charset) {
+		this.charset = charset;
+	}
+	
+	/**
+	 * ストレージエンジン名を設定する。
+	 * 
+	 * @param engine ストレージエンジン名
+	 */
+	public void setEngine(String engine) {
+		this.engine = engine;
+	}
+	
+	/**
+	 * {@link JmTable}に変換する。
+	 * 
+	 * <p>カラム、主キー、UNIQUEキーを変換する。UNIQUEキーにはインデックス名を制約名として設定する。
+	 * ストレージエンジン及び外部キーは呼び出し側で扱う。</p>
+	 * 
+	 * @return {@link JmTable}
+	 */
+	public JmTable toJmTable() {
+		JmTableBuilder builder = new JmTableBuilder(name);
+		Map<String, JmColumn> jmColumns = Maps.newHashMap();
+		for (MySqlColumnDefinition column : columns.values()) {
+			JmColumn jmColumn = column.toJmColumn();
+			jmColumns.put(column.getName(), jmColumn);
+			builder.with(jmColumn);
+		}
+		JmTable table = builder.build();
+		
+		if (primaryKeyColumnNames.isEmpty() == false) {
+			table.add(JmPrimaryKeyConstraint.of(toJmColumns(jmColumns, primaryKeyColumnNames)));
+		}
+		for (MySqlIndexDefinition index : indexes.values()) {
+			if (index.isUnique()) {
+				// インデックス名は、DROP INDEX に用いるため保持する
+				JmUniqueKeyConstraint uniqueKey =
+						JmUniqueKeyConstraint.of(toJmColumns(jmColumns, index.getColumnNames()));
+				uniqueKey.setName(index.getName());
+				table.add(uniqueKey);
+			}
+		}
+		return table;
+	}
+	
+	@Override
+	public String toString() {
+		return name + columns.values();
+	}
+	
+	private JmColumn[] toJmColumns(Map<String, JmColumn> jmColumns, List<String> columnNames) {
+		JmColumn[] result = new JmColumn[columnNames.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = jmColumns.get(columnNames.get(i));
+		}
+		return result;
+	}
+}
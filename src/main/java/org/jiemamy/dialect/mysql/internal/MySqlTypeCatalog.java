@@ -0,0 +1,283 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.jiemamy.model.datatype.RawTypeCategory.BIT;
+import static org.jiemamy.model.datatype.RawTypeCategory.BLOB;
+import static org.jiemamy.model.datatype.RawTypeCategory.CHARACTER;
+import static org.jiemamy.model.datatype.RawTypeCategory.CLOB;
+import static org.jiemamy.model.datatype.RawTypeCategory.DATE;
+import static org.jiemamy.model.datatype.RawTypeCategory.DECIMAL;
+import static org.jiemamy.model.datatype.RawTypeCategory.DOUBLE;
+import static org.jiemamy.model.datatype.RawTypeCategory.FLOAT;
+import static org.jiemamy.model.datatype.RawTypeCategory.INTEGER;
+import static org.jiemamy.model.datatype.RawTypeCategory.NUMERIC;
+import static org.jiemamy.model.datatype.RawTypeCategory.OTHER;
+import static org.jiemamy.model.datatype.RawTypeCategory.REAL;
+import static org.jiemamy.model.datatype.RawTypeCategory.SMALLINT;
+import static org.jiemamy.model.datatype.RawTypeCategory.TIME;
+import static org.jiemamy.model.datatype.RawTypeCategory.TIMESTAMP;
+import static org.jiemamy.model.datatype.RawTypeCategory.VARCHAR;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.jiemamy.dialect.AbstractDialect.Entry;
+import org.jiemamy.dialect.Necessity;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.datatype.RawTypeDescriptor;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.datatype.TypeParameterKey;
+
+/**
+ * MySQLの型の一覧。型名と別名（{@code INT}と{@code INTEGER}など）から、{@link RawTypeDescriptor}と
+ * 型パラメータの要否を引く。
+ * 
+ * <p>型名の検索は大文字小文字を区別せず、大文字小文字を無視して比較する順序付きの表を1度引くのみであり、
+ * 型名の大文字への変換などの一時オブジェクトを生成しない。型の一覧はクラスの初期化時に1度だけ構築する。</p>
+ * 
+ * <p>このクラスはイミュータブルであり、スレッドセーフである。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public final class MySqlTypeCatalog {
+	
+	private static final EnumMap<Param, Necessity> NO_PARAMS = necessities(new Param[0], new Param[0]);
+	
+	/** 整数型の型パラメータ */
+	private static final EnumMap<Param, Necessity> INTEGRAL_PARAMS = necessities(new Param[0], new Param[] {
+		Param.SIZE,
+		Param.SERIAL,
+		Param.UNSIGNED
+	});
+	
+	/** 精度と位取りを必須とする数値型の型パラメータ */
+	private static final EnumMap<Param, Necessity> FIXED_POINT_PARAMS = necessities(new Param[] {
+		Param.PRECISION,
+		Param.SCALE
+	}, new Param[] {
+		Param.UNSIGNED
+	});
+	
+	/** 精度と位取りを省略できる数値型の型パラメータ */
+	private static final EnumMap<Param, Necessity> DOUBLE_PARAMS = necessities(new Param[0], new Param[] {
+		Param.PRECISION,
+		Param.SCALE,
+		Param.UNSIGNED
+	});
+	
+	/** 長さを必須とする型の型パラメータ */
+	private static final EnumMap<Param, Necessity> SIZED_PARAMS = necessities(new Param[] {
+		Param.SIZE
+	}, new Param[0]);
+	
+	/** MySQL 5.0 の型 */
+	public static final MySqlTypeCatalog MYSQL_5_0;
+	
+	/** MySQL 5.7 以降の型. 5.0 の型に{@code JSON}を加えたもの */
+	public static final MySqlTypeCatalog MYSQL_5_7;
+	
+	static {
+		// FORMAT-OFF
+		List<Type> types = Lists.newArrayList();
+		types.add(new Type(new SimpleRawTypeDescriptor(INTEGER), INTEGRAL_PARAMS, "INTEGER", "INT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(INTEGER, "MEDIUMINT"), INTEGRAL_PARAMS, "MEDIUMINT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(INTEGER, "BIGINT"), INTEGRAL_PARAMS, "BIGINT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(SMALLINT), INTEGRAL_PARAMS, "SMALLINT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(SMALLINT, "TINYINT"), INTEGRAL_PARAMS, "TINYINT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(NUMERIC), FIXED_POINT_PARAMS, "NUMERIC"));
+		types.add(new Type(new SimpleRawTypeDescriptor(DECIMAL), FIXED_POINT_PARAMS, "DECIMAL", "DEC"));
+		types.add(new Type(new SimpleRawTypeDescriptor(FLOAT), FIXED_POINT_PARAMS, "FLOAT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(REAL), FIXED_POINT_PARAMS, "REAL"));
+		types.add(new Type(new SimpleRawTypeDescriptor(DOUBLE), DOUBLE_PARAMS, "DOUBLE"));
+		types.add(new Type(new SimpleRawTypeDescriptor(BIT), SIZED_PARAMS, "BIT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(CHARACTER), SIZED_PARAMS, "CHARACTER", "CHAR"));
+		types.add(new Type(new SimpleRawTypeDescriptor(VARCHAR), SIZED_PARAMS, "VARCHAR"));
+		types.add(new Type(new SimpleRawTypeDescriptor(CLOB, "TEXT"), NO_PARAMS, "TEXT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(CLOB, "TINYTEXT"), NO_PARAMS, "TINYTEXT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(CLOB, "MEDIUMTEXT"), NO_PARAMS, "MEDIUMTEXT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(CLOB, "LONGTEXT"), NO_PARAMS, "LONGTEXT"));
+		types.add(new Type(new SimpleRawTypeDescriptor(BLOB), NO_PARAMS, "BLOB"));
+		types.add(new Type(new SimpleRawTypeDescriptor(BLOB, "TINYBLOB"), NO_PARAMS, "TINYBLOB"));
+		types.add(new Type(new SimpleRawTypeDescriptor(BLOB, "MEDIUMBLOB"), NO_PARAMS, "MEDIUMBLOB"));
+		types.add(new Type(new SimpleRawTypeDescriptor(BLOB, "LONGBLOB"), NO_PARAMS, "LONGBLOB"));
+		types.add(new Type(new SimpleRawTypeDescriptor(DATE), NO_PARAMS, "DATE"));
+		types.add(new Type(new SimpleRawTypeDescriptor(TIME), NO_PARAMS, "TIME"));
+		types.add(new Type(new SimpleRawTypeDescriptor(TIMESTAMP), NO_PARAMS, "TIMESTAMP"));
+		types.add(new Type(new SimpleRawTypeDescriptor(TIMESTAMP, "DATETIME"), NO_PARAMS, "DATETIME"));
+		types.add(new Type(new SimpleRawTypeDescriptor(INTEGER, "YEAR"), NO_PARAMS, "YEAR"));
+		types.add(new Type(new SimpleRawTypeDescriptor(OTHER, "BINARY"), NO_PARAMS, "BINARY"));
+		types.add(new Type(new SimpleRawTypeDescriptor(OTHER, "VARBINARY"), SIZED_PARAMS, "VARBINARY"));
+		types.add(new Type(new SimpleRawTypeDescriptor(OTHER, "ENUM"), NO_PARAMS, "ENUM"));
+		types.add(new Type(new SimpleRawTypeDescriptor(OTHER, "SET"), NO_PARAMS, "SET"));
+		MYSQL_5_0 = new MySqlTypeCatalog(types);
+		
+		types.add(new Type(new SimpleRawTypeDescriptor(OTHER, "JSON"), NO_PARAMS, "JSON"));
+		MYSQL_5_7 = new MySqlTypeCatalog(types);
+		// FORMAT-ON
+	}
+	
+	
+	private static EnumMap<Param, Necessity> necessities(Param[] required, Param[] optional) {
+		EnumMap<Param, Necessity> result = new EnumMap<Param, Necessity>(Param.class);
+		for (Param param : required) {
+			result.put(param, Necessity.REQUIRED);
+		}
+		for (Param param : optional) {
+			result.put(param, Necessity.OPTIONAL);
+		}
+		return result;
+	}
+	
+	
+	/** 型名と型. 別名も含み、大文字小文字を区別せずに引く */
+	private final Map<String, Type> typesByName;
+	
+	private final List<Entry> entries;
+	
+	
+	private MySqlTypeCatalog(List<Type> types) {
+		Map<String, Type> byName = new TreeMap<String, Type>(String.CASE_INSENSITIVE_ORDER);
+		List<Entry> typeEntries = Lists.newArrayListWithCapacity(types.size());
+		for (Type type : types) {
+			for (String name : type.names) {
+				byName.put(name, type);
+			}
+			typeEntries.add(type.entry);
+		}
+		typesByName = byName;
+		entries = Collections.unmodifiableList(typeEntries);
+	}
+	
+	/**
+	 * 型名に対応する型が含まれるかどうかを調べる。
+	 * 
+	 * @param typeName 型名（大文字小文字は区別しない）
+	 * @return 含まれる場合は{@code true}
+	 */
+	public boolean contains(String typeName) {
+		return typeName != null && typesByName.containsKey(typeName);
+	}
+	
+	/**
+	 * 型名に対応する{@link RawTypeDescriptor}を返す。
+	 * 
+	 * @param typeName 型名（大文字小文字は区別しない）
+	 * @return {@link RawTypeDescriptor}. 未知の型名の場合は{@link org.jiemamy.model.datatype.RawTypeCategory#OTHER}
+	 *          カテゴリの型
+	 */
+	public RawTypeDescriptor find(String typeName) {
+		Type type = typesByName.get(typeName);
+		return type != null ? type.descriptor : new SimpleRawTypeDescriptor(OTHER, typeName.toUpperCase(Locale.ENGLISH));
+	}
+	
+	/**
+	 * 方言に登録する型の一覧を取得する。別名は含まない。
+	 * 
+	 * @return 変更不可能なリスト
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+	
+	/**
+	 * 型パラメータの要否を取得する。
+	 * 
+	 * @param typeName 型名（大文字小文字は区別しない）
+	 * @param key 型パラメータのキー
+	 * @return 要否. 未知の型名の場合、または型が受け付けない型パラメータの場合は{@code null}
+	 */
+	public Necessity getNecessity(String typeName, TypeParameterKey<?> key) {
+		Type type = typeName == null ? null : typesByName.get(typeName);
+		if (type == null) {
+			return null;
+		}
+		Param param = Param.of(key);
+		return param == null ? null : type.necessities.get(param);
+	}
+	
+	
+	/**
+	 * MySQLの型が受け付ける型パラメータ。
+	 */
+	private enum Param {
+		
+		SIZE(TypeParameterKey.SIZE),
+		
+		SERIAL(TypeParameterKey.SERIAL),
+		
+		PRECISION(TypeParameterKey.PRECISION),
+		
+		SCALE(TypeParameterKey.SCALE),
+		
+		UNSIGNED(MySqlParameterKeys.UNSIGNED);
+		
+		static Param of(TypeParameterKey<?> key) {
+			for (Param param : values()) {
+				if (param.key.equals(key)) {
+					return param;
+				}
+			}
+			return null;
+		}
+		
+		
+		private final TypeParameterKey<?> key;
+		
+		
+		Param(TypeParameterKey<?> key) {
+			this.key = key;
+		}
+	}
+	
+	private static final class Type {
+		
+		final RawTypeDescriptor descriptor;
+		
+		final EnumMap<Param, Necessity> necessities;
+		
+		final String[] names;
+		
+		final Entry entry;
+		
+		
+		Type(RawTypeDescriptor descriptor, EnumMap<Param, Necessity> necessities, String... names) {
+			this.descriptor = descriptor;
+			this.necessities = necessities;
+			this.names = names;
+			if (necessities.isEmpty()) {
+				entry = new Entry(descriptor);
+			} else {
+				Map<TypeParameterKey<?>, Necessity> map = Maps.newHashMap();
+				for (Map.Entry<Param, Necessity> e : necessities.entrySet()) {
+					map.put(e.getKey().key, e.getValue());
+				}
+				entry = new Entry(descriptor, map);
+			}
+		}
+	}
+}
@@ -26,10 +26,24 @@ import org.jiemamy.model.table.TableParameterKey;
 /**
  * MySQL用の各パラメータキー。
  * 
+ * <p>{@link #TABLE_ROWS}等の統計値のキーは、インポート時点の{@code information_schema.TABLES}の値を保持する。</p>
+ * 
  * @author daisuke
  */
 public final class MySqlParameterKeys {
 	
+	private static final Converter<Long> LONG = new Converter<Long>() {
+		
+		public String toString(Long obj) {
+			return obj.toString();
+		}
+		
+		public Long valueOf(String str) {
+			return Long.valueOf(str);
+		}
+	};
+	
+	
 	/** UNSIGNEDパラメータ用のキー */
 	public static final TypeParameterKey<Boolean> UNSIGNED = new TypeParameterKey<Boolean>(Converters.BOOLEAN,
 			"org.jiemamy.dialect.mysql.unsigned");
@@ -61,6 +75,30 @@ public final class MySqlParameterKeys {
 				}
 			}, "org.jiemamy.dialect.mysql.storageEngine");
 	
+	/** 行数（{@code TABLE_ROWS}）パラメータ用のキー. InnoDBの場合は概算値である */
+	public static final TableParameterKey<Long> TABLE_ROWS = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.tableRows");
+	
+	/** 平均行長（{@code AVG_ROW_LENGTH}, バイト）パラメータ用のキー */
+	public static final TableParameterKey<Long> AVG_ROW_LENGTH = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.avgRowLength");
+	
+	/** データ長（{@code DATA_LENGTH}, バイト）パラメータ用のキー */
+	public static final TableParameterKey<Long> DATA_LENGTH = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.dataLength");
+	
+	/** インデックス長（{@code INDEX_LENGTH}, バイト）パラメータ用のキー */
+	public static final TableParameterKey<Long> INDEX_LENGTH = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.indexLength");
+	
+	/** 未使用の割当済み領域（{@code DATA_FREE}, バイト）パラメータ用のキー */
+	public static final TableParameterKey<Long> DATA_FREE = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.dataFree");
+	
+	/** 次に採番される{@code AUTO_INCREMENT}値パラメータ用のキー */
+	public static final TableParameterKey<Long> AUTO_INCREMENT = new TableParameterKey<Long>(LONG,
+			"org.jiemamy.dialect.mysql.autoIncrement");
+	
 	
 	private MySqlParameterKeys() {
 	}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * {@link MySqlDbObjectImportVisitor}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlDbObjectImportVisitorTest {
+	
+	private MySqlDbObjectImportVisitor visitor;
+	
+	private Connection connection;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		visitor = new MySqlDbObjectImportVisitor(new MySqlDialect());
+		
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true, true, false);
+		when(rs.getString("TABLE_NAME")).thenReturn("T_FOO", "T_BAR");
+		when(rs.getString("ENGINE")).thenReturn("InnoDB", "MyISAM");
+		
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(rs);
+		
+		connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(ps);
+	}
+	
+	/**
+	 * 複数テーブルのエンジンを、1回のクエリで取得できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_複数テーブルのエンジンを1回のクエリで取得できる() throws Exception {
+		assertThat(visitor.getEngineType(connection, "T_FOO"), is("InnoDB"));
+		assertThat(visitor.getEngineType(connection, "T_BAR"), is("MyISAM"));
+		assertThat(visitor.getEngineType(connection, "T_BAZ"), is(nullValue()));
+		
+		verify(connection, times(1)).prepareStatement(anyString());
+	}
+	
+	/**
+	 * 複数ビューの定義を、1回のクエリで取得できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_複数ビューの定義を1回のクエリで取得できる() throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true, true, false);
+		when(rs.getString("TABLE_NAME")).thenReturn("V_FOO", "V_BAR");
+		when(rs.getString("VIEW_DEFINITION")).thenReturn("select 1", "select 2");
+		
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(rs);
+		
+		Connection viewConnection = mock(Connection.class);
+		when(viewConnection.prepareStatement(anyString())).thenReturn(ps);
+		
+		assertThat(visitor.getViewDefinition(viewConnection, "V_FOO"), is("select 1"));
+		assertThat(visitor.getViewDefinition(viewConnection, "V_BAR"), is("select 2"));
+		assertThat(visitor.getViewDefinition(viewConnection, "V_BAZ"), is(nullValue()));
+		
+		verify(viewConnection, times(1)).prepareStatement(anyString());
+	}
+	
+	/**
+	 * テーブルの統計値がパラメータとして設定される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_テーブルの統計値がパラメータとして設定される() throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true, false);
+		when(rs.getString("TABLE_NAME")).thenReturn("T_FOO");
+		when(rs.getString("ENGINE")).thenReturn("InnoDB");
+		when(rs.getLong("TABLE_ROWS")).thenReturn(1000L);
+		when(rs.getLong("DATA_LENGTH")).thenReturn(16384L);
+		when(rs.getLong("INDEX_LENGTH")).thenReturn(8192L);
+		
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.executeQuery()).thenReturn(rs);
+		
+		Connection statusConnection = mock(Connection.class);
+		when(statusConnection.prepareStatement(anyString())).thenReturn(ps);
+		
+		JmTable table = new JmTable();
+		MySqlDbObjectImportVisitor.putStatistics(table, visitor.getTableStatus(statusConnection, "T_FOO"));
+		assertThat(table.getParam(MySqlParameterKeys.TABLE_ROWS), is(1000L));
+		assertThat(table.getParam(MySqlParameterKeys.DATA_LENGTH), is(16384L));
+		assertThat(table.getParam(MySqlParameterKeys.INDEX_LENGTH), is(8192L));
+	}
+}
@@ -18,10 +18,14 @@
  */
 package org.jiemamy.dialect.mysql;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
 import javax.sql.DataSource;
 import javax.sql.XADataSource;
 
 import org.junit.Before;
+import org.junit.Test;
 
 import org.jiemamy.JiemamyContext;
 import org.jiemamy.SimpleJmMetadata;
@@ -64,4 +68,17 @@ public class MySqlDialectTest extends AbstractDialectTest {
 	protected Dialect getInstance() {
 		return dialect;
 	}
+	
+	/**
+	 * 方言のバージョンに応じた名前を返す。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_方言のバージョンに応じた名前を返す() throws Exception {
+		assertThat(new MySqlDialect().getName(), is("MySQL 5.0"));
+		assertThat(new MySql57Dialect().getName(), is("MySQL 5.7"));
+		assertThat(new MySql80Dialect().getName(), is("MySQL 8.0"));
+		assertThat(new MySql80Dialect().getTargetVersion(), is(MySqlVersion.of(8, 0, 0)));
+	}
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.dialect.mysql.parameter.StandardEngine;
+import org.jiemamy.dialect.mysql.parameter.StorageEngineType;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.ReferentialAction;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.view.JmView;
+
+/**
+ * {@link MySqlDumpImporter}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlDumpImporterTest {
+	
+	private static final String DUMP = "dump.sql";
+	
+	private MySqlDumpImporter importer;
+	
+	private JiemamyContext context;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		importer = new MySqlDumpImporter();
+		context = new JiemamyContext();
+	}
+	
+	/**
+	 * mysqldumpの出力からテーブルとビューを読み込める。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_mysqldumpの出力からテーブルとビューを読み込める() throws Exception {
+		InputStream in = MySqlDumpImporterTest.class.getResourceAsStream(DUMP);
+		List<DbObject> dbObjects;
+		try {
+			dbObjects = importer.importDump(in, "UTF-8", context);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+		assertDump(dbObjects);
+	}
+	
+	/**
+	 * gzip圧縮されたダンプを読み込める。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_gzip圧縮されたダンプを読み込める() throws Exception {
+		InputStream in = MySqlDumpImporterTest.class.getResourceAsStream(DUMP);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try {
+			GZIPOutputStream out = new GZIPOutputStream(compressed);
+			IOUtils.copy(in, out);
+			out.close();
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+		
+		List<DbObject> dbObjects =
+				importer.importDump(new ByteArrayInputStream(compressed.toByteArray()), "UTF-8", context);
+		assertDump(dbObjects);
+	}
+	
+	/**
+	 * 最大長を超える文は読み飛ばされる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_最大長を超える文は読み飛ばされる() throws Exception {
+		importer = new MySqlDumpImporter(40);
+		List<DbObject> dbObjects = importer.importDump(new StringReader(
+				"CREATE TABLE `T_LONG` (`A_VERY_LONG_COLUMN_NAME` int(11));\nCREATE TABLE `T` (`A` int);"),
+				context);
+		
+		assertThat(dbObjects.size(), is(1));
+		assertThat(dbObjects.get(0).getName(), is("T"));
+	}
+	
+	/**
+	 * 後から定義されたテーブルを参照する外部キーを解決できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_後から定義されたテーブルを参照する外部キーを解決できる() throws Exception {
+		importer.importDump(new StringReader("CREATE TABLE `T_CHILD` (`ID` int, `PARENT_ID` int, "
+				+ "CONSTRAINT `FK_PARENT` FOREIGN KEY (`PARENT_ID`) REFERENCES `T_PARENT` (`ID`) ON DELETE SET NULL);\n"
+				+ "CREATE TABLE `T_ORPHAN` (`ID` int, `X_ID` int, FOREIGN KEY (`X_ID`) REFERENCES `T_NONE` (`ID`));\n"
+				+ "CREATE TABLE `T_PARENT` (`ID` int, PRIMARY KEY (`ID`));"), context);
+		
+		JmTable child = context.getTable("T_CHILD");
+		Collection<JmForeignKeyConstraint> foreignKeys = child.getConstraints(JmForeignKeyConstraint.class);
+		assertThat(foreignKeys.size(), is(1));
+		JmForeignKeyConstraint foreignKey = foreignKeys.iterator().next();
+		assertThat(foreignKey.getOnDelete(), is(ReferentialAction.SET_NULL));
+		assertThat(foreignKey.getReferenceColumns().get(0).getReferentId(),
+				is(context.getTable("T_PARENT").getColumn("ID").getId()));
+		
+		assertThat(context.getTable("T_ORPHAN").getConstraints(JmForeignKeyConstraint.class).isEmpty(), is(true));
+	}
+	
+	private void assertDump(List<DbObject> dbObjects) {
+		assertThat(dbObjects.size(), is(3));
+		assertThat(context.getTables().size(), is(2));
+		assertThat(context.getViews().size(), is(1));
+		
+		JmTable dept = context.getTable("T_DEPT");
+		assertThat(dept.getColumns().size(), is(2));
+		assertThat(dept.getParam(MySqlParameterKeys.STORAGE_ENGINE), is((StorageEngineType) StandardEngine.InnoDB));
+		
+		JmTable emp = context.getTable("T_EMP");
+		assertThat(emp.getColumns().size(), is(3));
+		assertThat(emp.getParam(MySqlParameterKeys.STORAGE_ENGINE), is((StorageEngineType) StandardEngine.MyISAM));
+		
+		Collection<JmForeignKeyConstraint> foreignKeys = emp.getConstraints(JmForeignKeyConstraint.class);
+		assertThat(foreignKeys.size(), is(1));
+		JmForeignKeyConstraint foreignKey = foreignKeys.iterator().next();
+		assertThat(foreignKey.getName(), is("FK_EMP_DEPT"));
+		assertThat(foreignKey.getKeyColumns().size(), is(1));
+		assertThat(foreignKey.getKeyColumns().get(0).getReferentId(), is(emp.getColumn("DEPT_ID").getId()));
+		assertThat(foreignKey.getReferenceColumns().size(), is(1));
+		assertThat(foreignKey.getReferenceColumns().get(0).getReferentId(), is(dept.getColumn("ID").getId()));
+		assertThat(dept.getConstraints(JmForeignKeyConstraint.class).isEmpty(), is(true));
+		
+		JmView view = context.getViews().iterator().next();
+		assertThat(view.getName(), is("V_EMP"));
+		assertThat(view.getDefinition(), is("select `T_EMP`.`ID` AS `ID` from `T_EMP`"));
+	}
+}
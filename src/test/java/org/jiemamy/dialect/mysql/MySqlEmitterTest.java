@@ -19,10 +19,20 @@
 package org.jiemamy.dialect.mysql;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -33,17 +43,24 @@ import org.jiemamy.SqlFacet;
 import org.jiemamy.composer.exporter.SimpleSqlExportConfig;
 import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
 import org.jiemamy.dialect.mysql.parameter.StandardEngine;
-import org.jiemamy.model.column.JmColumnBuilder;
 import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.column.JmColumnBuilder;
 import org.jiemamy.model.constraint.JmPrimaryKeyConstraint;
+import org.jiemamy.model.datatype.LiteralType;
 import org.jiemamy.model.datatype.RawTypeCategory;
 import org.jiemamy.model.datatype.RawTypeDescriptor;
 import org.jiemamy.model.datatype.SimpleDataType;
 import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
 import org.jiemamy.model.datatype.TypeParameterKey;
+import org.jiemamy.model.sql.Identifier;
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
 import org.jiemamy.model.sql.SqlStatement;
-import org.jiemamy.model.table.JmTableBuilder;
+import org.jiemamy.model.sql.Token;
 import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
 
 /**
  * {@link MySqlEmitter}のテストクラス。
@@ -219,4 +236,260 @@ public class MySqlEmitterTest {
 				statements.get(1).toString(),
 				is("CREATE TABLE `T_FOO`(`ID` INTEGER AUTO_INCREMENT, `NAME` VARCHAR(32), `HOGE` INTEGER)ENGINE=InnoDB;"));
 	}
+	
+	/**
+	 * 識別子中のバッククォートはエスケープされる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_識別子中のバッククォートはエスケープされる() throws Exception {
+		// FORMAT-OFF
+		JmTable table = new JmTableBuilder("T`FOO")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+				.build();
+		// FORMAT-ON
+		context.add(table);
+		
+		List<SqlStatement> statements = emitter.emit(context, config);
+		assertThat(statements.get(0).toString(), is("DROP TABLE IF EXISTS `T``FOO`;"));
+		assertThat(emitter.toMySqlIdentifier("T`FOO").toString(), is("`T``FOO`"));
+	}
+	
+	/**
+	 * 並列にemitしても逐次と同じ文が同じ順序で生成される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test06_並列にemitしても逐次と同じ文が同じ順序で生成される() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			// FORMAT-OFF
+			JmTable table = new JmTableBuilder("T_FOO" + i)
+					.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+					.build();
+			// FORMAT-ON
+			table.putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.InnoDB);
+			context.add(table);
+		}
+		List<SqlStatement> serial = emitter.emit(context, config);
+		
+		MySqlEmitter parallelEmitter = new MySqlEmitter(new MySqlDialect());
+		parallelEmitter.setParallelism(4);
+		List<SqlStatement> parallel = parallelEmitter.emit(context, config);
+		
+		assertThat(parallel.size(), is(serial.size()));
+		for (int i = 0; i < serial.size(); i++) {
+			assertThat(parallel.get(i).toString(), is(serial.get(i).toString()));
+		}
+	}
+	
+	/**
+	 * 連続したINSERT文は最大バイト数の範囲で拡張INSERT文にまとめられる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test07_連続したINSERT文は最大バイト数の範囲で拡張INSERT文にまとめられる() throws Exception {
+		// FORMAT-OFF
+		List<SqlStatement> statements = Arrays.asList(
+				insert("T_FOO", 1),
+				insert("T_FOO", 2),
+				insert("T_FOO", 3),
+				insert("T_BAR", 4),
+				new SimpleSqlStatement(Arrays.asList((Token) Keyword.of("COMMIT"), Separator.SEMICOLON)),
+				insert("T_BAR", 5));
+		// FORMAT-ON
+		
+		List<SqlStatement> merged = MySqlEmitter.mergeInsertStatements(statements, 1024);
+		assertThat(merged.size(), is(4));
+		assertThat(merged.get(0).toString(), is(insert("T_FOO", 1, 2, 3).toString()));
+		assertThat(merged.get(1).toString(), is(statements.get(3).toString()));
+		assertThat(merged.get(2).toString(), is(statements.get(4).toString()));
+		assertThat(merged.get(3).toString(), is(statements.get(5).toString()));
+		
+		int twoRows = insert("T_FOO", 1, 2).toString().length();
+		List<SqlStatement> split = MySqlEmitter.mergeInsertStatements(statements, twoRows + 2);
+		assertThat(split.size(), is(5));
+		assertThat(split.get(0).toString(), is(insert("T_FOO", 1, 2).toString()));
+		assertThat(split.get(1).toString(), is(statements.get(2).toString()));
+		
+		MySqlExportConfig mySqlConfig = new MySqlExportConfig();
+		mySqlConfig.setExtendedInsertBytes(1024);
+		assertThat(emitter.emit(context, mySqlConfig).size(), is(0));
+	}
+	
+	/**
+	 * INSERT文はデータファイルとLOAD DATA文に置き換えられる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test08_INSERT文はデータファイルとLOAD_DATA文に置き換えられる() throws Exception {
+		File directory = File.createTempFile("loaddata", "");
+		directory.delete();
+		try {
+			// FORMAT-OFF
+			List<SqlStatement> statements = Lists.newArrayList(
+					insert("T_FOO", 1, 2),
+					new SimpleSqlStatement(Arrays.asList(
+							(Token) Keyword.INSERT, Keyword.INTO, Identifier.of("T_BAR"), Keyword.VALUES,
+							Separator.LEFT_PAREN, Literal.of("a\tb'c", LiteralType.CHARACTER), Separator.COMMA,
+							Keyword.NULL, Separator.RIGHT_PAREN, Separator.SEMICOLON)),
+					insert("T_FOO", 3));
+			// FORMAT-ON
+			
+			List<SqlStatement> replaced =
+					MySqlEmitter.replaceInsertStatements(statements, directory, MySqlVersion.of(5, 5, 3));
+			assertThat(replaced.size(), is(2));
+			assertThat(replaced.get(0).toString().startsWith("LOAD DATA LOCAL INFILE"), is(true));
+			assertThat(replaced.get(0).toString().contains("CHARACTER SET utf8mb4"), is(true));
+			assertThat(replaced.get(0).toString().contains("T_FOO.tsv"), is(true));
+			assertThat(replaced.get(1).toString().contains("T_BAR.tsv"), is(true));
+			
+			assertThat(FileUtils.readFileToString(new File(directory, "T_FOO.tsv"), "UTF-8"), is("1\n2\n3\n"));
+			assertThat(FileUtils.readFileToString(new File(directory, "T_BAR.tsv"), "UTF-8"), is("a\\tb'c\t\\N\n"));
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+	
+	/**
+	 * リテラル以外の値を含むINSERT文はそのまま残される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test09_リテラル以外の値を含むINSERT文はそのまま残される() throws Exception {
+		File directory = File.createTempFile("loaddata", "");
+		directory.delete();
+		try {
+			// FORMAT-OFF
+			SqlStatement now = new SimpleSqlStatement(Arrays.asList(
+					(Token) Keyword.INSERT, Keyword.INTO, Identifier.of("T_FOO"), Keyword.VALUES,
+					Separator.LEFT_PAREN, Literal.of(2), Separator.COMMA,
+					Keyword.of("NOW"), Separator.LEFT_PAREN, Separator.RIGHT_PAREN,
+					Separator.RIGHT_PAREN, Separator.SEMICOLON));
+			SqlStatement currentTimestamp = new SimpleSqlStatement(Arrays.asList(
+					(Token) Keyword.INSERT, Keyword.INTO, Identifier.of("T_FOO"), Keyword.VALUES,
+					Separator.LEFT_PAREN, Literal.of(3), Separator.COMMA,
+					Keyword.of("CURRENT_TIMESTAMP"), Separator.RIGHT_PAREN, Separator.SEMICOLON));
+			SqlStatement plain = new SimpleSqlStatement(Arrays.asList(
+					(Token) Keyword.INSERT, Keyword.INTO, Identifier.of("T_FOO"), Keyword.VALUES,
+					Separator.LEFT_PAREN, Literal.of(1), Separator.COMMA,
+					Literal.of("2012-11-20 12:00:00", LiteralType.CHARACTER), Separator.RIGHT_PAREN,
+					Separator.SEMICOLON));
+			List<SqlStatement> statements = Lists.newArrayList(plain, now, currentTimestamp);
+			// FORMAT-ON
+			
+			List<SqlStatement> replaced = MySqlEmitter.replaceInsertStatements(statements, directory, null);
+			assertThat(replaced.size(), is(3));
+			assertThat(replaced.get(0).toString().startsWith("LOAD DATA LOCAL INFILE"), is(true));
+			assertThat(replaced.get(0).toString().endsWith("CHARACTER SET utf8;"), is(true));
+			assertThat(replaced.get(1), is(sameInstance(now)));
+			assertThat(replaced.get(2), is(sameInstance(currentTimestamp)));
+			
+			assertThat(FileUtils.readFileToString(new File(directory, "T_FOO.tsv"), "UTF-8"),
+					is("1\t2012-11-20 12:00:00\n"));
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+	
+	/**
+	 * 並列度を指定したインスタンスを複数のスレッドから同時にemitしても、それぞれ逐次と同じ文が生成される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test11_並列度を指定したインスタンスを複数のスレッドから同時にemitできる() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			// FORMAT-OFF
+			JmTable table = new JmTableBuilder("T_FOO" + i)
+					.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+					.build();
+			// FORMAT-ON
+			context.add(table);
+		}
+		final List<String> serial = Lists.newArrayList();
+		for (SqlStatement statement : emitter.emit(context, config)) {
+			serial.add(statement.toString());
+		}
+		
+		final MySqlEmitter parallelEmitter = new MySqlEmitter(new MySqlDialect());
+		parallelEmitter.setParallelism(4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<String>>> futures = Lists.newArrayList();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(new Callable<List<String>>() {
+					
+					public List<String> call() {
+						List<String> result = Lists.newArrayList();
+						for (SqlStatement statement : parallelEmitter.emit(context, config)) {
+							result.add(statement.toString());
+						}
+						return result;
+					}
+				}));
+			}
+			for (Future<List<String>> future : futures) {
+				assertThat(future.get(), is(serial));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * カラムリストの異なるINSERT文は別のデータファイルに書き出される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test10_カラムリストの異なるINSERT文は別のデータファイルに書き出される() throws Exception {
+		File directory = File.createTempFile("loaddata", "");
+		directory.delete();
+		try {
+			// FORMAT-OFF
+			SqlStatement withName = new SimpleSqlStatement(Arrays.asList(
+					(Token) Keyword.INSERT, Keyword.INTO, Identifier.of("T_FOO"),
+					Separator.LEFT_PAREN, Identifier.of("NAME"), Separator.COMMA, Identifier.of("ID"),
+					Separator.RIGHT_PAREN, Keyword.VALUES,
+					Separator.LEFT_PAREN, Literal.of("a", LiteralType.CHARACTER), Separator.COMMA, Literal.of(2),
+					Separator.RIGHT_PAREN, Separator.SEMICOLON));
+			List<SqlStatement> statements = Lists.newArrayList(insert("T_FOO", 1), withName, insert("T_FOO", 3));
+			// FORMAT-ON
+			
+			List<SqlStatement> replaced = MySqlEmitter.replaceInsertStatements(statements, directory, null);
+			assertThat(replaced.size(), is(2));
+			assertThat(replaced.get(0).toString().contains("T_FOO.tsv"), is(true));
+			assertThat(replaced.get(1).toString().contains("T_FOO_2.tsv"), is(true));
+			String load = replaced.get(1).toString();
+			assertThat(load.indexOf("NAME") > load.indexOf("T_FOO_2.tsv"), is(true));
+			assertThat(load.indexOf("ID", load.indexOf("NAME")) > 0, is(true));
+			
+			assertThat(FileUtils.readFileToString(new File(directory, "T_FOO.tsv"), "UTF-8"), is("1\n3\n"));
+			assertThat(FileUtils.readFileToString(new File(directory, "T_FOO_2.tsv"), "UTF-8"), is("a\t2\n"));
+		} finally {
+			FileUtils.deleteQuietly(directory);
+		}
+	}
+	
+	private SqlStatement insert(String tableName, int... ids) {
+		// FORMAT-OFF
+		List<Token> tokens = Lists.newArrayList(
+				Keyword.INSERT, Keyword.INTO, Identifier.of(tableName),
+				Separator.LEFT_PAREN, Identifier.of("ID"), Separator.RIGHT_PAREN,
+				Keyword.VALUES);
+		// FORMAT-ON
+		for (int i = 0; i < ids.length; i++) {
+			if (i > 0) {
+				tokens.add(Separator.COMMA);
+			}
+			tokens.addAll(Arrays.asList(Separator.LEFT_PAREN, Literal.of(ids[i]), Separator.RIGHT_PAREN));
+		}
+		tokens.add(Separator.SEMICOLON);
+		return new SimpleSqlStatement(tokens);
+	}
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.table.JmTableBuilder;
+
+/**
+ * {@link MySqlIdentifierValidator}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIdentifierValidatorTest {
+	
+	private static final DataType INTEGER = new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.INTEGER));
+	
+	
+	/**
+	 * 囲まない前提では予約語と記号を含む識別子が問題となる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_囲まない前提では予約語と記号を含む識別子が問題となる() throws Exception {
+		MySqlIdentifierValidator validator =
+				new MySqlIdentifierValidator(MySqlReservedWordsChecker.of(MySqlVersion.of(8, 0, 30)));
+		
+		assertThat(validator.validate(context("T_FOO", "ID")).isEmpty(), is(true));
+		assertThat(validator.validate(context("SELECT", "ID")).isEmpty(), is(false));
+		assertThat(validator.validate(context("T_FOO", "RANK")).isEmpty(), is(false));
+		assertThat(validator.validate(context("T FOO", "ID")).isEmpty(), is(false));
+	}
+	
+	/**
+	 * 囲む前提では予約語と記号を含む識別子が問題とならない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_囲む前提では予約語と記号を含む識別子が問題とならない() throws Exception {
+		MySqlIdentifierValidator validator =
+				new MySqlIdentifierValidator(MySqlReservedWordsChecker.of(MySqlVersion.of(8, 0, 30)), true);
+		
+		assertThat(validator.validate(context("SELECT", "ID")).isEmpty(), is(true));
+		assertThat(validator.validate(context("T_FOO", "RANK")).isEmpty(), is(true));
+		assertThat(validator.validate(context("T FOO", "ORDER")).isEmpty(), is(true));
+	}
+	
+	/**
+	 * 囲む前提でも末尾が空白の識別子は問題となる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_囲む前提でも末尾が空白の識別子は問題となる() throws Exception {
+		MySqlIdentifierValidator validator =
+				new MySqlIdentifierValidator(MySqlReservedWordsChecker.of(MySqlVersion.of(8, 0, 30)), true);
+		
+		assertThat(validator.validate(context("T_FOO ", "ID")).isEmpty(), is(false));
+		assertThat(validator.validate(context("T_FOO", "ID ")).isEmpty(), is(false));
+	}
+	
+	private JiemamyContext context(String tableName, String columnName) {
+		JiemamyContext context = new JiemamyContext(SqlFacet.PROVIDER);
+		context.add(new JmTableBuilder(tableName).with(new JmColumnBuilder(columnName).type(INTEGER).build()).build());
+		return context;
+	}
+}
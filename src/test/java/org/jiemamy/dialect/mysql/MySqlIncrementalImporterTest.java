@@ -0,0 +1,185 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.dialect.mysql.internal.FakeInformationSchema;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.ReferentialAction;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * {@link MySqlIncrementalImporter}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIncrementalImporterTest {
+	
+	private FakeInformationSchema schema;
+	
+	private MySqlIncrementalImporter importer;
+	
+	private JiemamyContext previous;
+	
+	private MySqlSchemaFingerprint previousFingerprint;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * <p>{@code T_EMP.DEPT_ID}が{@code T_DEPT.ID}を参照するスキーマを全て読み込んだ状態から始める。</p>
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		schema = new FakeInformationSchema();
+		schema.addColumn("T_DEPT", "ID", "int(11)");
+		schema.addColumn("T_DEPT", "NAME", "varchar(64)");
+		schema.addPrimaryKey("T_DEPT", "ID");
+		schema.addColumn("T_EMP", "ID", "bigint(20)");
+		schema.addColumn("T_EMP", "DEPT_ID", "int(11)");
+		schema.addPrimaryKey("T_EMP", "ID");
+		schema.addForeignKey("T_EMP", "FK_EMP_DEPT", "DEPT_ID", "T_DEPT", "ID", "CASCADE");
+		
+		importer = new MySqlIncrementalImporter();
+		previous = new JiemamyContext();
+		MySqlIncrementalImporter.Result result =
+				importer.reimport(schema.connect(), new JiemamyContext(), null, previous);
+		previousFingerprint = result.getFingerprint();
+	}
+	
+	/**
+	 * 全て読み込んだ場合も外部キーを解決する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_全て読み込んだ場合も外部キーを解決する() throws Exception {
+		assertThat(previous.getTables().size(), is(2));
+		assertForeignKey(previous);
+		
+		JmForeignKeyConstraint foreignKey = getForeignKey(previous.getTable("T_EMP"));
+		assertThat(foreignKey.getName(), is("FK_EMP_DEPT"));
+		assertThat(foreignKey.getOnDelete(), is(ReferentialAction.CASCADE));
+		assertThat(foreignKey.getOnUpdate(), is(ReferentialAction.NO_ACTION));
+	}
+	
+	/**
+	 * 参照先のテーブルが変更された場合は参照元も読み直す。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_参照先のテーブルが変更された場合は参照元も読み直す() throws Exception {
+		schema.addColumn("T_DEPT", "CODE", "char(4)");
+		
+		JiemamyContext target = new JiemamyContext();
+		MySqlIncrementalImporter.Result result =
+				importer.reimport(schema.connect(), previous, previousFingerprint, target);
+		
+		assertThat(result.getChanged(), is(Collections.singleton("T_DEPT")));
+		assertThat(target.getTables().size(), is(2));
+		assertThat(target.getTable("T_DEPT").getColumns().size(), is(3));
+		assertForeignKey(target);
+	}
+	
+	/**
+	 * 参照元のテーブルが変更された場合は変更のない参照先に解決する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_参照元のテーブルが変更された場合は変更のない参照先に解決する() throws Exception {
+		schema.addColumn("T_EMP", "NAME", "varchar(64)");
+		
+		JiemamyContext target = new JiemamyContext();
+		MySqlIncrementalImporter.Result result =
+				importer.reimport(schema.connect(), previous, previousFingerprint, target);
+		
+		assertThat(result.getChanged(), is(Collections.singleton("T_EMP")));
+		assertThat(target.getTable("T_EMP").getColumns().size(), is(3));
+		assertForeignKey(target);
+		assertThat(target.getTable("T_DEPT").getColumn("ID").getId(),
+				is(previous.getTable("T_DEPT").getColumn("ID").getId()));
+	}
+	
+	/**
+	 * 外部キーのみが変更された場合も変更を検出する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_外部キーのみが変更された場合も変更を検出する() throws Exception {
+		schema.addForeignKey("T_EMP", "FK_EMP_DEPT_2", "DEPT_ID", "T_DEPT", "ID", "RESTRICT");
+		
+		JiemamyContext target = new JiemamyContext();
+		MySqlIncrementalImporter.Result result =
+				importer.reimport(schema.connect(), previous, previousFingerprint, target);
+		
+		assertThat(result.getChanged(), is(Collections.singleton("T_EMP")));
+		assertThat(target.getTable("T_EMP").getConstraints(JmForeignKeyConstraint.class).size(), is(2));
+	}
+	
+	/**
+	 * 読み直したテーブルにも統計値を設定する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_読み直したテーブルにも統計値を設定する() throws Exception {
+		schema.addColumn("T_EMP", "NAME", "varchar(64)");
+		schema.setTableRows("T_EMP", 42L);
+		schema.setEngine("T_EMP", "MyISAM");
+		
+		JiemamyContext target = new JiemamyContext();
+		importer.reimport(schema.connect(), previous, previousFingerprint, target);
+		
+		JmTable emp = target.getTable("T_EMP");
+		assertThat(emp.getParam(MySqlParameterKeys.TABLE_ROWS), is(42L));
+		assertThat(emp.getParam(MySqlParameterKeys.STORAGE_ENGINE).toString(), is("MyISAM"));
+	}
+	
+	private void assertForeignKey(JiemamyContext context) {
+		JmTable emp = context.getTable("T_EMP");
+		JmTable dept = context.getTable("T_DEPT");
+		JmForeignKeyConstraint foreignKey = getForeignKey(emp);
+		assertThat(foreignKey.getKeyColumns().size(), is(1));
+		assertThat(foreignKey.getKeyColumns().get(0).getReferentId(), is(emp.getColumn("DEPT_ID").getId()));
+		assertThat(foreignKey.getReferenceColumns().size(), is(1));
+		assertThat(foreignKey.getReferenceColumns().get(0).getReferentId(), is(dept.getColumn("ID").getId()));
+	}
+	
+	private JmForeignKeyConstraint getForeignKey(JmTable table) {
+		Collection<JmForeignKeyConstraint> foreignKeys = table.getConstraints(JmForeignKeyConstraint.class);
+		assertThat(foreignKeys.size(), is(1));
+		return foreignKeys.iterator().next();
+	}
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.dialect.mysql.MySqlAlterOperation.Kind;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.dialect.mysql.parameter.StandardEngine;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.ReferentialAction;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.RawTypeDescriptor;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.datatype.TypeParameterKey;
+import org.jiemamy.model.index.JmIndex;
+import org.jiemamy.model.index.JmIndexColumn;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+
+/**
+ * {@link MySqlMigrationEmitter}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationEmitterTest {
+	
+	private static final RawTypeDescriptor INTEGER = new SimpleRawTypeDescriptor(RawTypeCategory.INTEGER);
+	
+	private static final RawTypeDescriptor VARCHAR = new SimpleRawTypeDescriptor(RawTypeCategory.VARCHAR);
+	
+	private MySqlMigrationEmitter migrationEmitter;
+	
+	private JiemamyContext from;
+	
+	private JiemamyContext to;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		migrationEmitter = new MySqlMigrationEmitter(new MySqlDialect());
+		from = new JiemamyContext(SqlFacet.PROVIDER);
+		to = new JiemamyContext(SqlFacet.PROVIDER);
+	}
+	
+	/**
+	 * 同じテーブルへの変更は1つのALTER_TABLE文にまとめられる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_同じテーブルへの変更は1つのALTER_TABLE文にまとめられる() throws Exception {
+		// FORMAT-OFF
+		JmTable before = new JmTableBuilder("T_EMP")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+				.with(new JmColumnBuilder("NAME").type(varchar(32)).build())
+				.with(new JmColumnBuilder("OLD").type(new SimpleDataType(INTEGER)).build())
+				.build();
+		JmTable after = new JmTableBuilder("T_EMP")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).defaultValue("0").build())
+				.with(new JmColumnBuilder("NAME").type(varchar(64)).build())
+				.with(new JmColumnBuilder("AGE").type(new SimpleDataType(INTEGER)).build())
+				.build();
+		// FORMAT-ON
+		before.putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.MyISAM);
+		after.putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.InnoDB);
+		from.add(before);
+		to.add(after);
+		
+		MySqlMigration migration = migrationEmitter.diff(from, to);
+		assertThat(migration.getAlteredTables().size(), is(1));
+		List<Kind> kinds = Lists.newArrayList();
+		for (MySqlAlterOperation operation : migration.getAlteredTables().get(0).getOperations()) {
+			kinds.add(operation.getKind());
+		}
+		assertThat(kinds, is(Arrays.asList(Kind.DROP_COLUMN, Kind.CHANGE_COLUMN_DEFAULT, Kind.CHANGE_COLUMN_TYPE,
+				Kind.ADD_COLUMN, Kind.CHANGE_ENGINE)));
+		
+		List<SqlStatement> statements = migrationEmitter.emit(migration);
+		assertThat(statements.size(), is(1));
+		assertThat(statements.get(0).toString().startsWith("ALTER TABLE `T_EMP`"), is(true));
+	}
+	
+	/**
+	 * テーブルの追加と削除が検出される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_テーブルの追加と削除が検出される() throws Exception {
+		from.add(new JmTableBuilder("T_OLD").with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+			.build());
+		to.add(new JmTableBuilder("T_NEW").with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+			.build());
+		
+		List<SqlStatement> statements = migrationEmitter.emit(from, to);
+		assertThat(statements.size(), is(2));
+		assertThat(statements.get(0).toString(), is("DROP TABLE IF EXISTS `T_OLD`;"));
+		assertThat(statements.get(1).toString().startsWith("CREATE TABLE `T_NEW`"), is(true));
+	}
+	
+	/**
+	 * 差分がなければ文は生成されない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_差分がなければ文は生成されない() throws Exception {
+		from.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(varchar(32)).build()).build());
+		to.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(varchar(32)).build()).build());
+		
+		assertThat(migrationEmitter.diff(from, to).hasChanges(), is(false));
+		assertThat(migrationEmitter.emit(from, to).size(), is(0));
+	}
+	
+	/**
+	 * サーバのバージョンに応じて最もコストの小さいALGORITHMが選ばれる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_サーバのバージョンに応じて最もコストの小さいALGORITHMが選ばれる() throws Exception {
+		// FORMAT-OFF
+		from.add(new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+				.build());
+		to.add(new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+				.with(new JmColumnBuilder("NAME").type(varchar(32)).build())
+				.build());
+		// FORMAT-ON
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.parse("8.0.29-log")),
+				is(MySqlAlterAlgorithm.INSTANT));
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.parse("5.7.40")),
+				is(MySqlAlterAlgorithm.INPLACE));
+		
+		migrationEmitter.setServerVersion(MySqlVersion.of(5, 7, 40));
+		String statement = migrationEmitter.emit(from, to).get(0).toString();
+		assertThat(statement.contains("ALGORITHM"), is(true));
+		assertThat(statement.contains("INPLACE"), is(true));
+		assertThat(statement.contains("LOCK"), is(true));
+		
+		migrationEmitter.setServerVersion(MySqlVersion.of(5, 5, 0));
+		assertThat(migrationEmitter.emit(from, to).get(0).toString().contains("ALGORITHM"), is(false));
+	}
+	
+	/**
+	 * テーブルのコピーが必要な変更は指定に応じて例外となる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_テーブルのコピーが必要な変更は指定に応じて例外となる() throws Exception {
+		from.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(varchar(32)).build()).build());
+		to.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+			.build());
+		migrationEmitter.setServerVersion(MySqlVersion.of(8, 0, 30));
+		
+		String statement = migrationEmitter.emit(from, to).get(0).toString();
+		assertThat(statement.contains("COPY"), is(true));
+		assertThat(statement.contains("SHARED"), is(true));
+		
+		migrationEmitter.setFailOnTableCopy(true);
+		try {
+			migrationEmitter.emit(from, to);
+			fail();
+		} catch (IllegalStateException e) {
+			// success
+		}
+	}
+	
+	/**
+	 * InnoDB以外のテーブルのデフォルト値の変更にはLOCK=NONEを指定しない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test06_InnoDB以外のテーブルのデフォルト値の変更にはLOCK_NONEを指定しない() throws Exception {
+		JmTable before =
+				new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+					.build();
+		before.putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.MyISAM);
+		from.add(before);
+		JmTable after = new JmTableBuilder("T_FOO").with(
+				new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).defaultValue("0").build()).build();
+		after.putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.MyISAM);
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		MySqlVersion version = MySqlVersion.of(5, 7, 40);
+		
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, version), is(MySqlAlterAlgorithm.INPLACE));
+		assertThat(MySqlAlterAlgorithm.lockFor(alterTable, version), is(MySqlAlterLock.DEFAULT));
+		
+		migrationEmitter.setServerVersion(version);
+		String statement = migrationEmitter.emit(from, to).get(0).toString();
+		assertThat(statement.matches(".*LOCK\\s*=\\s*DEFAULT.*"), is(true));
+		assertThat(statement.contains("NONE"), is(false));
+	}
+	
+	/**
+	 * AUTO_INCREMENTカラムの追加にはLOCK=SHAREDを指定する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test07_AUTO_INCREMENTカラムの追加にはLOCK_SHAREDを指定する() throws Exception {
+		SimpleDataType serial = new SimpleDataType(INTEGER);
+		serial.putParam(TypeParameterKey.SERIAL, true);
+		// FORMAT-OFF
+		from.add(new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("NAME").type(varchar(32)).build())
+				.build());
+		to.add(new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("NAME").type(varchar(32)).build())
+				.with(new JmColumnBuilder("ID").type(serial).build())
+				.build());
+		// FORMAT-ON
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		MySqlVersion version = MySqlVersion.of(8, 0, 30);
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, version), is(MySqlAlterAlgorithm.INPLACE));
+		assertThat(MySqlAlterAlgorithm.lockFor(alterTable, version), is(MySqlAlterLock.SHARED));
+		assertThat(MySqlAlterAlgorithm.lockFor(alterTable, MySqlVersion.of(5, 7, 40)), is(MySqlAlterLock.SHARED));
+	}
+	
+	/**
+	 * インデックスの追加・削除・変更が検出される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test08_インデックスの追加と削除と変更が検出される() throws Exception {
+		JmTable before = fooTable();
+		before.add(index("IDX_NAME", false, before.getColumn("NAME")));
+		before.add(index("IDX_AGE", false, before.getColumn("AGE")));
+		before.add(index("IDX_ID", false, before.getColumn("ID")));
+		from.add(before);
+		JmTable after = fooTable();
+		after.add(index("IDX_NAME", false, after.getColumn("NAME")));
+		after.add(index("IDX_AGE", true, after.getColumn("AGE")));
+		after.add(index("IDX_NAME_AGE", false, after.getColumn("NAME"), after.getColumn("AGE")));
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		List<Kind> kinds = Lists.newArrayList();
+		for (MySqlAlterOperation operation : alterTable.getOperations()) {
+			kinds.add(operation.getKind());
+		}
+		assertThat(kinds, is(Arrays.asList(Kind.DROP_INDEX, Kind.DROP_INDEX, Kind.ADD_INDEX, Kind.ADD_INDEX)));
+		String statement = alterTable.toSqlStatement().toString();
+		assertThat(statement.contains("DROP INDEX `IDX_AGE`"), is(true));
+		assertThat(statement.contains("DROP INDEX `IDX_ID`"), is(true));
+		assertThat(statement.contains("ADD UNIQUE INDEX `IDX_AGE`"), is(true));
+		assertThat(statement.contains("ADD INDEX `IDX_NAME_AGE`"), is(true));
+		assertThat(statement.contains("IDX_NAME`"), is(false));
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.of(5, 7, 40)),
+				is(MySqlAlterAlgorithm.INPLACE));
+	}
+	
+	/**
+	 * 外部キーの追加・削除・変更が検出される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test09_外部キーの追加と削除と変更が検出される() throws Exception {
+		JmTable beforeParent = parentTable();
+		JmTable before = fooTable();
+		before.add(foreignKey("FK_FOO_PARENT", before.getColumn("AGE"), beforeParent, null));
+		from.add(beforeParent);
+		from.add(before);
+		JmTable afterParent = parentTable();
+		JmTable after = fooTable();
+		after.add(foreignKey("FK_FOO_PARENT", after.getColumn("AGE"), afterParent, null));
+		to.add(afterParent);
+		to.add(after);
+		assertThat(migrationEmitter.diff(from, to).getAlteredTables().isEmpty(), is(true));
+		
+		// 参照動作を変更すると、削除して追加し直す
+		to = new JiemamyContext(SqlFacet.PROVIDER);
+		afterParent = parentTable();
+		after = fooTable();
+		after.add(foreignKey("FK_FOO_PARENT", after.getColumn("AGE"), afterParent, ReferentialAction.CASCADE));
+		to.add(afterParent);
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		assertThat(alterTable.getOperations().size(), is(2));
+		assertThat(alterTable.getOperations().get(0).getKind(), is(Kind.DROP_FOREIGN_KEY));
+		assertThat(alterTable.getOperations().get(1).getKind(), is(Kind.ADD_FOREIGN_KEY));
+		String statement = alterTable.toSqlStatement().toString();
+		assertThat(statement.contains("DROP FOREIGN KEY `FK_FOO_PARENT`"), is(true));
+		assertThat(statement.contains("ADD CONSTRAINT `FK_FOO_PARENT` FOREIGN KEY"), is(true));
+		assertThat(statement.contains("REFERENCES `T_PARENT`"), is(true));
+		assertThat(statement.contains("ON DELETE CASCADE"), is(true));
+		// 同じ文での削除と追加はINPLACEでのみ行える
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.of(5, 7, 40)),
+				is(MySqlAlterAlgorithm.INPLACE));
+		
+		// 追加のみの場合はテーブルをコピーする
+		from = new JiemamyContext(SqlFacet.PROVIDER);
+		from.add(parentTable());
+		from.add(fooTable());
+		alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		assertThat(alterTable.getOperations().size(), is(1));
+		assertThat(alterTable.getOperations().get(0).getKind(), is(Kind.ADD_FOREIGN_KEY));
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.of(5, 7, 40)),
+				is(MySqlAlterAlgorithm.COPY));
+		
+		// 削除のみの場合はINPLACEで行える
+		alterTable = migrationEmitter.diff(to, from).getAlteredTables().get(0);
+		assertThat(alterTable.getOperations().size(), is(1));
+		assertThat(alterTable.getOperations().get(0).getKind(), is(Kind.DROP_FOREIGN_KEY));
+		assertThat(MySqlAlterAlgorithm.classify(alterTable, MySqlVersion.of(5, 7, 40)),
+				is(MySqlAlterAlgorithm.INPLACE));
+	}
+	
+	private JmTable fooTable() {
+		// FORMAT-OFF
+		return new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+				.with(new JmColumnBuilder("NAME").type(varchar(32)).build())
+				.with(new JmColumnBuilder("AGE").type(new SimpleDataType(INTEGER)).build())
+				.build();
+		// FORMAT-ON
+	}
+	
+	private JmForeignKeyConstraint foreignKey(String name, JmColumn keyColumn, JmTable referencedTable,
+			ReferentialAction onDelete) {
+		JmForeignKeyConstraint foreignKey = new JmForeignKeyConstraint();
+		foreignKey.setName(name);
+		foreignKey.addKeyColumn(keyColumn.toReference());
+		foreignKey.addReferenceColumn(referencedTable.getColumn("ID").toReference());
+		foreignKey.setOnDelete(onDelete);
+		return foreignKey;
+	}
+	
+	private JmIndex index(String name, boolean unique, JmColumn... columns) {
+		JmIndex index = new JmIndex();
+		index.setName(name);
+		index.setUnique(unique);
+		for (JmColumn column : columns) {
+			index.addIndexColumn(JmIndexColumn.of(column));
+		}
+		return index;
+	}
+	
+	private JmTable parentTable() {
+		return new JmTableBuilder("T_PARENT").with(new JmColumnBuilder("ID").type(new SimpleDataType(INTEGER)).build())
+			.build();
+	}
+	
+	private SimpleDataType varchar(int size) {
+		SimpleDataType dataType = new SimpleDataType(VARCHAR);
+		dataType.putParam(TypeParameterKey.SIZE, size);
+		return dataType;
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+
+/**
+ * {@link MySqlMigrationPlanner}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlMigrationPlannerTest {
+	
+	private static final long MIB = 1024 * 1024;
+	
+	private static final DataType INTEGER = new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.INTEGER));
+	
+	private static final DataType TEXT = new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.CLOB));
+	
+	private MySqlMigrationEmitter migrationEmitter;
+	
+	private MySqlMigrationPlanner planner;
+	
+	private JiemamyContext from;
+	
+	private JiemamyContext to;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		migrationEmitter = new MySqlMigrationEmitter(new MySqlDialect());
+		migrationEmitter.setServerVersion(MySqlVersion.of(5, 7, 40));
+		planner = new MySqlMigrationPlanner(migrationEmitter);
+		planner.setBytesPerSecond(10 * MIB);
+		from = new JiemamyContext(SqlFacet.PROVIDER);
+		to = new JiemamyContext(SqlFacet.PROVIDER);
+	}
+	
+	/**
+	 * テーブルの統計から実行時間とロック時間が見積もられ、ロック時間の短い順に並ぶ。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_テーブルの統計から実行時間とロック時間が見積もられロック時間の短い順に並ぶ() throws Exception {
+		// 型の変更はテーブルのコピーとなる
+		from.add(new JmTableBuilder("T_BIG").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		to.add(new JmTableBuilder("T_BIG").with(new JmColumnBuilder("ID").type(TEXT).build()).build());
+		// 5.7でのカラムの追加は、書き込みを妨げずにテーブルを再構築する
+		from.add(new JmTableBuilder("T_SMALL").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		// FORMAT-OFF
+		to.add(new JmTableBuilder("T_SMALL")
+				.with(new JmColumnBuilder("ID").type(INTEGER).build())
+				.with(new JmColumnBuilder("AGE").type(INTEGER).build())
+				.build());
+		// FORMAT-ON
+		Map<String, MySqlTableStatus> statuses = Maps.newHashMap();
+		statuses.put("T_BIG", status("T_BIG", 80 * MIB, 20 * MIB));
+		statuses.put("T_SMALL", status("T_SMALL", 15 * MIB, 5 * MIB));
+		
+		MySqlMigrationPlan plan = planner.plan(from, to, statuses);
+		List<MySqlMigrationStep> steps = plan.getSteps();
+		assertThat(steps.size(), is(2));
+		
+		assertThat(steps.get(0).getObjectName(), is("T_SMALL"));
+		assertThat(steps.get(0).getAlgorithm(), is(MySqlAlterAlgorithm.INPLACE));
+		assertThat(steps.get(0).getLock(), is(MySqlAlterLock.NONE));
+		assertThat(steps.get(0).getRebuildBytes(), is(20 * MIB));
+		assertThat(steps.get(0).getEstimatedMillis(), is(2000L));
+		assertThat(steps.get(0).getLockMillis(), is(0L));
+		
+		assertThat(steps.get(1).getObjectName(), is("T_BIG"));
+		assertThat(steps.get(1).getAlgorithm(), is(MySqlAlterAlgorithm.COPY));
+		assertThat(steps.get(1).getLock(), is(MySqlAlterLock.SHARED));
+		assertThat(steps.get(1).getEstimatedMillis(), is(10000L));
+		assertThat(steps.get(1).getLockMillis(), is(10000L));
+		
+		assertThat(plan.getTotalEstimatedMillis(), is(12000L));
+		assertThat(plan.getTotalLockMillis(), is(10000L));
+	}
+	
+	/**
+	 * 統計のないテーブルはデータ量を0とみなす。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_統計のないテーブルはデータ量を0とみなす() throws Exception {
+		from.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		to.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(TEXT).build()).build());
+		
+		MySqlMigrationPlan plan = planner.plan(from, to, Maps.<String, MySqlTableStatus> newHashMap());
+		assertThat(plan.getSteps().size(), is(1));
+		assertThat(plan.getSteps().get(0).getAlgorithm(), is(MySqlAlterAlgorithm.COPY));
+		assertThat(plan.getSteps().get(0).getRebuildBytes(), is(0L));
+		assertThat(plan.getTotalLockMillis(), is(0L));
+	}
+	
+	/**
+	 * 統計を与えない場合はテーブルのパラメータが用いられる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_統計を与えない場合はテーブルのパラメータが用いられる() throws Exception {
+		JmTable before = new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(INTEGER).build()).build();
+		before.putParam(MySqlParameterKeys.DATA_LENGTH, 30 * MIB);
+		before.putParam(MySqlParameterKeys.INDEX_LENGTH, 10 * MIB);
+		from.add(before);
+		to.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(TEXT).build()).build());
+		
+		MySqlMigrationPlan plan = planner.plan(from, to, Maps.<String, MySqlTableStatus> newHashMap());
+		assertThat(plan.getSteps().get(0).getRebuildBytes(), is(40 * MIB));
+		assertThat(plan.getTotalLockMillis(), is(4000L));
+	}
+	
+	/**
+	 * テーブルのコピーを例外とする場合も見積もりはでき、計画を立てると全てのテーブルを挙げて例外となる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_テーブルのコピーを例外とする場合も見積もりはでき計画を立てると例外となる() throws Exception {
+		from.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		to.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(TEXT).build()).build());
+		from.add(new JmTableBuilder("T_BAR").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		to.add(new JmTableBuilder("T_BAR").with(new JmColumnBuilder("ID").type(TEXT).build()).build());
+		migrationEmitter.setFailOnTableCopy(true);
+		MySqlMigration migration = migrationEmitter.diff(from, to);
+		
+		for (MySqlAlterTable alterTable : migration.getAlteredTables()) {
+			MySqlMigrationStep step = planner.estimate(alterTable, null);
+			assertThat(step.getAlgorithm(), is(MySqlAlterAlgorithm.COPY));
+			assertThat(step.getLock(), is(MySqlAlterLock.SHARED));
+		}
+		try {
+			planner.plan(migration, Maps.<String, MySqlTableStatus> newHashMap());
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), containsString("T_FOO"));
+			assertThat(e.getMessage(), containsString("T_BAR"));
+		}
+	}
+	
+	private MySqlTableStatus status(String tableName, long dataLength, long indexLength) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getString("TABLE_NAME")).thenReturn(tableName);
+		when(rs.getString("ENGINE")).thenReturn("InnoDB");
+		when(rs.getLong("DATA_LENGTH")).thenReturn(dataLength);
+		when(rs.getLong("INDEX_LENGTH")).thenReturn(indexLength);
+		return new MySqlTableStatus(rs);
+	}
+}
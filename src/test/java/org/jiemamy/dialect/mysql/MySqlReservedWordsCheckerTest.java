@@ -0,0 +1,114 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link MySqlReservedWordsChecker}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlReservedWordsCheckerTest {
+	
+	private MySqlReservedWordsChecker checker;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		checker = new MySqlReservedWordsChecker();
+	}
+	
+	/**
+	 * 予約語は大文字小文字を区別せずに判定される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_予約語は大文字小文字を区別せずに判定される() throws Exception {
+		assertThat(checker.isReserved("SELECT"), is(true));
+		assertThat(checker.isReserved("select"), is(true));
+		assertThat(checker.isReserved("Select"), is(true));
+		assertThat(checker.isReserved("current_timestamp"), is(true));
+		assertThat(checker.isReserved("int8"), is(true));
+	}
+	
+	/**
+	 * 先頭と末尾の予約語も判定される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_先頭と末尾の予約語も判定される() throws Exception {
+		assertThat(checker.isReserved("ACCESSIBLE"), is(true));
+		assertThat(checker.isReserved("ZEROFILL"), is(true));
+	}
+	
+	/**
+	 * 予約語でない文字列は予約語と判定されない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_予約語でない文字列は予約語と判定されない() throws Exception {
+		assertThat(checker.isReserved("T_FOO"), is(false));
+		assertThat(checker.isReserved("SELECTS"), is(false));
+		assertThat(checker.isReserved("SELEC"), is(false));
+		assertThat(checker.isReserved("A"), is(false));
+		assertThat(checker.isReserved("ZZZ"), is(false));
+		assertThat(checker.isReserved(""), is(false));
+		assertThat(checker.isReserved(null), is(false));
+	}	
+	/**
+	 * バージョンによって予約語が切り替わる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_バージョンによって予約語が切り替わる() throws Exception {
+		MySqlReservedWordsChecker mysql50 = MySqlReservedWordsChecker.of(MySqlVersion.of(5, 0, 0));
+		MySqlReservedWordsChecker mysql57 = MySqlReservedWordsChecker.of(MySqlVersion.of(5, 7, 40));
+		MySqlReservedWordsChecker mysql80 = MySqlReservedWordsChecker.of(MySqlVersion.of(8, 0, 30));
+		
+		assertThat(mysql50.isReserved("SELECT"), is(true));
+		assertThat(mysql57.isReserved("SELECT"), is(true));
+		assertThat(mysql80.isReserved("SELECT"), is(true));
+		
+		assertThat(mysql50.isReserved("generated"), is(false));
+		assertThat(mysql57.isReserved("generated"), is(true));
+		assertThat(mysql80.isReserved("generated"), is(true));
+		
+		assertThat(mysql50.isReserved("window"), is(false));
+		assertThat(mysql57.isReserved("window"), is(false));
+		assertThat(mysql80.isReserved("window"), is(true));
+		assertThat(mysql80.isReserved("ROW_NUMBER"), is(true));
+		
+		assertThat(MySqlReservedWordsChecker.of(MySqlVersion.of(8, 0, 0)), is(mysql80));
+	}
+}
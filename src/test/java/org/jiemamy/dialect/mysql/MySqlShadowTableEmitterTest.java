@@ -0,0 +1,281 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.JmPrimaryKeyConstraint;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+
+/**
+ * {@link MySqlShadowTableEmitter}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlShadowTableEmitterTest {
+	
+	private static final SimpleDataType INTEGER = new SimpleDataType(new SimpleRawTypeDescriptor(
+			RawTypeCategory.INTEGER));
+	
+	private MySqlMigrationEmitter migrationEmitter;
+	
+	private MySqlShadowTableEmitter shadowTableEmitter;
+	
+	private JiemamyContext from;
+	
+	private JiemamyContext to;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		MySqlEmitter emitter = new MySqlEmitter(new MySqlDialect());
+		migrationEmitter = new MySqlMigrationEmitter(emitter);
+		shadowTableEmitter = new MySqlShadowTableEmitter(emitter);
+		from = new JiemamyContext(SqlFacet.PROVIDER);
+		to = new JiemamyContext(SqlFacet.PROVIDER);
+	}
+	
+	/**
+	 * シャドウテーブルの作成からテーブルの入れ替えまでが順に出力される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_シャドウテーブルの作成からテーブルの入れ替えまでが順に出力される() throws Exception {
+		JmColumn id = new JmColumnBuilder("ID").type(INTEGER).build();
+		JmTable before = new JmTableBuilder("T_FOO").with(id).build();
+		before.add(JmPrimaryKeyConstraint.of(id));
+		// FORMAT-OFF
+		JmTable after = new JmTableBuilder("T_FOO")
+				.with(id)
+				.with(new JmColumnBuilder("AGE").type(INTEGER).build())
+				.build();
+		// FORMAT-ON
+		after.add(JmPrimaryKeyConstraint.of(id));
+		from.add(before);
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		shadowTableEmitter.setChunkSize(100);
+		List<SqlStatement> statements = shadowTableEmitter.emit(to, alterTable, 250);
+		
+		// CREATE TABLE, トリガ3つ, (上限の取得, コピー, 下限の更新)x3, 残りをコピーするプロシージャの作成・呼び出し・削除,
+		// RENAME TABLE, トリガの削除3つ
+		assertThat(statements.size(), is(20));
+		assertThat(statements.get(0).toString().startsWith("CREATE TABLE `_T_FOO_new`"), is(true));
+		assertThat(statements.get(1).toString().contains("AFTER INSERT ON `T_FOO`"), is(true));
+		assertThat(statements.get(3).toString().contains("OLD.`ID`"), is(true));
+		assertThat(statements.get(4).toString().contains("LIMIT 100"), is(true));
+		assertThat(statements.get(4).toString().contains("@jiemamy_copy_lower"), is(false));
+		assertThat(statements.get(5).toString().contains("WHERE `ID` <= @jiemamy_copy_upper"), is(true));
+		assertThat(statements.get(7).toString().contains("`ID` > @jiemamy_copy_lower"), is(true));
+		assertThat(statements.get(8).toString().contains(
+				"`ID` > @jiemamy_copy_lower AND `ID` <= @jiemamy_copy_upper"), is(true));
+		String copyRest = statements.get(13).toString();
+		assertThat(copyRest.startsWith("CREATE PROCEDURE `_T_FOO_new_cpy`"), is(true));
+		assertThat(copyRest.contains("BEGIN REPEAT SELECT MAX"), is(true));
+		assertThat(copyRest.contains("LIMIT 100"), is(true));
+		assertThat(copyRest.contains("`ID` > @jiemamy_copy_lower AND `ID` <= @jiemamy_copy_upper"), is(true));
+		assertThat(copyRest.contains("UNTIL @jiemamy_copy_upper IS NULL END REPEAT"), is(true));
+		assertThat(copyRest.trim().endsWith("END;"), is(true));
+		assertThat(statements.get(14).toString().startsWith("CALL `_T_FOO_new_cpy`"), is(true));
+		assertThat(statements.get(15).toString().startsWith("DROP PROCEDURE IF EXISTS `_T_FOO_new_cpy`"), is(true));
+		assertThat(statements.get(16).toString().startsWith("RENAME TABLE `T_FOO` TO `_T_FOO_old`"), is(true));
+		assertThat(statements.get(19).toString().startsWith("DROP TRIGGER"), is(true));
+	}
+	
+	/**
+	 * 主キーのないテーブルは扱えない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_主キーのないテーブルは扱えない() throws Exception {
+		from.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		// FORMAT-OFF
+		to.add(new JmTableBuilder("T_FOO")
+				.with(new JmColumnBuilder("ID").type(INTEGER).build())
+				.with(new JmColumnBuilder("AGE").type(INTEGER).build())
+				.build());
+		// FORMAT-ON
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		try {
+			shadowTableEmitter.emit(to, alterTable, 250);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
+	/**
+	 * 主キーを更新した行は更新前の行を削除してから反映される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_主キーを更新した行は更新前の行を削除してから反映される() throws Exception {
+		MySqlAlterTable alterTable = addAgeColumn("T_FOO");
+		
+		String update = shadowTableEmitter.emit(to, alterTable, 250).get(2).toString();
+		assertThat(update.contains("AFTER UPDATE ON `T_FOO`"), is(true));
+		int delete = update.indexOf("DELETE IGNORE FROM `_T_FOO_new` WHERE `ID` <=> OLD.`ID`");
+		assertThat(delete > 0, is(true));
+		assertThat(update.indexOf("OLD.`ID` <=> NEW.`ID`") > delete, is(true));
+		assertThat(update.indexOf("REPLACE INTO `_T_FOO_new`") > delete, is(true));
+		assertThat(update.trim().endsWith("END;"), is(true));
+	}
+	
+	/**
+	 * 文の数は主キーの値の範囲によらず行数で決まる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_文の数は主キーの値の範囲によらず行数で決まる() throws Exception {
+		MySqlAlterTable alterTable = addAgeColumn("T_FOO");
+		
+		// CREATE TABLE, トリガ3つ, (上限の取得, コピー, 下限の更新)x1, 残りをコピーするプロシージャの作成・呼び出し・削除,
+		// RENAME TABLE, トリガの削除3つ
+		assertThat(shadowTableEmitter.emit(to, alterTable, 0).size(), is(14));
+		assertThat(shadowTableEmitter.emit(to, alterTable, 1000).size(), is(14));
+		assertThat(shadowTableEmitter.emit(to, alterTable, 1001).size(), is(17));
+	}
+	
+	/**
+	 * 外部キーを持つテーブルは扱えない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_外部キーを持つテーブルは扱えない() throws Exception {
+		JmColumn id = new JmColumnBuilder("ID").type(INTEGER).build();
+		JmColumn parentId = new JmColumnBuilder("PARENT_ID").type(INTEGER).build();
+		JmTable before = new JmTableBuilder("T_FOO").with(id).with(parentId).build();
+		before.add(JmPrimaryKeyConstraint.of(id));
+		JmForeignKeyConstraint foreignKey = new JmForeignKeyConstraint();
+		foreignKey.setName("FK_FOO_PARENT");
+		foreignKey.addKeyColumn(parentId.toReference());
+		foreignKey.addReferenceColumn(id.toReference());
+		before.add(foreignKey);
+		// FORMAT-OFF
+		JmTable after = new JmTableBuilder("T_FOO")
+				.with(id)
+				.with(parentId)
+				.with(new JmColumnBuilder("AGE").type(INTEGER).build())
+				.build();
+		// FORMAT-ON
+		after.add(JmPrimaryKeyConstraint.of(id));
+		from.add(before);
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		try {
+			shadowTableEmitter.emit(to, alterTable, 250);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+	
+	/**
+	 * 生成する名前が長すぎるテーブルは扱えない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test06_生成する名前が長すぎるテーブルは扱えない() throws Exception {
+		// "_" + 56文字 + "_new_ins" は65文字となる
+		MySqlAlterTable alterTable = addAgeColumn(StringUtils.repeat("T", 56));
+		try {
+			shadowTableEmitter.emit(to, alterTable, 250);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+		
+		from = new JiemamyContext(SqlFacet.PROVIDER);
+		to = new JiemamyContext(SqlFacet.PROVIDER);
+		assertThat(shadowTableEmitter.emit(to, addAgeColumn(StringUtils.repeat("T", 55)), 250).size(), is(14));
+	}
+	
+	/**
+	 * 主キーのカラム名を変更した場合、トリガは元のテーブルのカラム名で更新前の行を特定する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test07_主キーのカラム名を変更した場合も更新前の行を削除できる() throws Exception {
+		JmColumn id = new JmColumnBuilder("ID").type(INTEGER).build();
+		JmTable before = new JmTableBuilder("T_FOO").with(id).build();
+		before.add(JmPrimaryKeyConstraint.of(id));
+		JmColumn fooId = id.clone();
+		fooId.setName("FOO_ID");
+		JmTable after = new JmTableBuilder("T_FOO").with(fooId).build();
+		after.add(JmPrimaryKeyConstraint.of(fooId));
+		from.add(before);
+		to.add(after);
+		MySqlAlterTable alterTable = migrationEmitter.diff(from, to).getAlteredTables().get(0);
+		
+		List<SqlStatement> statements = shadowTableEmitter.emit(to, alterTable, 250);
+		String insert = statements.get(1).toString();
+		assertThat(insert.contains("`FOO_ID`"), is(true));
+		assertThat(insert.contains("NEW.`ID`"), is(true));
+		String update = statements.get(2).toString();
+		assertThat(update.contains("DELETE IGNORE FROM `_T_FOO_new` WHERE `FOO_ID` <=> OLD.`ID`"), is(true));
+		assertThat(update.contains("OLD.`ID` <=> NEW.`ID`"), is(true));
+		String delete = statements.get(3).toString();
+		assertThat(delete.contains("DELETE IGNORE FROM `_T_FOO_new` WHERE `FOO_ID` <=> OLD.`ID`"), is(true));
+		assertThat(statements.get(5).toString().contains("SELECT `ID` FROM `T_FOO`"), is(true));
+	}
+	
+	private MySqlAlterTable addAgeColumn(String tableName) {
+		JmColumn id = new JmColumnBuilder("ID").type(INTEGER).build();
+		JmTable before = new JmTableBuilder(tableName).with(id).build();
+		before.add(JmPrimaryKeyConstraint.of(id));
+		JmTable after =
+				new JmTableBuilder(tableName).with(id).with(new JmColumnBuilder("AGE").type(INTEGER).build()).build();
+		after.add(JmPrimaryKeyConstraint.of(id));
+		from.add(before);
+		to.add(after);
+		return migrationEmitter.diff(from, to).getAlteredTables().get(0);
+	}
+}
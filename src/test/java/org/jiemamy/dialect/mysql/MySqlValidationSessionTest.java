@@ -0,0 +1,217 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.dialect.mysql.parameter.StandardEngine;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.column.JmColumnBuilder;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.SimpleDataType;
+import org.jiemamy.model.datatype.SimpleRawTypeDescriptor;
+import org.jiemamy.model.index.JmIndex;
+import org.jiemamy.model.index.JmIndexColumn;
+import org.jiemamy.model.table.JmTable;
+import org.jiemamy.model.table.JmTableBuilder;
+import org.jiemamy.validator.Problem;
+import org.jiemamy.validator.Validator;
+
+/**
+ * {@link MySqlValidationSession}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlValidationSessionTest {
+	
+	private static final DataType INTEGER = new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.INTEGER));
+	
+	private RecordingValidator local;
+	
+	private RecordingValidator global;
+	
+	private MySqlValidationSession session;
+	
+	private JiemamyContext context;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		local = new RecordingValidator();
+		global = new RecordingValidator();
+		session = new MySqlValidationSession(Lists.newArrayList(local), Lists.newArrayList(global));
+		context = new JiemamyContext(SqlFacet.PROVIDER);
+		context.add(new JmTableBuilder("T_FOO").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+		context.add(new JmTableBuilder("T_BAR").with(new JmColumnBuilder("ID").type(INTEGER).build()).build());
+	}
+	
+	/**
+	 * 変更がなければ再検証しない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_変更がなければ再検証しない() throws Exception {
+		session.validate(context);
+		assertThat(local.validatedNames.size(), is(2));
+		assertThat(global.validatedNames.size(), is(2));
+		
+		session.validate(context);
+		assertThat(local.validatedNames.size(), is(2));
+		assertThat(global.validatedNames.size(), is(2));
+	}
+	
+	/**
+	 * 変更された{@link DbObject}のみ再検証する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_変更されたDbObjectのみ再検証する() throws Exception {
+		session.validate(context);
+		local.validatedNames.clear();
+		global.validatedNames.clear();
+		
+		JmTable foo = context.getTable("T_FOO");
+		foo.add(new JmColumnBuilder("NAME").type(INTEGER).build());
+		JiemamyContext changed = new JiemamyContext(SqlFacet.PROVIDER);
+		changed.add(foo);
+		changed.add(context.getTable("T_BAR"));
+		session.validate(changed);
+		assertThat(local.validatedNames, is((List<String>) Lists.newArrayList("T_FOO")));
+		assertThat(global.validatedNames.size(), is(2));
+	}
+	
+	/**
+	 * {@link #clear()}の後はモデル全体を検証する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_clearの後はモデル全体を検証する() throws Exception {
+		session.validate(context);
+		local.validatedNames.clear();
+		global.validatedNames.clear();
+		
+		session.clear();
+		session.validate(context);
+		assertThat(local.validatedNames.size(), is(2));
+		assertThat(global.validatedNames.size(), is(2));
+	}
+	
+	
+	/**
+	 * 変更された{@link DbObject}を指定した場合はそれのみ再検証する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_変更されたDbObjectを指定した場合はそれのみ再検証する() throws Exception {
+		session.validate(context);
+		local.validatedNames.clear();
+		global.validatedNames.clear();
+		
+		JmTable bar = context.getTable("T_BAR");
+		session.validate(context, Collections.singletonList(bar));
+		assertThat(local.validatedNames, is((List<String>) Lists.newArrayList("T_BAR")));
+		assertThat(global.validatedNames.size(), is(2));
+		
+		local.validatedNames.clear();
+		global.validatedNames.clear();
+		session.validate(context, Collections.<DbObject> emptyList());
+		assertThat(local.validatedNames.size(), is(0));
+		assertThat(global.validatedNames.size(), is(0));
+	}
+	
+	/**
+	 * カラムの型の変更を指紋で検出する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_カラムの型の変更を指紋で検出する() throws Exception {
+		session.validate(context);
+		local.validatedNames.clear();
+		
+		JmTable foo = context.getTable("T_FOO");
+		foo.getColumn("ID").setDataType(new SimpleDataType(new SimpleRawTypeDescriptor(RawTypeCategory.CLOB)));
+		JiemamyContext changed = new JiemamyContext(SqlFacet.PROVIDER);
+		changed.add(foo);
+		changed.add(context.getTable("T_BAR"));
+		session.validate(changed);
+		assertThat(local.validatedNames, is((List<String>) Lists.newArrayList("T_FOO")));
+	}
+	
+	/**
+	 * インデックスとパラメータの変更を指紋で検出する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test06_インデックスとパラメータの変更を指紋で検出する() throws Exception {
+		session.validate(context);
+		local.validatedNames.clear();
+		
+		JmTable foo = context.getTable("T_FOO");
+		JmIndex index = new JmIndex();
+		index.setName("IDX_FOO_ID");
+		index.addIndexColumn(JmIndexColumn.of(foo.getColumn("ID")));
+		foo.add(index);
+		session.validate(context);
+		assertThat(local.validatedNames, is((List<String>) Lists.newArrayList("T_FOO")));
+		
+		local.validatedNames.clear();
+		context.getTable("T_BAR").putParam(MySqlParameterKeys.STORAGE_ENGINE, StandardEngine.MyISAM);
+		session.validate(context);
+		assertThat(local.validatedNames, is((List<String>) Lists.newArrayList("T_BAR")));
+	}
+	
+	private static class RecordingValidator implements Validator {
+		
+		final List<String> validatedNames = Lists.newArrayList();
+		
+		
+		public Collection<? extends Problem> validate(JiemamyContext context) {
+			for (DbObject dbObject : context.getDbObjects()) {
+				validatedNames.add(dbObject.getName());
+			}
+			return Collections.emptyList();
+		}
+	}
+}
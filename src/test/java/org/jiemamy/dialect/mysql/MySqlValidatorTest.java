@@ -0,0 +1,215 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import org.jiemamy.JiemamyContext;
+import org.jiemamy.SqlFacet;
+import org.jiemamy.model.DbObject;
+import org.jiemamy.model.table.JmTableBuilder;
+import org.jiemamy.validator.Problem;
+import org.jiemamy.validator.Validator;
+
+/**
+ * {@link MySqlValidator}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlValidatorTest {
+	
+	/**
+	 * バリデータは方言のインスタンスにつき1度だけ構築される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_バリデータは方言のインスタンスにつき1度だけ構築される() throws Exception {
+		MySqlDialect dialect = new MySqlDialect();
+		Validator first = dialect.getValidator();
+		Validator second = dialect.getValidator();
+		assertThat(second, is(sameInstance(first)));
+		assertThat(first instanceof MySqlValidator, is(true));
+		assertThat(countIdentifierValidators((MySqlValidator) first), is(1));
+	}
+	
+	/**
+	 * 子バリデータの構成は変更できない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void test02_子バリデータの構成は変更できない() throws Exception {
+		MySqlValidator validator = (MySqlValidator) new MySqlDialect().getValidator();
+		validator.getValidators().add(new MySqlIdentifierValidator());
+	}
+	
+	/**
+	 * 並列実行しても問題の並び順は一定である。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_並列実行しても問題の並び順は一定である() throws Exception {
+		JiemamyContext context = new JiemamyContext(SqlFacet.PROVIDER);
+		for (int i = 0; i < 20; i++) {
+			context.add(new JmTableBuilder("T_" + i).build());
+		}
+		// FORMAT-OFF
+		MySqlValidator validator = new MySqlValidator(Lists.newArrayList(
+				new NamedValidator("first"),
+				new PerObjectValidator(),
+				new NamedValidator("last")));
+		// FORMAT-ON
+		
+		List<String> expected = Lists.newArrayList("first");
+		for (int i = 0; i < 20; i++) {
+			expected.add("T_" + i);
+		}
+		expected.add("last");
+		
+		assertThat(toStrings(validator.validate(context)), is(expected));
+		for (int i = 0; i < 10; i++) {
+			assertThat(toStrings(validator.withParallelism(4).validate(context)), is(expected));
+		}
+	}
+	
+	/**
+	 * 呼び出し側のスレッドプールで、DbObjectの塊ごとに実行する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_呼び出し側のスレッドプールでDbObjectの塊ごとに実行する() throws Exception {
+		JiemamyContext context = new JiemamyContext(SqlFacet.PROVIDER);
+		List<String> expected = Lists.newArrayList();
+		for (int i = 0; i < 20; i++) {
+			context.add(new JmTableBuilder("T_" + i).build());
+			expected.add("T_" + i);
+		}
+		PerObjectValidator perObject = new PerObjectValidator();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			MySqlValidator validator = new MySqlValidator(Lists.newArrayList(perObject)).withExecutor(executor, 4);
+			for (int i = 0; i < 10; i++) {
+				assertThat(toStrings(validator.validate(context)), is(expected));
+			}
+			assertThat(perObject.calls.get(), is(40));
+			assertThat(executor.isShutdown(), is(false));
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * 並列実行用のバリデータは並列度ごとに1度だけ構築される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_並列実行用のバリデータは並列度ごとに1度だけ構築される() throws Exception {
+		MySqlDialect dialect = new MySqlDialect();
+		MySqlValidator first = dialect.getValidator(4);
+		assertThat(dialect.getValidator(4), is(sameInstance(first)));
+		assertThat(first.getParallelism(), is(4));
+		assertThat(dialect.getValidator(2).getParallelism(), is(2));
+		assertThat(first.getValidators(), is(((MySqlValidator) dialect.getValidator()).getValidators()));
+	}
+	
+	private static Problem problem(final String label) {
+		return (Problem) Proxy.newProxyInstance(Problem.class.getClassLoader(), new Class<?>[] {
+			Problem.class
+		}, new InvocationHandler() {
+			
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("equals")) {
+					return proxy == args[0];
+				}
+				if (method.getName().equals("hashCode")) {
+					return label.hashCode();
+				}
+				return method.getName().equals("toString") ? label : null;
+			}
+		});
+	}
+	
+	private List<String> toStrings(Collection<? extends Problem> problems) {
+		List<String> result = Lists.newArrayList();
+		for (Problem problem : problems) {
+			result.add(problem.toString());
+		}
+		return result;
+	}
+	
+	private int countIdentifierValidators(MySqlValidator validator) {
+		int count = 0;
+		for (Validator child : validator.getValidators()) {
+			if (child instanceof MySqlIdentifierValidator) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	
+	private static class NamedValidator implements Validator {
+		
+		private final String name;
+		
+		
+		NamedValidator(String name) {
+			this.name = name;
+		}
+		
+		public Collection<? extends Problem> validate(JiemamyContext context) {
+			return Lists.newArrayList(problem(name));
+		}
+	}
+	
+	private static class PerObjectValidator implements MySqlValidator.LocalValidator {
+		
+		final AtomicInteger calls = new AtomicInteger();
+		
+		
+		public Collection<? extends Problem> validate(JiemamyContext context) {
+			calls.incrementAndGet();
+			List<Problem> problems = Lists.newArrayList();
+			for (DbObject dbObject : context.getDbObjects()) {
+				problems.add(problem(dbObject.getName()));
+			}
+			return problems;
+		}
+	}
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * {@code information_schema}への問い合わせに、保持している行を返す擬似的なデータベース。
+ * 
+ * <p>問い合わせるビューを判別し、{@code IN}句によるテーブル名の絞り込みのみを解釈する。行はテーブル名順に返す。</p>
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class FakeInformationSchema {
+	
+	private final Map<String, List<String[]>> columns = Maps.newTreeMap();
+	
+	private final Map<String, String> engines = Maps.newHashMap();
+	
+	private final Map<String, Long> tableRows = Maps.newHashMap();
+	
+	private final List<String[]> statistics = Lists.newArrayList();
+	
+	private final List<String[]> foreignKeys = Lists.newArrayList();
+	
+	private int queryCount;
+	
+	
+	/**
+	 * {@code NOT NULL}でデフォルト値のないカラムを追加する。
+	 * 
+	 * @param tableName テーブル名
+	 * @param columnName カラム名
+	 * @param columnType {@code COLUMN_TYPE}
+	 */
+	public void addColumn(String tableName, String columnName, String columnType) {
+		addColumn(tableName, columnName, columnType, false, null, "");
+	}
+	
+	/**
+	 * カラムを追加する。
+	 * 
+	 * @param tableName テーブル名
+	 * @param columnName カラム名
+	 * @param columnType {@code COLUMN_TYPE}
+	 * @param nullable {@code NULL}を許す場合は{@code true}
+	 * @param defaultValue {@code COLUMN_DEFAULT}
+	 * @param extra {@code EXTRA}
+	 */
+	public void addColumn(String tableName, String columnName, String columnType, boolean nullable,
+			String defaultValue, String extra) {
+		List<String[]> list = columns.get(tableName);
+		if (list == null) {
+			list = Lists.newArrayList();
+			columns.put(tableName, list);
+		}
+		list.add(new String[] {
+			tableName,
+			columnName,
+			columnType,
+			nullable ? "YES" : "NO",
+			defaultValue,
+			extra
+		});
+	}
+	
+	/**
+	 * 外部キーを追加する。更新時の参照動作は{@code NO ACTION}とする。
+	 * 
+	 * @param tableName 参照元テーブル名
+	 * @param constraintName 制約名
+	 * @param columnName 参照元カラム名
+	 * @param referencedTableName 参照先テーブル名
+	 * @param referencedColumnName 参照先カラム名
+	 * @param deleteRule 削除時の参照動作
+	 */
+	public void addForeignKey(String tableName, String constraintName, String columnName, String referencedTableName,
+			String referencedColumnName, String deleteRule) {
+		foreignKeys.add(new String[] {
+			tableName,
+			constraintName,
+			columnName,
+			referencedTableName,
+			referencedColumnName,
+			"NO ACTION",
+			deleteRule
+		});
+	}
+	
+	/**
+	 * インデックスを構成するカラムを追加する。
+	 * 
+	 * @param tableName テーブル名
+	 * @param indexName インデックス名
+	 * @param unique 一意インデックスの場合は{@code true}
+	 * @param columnName カラム名
+	 */
+	public void addIndex(String tableName, String indexName, boolean unique, String columnName) {
+		statistics.add(new String[] {
+			tableName,
+			indexName,
+			unique ? "0" : "1",
+			columnName
+		});
+	}
+	
+	/**
+	 * 主キーを構成するカラムを追加する。
+	 * 
+	 * @param tableName テーブル名
+	 * @param columnName カラム名
+	 */
+	public void addPrimaryKey(String tableName, String columnName) {
+		addIndex(tableName, "PRIMARY", true, columnName);
+	}
+	
+	/**
+	 * このデータベースへの{@link Connection}を生成する。
+	 * 
+	 * @return {@link Connection}
+	 */
+	public Connection connect() {
+		return (Connection) newProxy(Connection.class, new InvocationHandler() {
+			
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("prepareStatement")) {
+					return prepare((String) args[0]);
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+	
+	/**
+	 * これまでに実行されたクエリの数を取得する。
+	 * 
+	 * @return クエリの数
+	 */
+	public int getQueryCount() {
+		return queryCount;
+	}
+	
+	/**
+	 * テーブルのストレージエンジンを設定する。デフォルトは{@code InnoDB}である。
+	 * 
+	 * @param tableName テーブル名
+	 * @param engine ストレージエンジン名
+	 */
+	public void setEngine(String tableName, String engine) {
+		engines.put(tableName, engine);
+	}
+	
+	/**
+	 * テーブルの行数（{@code TABLE_ROWS}）を設定する。デフォルトは{@code NULL}である。
+	 * 
+	 * @param tableName テーブル名
+	 * @param rows 行数
+	 */
+	public void setTableRows(String tableName, long rows) {
+		tableRows.put(tableName, rows);
+	}
+	
+	private List<String[]> allColumns(boolean withEngine) {
+		List<String[]> rows = Lists.newArrayList();
+		for (List<String[]> list : columns.values()) {
+			for (String[] row : list) {
+				if (withEngine) {
+					String[] withEngineRow = new String[row.length + 1];
+					System.arraycopy(row, 0, withEngineRow, 0, row.length);
+					String engine = engines.get(row[0]);
+					withEngineRow[row.length] = engine == null ? "InnoDB" : engine;
+					rows.add(withEngineRow);
+				} else {
+					rows.add(row);
+				}
+			}
+		}
+		return rows;
+	}
+	
+	private Object newProxy(Class<?> type, InvocationHandler handler) {
+		return Proxy.newProxyInstance(FakeInformationSchema.class.getClassLoader(), new Class<?>[] {
+			type
+		}, handler);
+	}
+	
+	private PreparedStatement prepare(final String sql) {
+		final List<String> parameters = Lists.newArrayList();
+		return (PreparedStatement) newProxy(PreparedStatement.class, new InvocationHandler() {
+			
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("setString")) {
+					parameters.add((String) args[1]);
+					return null;
+				} else if (method.getName().equals("executeQuery")) {
+					return query(sql, sql.contains(" IN (") ? parameters : null);
+				} else if (method.getName().equals("close")) {
+					return null;
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+	
+	private ResultSet query(String sql, List<String> tableNames) {
+		queryCount++;
+		String[] labels;
+		List<String[]> rows;
+		if (sql.contains("KEY_COLUMN_USAGE")) {
+			labels = new String[] {
+				"TABLE_NAME",
+				"CONSTRAINT_NAME",
+				"COLUMN_NAME",
+				"REFERENCED_TABLE_NAME",
+				"REFERENCED_COLUMN_NAME",
+				"UPDATE_RULE",
+				"DELETE_RULE"
+			};
+			rows = Lists.newArrayList(foreignKeys);
+		} else if (sql.contains("information_schema.COLUMNS")) {
+			boolean withEngine = sql.contains("JOIN");
+			labels = withEngine ? new String[] {
+				"TABLE_NAME",
+				"COLUMN_NAME",
+				"COLUMN_TYPE",
+				"IS_NULLABLE",
+				"COLUMN_DEFAULT",
+				"EXTRA",
+				"ENGINE"
+			} : new String[] {
+				"TABLE_NAME",
+				"COLUMN_NAME",
+				"COLUMN_TYPE",
+				"IS_NULLABLE",
+				"COLUMN_DEFAULT",
+				"EXTRA"
+			};
+			rows = allColumns(withEngine);
+		} else if (sql.contains("information_schema.STATISTICS")) {
+			labels = new String[] {
+				"TABLE_NAME",
+				"INDEX_NAME",
+				"NON_UNIQUE",
+				"COLUMN_NAME"
+			};
+			rows = Lists.newArrayList(statistics);
+		} else if (sql.contains("information_schema.VIEWS")) {
+			labels = new String[] {
+				"TABLE_NAME",
+				"VIEW_DEFINITION"
+			};
+			rows = Lists.newArrayList();
+		} else if (sql.contains("information_schema.TABLES") && sql.contains("TABLE_ROWS")) {
+			labels = new String[] {
+				"TABLE_NAME",
+				"ENGINE",
+				"ROW_FORMAT",
+				"TABLE_ROWS",
+				"AVG_ROW_LENGTH",
+				"DATA_LENGTH",
+				"INDEX_LENGTH",
+				"DATA_FREE",
+				"AUTO_INCREMENT",
+				"CREATE_TIME",
+				"UPDATE_TIME",
+				"TABLE_COLLATION"
+			};
+			rows = Lists.newArrayList();
+			for (String tableName : columns.keySet()) {
+				String engine = engines.get(tableName);
+				Long rowCount = tableRows.get(tableName);
+				rows.add(new String[] {
+					tableName,
+					engine == null ? "InnoDB" : engine,
+					"Compact",
+					rowCount == null ? null : rowCount.toString(),
+					null,
+					null,
+					null,
+					null,
+					null,
+					null,
+					null,
+					"utf8_general_ci"
+				});
+			}
+		} else if (sql.contains("information_schema.TABLES")) {
+			labels = new String[] {
+				"TABLE_NAME",
+				"TABLE_TYPE",
+				"CREATE_TIME",
+				"TABLE_COLLATION"
+			};
+			rows = Lists.newArrayList();
+			for (String tableName : columns.keySet()) {
+				rows.add(new String[] {
+					tableName,
+					"BASE TABLE",
+					"2012-11-20 12:00:00",
+					"utf8_general_ci"
+				});
+			}
+		} else {
+			throw new UnsupportedOperationException(sql);
+		}
+		if (tableNames != null) {
+			for (Iterator<String[]> itr = rows.iterator(); itr.hasNext();) {
+				if (tableNames.contains(itr.next()[0]) == false) {
+					itr.remove();
+				}
+			}
+		}
+		return newResultSet(labels, rows);
+	}
+	
+	private ResultSet newResultSet(final String[] labels, final List<String[]> rows) {
+		final Iterator<String[]> iterator = rows.iterator();
+		final List<String> labelList = Lists.newArrayList(labels);
+		final ResultSetMetaData metaData = (ResultSetMetaData) newProxy(ResultSetMetaData.class,
+				new InvocationHandler() {
+					
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getColumnCount")) {
+							return labels.length;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+		return (ResultSet) newProxy(ResultSet.class, new InvocationHandler() {
+			
+			private String[] current;
+			
+			private boolean wasNull;
+			
+			
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if (name.equals("next")) {
+					current = iterator.hasNext() ? iterator.next() : null;
+					return current != null;
+				} else if (name.equals("getString") || name.equals("getInt") || name.equals("getLong")
+						|| name.equals("getTimestamp")) {
+					int index = args[0] instanceof Integer ? (Integer) args[0] - 1 : labelList.indexOf(args[0]);
+					String value = current[index];
+					wasNull = value == null;
+					if (name.equals("getInt")) {
+						return wasNull ? 0 : Integer.valueOf(value);
+					} else if (name.equals("getLong")) {
+						return wasNull ? 0L : Long.valueOf(value);
+					} else if (name.equals("getTimestamp")) {
+						return wasNull ? null : Timestamp.valueOf(value);
+					}
+					return value;
+				} else if (name.equals("wasNull")) {
+					return wasNull;
+				} else if (name.equals("getMetaData")) {
+					return metaData;
+				} else if (name.equals("close")) {
+					return null;
+				}
+				throw new UnsupportedOperationException(name);
+			}
+		});
+	}
+}
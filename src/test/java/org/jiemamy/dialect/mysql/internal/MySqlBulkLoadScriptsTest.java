@@ -0,0 +1,125 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import org.jiemamy.model.sql.Keyword;
+import org.jiemamy.model.sql.Literal;
+import org.jiemamy.model.sql.Separator;
+import org.jiemamy.model.sql.SimpleSqlStatement;
+import org.jiemamy.model.sql.SqlStatement;
+import org.jiemamy.model.sql.Token;
+
+/**
+ * {@link MySqlBulkLoadScripts}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlBulkLoadScriptsTest {
+	
+	/**
+	 * 二次インデックスと外部キーはデータ投入後にテーブル毎にまとめて追加される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_二次インデックスと外部キーはデータ投入後にテーブル毎にまとめて追加される() throws Exception {
+		// FORMAT-OFF
+		List<SqlStatement> statements = Arrays.asList(
+				sql("CREATE TABLE `T_DEPT` ( `ID` INTEGER , PRIMARY KEY ( `ID` ) ) ;"),
+				sql("CREATE TABLE `T_EMP` ( `ID` INTEGER , `DEPT_ID` INTEGER , `NAME` VARCHAR ( 32 ) , "
+						+ "PRIMARY KEY ( `ID` ) , UNIQUE KEY `UQ_NAME` ( `NAME` ) ) ;"),
+				sql("CREATE INDEX `IDX_DEPT` ON `T_EMP` ( `DEPT_ID` ) ;"),
+				sql("ALTER TABLE `T_EMP` ADD CONSTRAINT `FK_DEPT` FOREIGN KEY ( `DEPT_ID` ) "
+						+ "REFERENCES `T_DEPT` ( `ID` ) ;"),
+				sql("INSERT INTO `T_DEPT` VALUES ( 1 ) ;"),
+				sql("INSERT INTO `T_EMP` VALUES ( 1 , 1 , 1 ) ;"));
+		
+		List<SqlStatement> expected = Arrays.asList(
+				sql("SET @OLD_FOREIGN_KEY_CHECKS = @@FOREIGN_KEY_CHECKS , FOREIGN_KEY_CHECKS = 0 ;"),
+				sql("SET @OLD_UNIQUE_CHECKS = @@UNIQUE_CHECKS , UNIQUE_CHECKS = 0 ;"),
+				statements.get(0),
+				sql("CREATE TABLE `T_EMP` ( `ID` INTEGER , `DEPT_ID` INTEGER , `NAME` VARCHAR ( 32 ) , "
+						+ "PRIMARY KEY ( `ID` ) ) ;"),
+				statements.get(4),
+				statements.get(5),
+				sql("ALTER TABLE `T_EMP` ADD UNIQUE KEY `UQ_NAME` ( `NAME` ) , ADD INDEX `IDX_DEPT` ( `DEPT_ID` ) , "
+						+ "ADD CONSTRAINT `FK_DEPT` FOREIGN KEY ( `DEPT_ID` ) REFERENCES `T_DEPT` ( `ID` ) ;"),
+				sql("SET UNIQUE_CHECKS = @OLD_UNIQUE_CHECKS ;"),
+				sql("SET FOREIGN_KEY_CHECKS = @OLD_FOREIGN_KEY_CHECKS ;"));
+		// FORMAT-ON
+		
+		assertStatements(MySqlBulkLoadScripts.reorder(statements, false), expected);
+	}
+	
+	/**
+	 * バイナリログを止める指定をするとSQL_LOG_BINも設定される。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_バイナリログを止める指定をするとSQL_LOG_BINも設定される() throws Exception {
+		List<SqlStatement> reordered = MySqlBulkLoadScripts.reorder(Lists.<SqlStatement> newArrayList(), true);
+		assertThat(reordered.size(), is(6));
+		assertThat(reordered.get(2).toString(), is(sql("SET @OLD_SQL_LOG_BIN = @@SQL_LOG_BIN , SQL_LOG_BIN = 0 ;")
+			.toString()));
+		assertThat(reordered.get(3).toString(), is(sql("SET SQL_LOG_BIN = @OLD_SQL_LOG_BIN ;").toString()));
+	}
+	
+	private void assertStatements(List<SqlStatement> actual, List<SqlStatement> expected) {
+		assertThat(actual.size(), is(expected.size()));
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(actual.get(i).toString(), is(expected.get(i).toString()));
+		}
+	}
+	
+	private SqlStatement sql(String sql) {
+		List<Token> tokens = Lists.newArrayList();
+		for (String part : sql.split(" ")) {
+			if (part.equals("(")) {
+				tokens.add(Separator.LEFT_PAREN);
+			} else if (part.equals(")")) {
+				tokens.add(Separator.RIGHT_PAREN);
+			} else if (part.equals(",")) {
+				tokens.add(Separator.COMMA);
+			} else if (part.equals(";")) {
+				tokens.add(Separator.SEMICOLON);
+			} else if (part.equals("=")) {
+				tokens.add(Separator.EQUAL);
+			} else if (part.startsWith("`")) {
+				tokens.add(MySqlIdentifier.of(part.substring(1, part.length() - 1)));
+			} else if (Character.isDigit(part.charAt(0))) {
+				tokens.add(Literal.of(Integer.valueOf(part)));
+			} else {
+				tokens.add(Keyword.of(part));
+			}
+		}
+		return new SimpleSqlStatement(tokens);
+	}
+}
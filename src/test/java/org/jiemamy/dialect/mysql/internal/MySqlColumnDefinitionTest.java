@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.column.JmColumn;
+import org.jiemamy.model.datatype.DataType;
+import org.jiemamy.model.datatype.RawTypeDescriptor;
+import org.jiemamy.model.datatype.TypeParameterKey;
+
+/**
+ * {@link MySqlColumnDefinition}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlColumnDefinitionTest {
+	
+	/**
+	 * 長さと{@code unsigned}を含む{@code COLUMN_TYPE}を解析できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_長さとunsignedを含むCOLUMN_TYPEを解析できる() throws Exception {
+		MySqlColumnDefinition column = new MySqlColumnDefinition("ID");
+		column.setColumnType("int(10) unsigned");
+		
+		assertThat(column.getTypeName(), is("INT"));
+		assertThat(column.getSize(), is(10));
+		assertThat(column.isUnsigned(), is(true));
+		
+		column.setColumnType("VARCHAR(64)");
+		assertThat(column.getTypeName(), is("VARCHAR"));
+		assertThat(column.getSize(), is(64));
+		assertThat(column.isUnsigned(), is(false));
+		
+		column.setColumnType("bigint unsigned zerofill");
+		assertThat(column.getTypeName(), is("BIGINT"));
+		assertThat(column.isUnsigned(), is(true));
+	}
+	
+	/**
+	 * 精度と位取りを含む{@code COLUMN_TYPE}を解析できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_精度と位取りを含むCOLUMN_TYPEを解析できる() throws Exception {
+		MySqlColumnDefinition column = new MySqlColumnDefinition("PRICE");
+		column.setColumnType("decimal(10,2)");
+		
+		assertThat(column.getTypeName(), is("DECIMAL"));
+		assertThat(column.getPrecision(), is(10));
+		assertThat(column.getScale(), is(2));
+		
+		JmColumn jmColumn = column.toJmColumn();
+		DataType dataType = jmColumn.getDataType();
+		assertThat(dataType.getRawTypeDescriptor().getTypeName(), is("DECIMAL"));
+		assertThat(dataType.getParam(TypeParameterKey.PRECISION), is(10));
+		assertThat(dataType.getParam(TypeParameterKey.SCALE), is(2));
+		assertThat(dataType.getParam(TypeParameterKey.SIZE), is(nullValue()));
+	}
+	
+	/**
+	 * {@code ENUM}の値リストはパラメータとして扱わない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_ENUMの値リストはパラメータとして扱わない() throws Exception {
+		MySqlColumnDefinition column = new MySqlColumnDefinition("STATUS");
+		column.setColumnType("enum('a','b,c')");
+		
+		assertThat(column.getTypeName(), is("ENUM"));
+		assertThat(column.getSize(), is(nullValue()));
+		assertThat(column.getPrecision(), is(nullValue()));
+		assertThat(column.getScale(), is(nullValue()));
+	}
+	
+	/**
+	 * 生のデフォルト値は文字列型の場合のみ引用符で囲む。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_生のデフォルト値は文字列型の場合のみ引用符で囲む() throws Exception {
+		MySqlColumnDefinition name = new MySqlColumnDefinition("NAME");
+		name.setColumnType("varchar(32)");
+		name.setRawDefaultValue("it's");
+		assertThat(name.getDefaultValue(), is("'it''s'"));
+		
+		MySqlColumnDefinition count = new MySqlColumnDefinition("COUNT");
+		count.setColumnType("int(11)");
+		count.setRawDefaultValue("0");
+		assertThat(count.getDefaultValue(), is("0"));
+		
+		MySqlColumnDefinition created = new MySqlColumnDefinition("CREATED");
+		created.setColumnType("timestamp");
+		created.setRawDefaultValue("CURRENT_TIMESTAMP");
+		assertThat(created.getDefaultValue(), is("CURRENT_TIMESTAMP"));
+	}
+	
+	/**
+	 * {@link JmColumn}に変換できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test05_JmColumnに変換できる() throws Exception {
+		MySqlColumnDefinition column = new MySqlColumnDefinition("ID");
+		column.setColumnType("int(10) unsigned");
+		column.setNotNull(true);
+		column.setAutoIncrement(true);
+		
+		JmColumn jmColumn = column.toJmColumn();
+		assertThat(jmColumn.getName(), is("ID"));
+		assertThat(jmColumn.isNotNull(), is(true));
+		assertThat(jmColumn.getDataType().getParam(TypeParameterKey.SIZE), is(10));
+		assertThat(jmColumn.getDataType().getParam(MySqlParameterKeys.UNSIGNED), is(true));
+		assertThat(jmColumn.getDataType().getParam(TypeParameterKey.SERIAL), is(true));
+	}
+	
+	/**
+	 * 型名は与えた型の一覧で解決する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test06_型名は与えた型の一覧で解決する() throws Exception {
+		MySqlColumnDefinition column57 = new MySqlColumnDefinition("DOC", MySqlTypeCatalog.MYSQL_5_7);
+		column57.setColumnType("json");
+		assertThat(column57.toJmColumn().getDataType().getRawTypeDescriptor(),
+				is(sameInstance(MySqlTypeCatalog.MYSQL_5_7.find("JSON"))));
+		
+		MySqlColumnDefinition column50 = new MySqlColumnDefinition("DOC", MySqlTypeCatalog.MYSQL_5_0);
+		column50.setColumnType("json");
+		RawTypeDescriptor descriptor = column50.toJmColumn().getDataType().getRawTypeDescriptor();
+		assertThat(descriptor, is(not(sameInstance(MySqlTypeCatalog.MYSQL_5_7.find("JSON")))));
+		assertThat(descriptor.getTypeName(), is("JSON"));
+	}
+}
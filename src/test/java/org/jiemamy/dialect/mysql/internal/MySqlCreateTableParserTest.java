@@ -0,0 +1,175 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.jiemamy.model.constraint.JmUniqueKeyConstraint;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * {@link MySqlCreateTableParser}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlCreateTableParserTest {
+	
+	private MySqlCreateTableParser parser;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		parser = new MySqlCreateTableParser();
+	}
+	
+	/**
+	 * SHOW CREATE TABLE の出力からカラム・キー・ENGINE・文字セットを読み取れる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_SHOW_CREATE_TABLEの出力を解析できる() throws Exception {
+		// FORMAT-OFF
+		MySqlTableDefinition table = parser.parse("CREATE TABLE `T_ORDER` (\n"
+				+ "  `ID` int(10) unsigned NOT NULL AUTO_INCREMENT,\n"
+				+ "  `NAME` varchar(32) CHARACTER SET utf8 DEFAULT 'it''s' COMMENT 'name',\n"
+				+ "  `PRICE` decimal(10,2) DEFAULT NULL,\n"
+				+ "  `CREATED` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,\n"
+				+ "  `CUSTOMER_ID` bigint(20) NOT NULL,\n"
+				+ "  PRIMARY KEY (`ID`),\n"
+				+ "  UNIQUE KEY `UK_NAME` (`NAME`(10)),\n"
+				+ "  KEY `IDX_CUSTOMER` (`CUSTOMER_ID`) USING BTREE,\n"
+				+ "  CONSTRAINT `FK_CUSTOMER` FOREIGN KEY (`CUSTOMER_ID`) REFERENCES `T_CUSTOMER` (`ID`)"
+				+ " ON DELETE CASCADE ON UPDATE NO ACTION\n"
+				+ ") ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=latin1 COMMENT='orders'");
+		// FORMAT-ON
+		
+		assertThat(table.getName(), is("T_ORDER"));
+		assertThat(table.getEngine(), is("InnoDB"));
+		assertThat(table.getCharset(), is("latin1"));
+		assertThat(table.getColumns().size(), is(5));
+		
+		MySqlColumnDefinition id = table.getColumn("ID");
+		assertThat(id.getTypeName(), is("INT"));
+		assertThat(id.getSize(), is(10));
+		assertThat(id.isUnsigned(), is(true));
+		assertThat(id.isAutoIncrement(), is(true));
+		assertThat(id.isNotNull(), is(true));
+		
+		MySqlColumnDefinition name = table.getColumn("NAME");
+		assertThat(name.getCharset(), is("utf8"));
+		assertThat(name.getDefaultValue(), is("'it''s'"));
+		assertThat(name.isNotNull(), is(false));
+		
+		MySqlColumnDefinition price = table.getColumn("PRICE");
+		assertThat(price.getPrecision(), is(10));
+		assertThat(price.getScale(), is(2));
+		assertThat(price.getDefaultValue(), is(nullValue()));
+		
+		assertThat(table.getColumn("CREATED").getDefaultValue(), is("CURRENT_TIMESTAMP"));
+		
+		assertThat(table.getPrimaryKeyColumnNames(), is(Arrays.asList("ID")));
+		assertThat(table.getIndex("UK_NAME").isUnique(), is(true));
+		assertThat(table.getIndex("UK_NAME").getColumnNames(), is(Arrays.asList("NAME")));
+		assertThat(table.getIndex("IDX_CUSTOMER").isUnique(), is(false));
+		
+		MySqlForeignKeyDefinition foreignKey = table.getForeignKey("FK_CUSTOMER");
+		assertThat(foreignKey.getReferencedTableName(), is("T_CUSTOMER"));
+		assertThat(foreignKey.getColumnNames(), is(Arrays.asList("CUSTOMER_ID")));
+		assertThat(foreignKey.getReferencedColumnNames(), is(Arrays.asList("ID")));
+		assertThat(foreignKey.getOnDelete(), is("CASCADE"));
+		assertThat(foreignKey.getOnUpdate(), is("NO ACTION"));
+	}
+	
+	/**
+	 * mysqldump形式のコメントや修飾子を含む文を解析できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_mysqldump形式の文を解析できる() throws Exception {
+		// FORMAT-OFF
+		MySqlTableDefinition table = parser.parse("-- comment\n"
+				+ "CREATE TABLE IF NOT EXISTS `db`.`t_tag` (\n"
+				+ "  `kind` enum('a','b,c') NOT NULL DEFAULT 'a', /* inline */\n"
+				+ "  `flags` bit(1) DEFAULT b'0',\n"
+				+ "  UNIQUE KEY (`kind`)\n"
+				+ ") /*!50100 ENGINE=MyISAM */ DEFAULT CHARACTER SET utf8;");
+		// FORMAT-ON
+		
+		assertThat(table.getName(), is("t_tag"));
+		assertThat(table.getEngine(), is("MyISAM"));
+		assertThat(table.getCharset(), is("utf8"));
+		assertThat(table.getColumn("kind").getTypeName(), is("ENUM"));
+		assertThat(table.getColumn("kind").getDefaultValue(), is("'a'"));
+		assertThat(table.getColumn("flags").getDefaultValue(), is("b'0'"));
+		assertThat(table.getIndex("kind").isUnique(), is(true));
+	}
+	
+	/**
+	 * {@link JmTable}に変換したUNIQUEキーはインデックス名を持つ。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test04_変換したUNIQUEキーはインデックス名を持つ() throws Exception {
+		// FORMAT-OFF
+		MySqlTableDefinition definition = parser.parse("CREATE TABLE `T_USER` (\n"
+				+ "  `TENANT_ID` int(11) NOT NULL,\n"
+				+ "  `EMAIL` varchar(255) NOT NULL,\n"
+				+ "  `CODE` varchar(8) NOT NULL,\n"
+				+ "  UNIQUE KEY `uk_tenant_email` (`TENANT_ID`,`EMAIL`),\n"
+				+ "  UNIQUE KEY (`CODE`)\n"
+				+ ") ENGINE=InnoDB");
+		// FORMAT-ON
+		
+		JmTable table = definition.toJmTable();
+		List<String> names = Lists.newArrayList();
+		for (JmUniqueKeyConstraint uniqueKey : table.getConstraints(JmUniqueKeyConstraint.class)) {
+			names.add(uniqueKey.getName());
+		}
+		assertThat(names, is((List<String>) Lists.newArrayList("uk_tenant_email", "CODE")));
+	}
+	
+	/**
+	 * CREATE TABLE 文でない場合は例外が発生する。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void test03_CREATE_TABLE文でない場合は例外() throws Exception {
+		parser.parse("CREATE VIEW `v` AS SELECT 1");
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+
+/**
+ * {@link MySqlIdentifierScanner}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIdentifierScannerTest {
+	
+	/**
+	 * 引用符なしの識別子を検査できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_引用符なしの識別子を検査できる() throws Exception {
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("T_FOO"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("price$usd"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("1st_column"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("社員"), is(true));
+		
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("T-FOO"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("T FOO"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("12345"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted("\uD83D\uDE00"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted(""), is(false));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted(null), is(false));
+	}
+	
+	/**
+	 * 引用符付きの識別子を検査できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_引用符付きの識別子を検査できる() throws Exception {
+		assertThat(MySqlIdentifierScanner.isValidQuoted("T-FOO"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidQuoted("T FOO"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidQuoted("12345"), is(true));
+		assertThat(MySqlIdentifierScanner.isValidQuoted("a`b"), is(true));
+		
+		assertThat(MySqlIdentifierScanner.isValidQuoted("T_FOO "), is(false));
+		assertThat(MySqlIdentifierScanner.isValidQuoted("T\u0000FOO"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidQuoted("\uD83D\uDE00"), is(false));
+		assertThat(MySqlIdentifierScanner.isValidQuoted(""), is(false));
+		assertThat(MySqlIdentifierScanner.isValidQuoted(null), is(false));
+	}
+	
+	/**
+	 * 識別子は64文字まで。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_識別子は64文字まで() throws Exception {
+		assertThat(MySqlIdentifierScanner.isValidUnquoted(StringUtils.repeat("a", 64)), is(true));
+		assertThat(MySqlIdentifierScanner.isValidUnquoted(StringUtils.repeat("a", 65)), is(false));
+		assertThat(MySqlIdentifierScanner.isValidQuoted(StringUtils.repeat("a", 64)), is(true));
+		assertThat(MySqlIdentifierScanner.isValidQuoted(StringUtils.repeat("a", 65)), is(false));
+	}
+}
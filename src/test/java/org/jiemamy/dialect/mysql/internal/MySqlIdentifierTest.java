@@ -0,0 +1,66 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * {@link MySqlIdentifier}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlIdentifierTest {
+	
+	/**
+	 * 識別子はバッククォートで囲まれる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_識別子はバッククォートで囲まれる() throws Exception {
+		assertThat(MySqlIdentifier.of("T_FOO").toString(), is("`T_FOO`"));
+	}
+	
+	/**
+	 * 識別子中のバッククォートはエスケープされる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_識別子中のバッククォートはエスケープされる() throws Exception {
+		assertThat(MySqlIdentifier.of("T`FOO").toString(), is("`T``FOO`"));
+		assertThat(MySqlIdentifier.quote("``"), is("``````"));
+	}
+	
+	/**
+	 * 引用済みの文字列は毎回組み立て直されない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_引用済みの文字列は毎回組み立て直されない() throws Exception {
+		MySqlIdentifier identifier = MySqlIdentifier.of("T_FOO");
+		assertThat(identifier.toString(), is(sameInstance(identifier.toString())));
+	}
+}
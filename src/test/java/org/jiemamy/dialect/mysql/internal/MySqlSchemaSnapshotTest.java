@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import com.google.common.collect.Iterables;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link MySqlSchemaSnapshot}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlSchemaSnapshotTest {
+	
+	private FakeInformationSchema schema;
+	
+	
+	/**
+	 * テストを初期化する。
+	 * 
+	 * <p>{@code T_EMP.DEPT_ID}が{@code T_DEPT.ID}を参照するスキーマを用意する。</p>
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Before
+	public void setUp() throws Exception {
+		schema = new FakeInformationSchema();
+		schema.addColumn("T_DEPT", "ID", "int(11)", false, null, "auto_increment");
+		schema.addColumn("T_DEPT", "NAME", "varchar(64)", true, "none", "");
+		schema.addPrimaryKey("T_DEPT", "ID");
+		schema.addIndex("T_DEPT", "UK_DEPT_NAME", true, "NAME");
+		schema.addColumn("T_EMP", "ID", "bigint(20)");
+		schema.addColumn("T_EMP", "DEPT_ID", "int(11)");
+		schema.addPrimaryKey("T_EMP", "ID");
+		schema.addIndex("T_EMP", "IDX_EMP_DEPT", false, "DEPT_ID");
+		schema.addForeignKey("T_EMP", "FK_EMP_DEPT", "DEPT_ID", "T_DEPT", "ID", "CASCADE");
+		schema.setEngine("T_EMP", "MyISAM");
+	}
+	
+	/**
+	 * カラム・主キー・インデックス・ENGINEを読み込める。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_カラムと主キーとインデックスとENGINEを読み込める() throws Exception {
+		MySqlSchemaSnapshot snapshot = MySqlSchemaSnapshot.load(schema.connect());
+		
+		assertThat(snapshot.getTables().size(), is(2));
+		assertThat(schema.getQueryCount(), is(3));
+		
+		MySqlTableDefinition dept = snapshot.getTable("T_DEPT");
+		assertThat(dept.getEngine(), is("InnoDB"));
+		assertThat(dept.getColumns().size(), is(2));
+		assertThat(dept.getColumn("ID").getTypeName(), is("INT"));
+		assertThat(dept.getColumn("ID").isNotNull(), is(true));
+		assertThat(dept.getColumn("ID").isAutoIncrement(), is(true));
+		assertThat(dept.getColumn("NAME").isNotNull(), is(false));
+		assertThat(dept.getColumn("NAME").getDefaultValue(), is("'none'"));
+		assertThat(dept.getPrimaryKeyColumnNames(), is(Arrays.asList("ID")));
+		assertThat(dept.getIndex("UK_DEPT_NAME").isUnique(), is(true));
+		assertThat(dept.getIndex("UK_DEPT_NAME").getColumnNames(), is(Arrays.asList("NAME")));
+		
+		MySqlTableDefinition emp = snapshot.getTable("T_EMP");
+		assertThat(emp.getEngine(), is("MyISAM"));
+		assertThat(emp.getIndex("IDX_EMP_DEPT").isUnique(), is(false));
+	}
+	
+	/**
+	 * 外部キーを参照元テーブルごとに取得できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_外部キーを参照元テーブルごとに取得できる() throws Exception {
+		MySqlSchemaSnapshot snapshot = MySqlSchemaSnapshot.load(schema.connect());
+		
+		Map<String, Collection<MySqlForeignKeyDefinition>> foreignKeys = snapshot.getForeignKeys();
+		assertThat(foreignKeys.keySet(), is(Collections.singleton("T_EMP")));
+		
+		MySqlForeignKeyDefinition foreignKey = Iterables.getOnlyElement(foreignKeys.get("T_EMP"));
+		assertThat(foreignKey.getName(), is("FK_EMP_DEPT"));
+		assertThat(foreignKey.getReferencedTableName(), is("T_DEPT"));
+		assertThat(foreignKey.getColumnNames(), is(Arrays.asList("DEPT_ID")));
+		assertThat(foreignKey.getReferencedColumnNames(), is(Arrays.asList("ID")));
+		assertThat(foreignKey.getOnDelete(), is("CASCADE"));
+		assertThat(foreignKey.getOnUpdate(), is("NO ACTION"));
+	}
+	
+	/**
+	 * 指定したテーブルのみを読み込める。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_指定したテーブルのみを読み込める() throws Exception {
+		MySqlSchemaSnapshot snapshot = MySqlSchemaSnapshot.load(schema.connect(), Collections.singleton("T_DEPT"));
+		
+		assertThat(snapshot.getTables().size(), is(1));
+		assertThat(snapshot.getTable("T_EMP"), is(nullValue()));
+		assertThat(snapshot.getForeignKeys().isEmpty(), is(true));
+		
+		MySqlSchemaSnapshot empty = MySqlSchemaSnapshot.load(schema.connect(), Collections.<String> emptySet());
+		assertThat(empty.getTables().isEmpty(), is(true));
+		assertThat(schema.getQueryCount(), is(3));
+	}
+}
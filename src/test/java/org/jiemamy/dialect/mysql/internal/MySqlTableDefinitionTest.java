@@ -0,0 +1,100 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Iterables;
+
+import org.junit.Test;
+
+import org.jiemamy.model.constraint.JmForeignKeyConstraint;
+import org.jiemamy.model.constraint.JmPrimaryKeyConstraint;
+import org.jiemamy.model.constraint.JmUniqueKeyConstraint;
+import org.jiemamy.model.table.JmTable;
+
+/**
+ * {@link MySqlTableDefinition}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlTableDefinitionTest {
+	
+	/**
+	 * カラム・主キー・UNIQUEキーを{@link JmTable}に変換できる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_カラムと主キーとUNIQUEキーをJmTableに変換できる() throws Exception {
+		MySqlTableDefinition definition = new MySqlTableDefinition("T_DEPT");
+		definition.addColumn(column("ID", "int(11)"));
+		definition.addColumn(column("CODE", "char(4)"));
+		definition.addColumn(column("NAME", "varchar(64)"));
+		definition.getPrimaryKeyColumnNames().add("ID");
+		MySqlIndexDefinition uniqueKey = new MySqlIndexDefinition("UK_DEPT_CODE", true);
+		uniqueKey.getColumnNames().add("CODE");
+		definition.addIndex(uniqueKey);
+		MySqlIndexDefinition index = new MySqlIndexDefinition("IDX_DEPT_NAME", false);
+		index.getColumnNames().add("NAME");
+		definition.addIndex(index);
+		
+		JmTable table = definition.toJmTable();
+		assertThat(table.getName(), is("T_DEPT"));
+		assertThat(table.getColumns().size(), is(3));
+		assertThat(table.getColumns().get(1).getName(), is("CODE"));
+		
+		JmPrimaryKeyConstraint primaryKey = table.getPrimaryKey();
+		assertThat(primaryKey.getKeyColumns().size(), is(1));
+		assertThat(primaryKey.getKeyColumns().get(0).getReferentId(), is(table.getColumn("ID").getId()));
+		
+		// UNIQUEでないインデックスは制約に変換しない
+		JmUniqueKeyConstraint unique = Iterables.getOnlyElement(table.getConstraints(JmUniqueKeyConstraint.class));
+		assertThat(unique.getName(), is("UK_DEPT_CODE"));
+		assertThat(unique.getKeyColumns().get(0).getReferentId(), is(table.getColumn("CODE").getId()));
+	}
+	
+	/**
+	 * 主キーがない場合は主キー制約を追加しない。外部キーは変換しない。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_主キーがない場合は主キー制約を追加しない() throws Exception {
+		MySqlTableDefinition definition = new MySqlTableDefinition("T_LOG");
+		definition.addColumn(column("DEPT_ID", "int(11)"));
+		MySqlForeignKeyDefinition foreignKey = new MySqlForeignKeyDefinition("FK_LOG_DEPT", "T_DEPT");
+		foreignKey.getColumnNames().add("DEPT_ID");
+		foreignKey.getReferencedColumnNames().add("ID");
+		definition.addForeignKey(foreignKey);
+		
+		JmTable table = definition.toJmTable();
+		assertThat(table.getPrimaryKey(), is(nullValue()));
+		assertThat(table.getConstraints(JmForeignKeyConstraint.class).isEmpty(), is(true));
+	}
+	
+	private MySqlColumnDefinition column(String name, String columnType) {
+		MySqlColumnDefinition column = new MySqlColumnDefinition(name);
+		column.setColumnType(columnType);
+		return column;
+	}
+}
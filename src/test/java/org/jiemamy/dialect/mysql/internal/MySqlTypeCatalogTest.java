@@ -0,0 +1,88 @@
+/*
+ * Copyright 2007-2012 Jiemamy Project and the Others.
+ * Created on 2026/10/18
+ *
+ * This file is part of Jiemamy.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.dialect.mysql.internal;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import org.jiemamy.dialect.Necessity;
+import org.jiemamy.dialect.mysql.parameter.MySqlParameterKeys;
+import org.jiemamy.model.datatype.RawTypeCategory;
+import org.jiemamy.model.datatype.TypeParameterKey;
+
+/**
+ * {@link MySqlTypeCatalog}のテストクラス。
+ * 
+ * @version $Id$
+ * @author daisuke
+ */
+public class MySqlTypeCatalogTest {
+	
+	/**
+	 * 型名と別名から大文字小文字を区別せずに型を引ける。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test01_型名と別名から大文字小文字を区別せずに型を引ける() throws Exception {
+		MySqlTypeCatalog catalog = MySqlTypeCatalog.MYSQL_5_0;
+		assertThat(catalog.find("int"), is(sameInstance(catalog.find("INTEGER"))));
+		assertThat(catalog.find("Dec"), is(sameInstance(catalog.find("DECIMAL"))));
+		assertThat(catalog.find("datetime").getCategory(), is(RawTypeCategory.TIMESTAMP));
+		assertThat(catalog.find("TinyText").getCategory(), is(RawTypeCategory.CLOB));
+		assertThat(catalog.find("GEOMETRY").getCategory(), is(RawTypeCategory.OTHER));
+		assertThat(catalog.contains("varchar"), is(true));
+		assertThat(catalog.contains("GEOMETRY"), is(false));
+		assertThat(catalog.contains(null), is(false));
+	}
+	
+	/**
+	 * 型パラメータの要否を引ける。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test02_型パラメータの要否を引ける() throws Exception {
+		MySqlTypeCatalog catalog = MySqlTypeCatalog.MYSQL_5_0;
+		assertThat(catalog.getNecessity("INT", TypeParameterKey.SERIAL), is(Necessity.OPTIONAL));
+		assertThat(catalog.getNecessity("int", MySqlParameterKeys.UNSIGNED), is(Necessity.OPTIONAL));
+		assertThat(catalog.getNecessity("DECIMAL", TypeParameterKey.PRECISION), is(Necessity.REQUIRED));
+		assertThat(catalog.getNecessity("VARCHAR", TypeParameterKey.SIZE), is(Necessity.REQUIRED));
+		assertThat(catalog.getNecessity("VARCHAR", TypeParameterKey.SERIAL), is(nullValue()));
+		assertThat(catalog.getNecessity("TEXT", TypeParameterKey.SIZE), is(nullValue()));
+		assertThat(catalog.getNecessity("GEOMETRY", TypeParameterKey.SIZE), is(nullValue()));
+	}
+	
+	/**
+	 * JSON型は5.7以降の型にのみ含まれる。
+	 * 
+	 * @throws Exception 例外が発生した場合
+	 */
+	@Test
+	public void test03_JSON型は5_7以降の型にのみ含まれる() throws Exception {
+		assertThat(MySqlTypeCatalog.MYSQL_5_0.contains("json"), is(false));
+		assertThat(MySqlTypeCatalog.MYSQL_5_7.contains("json"), is(true));
+		assertThat(MySqlTypeCatalog.MYSQL_5_0.getEntries().size(), is(30));
+		assertThat(MySqlTypeCatalog.MYSQL_5_7.getEntries().size(), is(31));
+	}
+}
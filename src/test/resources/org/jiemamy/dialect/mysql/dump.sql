@@ -0,0 +1,84 @@
+-- MySQL dump 10.13  Distrib 5.5.28, for Linux (x86_64)
+--
+-- Host: localhost    Database: sample
+-- ------------------------------------------------------
+-- Server version	5.5.28
+
+/*!40101 SET @OLD_CHARACTER_SET_CLIENT=@@CHARACTER_SET_CLIENT */;
+/*!40101 SET NAMES utf8 */;
+/*!40014 SET @OLD_FOREIGN_KEY_CHECKS=@@FOREIGN_KEY_CHECKS, FOREIGN_KEY_CHECKS=0 */;
+
+--
+-- Table structure for table `T_DEPT`
+--
+
+DROP TABLE IF EXISTS `T_DEPT`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!40101 SET character_set_client = utf8 */;
+CREATE TABLE `T_DEPT` (
+  `ID` int(11) NOT NULL AUTO_INCREMENT,
+  `NAME` varchar(64) NOT NULL DEFAULT '',
+  PRIMARY KEY (`ID`),
+  UNIQUE KEY `UK_DEPT_NAME` (`NAME`)
+) ENGINE=InnoDB AUTO_INCREMENT=3 DEFAULT CHARSET=utf8;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `T_DEPT`
+--
+
+LOCK TABLES `T_DEPT` WRITE;
+/*!40000 ALTER TABLE `T_DEPT` DISABLE KEYS */;
+INSERT INTO `T_DEPT` VALUES (1,'CREATE TABLE `FAKE` (`X` int);'),(2,'it''s; a \'test\'');
+/*!40000 ALTER TABLE `T_DEPT` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `T_EMP`
+--
+
+DROP TABLE IF EXISTS `T_EMP`;
+CREATE TABLE `T_EMP` (
+  `ID` bigint(20) unsigned NOT NULL,
+  `DEPT_ID` int(11) DEFAULT NULL,
+  `SALARY` decimal(10,2) DEFAULT '0.00',
+  PRIMARY KEY (`ID`),
+  KEY `FK_EMP_DEPT` (`DEPT_ID`),
+  CONSTRAINT `FK_EMP_DEPT` FOREIGN KEY (`DEPT_ID`) REFERENCES `T_DEPT` (`ID`)
+) ENGINE=MyISAM DEFAULT CHARSET=latin1;
+
+--
+-- Temporary table structure for view `V_EMP`
+--
+
+DROP TABLE IF EXISTS `V_EMP`;
+/*!50001 DROP VIEW IF EXISTS `V_EMP`*/;
+SET @saved_cs_client     = @@character_set_client;
+SET character_set_client = utf8;
+/*!50001 CREATE TABLE `V_EMP` (
+  `ID` bigint(20) unsigned
+) ENGINE=MyISAM */;
+SET character_set_client = @saved_cs_client;
+
+DELIMITER ;;
+/*!50003 CREATE*/ /*!50020 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `TR_EMP` BEFORE INSERT ON `T_EMP`
+FOR EACH ROW BEGIN
+  SET NEW.SALARY = 0;
+END */;;
+DELIMITER ;
+
+--
+-- Final view structure for view `V_EMP`
+--
+
+/*!50001 DROP TABLE IF EXISTS `V_EMP`*/;
+/*!50001 DROP VIEW IF EXISTS `V_EMP`*/;
+/*!50001 SET @saved_cs_client          = @@character_set_client */;
+/*!50001 CREATE ALGORITHM=UNDEFINED */
+/*!50013 DEFINER=`root`@`localhost` SQL SECURITY DEFINER */
+/*!50001 VIEW `V_EMP` AS select `T_EMP`.`ID` AS `ID` from `T_EMP` */;
+/*!50001 SET character_set_client      = @saved_cs_client */;
+
+/*!40014 SET FOREIGN_KEY_CHECKS=@OLD_FOREIGN_KEY_CHECKS */;
+
+-- Dump completed on 2012-11-20 12:00:00